@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2016 IBM Corporation and others.
+ * Copyright (c) 2004, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,12 +15,12 @@ package org.eclipse.core.commands;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.commands.common.HandleObjectManager;
 import org.eclipse.core.commands.common.NotDefinedException;
@@ -223,7 +223,7 @@ public final class CommandManager extends HandleObjectManager<Command>
 	 * <code>Category</code>). This collection may be empty, but it is never
 	 * <code>null</code>.
 	 */
-	private final Map<String, Category> categoriesById = new HashMap<>();
+	private final Map<String, Category> categoriesById = new ConcurrentHashMap<>();
 
 	/**
 	 * The set of identifiers for those categories that are defined. This value
@@ -270,7 +270,7 @@ public final class CommandManager extends HandleObjectManager<Command>
 	 *
 	 * @since 3.2
 	 */
-	private final Map<String, ParameterType> parameterTypesById = new HashMap<>();
+	private final Map<String, ParameterType> parameterTypesById = new ConcurrentHashMap<>();
 
 	/**
 	 * Adds a listener to this command manager. The listener will be notified
@@ -498,9 +498,11 @@ public final class CommandManager extends HandleObjectManager<Command>
 
 		Category category = categoriesById.get(categoryId);
 		if (category == null) {
-			category = new Category(categoryId);
-			categoriesById.put(categoryId, category);
-			category.addCategoryListener(this);
+			category = categoriesById.computeIfAbsent(categoryId, id -> {
+				Category newCategory = new Category(id);
+				newCategory.addCategoryListener(this);
+				return newCategory;
+			});
 		}
 
 		return category;
@@ -520,16 +522,20 @@ public final class CommandManager extends HandleObjectManager<Command>
 	public Command getCommand(final String commandId) {
 		checkId(commandId);
 
+		// Commands are looked up far more often than created, e.g. for each
+		// command executed by a macro, so the lookup must not lock
 		Command command = handleObjectsById.get(commandId);
 		if (command == null) {
-			command = new Command(commandId);
-			command.shouldFireEvents = shouldCommandFireEvents;
-			handleObjectsById.put(commandId, command);
-			command.addCommandListener(this);
+			command = handleObjectsById.computeIfAbsent(commandId, id -> {
+				Command newCommand = new Command(id);
+				newCommand.shouldFireEvents = shouldCommandFireEvents;
+				newCommand.addCommandListener(this);
 
-			if (executionListener != null) {
-				command.addExecutionListener(executionListener);
-			}
+				if (executionListener != null) {
+					newCommand.addExecutionListener(executionListener);
+				}
+				return newCommand;
+			});
 		}
 
 		return command;
@@ -741,9 +747,11 @@ public final class CommandManager extends HandleObjectManager<Command>
 
 		ParameterType parameterType = parameterTypesById.get(parameterTypeId);
 		if (parameterType == null) {
-			parameterType = new ParameterType(parameterTypeId);
-			parameterTypesById.put(parameterTypeId, parameterType);
-			parameterType.addListener(this);
+			parameterType = parameterTypesById.computeIfAbsent(parameterTypeId, id -> {
+				ParameterType newParameterType = new ParameterType(id);
+				newParameterType.addListener(this);
+				return newParameterType;
+			});
 		}
 
 		return parameterType;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,11 +15,11 @@
 
 package org.eclipse.core.commands.common;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>
@@ -46,8 +46,17 @@ public abstract class HandleObjectManager<T extends NamedHandleObject> extends E
 	 * The map of identifiers (<code>String</code>) to handle objects (
 	 * <code>HandleObject</code>). This collection may be empty, but it is
 	 * never <code>null</code>.
+	 * <p>
+	 * Since 3.12.200 this is a concurrent map, which can be read without
+	 * locking while handle objects are added. It does not accept
+	 * <code>null</code> keys or values, putting or looking up
+	 * <code>null</code> throws a <code>NullPointerException</code>. Subclasses
+	 * should create missing handle objects with
+	 * {@link Map#computeIfAbsent(Object, java.util.function.Function)}, so
+	 * that concurrent callers get the same object.
+	 * </p>
 	 */
-	protected final Map<String, T> handleObjectsById = new HashMap<>();
+	protected final Map<String, T> handleObjectsById = new ConcurrentHashMap<>();
 
 	/**
 	 * Verifies that the identifier is valid. Exceptions will be thrown if the
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -193,9 +193,11 @@ public final class ContextManager extends HandleObjectManager<Context> implement
 
 		Context context = handleObjectsById.get(contextId);
 		if (context == null) {
-			context = new Context(contextId);
-			handleObjectsById.put(contextId, context);
-			context.addContextListener(this);
+			context = handleObjectsById.computeIfAbsent(contextId, id -> {
+				Context newContext = new Context(id);
+				newContext.addContextListener(this);
+				return newContext;
+			});
 		}
 
 		return context;
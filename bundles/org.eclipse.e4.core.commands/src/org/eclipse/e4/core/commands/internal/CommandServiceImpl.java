@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2017 IBM Corporation and others.
+ * Copyright (c) 2009, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,7 @@ package org.eclipse.e4.core.commands.internal;
 
 import jakarta.inject.Inject;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.commands.Category;
 import org.eclipse.core.commands.Command;
 import org.eclipse.core.commands.CommandManager;
@@ -28,13 +29,33 @@ public class CommandServiceImpl implements ECommandService {
 
 	private CommandManager commandManager;
 
+	/**
+	 * The commands without parameters created so far. They do not depend on the
+	 * definition of the command, and commands are never removed from the
+	 * manager, so they can be shared by all callers.
+	 */
+	private final Map<String, ParameterizedCommand> commandsWithoutParameters = new ConcurrentHashMap<>();
+
 	@Inject
 	public void setManager(CommandManager m) {
 		commandManager = m;
+		commandsWithoutParameters.clear();
 	}
 
 	@Override
 	public ParameterizedCommand createCommand(String id, Map<String, ?> parameters) {
+		if (id != null && (parameters == null || parameters.isEmpty())) {
+			ParameterizedCommand cached = commandsWithoutParameters.get(id);
+			if (cached == null) {
+				Command command = getCommand(id);
+				if (command == null) {
+					return null;
+				}
+				cached = ParameterizedCommand.generateCommand(command, null);
+				commandsWithoutParameters.putIfAbsent(id, cached);
+			}
+			return cached;
+		}
 		Command command = getCommand(id);
 		if (command == null) {
 			return null;
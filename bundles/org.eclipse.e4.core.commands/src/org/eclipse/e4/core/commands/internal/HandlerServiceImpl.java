@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,6 +18,7 @@ import jakarta.inject.Inject;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.commands.AbstractParameterValueConverter;
 import org.eclipse.core.commands.Command;
 import org.eclipse.core.commands.ExecutionException;
@@ -55,6 +56,12 @@ public class HandlerServiceImpl implements EHandlerService {
 
 	private static LinkedList<ExecutionContexts> contextStack = new LinkedList<>();
 
+	/**
+	 * The context keys of the handlers by command id. Reusing the keys saves
+	 * building them and computing their hash codes on every handler lookup.
+	 */
+	private static final Map<String, String> handlerKeys = new ConcurrentHashMap<>();
+
 	public static ContextFunction handlerGenerator = null;
 
 	public static IHandler getHandler(String commandId) {
@@ -96,7 +103,11 @@ public class HandlerServiceImpl implements EHandlerService {
 	 * @return a handler, or <code>null</code>
 	 */
 	public static Object lookUpHandler(IEclipseContext context, String commandId) {
-		return context.getActiveLeaf().get(H_ID + commandId);
+		return context.getActiveLeaf().get(getHandlerKey(commandId));
+	}
+
+	private static String getHandlerKey(String commandId) {
+		return handlerKeys.computeIfAbsent(commandId, id -> H_ID + id);
 	}
 
 	/**
@@ -146,8 +157,7 @@ public class HandlerServiceImpl implements EHandlerService {
 
 	@Override
 	public void activateHandler(String commandId, Object handler) {
-		String handlerId = H_ID + commandId;
-		context.set(handlerId, handler);
+		context.set(getHandlerKey(commandId), handler);
 	}
 
 	@Override
@@ -176,7 +186,7 @@ public class HandlerServiceImpl implements EHandlerService {
 
 	@Override
 	public void deactivateHandler(String commandId, Object handler) {
-		context.remove(H_ID + commandId);
+		context.remove(getHandlerKey(commandId));
 	}
 
 	@Override
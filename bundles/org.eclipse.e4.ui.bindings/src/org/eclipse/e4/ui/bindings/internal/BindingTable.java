@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2014 IBM Corporation and others.
+ * Copyright (c) 2010, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -32,8 +32,44 @@ import org.eclipse.jface.bindings.keys.KeyStroke;
 
 /**
  * manage tables of bindings that can be used to look up commands from keys.
+ * <p>
+ * The active bindings are kept in a trie of their triggers, so that perfect
+ * and partial matches are found by walking the triggers of the sequence looked
+ * up, independent of the number of bindings in the table.
+ * </p>
  */
 public class BindingTable {
+
+	/**
+	 * A node of the trigger trie, standing for the sequence of the triggers on
+	 * the path from the root.
+	 */
+	private static final class TriggerNode {
+		private Map<Trigger, TriggerNode> children;
+
+		/** The active binding of the sequence, if any. */
+		private Binding binding;
+
+		/** The active bindings of longer sequences starting with the sequence. */
+		private ArrayList<Binding> partialMatches;
+
+		TriggerNode getChild(Trigger trigger) {
+			return children == null ? null : children.get(trigger);
+		}
+
+		TriggerNode getOrCreateChild(Trigger trigger) {
+			if (children == null) {
+				children = new HashMap<>(4);
+			}
+			return children.computeIfAbsent(trigger, t -> new TriggerNode());
+		}
+
+		boolean isEmpty() {
+			return binding == null && (children == null || children.isEmpty())
+					&& (partialMatches == null || partialMatches.isEmpty());
+		}
+	}
+
 	private static int compareSchemes(String[] activeSchemeIds, final String schemeId1,
 			final String schemeId2) {
 		if (activeSchemeIds == null || activeSchemeIds.length == 0) {
@@ -125,9 +161,8 @@ public class BindingTable {
 
 	private Context tableId;
 	private ArrayList<Binding> bindings = new ArrayList<>();
-	private Map<TriggerSequence, Binding> bindingsByTrigger = new HashMap<>();
+	private final TriggerNode root = new TriggerNode();
 	private Map<ParameterizedCommand, ArrayList<Binding>> bindingsByCommand = new HashMap<>();
-	private Map<TriggerSequence, ArrayList<Binding>> bindingsByPrefix = new HashMap<>();
 	private Map<TriggerSequence, ArrayList<Binding>> conflicts = new HashMap<>();
 	private Map<TriggerSequence, ArrayList<Binding>> orderedBindingsByTrigger = new HashMap<>();
 
@@ -164,7 +199,7 @@ public class BindingTable {
 					+ " does not match " + getId()); //$NON-NLS-1$
 		}
 		ArrayList<Binding> bindingList = orderedBindingsByTrigger.get(binding.getTriggerSequence());
-		Binding possibleConflict = bindingsByTrigger.get(binding.getTriggerSequence());
+		Binding possibleConflict = getPerfectMatch(binding.getTriggerSequence());
 		if (bindingList == null || bindingList.isEmpty()) {
 			if (possibleConflict != null) {
 				if (bindingList == null) {
@@ -191,7 +226,6 @@ public class BindingTable {
 
 	private void addBindingSimple(Binding binding) {
 		bindings.add(binding);
-		bindingsByTrigger.put(binding.getTriggerSequence(), binding);
 
 		ArrayList<Binding> sequences = bindingsByCommand.get(binding.getParameterizedCommand());
 		if (sequences == null) {
@@ -201,32 +235,57 @@ public class BindingTable {
 		sequences.add(binding);
 		sequences.sort(BEST_SEQUENCE);
 
-		TriggerSequence[] prefs = binding.getTriggerSequence().getPrefixes();
-		for (int i = 1; i < prefs.length; i++) {
-			ArrayList<Binding> bindings = bindingsByPrefix.get(prefs[i]);
-			if (bindings == null) {
-				bindings = new ArrayList<>();
-				bindingsByPrefix.put(prefs[i], bindings);
+		Trigger[] triggers = binding.getTriggerSequence().getTriggers();
+		TriggerNode node = root;
+		for (int i = 0; i < triggers.length; i++) {
+			node = node.getOrCreateChild(triggers[i]);
+			if (i < triggers.length - 1) {
+				if (node.partialMatches == null) {
+					node.partialMatches = new ArrayList<>();
+				}
+				node.partialMatches.add(binding);
 			}
-			bindings.add(binding);
 		}
+		node.binding = binding;
 	}
 
 	private void removeBindingSimple(Binding binding) {
 		bindings.remove(binding);
-		bindingsByTrigger.remove(binding.getTriggerSequence());
 		ArrayList<Binding> sequences = bindingsByCommand.get(binding.getParameterizedCommand());
 
 		if (sequences != null) {
 			sequences.remove(binding);
 		}
-		TriggerSequence[] prefs = binding.getTriggerSequence().getPrefixes();
-		for (int i = 1; i < prefs.length; i++) {
-			ArrayList<Binding> bindings = bindingsByPrefix.get(prefs[i]);
-			if (bindings != null) {
-				bindings.remove(binding);
+
+		Trigger[] triggers = binding.getTriggerSequence().getTriggers();
+		TriggerNode[] path = new TriggerNode[triggers.length + 1];
+		path[0] = root;
+		for (int i = 0; i < triggers.length; i++) {
+			path[i + 1] = path[i].getChild(triggers[i]);
+			if (path[i + 1] == null) {
+				return;
+			}
+			if (i < triggers.length - 1 && path[i + 1].partialMatches != null) {
+				path[i + 1].partialMatches.remove(binding);
+			}
+		}
+		path[triggers.length].binding = null;
+
+		// drop the nodes which lead to no binding anymore
+		for (int i = triggers.length; i > 0 && path[i].isEmpty(); i--) {
+			path[i - 1].children.remove(triggers[i - 1]);
+		}
+	}
+
+	private TriggerNode getNode(TriggerSequence sequence) {
+		TriggerNode node = root;
+		for (Trigger trigger : sequence.getTriggers()) {
+			node = node.getChild(trigger);
+			if (node == null) {
+				return null;
 			}
 		}
+		return node;
 	}
 
 	public void removeBinding(Binding binding) {
@@ -235,7 +294,7 @@ public class BindingTable {
 					+ " does not match " + getId()); //$NON-NLS-1$
 		}
 		ArrayList<Binding> bindingList = orderedBindingsByTrigger.get(binding.getTriggerSequence());
-		Binding possibleConflict = bindingsByTrigger.get(binding.getTriggerSequence());
+		Binding possibleConflict = getPerfectMatch(binding.getTriggerSequence());
 		if (possibleConflict == binding) {
 			removeBindingSimple(binding);
 			if (bindingList != null) {
@@ -290,26 +349,27 @@ public class BindingTable {
 					}
 				} else {
 					conflicts.remove(sequence);
-					if (bindingsByTrigger.get(sequence) == null) {
+					if (getPerfectMatch(sequence) == null) {
 						addBindingSimple(msb);
 					}
 				}
 			} else {
-				if (bindingsByTrigger.get(sequence) == null) {
+				if (getPerfectMatch(sequence) == null) {
 					addBindingSimple(bindingList.get(0));
 				}
 				orderedBindingsByTrigger.remove(sequence);
 			}
 		} else if (binding != null) {
 			conflicts.remove(sequence);
-			if (bindingsByTrigger.get(sequence) == null) {
+			if (getPerfectMatch(sequence) == null) {
 				addBindingSimple(binding);
 			}
 		}
 	}
 
 	public Binding getPerfectMatch(TriggerSequence trigger) {
-		return bindingsByTrigger.get(trigger);
+		TriggerNode node = getNode(trigger);
+		return node == null ? null : node.binding;
 	}
 
 	public Binding getBestSequenceFor(ParameterizedCommand command) {
@@ -327,12 +387,13 @@ public class BindingTable {
 	}
 
 	public Collection<Binding> getPartialMatches(TriggerSequence sequence) {
-		return bindingsByPrefix.get(sequence);
+		TriggerNode node = getNode(sequence);
+		return node == null ? null : node.partialMatches;
 	}
 
 	public boolean isPartialMatch(TriggerSequence seq) {
-		ArrayList<Binding> values = bindingsByPrefix.get(seq);
-		return values != null && !values.isEmpty();
+		TriggerNode node = getNode(seq);
+		return node != null && node.partialMatches != null && !node.partialMatches.isEmpty();
 	}
 
 	public Collection<Binding> getBindings() {
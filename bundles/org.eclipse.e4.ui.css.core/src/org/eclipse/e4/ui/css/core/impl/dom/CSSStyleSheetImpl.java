@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2015 Angelo Zerr and others.
+ * Copyright (c) 2008, 2024 Angelo Zerr and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,9 @@
 
 package org.eclipse.e4.ui.css.core.impl.dom;
 
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
 import org.eclipse.e4.ui.css.core.exceptions.DOMExceptionImpl;
 import org.w3c.dom.DOMException;
 import org.w3c.dom.Node;
@@ -30,6 +33,8 @@ public class CSSStyleSheetImpl extends AbstractCSSNode implements CSSStyleSheet
 
 	private CSSRuleList rules = null;
 
+	private List<URL> imports = Collections.emptyList();
+
 	public CSSStyleSheetImpl() {
 		super();
 	}
@@ -108,4 +113,24 @@ public class CSSStyleSheetImpl extends AbstractCSSNode implements CSSStyleSheet
 	public void setRuleList(CSSRuleList rules) {
 		this.rules = rules;
 	}
+
+	/**
+	 * Returns the URLs of the style sheets imported by this one, directly or
+	 * through other imports, whose rules are part of its rule list.
+	 *
+	 * @return the imported URLs, never <code>null</code>
+	 */
+	public List<URL> getImports() {
+		return imports;
+	}
+
+	/**
+	 * Sets the URLs of the style sheets imported by this one, directly or through
+	 * other imports, whose rules were added to its rule list.
+	 *
+	 * @param imports the imported URLs, not <code>null</code>
+	 */
+	public void setImports(List<URL> imports) {
+		this.imports = imports;
+	}
 }
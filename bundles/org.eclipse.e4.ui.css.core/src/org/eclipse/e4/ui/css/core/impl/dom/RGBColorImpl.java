@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2015 Angelo Zerr and others.
+ * Copyright (c) 2008, 2024 Angelo Zerr and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -22,11 +22,14 @@ import org.w3c.dom.css.RGBColor;
 
 public class RGBColorImpl extends CSSValueImpl implements RGBColor {
 
+	LexicalUnit lexicalUnit;
+
 	private CSSPrimitiveValue red;
 	private CSSPrimitiveValue green;
 	private CSSPrimitiveValue blue;
 
 	public RGBColorImpl(LexicalUnit lexicalUnit) {
+		this.lexicalUnit = lexicalUnit;
 		LexicalUnit nextUnit = lexicalUnit.getParameters();
 		red = new Measure(nextUnit);
 		nextUnit = nextUnit.getNextLexicalUnit().getNextLexicalUnit();
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.dom;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.e4.ui.css.core.dom.CSSStylableElement;
+import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
+import org.eclipse.e4.ui.css.core.impl.sac.AbstractDescendantSelector;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSAndConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSClassConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSConditionalSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSDirectAdjacentSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSElementSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSIdConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.ExtendedSelector;
+import org.w3c.css.sac.Condition;
+import org.w3c.css.sac.Selector;
+import org.w3c.css.sac.SelectorList;
+import org.w3c.dom.Element;
+import org.w3c.dom.css.CSSRule;
+import org.w3c.dom.css.CSSStyleRule;
+
+/**
+ * An index of the selectors of a list of CSS style rules, keyed by the id,
+ * class or element name required by the rightmost compound selector. Only the
+ * selectors of the buckets an element can be in need to be matched against it,
+ * instead of all selectors of all rules.
+ * <p>
+ * The candidates are returned in the order of the rules in the style sheets,
+ * which is needed to resolve rules of the same specificity. Candidates are
+ * cached per combination of element name, id and classes, so elements which
+ * look alike for the index share the work of collecting them.
+ * </p>
+ */
+final class RuleIndex {
+
+	/**
+	 * A selector of a style rule.
+	 */
+	record Candidate(CSSStyleRule rule, ExtendedSelector selector) {
+	}
+
+	private static final int KEY_ID = 0;
+	private static final int KEY_CLASS = 1;
+	private static final int KEY_ELEMENT = 2;
+
+	/**
+	 * Upper bound for the number of cached signatures, elements with generated ids
+	 * or classes would otherwise grow the cache without bounds.
+	 */
+	private static final int MAX_SIGNATURES = 4096;
+
+	private final Candidate[] candidates;
+
+	private final Map<String, BitSet> byId = new HashMap<>();
+	private final Map<String, BitSet> byClass = new HashMap<>();
+	private final Map<String, BitSet> byElement = new HashMap<>();
+	private final BitSet universal = new BitSet();
+
+	private final Map<List<String>, Candidate[]> candidatesBySignature = new ConcurrentHashMap<>();
+
+	RuleIndex(List<CSSRule> rules) {
+		candidates = getAllCandidates(rules);
+		for (int index = 0; index < candidates.length; index++) {
+			String[] key = new String[3];
+			collectKeys(candidates[index].selector(), key);
+			if (key[KEY_ID] != null) {
+				byId.computeIfAbsent(key[KEY_ID], k -> new BitSet()).set(index);
+			} else if (key[KEY_CLASS] != null) {
+				byClass.computeIfAbsent(key[KEY_CLASS], k -> new BitSet()).set(index);
+			} else if (key[KEY_ELEMENT] != null) {
+				byElement.computeIfAbsent(key[KEY_ELEMENT], k -> new BitSet()).set(index);
+			} else {
+				universal.set(index);
+			}
+		}
+	}
+
+	/**
+	 * Returns the selectors of all given style rules, in style sheet order.
+	 *
+	 * @param rules the rules, of which only the style rules are considered
+	 * @return the selectors of the rules
+	 */
+	static Candidate[] getAllCandidates(List<CSSRule> rules) {
+		List<Candidate> list = new ArrayList<>();
+		for (CSSRule rule : rules) {
+			if (rule.getType() != CSSRule.STYLE_RULE || !(rule instanceof ExtendedCSSRule)) {
+				continue; // we only handle the CSSRule.STYLE_RULE and ExtendedCSSRule case
+			}
+			SelectorList selectorList = ((ExtendedCSSRule) rule).getSelectorList();
+			int l = selectorList.getLength();
+			for (int j = 0; j < l; j++) {
+				Selector selector = selectorList.item(j);
+				if (selector instanceof ExtendedSelector) {
+					list.add(new Candidate((CSSStyleRule) rule, (ExtendedSelector) selector));
+				}
+			}
+		}
+		return list.toArray(new Candidate[list.size()]);
+	}
+
+	/**
+	 * Returns the selectors which may match the given element, in style sheet
+	 * order. All other selectors are known not to match it.
+	 *
+	 * @param elt the element
+	 * @return the candidate selectors
+	 */
+	Candidate[] getCandidates(Element elt) {
+		String name = elt.getPrefix() == null ? elt.getNodeName() : elt.getLocalName();
+		String id;
+		String classes;
+		if (elt instanceof CSSStylableElement) {
+			id = ((CSSStylableElement) elt).getCSSId();
+			classes = ((CSSStylableElement) elt).getCSSClass();
+		} else {
+			id = elt.getAttribute("id"); //$NON-NLS-1$
+			classes = elt.getAttribute("class"); //$NON-NLS-1$
+		}
+		List<String> signature = new ArrayList<>(3);
+		signature.add(name);
+		signature.add(id);
+		signature.add(classes);
+		Candidate[] result = candidatesBySignature.get(signature);
+		if (result == null) {
+			result = computeCandidates(name, id, classes);
+			if (candidatesBySignature.size() >= MAX_SIGNATURES) {
+				candidatesBySignature.clear();
+			}
+			candidatesBySignature.put(signature, result);
+		}
+		return result;
+	}
+
+	private Candidate[] computeCandidates(String name, String id, String classes) {
+		BitSet bits = (BitSet) universal.clone();
+		if (id != null) {
+			or(bits, byId.get(id));
+		}
+		if (name != null) {
+			or(bits, byElement.get(name));
+		}
+		if (classes != null && !byClass.isEmpty()) {
+			// Split the same way as CSSClassConditionImpl matches
+			int length = classes.length();
+			int start = 0;
+			for (int i = 0; i <= length; i++) {
+				if (i == length || Character.isSpaceChar(classes.charAt(i))) {
+					if (i > start) {
+						or(bits, byClass.get(classes.substring(start, i)));
+					}
+					start = i + 1;
+				}
+			}
+		}
+		Candidate[] result = new Candidate[bits.cardinality()];
+		int n = 0;
+		for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+			result[n++] = candidates[i];
+		}
+		return result;
+	}
+
+	private static void or(BitSet bits, BitSet other) {
+		if (other != null) {
+			bits.or(other);
+		}
+	}
+
+	/**
+	 * Stores the id, class and element name which the given selector requires
+	 * from the element it applies to, as far as they can be determined from the
+	 * known selector implementations.
+	 */
+	private static void collectKeys(Selector selector, String[] key) {
+		if (selector instanceof CSSConditionalSelectorImpl) {
+			CSSConditionalSelectorImpl conditional = (CSSConditionalSelectorImpl) selector;
+			collectKeys(conditional.getSimpleSelector(), key);
+			collectKeys(conditional.getCondition(), key);
+		} else if (selector instanceof AbstractDescendantSelector) {
+			// descendant and child selectors, the simple selector is the rightmost
+			collectKeys(((AbstractDescendantSelector) selector).getSimpleSelector(), key);
+		} else if (selector instanceof CSSDirectAdjacentSelectorImpl) {
+			collectKeys(((CSSDirectAdjacentSelectorImpl) selector).getSiblingSelector(), key);
+		} else if (selector instanceof CSSElementSelectorImpl) {
+			String name = ((CSSElementSelectorImpl) selector).getLocalName();
+			if (name != null) {
+				key[KEY_ELEMENT] = name;
+			}
+		}
+	}
+
+	private static void collectKeys(Condition condition, String[] key) {
+		if (condition instanceof CSSIdConditionImpl) {
+			key[KEY_ID] = ((CSSIdConditionImpl) condition).getValue();
+		} else if (condition instanceof CSSClassConditionImpl) {
+			String value = ((CSSClassConditionImpl) condition).getValue();
+			if (value != null && !value.isEmpty() && value.chars().noneMatch(Character::isSpaceChar)) {
+				key[KEY_CLASS] = value;
+			}
+		} else if (condition instanceof CSSAndConditionImpl) {
+			CSSAndConditionImpl and = (CSSAndConditionImpl) condition;
+			collectKeys(and.getFirstCondition(), key);
+			collectKeys(and.getSecondCondition(), key);
+		}
+	}
+}
@@ -0,0 +1,484 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.dom;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.batik.css.parser.CSSLexicalUnit;
+import org.apache.batik.css.parser.CSSSelectorList;
+import org.eclipse.e4.ui.css.core.dom.CSSProperty;
+import org.eclipse.e4.ui.css.core.dom.CSSPropertyList;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSAndConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSAttributeConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSBeginHyphenAttributeConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSChildSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSClassConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSConditionalSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSDescendantSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSDirectAdjacentSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSElementSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSIdConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSLangConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSOneOfAttributeConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSPseudoClassConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSPseudoElementSelectorImpl;
+import org.w3c.css.sac.AttributeCondition;
+import org.w3c.css.sac.CombinatorCondition;
+import org.w3c.css.sac.Condition;
+import org.w3c.css.sac.ConditionalSelector;
+import org.w3c.css.sac.DescendantSelector;
+import org.w3c.css.sac.ElementSelector;
+import org.w3c.css.sac.LexicalUnit;
+import org.w3c.css.sac.Selector;
+import org.w3c.css.sac.SelectorList;
+import org.w3c.css.sac.SiblingSelector;
+import org.w3c.css.sac.SimpleSelector;
+import org.w3c.dom.css.CSSRule;
+import org.w3c.dom.css.CSSRuleList;
+import org.w3c.dom.css.CSSStyleDeclaration;
+import org.w3c.dom.css.CSSValue;
+import org.w3c.dom.css.CSSValueList;
+
+/**
+ * Writes a parsed style sheet in a compiled binary form and reads it back,
+ * without running the CSS parser. The compiled form holds the selectors,
+ * declarations and lexical units of the values, which are read back into the
+ * same classes the parser creates.
+ * <p>
+ * Only style sheets consisting of style rules are compiled, whose selectors and
+ * conditions are the ones created by the selector and condition factories of
+ * this bundle. The compiled form is only read by the same version of this
+ * bundle which wrote it.
+ * </p>
+ */
+public final class StyleSheetCompiler {
+
+	/**
+	 * The version of the compiled form, to be increased whenever it changes.
+	 */
+	private static final int VERSION = 1;
+
+	private static final byte ELEMENT_SELECTOR = 0;
+	private static final byte PSEUDO_ELEMENT_SELECTOR = 1;
+	private static final byte CONDITIONAL_SELECTOR = 2;
+	private static final byte DESCENDANT_SELECTOR = 3;
+	private static final byte CHILD_SELECTOR = 4;
+	private static final byte DIRECT_ADJACENT_SELECTOR = 5;
+
+	private static final byte AND_CONDITION = 0;
+	private static final byte ATTRIBUTE_CONDITION = 1;
+	private static final byte BEGIN_HYPHEN_ATTRIBUTE_CONDITION = 2;
+	private static final byte ONE_OF_ATTRIBUTE_CONDITION = 3;
+	private static final byte CLASS_CONDITION = 4;
+	private static final byte ID_CONDITION = 5;
+	private static final byte LANG_CONDITION = 6;
+	private static final byte PSEUDO_CLASS_CONDITION = 7;
+
+	private StyleSheetCompiler() {
+		// prevent instantiation
+	}
+
+	/**
+	 * Writes the given parsed style sheet in its compiled form.
+	 *
+	 * @param styleSheet the style sheet as returned by the CSS engine
+	 * @param out        the output to write to
+	 * @throws NotSerializableException if the style sheet holds a rule, selector
+	 *                                  or value which cannot be compiled, the
+	 *                                  output is incomplete then
+	 * @throws IOException              if writing fails
+	 */
+	public static void write(CSSStyleSheetImpl styleSheet, DataOutput out) throws IOException {
+		out.writeInt(VERSION);
+		List<URL> imports = styleSheet.getImports();
+		out.writeInt(imports.size());
+		for (URL url : imports) {
+			out.writeUTF(url.toString());
+		}
+		CSSRuleList rules = styleSheet.getCssRules();
+		out.writeInt(rules.getLength());
+		for (int i = 0; i < rules.getLength(); i++) {
+			CSSRule rule = rules.item(i);
+			if (rule.getClass() != CSSStyleRuleImpl.class) {
+				throw new NotSerializableException(rule.getClass().getName());
+			}
+			writeStyleRule((CSSStyleRuleImpl) rule, out);
+		}
+	}
+
+	/**
+	 * Reads a style sheet written by {@link #write(CSSStyleSheetImpl, DataOutput)}.
+	 *
+	 * @param in the input to read from
+	 * @return the style sheet, equal to the one which was written
+	 * @throws IOException if reading fails, or the input was written by another
+	 *                     version
+	 */
+	public static CSSStyleSheetImpl read(DataInput in) throws IOException {
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported version of compiled style sheet: " + version); //$NON-NLS-1$
+		}
+		CSSStyleSheetImpl styleSheet = new CSSStyleSheetImpl();
+		int importCount = in.readInt();
+		List<URL> imports = new ArrayList<>(importCount);
+		for (int i = 0; i < importCount; i++) {
+			imports.add(new URL(in.readUTF()));
+		}
+		styleSheet.setImports(imports);
+		CSSRuleListImpl rules = new CSSRuleListImpl();
+		int ruleCount = in.readInt();
+		for (int i = 0; i < ruleCount; i++) {
+			rules.add(readStyleRule(styleSheet, in));
+		}
+		styleSheet.setRuleList(rules);
+		return styleSheet;
+	}
+
+	private static void writeStyleRule(CSSStyleRuleImpl rule, DataOutput out) throws IOException {
+		SelectorList selectors = rule.getSelectorList();
+		out.writeInt(selectors.getLength());
+		for (int i = 0; i < selectors.getLength(); i++) {
+			writeSelector(selectors.item(i), out);
+		}
+		CSSStyleDeclaration style = rule.getStyle();
+		if (!(style instanceof CSSStyleDeclarationImpl)) {
+			throw new NotSerializableException(String.valueOf(style));
+		}
+		CSSPropertyList properties = ((CSSStyleDeclarationImpl) style).getCSSPropertyList();
+		out.writeInt(properties.getLength());
+		for (int i = 0; i < properties.getLength(); i++) {
+			CSSProperty property = properties.item(i);
+			if (property.getClass() != CSSPropertyImpl.class) {
+				throw new NotSerializableException(property.getClass().getName());
+			}
+			out.writeUTF(property.getName());
+			out.writeBoolean(property.isImportant());
+			writeLexicalUnits(getLexicalUnit(property.getValue()), out);
+		}
+	}
+
+	private static CSSStyleRuleImpl readStyleRule(CSSStyleSheetImpl styleSheet, DataInput in) throws IOException {
+		CSSSelectorList selectors = new CSSSelectorList();
+		int selectorCount = in.readInt();
+		for (int i = 0; i < selectorCount; i++) {
+			selectors.append(readSelector(in));
+		}
+		CSSStyleRuleImpl rule = new CSSStyleRuleImpl(styleSheet, null, selectors);
+		CSSStyleDeclarationImpl style = new CSSStyleDeclarationImpl(rule);
+		int propertyCount = in.readInt();
+		for (int i = 0; i < propertyCount; i++) {
+			String name = in.readUTF();
+			boolean important = in.readBoolean();
+			style.addProperty(new CSSPropertyImpl(name, CSSValueFactory.newValue(readLexicalUnits(in)), important));
+		}
+		rule.setStyle(style);
+		return rule;
+	}
+
+	/**
+	 * Returns the first of the lexical units the given value was created from,
+	 * which the value can be created from again by
+	 * {@link CSSValueFactory#newValue(LexicalUnit)}.
+	 */
+	private static LexicalUnit getLexicalUnit(CSSValue value) throws NotSerializableException {
+		if (value instanceof CSSValueListImpl && ((CSSValueList) value).getLength() > 0) {
+			value = ((CSSValueList) value).item(0);
+		}
+		if (value instanceof Measure) {
+			return ((Measure) value).value;
+		}
+		if (value instanceof RGBColorImpl) {
+			return ((RGBColorImpl) value).lexicalUnit;
+		}
+		throw new NotSerializableException(String.valueOf(value));
+	}
+
+	private static void writeSelector(Selector selector, DataOutput out) throws IOException {
+		Class<?> type = selector.getClass();
+		if (type == CSSElementSelectorImpl.class || type == CSSPseudoElementSelectorImpl.class) {
+			ElementSelector elementSelector = (ElementSelector) selector;
+			out.writeByte(type == CSSElementSelectorImpl.class ? ELEMENT_SELECTOR : PSEUDO_ELEMENT_SELECTOR);
+			writeString(elementSelector.getNamespaceURI(), out);
+			writeString(elementSelector.getLocalName(), out);
+		} else if (type == CSSConditionalSelectorImpl.class) {
+			ConditionalSelector conditionalSelector = (ConditionalSelector) selector;
+			out.writeByte(CONDITIONAL_SELECTOR);
+			writeSelector(conditionalSelector.getSimpleSelector(), out);
+			writeCondition(conditionalSelector.getCondition(), out);
+		} else if (type == CSSDescendantSelectorImpl.class || type == CSSChildSelectorImpl.class) {
+			DescendantSelector descendantSelector = (DescendantSelector) selector;
+			out.writeByte(type == CSSDescendantSelectorImpl.class ? DESCENDANT_SELECTOR : CHILD_SELECTOR);
+			writeSelector(descendantSelector.getAncestorSelector(), out);
+			writeSelector(descendantSelector.getSimpleSelector(), out);
+		} else if (type == CSSDirectAdjacentSelectorImpl.class) {
+			SiblingSelector siblingSelector = (SiblingSelector) selector;
+			out.writeByte(DIRECT_ADJACENT_SELECTOR);
+			out.writeShort(siblingSelector.getNodeType());
+			writeSelector(siblingSelector.getSelector(), out);
+			writeSelector(siblingSelector.getSiblingSelector(), out);
+		} else {
+			throw new NotSerializableException(type.getName());
+		}
+	}
+
+	private static Selector readSelector(DataInput in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case ELEMENT_SELECTOR:
+			return new CSSElementSelectorImpl(readString(in), readString(in));
+		case PSEUDO_ELEMENT_SELECTOR:
+			return new CSSPseudoElementSelectorImpl(readString(in), readString(in));
+		case CONDITIONAL_SELECTOR:
+			return new CSSConditionalSelectorImpl(readSimpleSelector(in), readCondition(in));
+		case DESCENDANT_SELECTOR:
+			return new CSSDescendantSelectorImpl(readSelector(in), readSimpleSelector(in));
+		case CHILD_SELECTOR:
+			return new CSSChildSelectorImpl(readSelector(in), readSimpleSelector(in));
+		case DIRECT_ADJACENT_SELECTOR:
+			return new CSSDirectAdjacentSelectorImpl(in.readShort(), readSelector(in), readSimpleSelector(in));
+		default:
+			throw new IOException("Unknown selector type: " + type); //$NON-NLS-1$
+		}
+	}
+
+	private static SimpleSelector readSimpleSelector(DataInput in) throws IOException {
+		Selector selector = readSelector(in);
+		if (!(selector instanceof SimpleSelector)) {
+			throw new IOException("Not a simple selector: " + selector); //$NON-NLS-1$
+		}
+		return (SimpleSelector) selector;
+	}
+
+	private static void writeCondition(Condition condition, DataOutput out) throws IOException {
+		Class<?> type = condition.getClass();
+		if (type == CSSAndConditionImpl.class) {
+			CombinatorCondition combinatorCondition = (CombinatorCondition) condition;
+			out.writeByte(AND_CONDITION);
+			writeCondition(combinatorCondition.getFirstCondition(), out);
+			writeCondition(combinatorCondition.getSecondCondition(), out);
+		} else if (type == CSSLangConditionImpl.class) {
+			out.writeByte(LANG_CONDITION);
+			writeString(((CSSLangConditionImpl) condition).getLang(), out);
+		} else if (type == CSSAttributeConditionImpl.class || type == CSSBeginHyphenAttributeConditionImpl.class
+				|| type == CSSOneOfAttributeConditionImpl.class) {
+			AttributeCondition attributeCondition = (AttributeCondition) condition;
+			if (type == CSSAttributeConditionImpl.class) {
+				out.writeByte(ATTRIBUTE_CONDITION);
+			} else {
+				out.writeByte(type == CSSBeginHyphenAttributeConditionImpl.class ? BEGIN_HYPHEN_ATTRIBUTE_CONDITION
+						: ONE_OF_ATTRIBUTE_CONDITION);
+			}
+			writeString(attributeCondition.getLocalName(), out);
+			writeString(attributeCondition.getNamespaceURI(), out);
+			out.writeBoolean(attributeCondition.getSpecified());
+			writeString(attributeCondition.getValue(), out);
+		} else if (type == CSSClassConditionImpl.class || type == CSSIdConditionImpl.class) {
+			AttributeCondition attributeCondition = (AttributeCondition) condition;
+			out.writeByte(type == CSSClassConditionImpl.class ? CLASS_CONDITION : ID_CONDITION);
+			writeString(attributeCondition.getLocalName(), out);
+			writeString(attributeCondition.getNamespaceURI(), out);
+			writeString(attributeCondition.getValue(), out);
+		} else if (type == CSSPseudoClassConditionImpl.class) {
+			AttributeCondition attributeCondition = (AttributeCondition) condition;
+			out.writeByte(PSEUDO_CLASS_CONDITION);
+			writeString(attributeCondition.getNamespaceURI(), out);
+			writeString(attributeCondition.getValue(), out);
+		} else {
+			throw new NotSerializableException(type.getName());
+		}
+	}
+
+	private static Condition readCondition(DataInput in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case AND_CONDITION:
+			return new CSSAndConditionImpl(readCondition(in), readCondition(in));
+		case LANG_CONDITION:
+			return new CSSLangConditionImpl(readString(in));
+		case ATTRIBUTE_CONDITION:
+			return new CSSAttributeConditionImpl(readString(in), readString(in), in.readBoolean(), readString(in));
+		case BEGIN_HYPHEN_ATTRIBUTE_CONDITION:
+			return new CSSBeginHyphenAttributeConditionImpl(readString(in), readString(in), in.readBoolean(),
+					readString(in));
+		case ONE_OF_ATTRIBUTE_CONDITION:
+			return new CSSOneOfAttributeConditionImpl(readString(in), readString(in), in.readBoolean(),
+					readString(in));
+		case CLASS_CONDITION:
+			return new CSSClassConditionImpl(readString(in), readString(in), readString(in));
+		case ID_CONDITION: {
+			String localName = readString(in);
+			String namespaceURI = readString(in);
+			return new CSSIdConditionImpl(namespaceURI, localName, readString(in));
+		}
+		case PSEUDO_CLASS_CONDITION:
+			return new CSSPseudoClassConditionImpl(readString(in), readString(in));
+		default:
+			throw new IOException("Unknown condition type: " + type); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Writes the given lexical unit and the ones following it.
+	 */
+	private static void writeLexicalUnits(LexicalUnit unit, DataOutput out) throws IOException {
+		int count = 0;
+		for (LexicalUnit next = unit; next != null; next = next.getNextLexicalUnit()) {
+			count++;
+		}
+		out.writeInt(count);
+		for (LexicalUnit next = unit; next != null; next = next.getNextLexicalUnit()) {
+			writeLexicalUnit(next, out);
+		}
+	}
+
+	/**
+	 * Reads the lexical units written by
+	 * {@link #writeLexicalUnits(LexicalUnit, DataOutput)}, and returns the first
+	 * one, or <code>null</code> if there are none.
+	 */
+	private static LexicalUnit readLexicalUnits(DataInput in) throws IOException {
+		int count = in.readInt();
+		LexicalUnit first = null;
+		LexicalUnit previous = null;
+		for (int i = 0; i < count; i++) {
+			previous = readLexicalUnit(previous, in);
+			if (first == null) {
+				first = previous;
+			}
+		}
+		return first;
+	}
+
+	private static void writeLexicalUnit(LexicalUnit unit, DataOutput out) throws IOException {
+		short type = unit.getLexicalUnitType();
+		out.writeShort(type);
+		switch (type) {
+		case LexicalUnit.SAC_INTEGER:
+			out.writeInt(unit.getIntegerValue());
+			break;
+		case LexicalUnit.SAC_REAL:
+		case LexicalUnit.SAC_EM:
+		case LexicalUnit.SAC_EX:
+		case LexicalUnit.SAC_PIXEL:
+		case LexicalUnit.SAC_INCH:
+		case LexicalUnit.SAC_CENTIMETER:
+		case LexicalUnit.SAC_MILLIMETER:
+		case LexicalUnit.SAC_POINT:
+		case LexicalUnit.SAC_PICA:
+		case LexicalUnit.SAC_PERCENTAGE:
+		case LexicalUnit.SAC_DEGREE:
+		case LexicalUnit.SAC_GRADIAN:
+		case LexicalUnit.SAC_RADIAN:
+		case LexicalUnit.SAC_MILLISECOND:
+		case LexicalUnit.SAC_SECOND:
+		case LexicalUnit.SAC_HERTZ:
+		case LexicalUnit.SAC_KILOHERTZ:
+			out.writeFloat(unit.getFloatValue());
+			break;
+		case LexicalUnit.SAC_DIMENSION:
+			out.writeFloat(unit.getFloatValue());
+			writeString(unit.getDimensionUnitText(), out);
+			break;
+		case LexicalUnit.SAC_IDENT:
+		case LexicalUnit.SAC_STRING_VALUE:
+		case LexicalUnit.SAC_URI:
+		case LexicalUnit.SAC_ATTR:
+		case LexicalUnit.SAC_UNICODERANGE:
+			writeString(unit.getStringValue(), out);
+			break;
+		case LexicalUnit.SAC_FUNCTION:
+			writeString(unit.getFunctionName(), out);
+			writeLexicalUnits(unit.getParameters(), out);
+			break;
+		case LexicalUnit.SAC_RGBCOLOR:
+		case LexicalUnit.SAC_RECT_FUNCTION:
+		case LexicalUnit.SAC_COUNTER_FUNCTION:
+		case LexicalUnit.SAC_COUNTERS_FUNCTION:
+			writeLexicalUnits(unit.getParameters(), out);
+			break;
+		default:
+			// the operators and inherit have no value
+			if (type > LexicalUnit.SAC_INHERIT) {
+				throw new NotSerializableException("Lexical unit type " + type); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private static LexicalUnit readLexicalUnit(LexicalUnit previous, DataInput in) throws IOException {
+		short type = in.readShort();
+		switch (type) {
+		case LexicalUnit.SAC_INTEGER:
+			return CSSLexicalUnit.createInteger(in.readInt(), previous);
+		case LexicalUnit.SAC_REAL:
+		case LexicalUnit.SAC_EM:
+		case LexicalUnit.SAC_EX:
+		case LexicalUnit.SAC_PIXEL:
+		case LexicalUnit.SAC_INCH:
+		case LexicalUnit.SAC_CENTIMETER:
+		case LexicalUnit.SAC_MILLIMETER:
+		case LexicalUnit.SAC_POINT:
+		case LexicalUnit.SAC_PICA:
+		case LexicalUnit.SAC_PERCENTAGE:
+		case LexicalUnit.SAC_DEGREE:
+		case LexicalUnit.SAC_GRADIAN:
+		case LexicalUnit.SAC_RADIAN:
+		case LexicalUnit.SAC_MILLISECOND:
+		case LexicalUnit.SAC_SECOND:
+		case LexicalUnit.SAC_HERTZ:
+		case LexicalUnit.SAC_KILOHERTZ:
+			return CSSLexicalUnit.createFloat(type, in.readFloat(), previous);
+		case LexicalUnit.SAC_DIMENSION: {
+			float value = in.readFloat();
+			return CSSLexicalUnit.createDimension(value, readString(in), previous);
+		}
+		case LexicalUnit.SAC_IDENT:
+		case LexicalUnit.SAC_STRING_VALUE:
+		case LexicalUnit.SAC_URI:
+		case LexicalUnit.SAC_ATTR:
+		case LexicalUnit.SAC_UNICODERANGE:
+			return CSSLexicalUnit.createString(type, readString(in), previous);
+		case LexicalUnit.SAC_FUNCTION: {
+			String name = readString(in);
+			return CSSLexicalUnit.createFunction(name, readLexicalUnits(in), previous);
+		}
+		case LexicalUnit.SAC_RGBCOLOR:
+		case LexicalUnit.SAC_RECT_FUNCTION:
+		case LexicalUnit.SAC_COUNTER_FUNCTION:
+		case LexicalUnit.SAC_COUNTERS_FUNCTION:
+			return CSSLexicalUnit.createPredefinedFunction(type, readLexicalUnits(in), previous);
+		default:
+			if (type < 0 || type > LexicalUnit.SAC_INHERIT) {
+				throw new IOException("Unknown lexical unit type: " + type); //$NON-NLS-1$
+			}
+			return CSSLexicalUnit.createSimple(type, previous);
+		}
+	}
+
+	private static void writeString(String value, DataOutput out) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String readString(DataInput in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2018 Angelo Zerr and others.
+ * Copyright (c) 2008, 2024 Angelo Zerr and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,17 +19,13 @@ package org.eclipse.e4.ui.css.core.impl.dom;
 
 import java.util.ArrayList;
 import java.util.List;
-import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
 import org.eclipse.e4.ui.css.core.dom.ExtendedDocumentCSS;
 import org.eclipse.e4.ui.css.core.impl.sac.ExtendedSelector;
-import org.w3c.css.sac.Selector;
-import org.w3c.css.sac.SelectorList;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.css.CSSRule;
 import org.w3c.dom.css.CSSRuleList;
 import org.w3c.dom.css.CSSStyleDeclaration;
-import org.w3c.dom.css.CSSStyleRule;
 import org.w3c.dom.css.CSSStyleSheet;
 import org.w3c.dom.css.DocumentCSS;
 import org.w3c.dom.css.ViewCSS;
@@ -47,6 +43,8 @@ public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChang
 	private boolean ruleCachingEnabled;
 	/** Cached state of combined CSS rules for the current stylesheets */
 	private List<CSSRule> currentCombinedRules;
+	/** Index of the selectors of {@link #currentCombinedRules} */
+	private RuleIndex currentRuleIndex;
 
 	/**
 	 * Creates a new ViewCSS.
@@ -73,7 +71,29 @@ public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChang
 	 */
 	@Override
 	public CSSStyleDeclaration getComputedStyle(Element elt, String pseudoElt) {
-		return getComputedStyle(getCombinedRules(), elt, pseudoElt);
+		RuleIndex.Candidate[] candidates;
+		if (ruleCachingEnabled) {
+			candidates = getRuleIndex().getCandidates(elt);
+		} else {
+			candidates = RuleIndex.getAllCandidates(getCombinedRules());
+		}
+		return getComputedStyle(candidates, elt, pseudoElt);
+	}
+
+	/**
+	 * Returns the index of the selectors of the combined CSS rules, which is
+	 * cached the same way as the rules themselves.
+	 *
+	 * @return the index of the rules for all style sheets
+	 */
+	private RuleIndex getRuleIndex() {
+		List<CSSRule> rules = getCombinedRules();
+		RuleIndex index = currentRuleIndex;
+		if (index == null) {
+			index = new RuleIndex(rules);
+			currentRuleIndex = index;
+		}
+		return index;
 	}
 
 	/**
@@ -111,50 +131,38 @@ public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChang
 		return cssRules;
 	}
 
-	private CSSStyleDeclaration getComputedStyle(List<CSSRule> ruleList, Element elt, String pseudoElt) {
-		Node parent = elt.getParentNode();
-
-		Node[] hierarchy = null;
-		if (parent != null) {
-			List<Node> hierarchyList = new ArrayList<>();
-			for (Node n = parent; n != null; n = n.getParentNode()) {
-				hierarchyList.add(n);
-			}
-			hierarchy = hierarchyList.toArray(new Node[hierarchyList.size()]);
+	/**
+	 * Matches the given selectors against the element and merges the style
+	 * declarations of the matching ones.
+	 *
+	 * @param candidates the selectors which may match the element, in style
+	 *                   sheet order
+	 */
+	private CSSStyleDeclaration getComputedStyle(RuleIndex.Candidate[] candidates, Element elt, String pseudoElt) {
+		if (candidates.length == 0) {
+			return null;
 		}
+		Node[] hierarchy = getHierarchy(elt);
 
 		List<StyleWrapper> styleDeclarations = null;
 		StyleWrapper firstStyleDeclaration = null;
 		int position = 0;
-		for (CSSRule rule : ruleList) {
-			if (rule.getType() != CSSRule.STYLE_RULE || (!(rule instanceof ExtendedCSSRule)) ) {
-				continue; // we only handle the CSSRule.STYLE_RULE and ExtendedCSSRule case
-			}
-			CSSStyleRule styleRule = (CSSStyleRule) rule;
-			ExtendedCSSRule r = (ExtendedCSSRule) rule;
-			SelectorList selectorList = r.getSelectorList();
-			// Loop for SelectorList
-			int l = selectorList.getLength();
-			for (int j = 0; j < l; j++) {
-				Selector selector = selectorList.item(j);
-				if (selector instanceof ExtendedSelector) {
-					ExtendedSelector extendedSelector = (ExtendedSelector) selector;
-					if (extendedSelector.match(elt, hierarchy, 0, pseudoElt)) {
-						CSSStyleDeclaration style = styleRule.getStyle();
-						int specificity = extendedSelector.getSpecificity();
-						StyleWrapper wrapper = new StyleWrapper(style, specificity, position++);
-						if (firstStyleDeclaration == null) {
-							firstStyleDeclaration = wrapper;
-						} else {
-							// There is several Style Declarations which
-							// match the current element
-							if (styleDeclarations == null) {
-								styleDeclarations = new ArrayList<>();
-								styleDeclarations.add(firstStyleDeclaration);
-							}
-							styleDeclarations.add(wrapper);
-						}
+		for (RuleIndex.Candidate candidate : candidates) {
+			ExtendedSelector extendedSelector = candidate.selector();
+			if (extendedSelector.match(elt, hierarchy, 0, pseudoElt)) {
+				CSSStyleDeclaration style = candidate.rule().getStyle();
+				int specificity = extendedSelector.getSpecificity();
+				StyleWrapper wrapper = new StyleWrapper(style, specificity, position++);
+				if (firstStyleDeclaration == null) {
+					firstStyleDeclaration = wrapper;
+				} else {
+					// There is several Style Declarations which
+					// match the current element
+					if (styleDeclarations == null) {
+						styleDeclarations = new ArrayList<>();
+						styleDeclarations.add(firstStyleDeclaration);
 					}
+					styleDeclarations.add(wrapper);
 				}
 			}
 		}
@@ -169,13 +177,27 @@ public class ViewCSSImpl implements ViewCSS, ExtendedDocumentCSS.StyleSheetChang
 		return null;
 	}
 
+	private static Node[] getHierarchy(Element elt) {
+		Node parent = elt.getParentNode();
+		if (parent == null) {
+			return null;
+		}
+		List<Node> hierarchyList = new ArrayList<>();
+		for (Node n = parent; n != null; n = n.getParentNode()) {
+			hierarchyList.add(n);
+		}
+		return hierarchyList.toArray(new Node[hierarchyList.size()]);
+	}
+
 	@Override
 	public void styleSheetAdded(StyleSheet styleSheet) {
 		currentCombinedRules = null;
+		currentRuleIndex = null;
 	}
 
 	@Override
 	public void styleSheetRemoved(StyleSheet styleSheet) {
 		currentCombinedRules = null;
+		currentRuleIndex = null;
 	}
 }
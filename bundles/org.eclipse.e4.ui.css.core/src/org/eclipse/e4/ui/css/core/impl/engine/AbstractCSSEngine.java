@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2020 Angelo Zerr and others.
+ * Copyright (c) 2008, 2024 Angelo Zerr and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -148,6 +148,14 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 
 	private Map<String, String> currentCSSPropertiesApplied;
 
+	/**
+	 * Key of the element context data holding the values of the properties last
+	 * applied to the element, see {@link #setSkipUnchangedProperties(boolean)}.
+	 */
+	private static final String APPLIED_PROPERTIES_KEY = "org.eclipse.e4.ui.css.core.appliedProperties"; //$NON-NLS-1$
+
+	private boolean skipUnchangedProperties = Boolean.getBoolean("org.eclipse.e4.ui.css.skipUnchangedProperties"); //$NON-NLS-1$
+
 	private boolean throwError;
 
 	private Map<Object, ICSSValueConverter> valueConverters = null;
@@ -192,6 +200,7 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		CSSRuleList rules = styleSheet.getCssRules();
 		int length = rules.getLength();
 		CSSRuleListImpl masterList = new CSSRuleListImpl();
+		List<URL> imports = new ArrayList<>();
 		int counter;
 		for (counter = 0; counter < length; counter++) {
 			CSSRule rule = rules.item(counter);
@@ -233,6 +242,10 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 				for (int j = 0; j < tempRules.getLength(); j++) {
 					masterList.add(tempRules.item(j));
 				}
+				imports.add(url);
+				if (styleSheet instanceof CSSStyleSheetImpl) {
+					imports.addAll(((CSSStyleSheetImpl) styleSheet).getImports());
+				}
 			}
 		}
 
@@ -244,6 +257,7 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		// final stylesheet
 		CSSStyleSheetImpl s = new CSSStyleSheetImpl();
 		s.setRuleList(masterList);
+		s.setImports(imports);
 		if (parseImport == 0) {
 			documentCSS.addStyleSheet(s);
 		}
@@ -713,7 +727,23 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		}
 
 		element = getElement(element); // in case we're passed a node
-		if ("inherit".equals(value.getCssText())) {
+		Map<String, String> appliedProperties = null;
+		String appliedKey = null;
+		String cssText = value.getCssText();
+		if (skipUnchangedProperties && !"inherit".equals(cssText)) { //$NON-NLS-1$
+			appliedProperties = getAppliedProperties(element);
+			if (appliedProperties != null) {
+				appliedKey = pseudo == null ? property : property + ':' + pseudo;
+				if (cssText.equals(appliedProperties.get(appliedKey))) {
+					// The widget already has this value, don't push it again
+					if (currentCSSPropertiesApplied != null) {
+						currentCSSPropertiesApplied.put(property, property);
+					}
+					return null;
+				}
+			}
+		}
+		if ("inherit".equals(cssText)) {
 			// go to parent node
 			Element actualElement = (Element) element;
 			Node parentNode = actualElement.getParentNode();
@@ -738,6 +768,9 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 						if (currentCSSPropertiesApplied != null) {
 							currentCSSPropertiesApplied.put(property, property);
 						}
+						if (appliedProperties != null) {
+							appliedProperties.put(appliedKey, cssText);
+						}
 						return handler;
 					}
 				} catch (Exception e) {
@@ -751,6 +784,72 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		return null;
 	}
 
+	/**
+	 * Returns the values of the properties last applied to the given element,
+	 * keyed by property and pseudo instance, or <code>null</code> if the element
+	 * has no element context to hold them.
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<String, String> getAppliedProperties(Object element) {
+		CSSElementContext context = getCSSElementContext(element);
+		if (context == null) {
+			return null;
+		}
+		Map<String, String> appliedProperties = (Map<String, String>) context.getData(APPLIED_PROPERTIES_KEY);
+		if (appliedProperties == null) {
+			appliedProperties = new HashMap<>();
+			context.setData(APPLIED_PROPERTIES_KEY, appliedProperties);
+		}
+		return appliedProperties;
+	}
+
+	/**
+	 * Sets whether a property is only applied to an element if its value differs
+	 * from the value last applied to that element by this engine. This avoids
+	 * pushing identical fonts and colors into widgets, and the relayouts this
+	 * causes, when an element is restyled after a change of its class or id.
+	 * <p>
+	 * Changes made to the widgets other than through this engine are not
+	 * detected, so this mode must only be enabled if the styled properties are
+	 * not also modified by other code. Neither are changes of the color and font
+	 * definitions a value refers to, which is why {@link #reset()} and
+	 * {@link #reapply()}, used when the theme or these definitions change, forget
+	 * the values applied so far. The default is taken from the system property
+	 * <code>org.eclipse.e4.ui.css.skipUnchangedProperties</code>.
+	 * </p>
+	 *
+	 * @param skipUnchangedProperties <code>true</code> to skip properties whose
+	 *                                value has not changed
+	 */
+	public void setSkipUnchangedProperties(boolean skipUnchangedProperties) {
+		this.skipUnchangedProperties = skipUnchangedProperties;
+		if (!skipUnchangedProperties) {
+			forgetAppliedProperties();
+		}
+	}
+
+	/**
+	 * @return whether properties are only applied if their value has changed
+	 * @see #setSkipUnchangedProperties(boolean)
+	 */
+	public boolean isSkipUnchangedProperties() {
+		return skipUnchangedProperties;
+	}
+
+	/**
+	 * Forgets the values last applied to the elements, so that all properties are
+	 * applied again on next styling.
+	 *
+	 * @see #setSkipUnchangedProperties(boolean)
+	 */
+	protected void forgetAppliedProperties() {
+		if (elementsContext != null) {
+			for (CSSElementContext context : elementsContext.values()) {
+				context.setData(APPLIED_PROPERTIES_KEY, null);
+			}
+		}
+	}
+
 	@Override
 	public String retrieveCSSProperty(Object element, String property, String pseudo) {
 		try {
@@ -1012,6 +1111,8 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 	public void reset() {
 		// Remove All Style Sheets
 		documentCSS.removeAllStyleSheets();
+		// Styles applied for the old style sheets are no longer known to be current
+		forgetAppliedProperties();
 	}
 
 	/*--------------- Resources Registry -----------------*/
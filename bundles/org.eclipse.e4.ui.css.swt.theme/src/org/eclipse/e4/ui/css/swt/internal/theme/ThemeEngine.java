@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2023 Tom Schindl and others.
+ * Copyright (c) 2010, 2024 Tom Schindl and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,18 +18,29 @@
 package org.eclipse.e4.ui.css.swt.internal.theme;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.FileLocator;
@@ -42,8 +53,11 @@ import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.RegistryFactory;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.e4.ui.css.core.dom.ExtendedDocumentCSS;
 import org.eclipse.e4.ui.css.core.engine.CSSElementContext;
 import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.eclipse.e4.ui.css.core.impl.dom.CSSStyleSheetImpl;
+import org.eclipse.e4.ui.css.core.impl.dom.StyleSheetCompiler;
 import org.eclipse.e4.ui.css.core.util.impl.resources.FileResourcesLocatorImpl;
 import org.eclipse.e4.ui.css.core.util.impl.resources.OSGiResourceLocator;
 import org.eclipse.e4.ui.css.core.util.resources.IResourceLocator;
@@ -62,6 +76,7 @@ import org.osgi.service.prefs.BackingStoreException;
 import org.w3c.css.sac.InputSource;
 import org.w3c.dom.Element;
 import org.w3c.dom.css.CSSStyleDeclaration;
+import org.w3c.dom.stylesheets.StyleSheet;
 
 public class ThemeEngine implements IThemeEngine {
 	private List<Theme> themes = new ArrayList<>();
@@ -80,6 +95,26 @@ public class ThemeEngine implements IThemeEngine {
 	private HashMap<String, List<String>> modifiedStylesheets = new HashMap<>();
 	private HashMap<String, List<IResourceLocator>> sourceLocators = new HashMap<>();
 
+	/**
+	 * A parsed style sheet together with the modification stamp of its sources,
+	 * that is of the style sheet itself and of the ones it imports.
+	 */
+	private record ParsedStyleSheet(StyleSheet styleSheet, List<URL> sources, long stamp) {
+	}
+
+	/**
+	 * Style sheets parsed so far per engine, keyed by their resolved URL. A parsed
+	 * style sheet is only added to the document of the engine which parsed it,
+	 * since imports are resolved with the resource locators of that engine.
+	 */
+	private Map<CSSEngine, Map<String, ParsedStyleSheet>> parsedStyleSheets = new HashMap<>();
+
+	/**
+	 * The folder in the data area of this bundle holding the compiled form of the
+	 * style sheets, so that they need not be parsed again in the next session.
+	 */
+	private static final String COMPILED_STYLESHEETS_FOLDER = "compiledStyleSheets"; //$NON-NLS-1$
+
 	private static final String THEMEID_KEY = "themeid";
 
 	public static final String THEME_PLUGIN_ID = "org.eclipse.e4.ui.css.swt.theme";
@@ -462,26 +497,13 @@ public class ThemeEngine implements IThemeEngine {
 			}
 			for (String stylesheet : getAllStyles(theme)) {
 				URL url;
-				InputStream stream = null;
 				try {
 					url = FileLocator.resolve(new URL(stylesheet));
 					for (CSSEngine engine : cssEngines) {
 						try {
-							stream = url.openStream();
-							InputSource source = new InputSource();
-							source.setByteStream(stream);
-							source.setURI(url.toString());
-							engine.parseStyleSheet(source);
+							addStyleSheet(engine, url);
 						} catch (IOException e) {
 							ThemeEngineManager.logError(e.getMessage(), e);
-						} finally {
-							if (stream != null) {
-								try {
-									stream.close();
-								} catch (IOException e) {
-									ThemeEngineManager.logError(e.getMessage(), e);
-								}
-							}
 						}
 					}
 				} catch (IOException e) {
@@ -509,6 +531,177 @@ public class ThemeEngine implements IThemeEngine {
 		}
 	}
 
+	/**
+	 * Adds the style sheet at the given URL to the engine. A style sheet which the
+	 * engine has already parsed, and which has not changed since, is added again
+	 * instead of being parsed again, so that switching back to a theme does not
+	 * run the CSS parser again. At startup, the style sheet is read from its
+	 * compiled form written in a previous session, and only parsed if there is
+	 * none, or the style sheet or one of its imports has changed since.
+	 */
+	private void addStyleSheet(CSSEngine engine, URL url) throws IOException {
+		String key = url.toString();
+		Map<String, ParsedStyleSheet> engineStyleSheets = parsedStyleSheets.computeIfAbsent(engine,
+				e -> new HashMap<>());
+		ParsedStyleSheet parsed = engineStyleSheets.get(key);
+		if (parsed == null || parsed.stamp() != getModificationStamp(0, parsed.sources())) {
+			parsed = readCompiledStyleSheet(url);
+		}
+		if (parsed != null && engine.getDocumentCSS() instanceof ExtendedDocumentCSS) {
+			((ExtendedDocumentCSS) engine.getDocumentCSS()).addStyleSheet(parsed.styleSheet());
+			engineStyleSheets.put(key, parsed);
+			return;
+		}
+		try (InputStream stream = url.openStream()) {
+			InputSource source = new InputSource();
+			source.setByteStream(stream);
+			source.setURI(key);
+			// stamped before parsing, so that a style sheet edited meanwhile is parsed
+			// again next time
+			long stamp = getModificationStamp(0, List.of(url));
+			StyleSheet styleSheet = engine.parseStyleSheet(source);
+			List<URL> sources = new ArrayList<>();
+			sources.add(url);
+			if (styleSheet instanceof CSSStyleSheetImpl) {
+				List<URL> imports = ((CSSStyleSheetImpl) styleSheet).getImports();
+				sources.addAll(imports);
+				stamp = getModificationStamp(stamp, imports);
+			}
+			parsed = new ParsedStyleSheet(styleSheet, sources, stamp);
+			engineStyleSheets.put(key, parsed);
+			writeCompiledStyleSheet(url, parsed);
+		}
+	}
+
+	/**
+	 * Returns the file holding the compiled form of the style sheet at the given
+	 * URL, or <code>null</code> if it is not compiled.
+	 */
+	private static File getCompiledStyleSheetFile(URL url) {
+		Bundle bundle = FrameworkUtil.getBundle(ThemeEngine.class);
+		File folder = bundle != null ? bundle.getDataFile(COMPILED_STYLESHEETS_FOLDER) : null;
+		if (folder == null) {
+			return null;
+		}
+		String name = UUID.nameUUIDFromBytes(url.toString().getBytes(StandardCharsets.UTF_8)).toString();
+		return new File(folder, name);
+	}
+
+	/**
+	 * Reads the compiled form of the style sheet at the given URL, which is a
+	 * header of the URL and the stamp of its sources, followed by the style sheet
+	 * as written by the {@link StyleSheetCompiler}. Returns <code>null</code> if
+	 * there is none, or the style sheet or one of its imports has changed since it
+	 * was written.
+	 */
+	private static ParsedStyleSheet readCompiledStyleSheet(URL url) {
+		File file = getCompiledStyleSheetFile(url);
+		if (file == null || !file.isFile()) {
+			return null;
+		}
+		try {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file.toPath())));
+			if (!url.toString().equals(in.readUTF())) {
+				return null;
+			}
+			long stamp = in.readLong();
+			CSSStyleSheetImpl styleSheet = StyleSheetCompiler.read(in);
+			List<URL> sources = new ArrayList<>();
+			sources.add(url);
+			sources.addAll(styleSheet.getImports());
+			if (stamp != getModificationStamp(0, sources)) {
+				return null;
+			}
+			return new ParsedStyleSheet(styleSheet, sources, stamp);
+		} catch (IOException e) {
+			// written by another version or damaged, it is parsed and written again
+			file.delete();
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the compiled form of the given parsed style sheet, unless one of its
+	 * sources is not stamped, and thus could change unnoticed, or the style sheet
+	 * holds rules the {@link StyleSheetCompiler} does not support.
+	 */
+	private static void writeCompiledStyleSheet(URL url, ParsedStyleSheet parsed) {
+		if (!(parsed.styleSheet() instanceof CSSStyleSheetImpl)
+				|| !parsed.sources().stream().allMatch(ThemeEngine::isStamped)) {
+			return;
+		}
+		File file = getCompiledStyleSheetFile(url);
+		if (file == null) {
+			return;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try {
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeUTF(url.toString());
+			out.writeLong(parsed.stamp());
+			StyleSheetCompiler.write((CSSStyleSheetImpl) parsed.styleSheet(), out);
+		} catch (NotSerializableException e) {
+			// parsed again in the next session
+			return;
+		} catch (IOException e) {
+			ThemeEngineManager.logError(e.getMessage(), e);
+			return;
+		}
+		try {
+			file.getParentFile().mkdirs();
+			// written next to the file and moved, so that no half written file is read
+			Path temp = Files.createTempFile(file.getParentFile().toPath(), file.getName(), null);
+			Files.write(temp, bytes.toByteArray());
+			Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			ThemeEngineManager.logError(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Returns the file in the file system which holds the style sheet at the given
+	 * URL, that is the style sheet itself or the archive containing it, or
+	 * <code>null</code> if there is none.
+	 */
+	private static File getStampedFile(URL url) {
+		String spec = url.toString();
+		if ("jar".equals(url.getProtocol())) { //$NON-NLS-1$
+			int separator = spec.indexOf("!/"); //$NON-NLS-1$
+			if (separator == -1) {
+				return null;
+			}
+			spec = spec.substring("jar:".length(), separator); //$NON-NLS-1$
+		}
+		if (!spec.startsWith("file:")) { //$NON-NLS-1$
+			return null;
+		}
+		try {
+			return new File(new URL(spec).getFile());
+		} catch (MalformedURLException e) {
+			return null;
+		}
+	}
+
+	private static boolean isStamped(URL url) {
+		return getStampedFile(url) != null;
+	}
+
+	/**
+	 * Returns a stamp which changes whenever one of the style sheets at the given
+	 * URLs is edited, continuing the given stamp of the preceding ones. Style
+	 * sheets contributed by bundles are stamped with the archive of the bundle,
+	 * which is replaced along with the bundle.
+	 */
+	private static long getModificationStamp(long stamp, List<URL> urls) {
+		for (URL url : urls) {
+			File file = getStampedFile(url);
+			if (file != null) {
+				stamp = stamp * 31 + file.lastModified() * 31 + file.length();
+			}
+		}
+		return stamp;
+	}
+
 	/**
 	 * Broadcast theme-change event using OSGi Event Admin.
 	 */
@@ -670,5 +863,6 @@ public class ThemeEngine implements IThemeEngine {
 	@Override
 	public void removeCSSEngine(CSSEngine cssEngine) {
 		cssEngines.remove(cssEngine);
+		parsedStyleSheets.remove(cssEngine);
 	}
 }
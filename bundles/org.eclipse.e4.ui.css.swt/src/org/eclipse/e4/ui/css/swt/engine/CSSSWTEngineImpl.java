@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2019 Angelo Zerr and others.
+ * Copyright (c) 2008, 2024 Angelo Zerr and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -66,6 +66,9 @@ public class CSSSWTEngineImpl extends AbstractCSSSWTEngineImpl {
 
 	@Override
 	public void reapply() {
+		// the values may resolve differently now, e.g. after a change of the
+		// color and font definitions they refer to
+		forgetAppliedProperties();
 		Shell[] shells = display.getShells();
 		for (Shell s : shells) {
 			try {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2015 IBM Corporation and others.
+ * Copyright (c) 2003, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,8 +15,11 @@
 package org.eclipse.e4.ui.progress.internal;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -123,6 +126,18 @@ public class ProgressViewUpdater implements IJobProgressManagerListener {
 
 			additions.removeAll(staleAdditions);
 
+			// A job is added once per run, so a job added and removed since the
+			// last update was never shown and does not need to be removed. The
+			// removal of a previous run of the job may be pending as well, which
+			// was shown. JobInfo equality delegates to the job, so only removals of
+			// the very same info are dropped.
+			Set<JobTreeElement> staleRuns = Collections.newSetFromMap(new IdentityHashMap<>());
+			for (JobTreeElement treeElement : staleAdditions) {
+				if (treeElement instanceof JobInfo) {
+					staleRuns.add(treeElement);
+				}
+			}
+
 			HashSet<JobTreeElement> obsoleteRefresh = new HashSet<>();
 			Iterator<JobTreeElement> refreshIterator = refreshes.iterator();
 			while (refreshIterator.hasNext()) {
@@ -145,6 +160,7 @@ public class ProgressViewUpdater implements IJobProgressManagerListener {
 			}
 
 			refreshes.removeAll(obsoleteRefresh);
+			deletions.removeIf(staleRuns::contains);
 
 		}
 	}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,9 @@
 
 package org.eclipse.e4.ui.internal.workbench;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -33,6 +36,8 @@ public class E4XMIResource extends XMIResourceImpl {
 	private Map<EObject, String> objectMap = new WeakHashMap<>();
 	private Set<String> knownIds = new HashSet<>();
 
+	private boolean binary;
+
 	public E4XMIResource() {
 	}
 
@@ -40,6 +45,24 @@ public class E4XMIResource extends XMIResourceImpl {
 		super(uri);
 	}
 
+	/**
+	 * Sets whether the contents of this resource are loaded and saved in the EMF
+	 * binary resource format instead of XMI.
+	 *
+	 * @param binary <code>true</code> to use the binary format
+	 */
+	public void setBinary(boolean binary) {
+		this.binary = binary;
+	}
+
+	/**
+	 * @return <code>true</code> if the contents of this resource are loaded and
+	 *         saved in the EMF binary resource format
+	 */
+	public boolean isBinary() {
+		return binary;
+	}
+
 	public void setInternalId(EObject object, String id) {
 		objectMap.put(object, id);
 		knownIds.add(id);
@@ -101,6 +124,24 @@ public class E4XMIResource extends XMIResourceImpl {
 		return id;
 	}
 
+	@Override
+	public void doLoad(InputStream inputStream, Map<?, ?> options) throws IOException {
+		if (binary) {
+			E4BinaryModelSerializer.load(this, inputStream, options);
+		} else {
+			super.doLoad(inputStream, options);
+		}
+	}
+
+	@Override
+	public void doSave(OutputStream outputStream, Map<?, ?> options) throws IOException {
+		if (binary) {
+			E4BinaryModelSerializer.save(this, outputStream, options);
+		} else {
+			super.doSave(outputStream, options);
+		}
+	}
+
 	/*
 	 * Create custom XML save to allow filtering of volatile UI elements.
 	 */
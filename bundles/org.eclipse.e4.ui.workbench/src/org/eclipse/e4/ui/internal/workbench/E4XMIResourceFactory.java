@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -45,9 +45,30 @@ public class E4XMIResourceFactory extends XMIResourceFactoryImpl {
 	 */
 	private final ThreadLocal<Map<Object, Object>> nameToFeatureMap = new ThreadLocal<>();
 
+	private final boolean binary;
+
+	/**
+	 * Creates a factory for resources stored as XMI.
+	 */
+	public E4XMIResourceFactory() {
+		this(false);
+	}
+
+	/**
+	 * Creates a factory for resources stored as XMI or in the EMF binary resource
+	 * format.
+	 *
+	 * @param binary <code>true</code> to create resources using the binary format
+	 * @see E4XMIResource#setBinary(boolean)
+	 */
+	public E4XMIResourceFactory(boolean binary) {
+		this.binary = binary;
+	}
+
 	@Override
 	public Resource createResource(URI uri) {
 		final E4XMIResource resource = new E4XMIResource(uri);
+		resource.setBinary(binary);
 
 		// configure default save/load options, as suggested by
 		// EMF: Eclipse Modeling Framework, Second Edition
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2021 BestSolution.at and others.
+ * Copyright (c) 2010, 2024 BestSolution.at and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -21,11 +21,18 @@ package org.eclipse.e4.ui.internal.workbench;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Dictionary;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -37,6 +44,10 @@ import java.util.TreeSet;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtension;
 import org.eclipse.core.runtime.IExtensionPoint;
@@ -62,12 +73,16 @@ import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.URIConverter;
 import org.eclipse.emf.ecore.util.Diagnostician;
 import org.eclipse.emf.ecore.util.EContentsEList;
 import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMIResource;
+import org.eclipse.emf.ecore.xmi.XMLResource;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.BundleEvent;
@@ -205,11 +220,27 @@ public class ModelAssembler {
 
 	private static final String EXTENSION_POINT_ID = "org.eclipse.e4.workbench.model"; //$NON-NLS-1$
 	private static final String MODEL_FRAGMENT_HEADER = "Model-Fragment"; //$NON-NLS-1$
+	private static final int TRACKED_BUNDLE_STATES = Bundle.STARTING | Bundle.ACTIVE | Bundle.STOPPING;
 
 	private static final String ALWAYS = "always"; //$NON-NLS-1$
 	private static final String INITIAL = "initial"; //$NON-NLS-1$
 	private static final String NOTEXISTS = "notexists"; //$NON-NLS-1$
 
+	/**
+	 * System property which, if set to <code>true</code>, keeps the fragments from
+	 * being merged again into a persisted model which already contains their
+	 * elements, as long as the bundles contributing them are the same as when the
+	 * model was last assembled. Elements of such a model which were changed since
+	 * they were merged are then not reset to the state defined by the fragments.
+	 */
+	private static final String CACHE_FRAGMENTS_PROPERTY = "org.eclipse.e4.ui.workbench.cacheModelFragments"; //$NON-NLS-1$
+
+	/**
+	 * Key of the persisted state of the application holding the digest of the
+	 * fragment contributions last merged into the model.
+	 */
+	private static final String FRAGMENTS_DIGEST = "org.eclipse.e4.ui.workbench.modelFragmentsDigest"; //$NON-NLS-1$
+
 	LoggerFactory factory;
 	Logger logger;
 
@@ -227,8 +258,7 @@ public class ModelAssembler {
 	void activate(BundleContext bundleContext) {
 		this.bundleContext = bundleContext;
 
-		this.tracker = new BundleTracker<>(bundleContext, Bundle.STARTING | Bundle.ACTIVE | Bundle.STOPPING,
-				new ModelFragmentBundleTracker());
+		this.tracker = new BundleTracker<>(bundleContext, TRACKED_BUNDLE_STATES, new ModelFragmentBundleTracker());
 	}
 
 	@Deactivate
@@ -340,22 +370,44 @@ public class ModelAssembler {
 	 * @param initial    <code>true</code> if running from a non-persisted state
 	 */
 	private void processFragments(IExtension[] extensions, boolean initial) {
-		List<ModelFragmentWrapper> wrappers = new ArrayList<>();
+		List<IConfigurationElement> fragmentElements = new ArrayList<>();
 		for (IExtension extension : extensions) {
-			IConfigurationElement[] ces = extension.getConfigurationElements();
-			for (IConfigurationElement ce : ces) {
-				if ("fragment".equals(ce.getName()) && (initial || !INITIAL.equals(ce.getAttribute("apply")))) { //$NON-NLS-1$ //$NON-NLS-2$
-					MModelFragments fragmentsContainer = getFragmentsContainer(ce.getAttribute("uri"), //$NON-NLS-1$
-							ce.getContributor().getName());
-					if (fragmentsContainer == null) {
-						continue;
-					}
-					for (MModelFragment fragment : fragmentsContainer.getFragments()) {
-						boolean checkExist = !initial && NOTEXISTS.equals(ce.getAttribute("apply")); //$NON-NLS-1$
-						wrappers.add(
-								new ModelFragmentWrapper(fragmentsContainer, fragment, ce.getContributor().getName(),
-										URIHelper.constructPlatformURI(ce.getContributor()), checkExist)); // $NON-NLS-1$
-					}
+			for (IConfigurationElement ce : extension.getConfigurationElements()) {
+				if ("fragment".equals(ce.getName())) { //$NON-NLS-1$
+					fragmentElements.add(ce);
+				}
+			}
+		}
+		List<Bundle> fragmentBundles = getTrackedFragmentBundles();
+
+		// parse all fragments up front in parallel, the sequential processing below
+		// then finds them in the resource set
+		List<URI> uris = new ArrayList<>();
+		for (IConfigurationElement ce : fragmentElements) {
+			if (initial || !INITIAL.equals(ce.getAttribute("apply"))) { //$NON-NLS-1$
+				addFragmentURI(uris, ce.getAttribute("uri"), ce.getContributor().getName()); //$NON-NLS-1$
+			}
+		}
+		for (Bundle bundle : fragmentBundles) {
+			String[] fr = bundle.getHeaders(Util.ZERO_LENGTH_STRING).get(MODEL_FRAGMENT_HEADER).split(";"); //$NON-NLS-1$
+			if (initial || fr.length < 2 || !fr[1].trim().endsWith('=' + INITIAL)) {
+				addFragmentURI(uris, fr[0], bundle.getSymbolicName());
+			}
+		}
+		loadFragmentResources(uris);
+
+		List<ModelFragmentWrapper> wrappers = new ArrayList<>();
+		for (IConfigurationElement ce : fragmentElements) {
+			if (initial || !INITIAL.equals(ce.getAttribute("apply"))) { //$NON-NLS-1$
+				MModelFragments fragmentsContainer = getFragmentsContainer(ce.getAttribute("uri"), //$NON-NLS-1$
+						ce.getContributor().getName());
+				if (fragmentsContainer == null) {
+					continue;
+				}
+				for (MModelFragment fragment : fragmentsContainer.getFragments()) {
+					boolean checkExist = !initial && NOTEXISTS.equals(ce.getAttribute("apply")); //$NON-NLS-1$
+					wrappers.add(new ModelFragmentWrapper(fragmentsContainer, fragment, ce.getContributor().getName(),
+							URIHelper.constructPlatformURI(ce.getContributor()), checkExist)); // $NON-NLS-1$
 				}
 			}
 		}
@@ -375,7 +427,227 @@ public class ModelAssembler {
 			wrappers.addAll(collect);
 		}
 
-		processFragmentWrappers(wrappers);
+		String digest = Boolean.getBoolean(CACHE_FRAGMENTS_PROPERTY)
+				? computeFragmentsDigest(fragmentElements, fragmentBundles) : null;
+		if (digest != null && !initial && digest.equals(application.getPersistedState().get(FRAGMENTS_DIGEST))
+				&& isMerged(wrappers)) {
+			log(LogLevel.DEBUG, "Model fragments are unchanged, skipping the merge of {} fragments", //$NON-NLS-1$
+					wrappers.size());
+		} else {
+			processFragmentWrappers(wrappers);
+		}
+		if (digest != null) {
+			application.getPersistedState().put(FRAGMENTS_DIGEST, digest);
+		}
+	}
+
+	/**
+	 * Returns the bundles with a Model-Fragment header which are picked up when
+	 * the bundle tracker is opened.
+	 */
+	private List<Bundle> getTrackedFragmentBundles() {
+		List<Bundle> bundles = new ArrayList<>();
+		if (this.tracker != null && this.bundleContext != null) {
+			for (Bundle bundle : this.bundleContext.getBundles()) {
+				if ((bundle.getState() & TRACKED_BUNDLE_STATES) != 0
+						&& bundle.getHeaders(Util.ZERO_LENGTH_STRING).get(MODEL_FRAGMENT_HEADER) != null) {
+					bundles.add(bundle);
+				}
+			}
+		}
+		return bundles;
+	}
+
+	private void addFragmentURI(List<URI> uris, String attrURI, String bundleName) {
+		if (attrURI != null) {
+			try {
+				uris.add(getFragmentURI(attrURI, bundleName));
+			} catch (RuntimeException e) {
+				// reported when the fragment is processed
+			}
+		}
+	}
+
+	/**
+	 * Loads the fragment resources with the given URIs which are not in the
+	 * resource set of the application yet. Each resource is parsed on its own, so
+	 * this is done in parallel. Resources which fail to load are removed again,
+	 * the error is reported when they are requested from the resource set while
+	 * processing the fragments.
+	 * <p>
+	 * The packages of the model elements are looked up in the package registry
+	 * while parsing, which is not thread-safe and resolves the packages of other
+	 * bundles lazily. So the packages of all namespaces used by a fragment are
+	 * resolved before it is parsed in parallel. Fragments using a namespace
+	 * without a registered package are parsed one after the other.
+	 * </p>
+	 */
+	private void loadFragmentResources(List<URI> uris) {
+		ResourceSet resourceSet = ((EObject) application).eResource().getResourceSet();
+		List<Resource> resources = new ArrayList<>();
+		for (URI uri : uris) {
+			if (resourceSet.getResource(uri, false) == null) {
+				Resource resource = resourceSet.createResource(uri);
+				if (resource != null) {
+					resources.add(resource);
+				}
+			}
+		}
+		if (resources.isEmpty()) {
+			return;
+		}
+
+		Map<Resource, Set<String>> namespaces = new HashMap<>();
+		if (resources.size() > 1) {
+			URIConverter uriConverter = resourceSet.getURIConverter();
+			namespaces = resources.parallelStream().collect(Collectors.toMap(resource -> resource,
+					resource -> getNamespaces(uriConverter, resource.getURI())));
+		}
+		List<Resource> parallel = new ArrayList<>();
+		List<Resource> sequential = new ArrayList<>();
+		for (Resource resource : resources) {
+			if (resolvePackages(resourceSet.getPackageRegistry(), namespaces.get(resource))) {
+				parallel.add(resource);
+			} else {
+				sequential.add(resource);
+			}
+		}
+
+		Map<?, ?> options = resourceSet.getLoadOptions();
+		List<Resource> failed = new ArrayList<>(
+				parallel.parallelStream().filter(resource -> !load(resource, options)).toList());
+		for (Resource resource : sequential) {
+			if (!load(resource, options)) {
+				failed.add(resource);
+			}
+		}
+		resourceSet.getResources().removeAll(failed);
+	}
+
+	private static boolean load(Resource resource, Map<?, ?> options) {
+		try {
+			resource.load(options);
+			return true;
+		} catch (IOException | RuntimeException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the namespaces declared in the XML document with the given URI, or
+	 * <code>null</code> if it can't be read.
+	 */
+	private static Set<String> getNamespaces(URIConverter uriConverter, URI uri) {
+		XMLInputFactory factory = XMLInputFactory.newDefaultFactory();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		Set<String> namespaces = new HashSet<>();
+		try (InputStream inputStream = uriConverter.createInputStream(uri)) {
+			XMLStreamReader reader = factory.createXMLStreamReader(inputStream);
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+						for (int i = 0; i < reader.getNamespaceCount(); i++) {
+							namespaces.add(reader.getNamespaceURI(i));
+						}
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (IOException | XMLStreamException | RuntimeException e) {
+			return null;
+		}
+		return namespaces;
+	}
+
+	/**
+	 * Resolves the packages of the given namespaces in the package registry.
+	 *
+	 * @return <code>true</code> if there is a package for every namespace which
+	 *         does not belong to XMI or XML Schema
+	 */
+	private static boolean resolvePackages(EPackage.Registry packageRegistry, Set<String> namespaces) {
+		if (namespaces == null) {
+			return false;
+		}
+		for (String namespace : namespaces) {
+			if (XMIResource.XMI_URI.equals(namespace) || XMIResource.XMI_2_1_URI.equals(namespace)
+					|| XMLResource.XSI_URI.equals(namespace) || XMLResource.XML_SCHEMA_URI.equals(namespace)) {
+				continue;
+			}
+			try {
+				EPackage ePackage = packageRegistry.getEPackage(namespace);
+				if (ePackage == null) {
+					return false;
+				}
+				// the lookup of the classifiers by name is built lazily as well
+				ePackage.getEClassifier(""); //$NON-NLS-1$
+			} catch (RuntimeException e) {
+				// reported when the fragment is loaded
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns a digest of the fragment contributions, which changes when a
+	 * contributing bundle is added, removed or updated, or the declaration of its
+	 * fragments changes.
+	 */
+	private String computeFragmentsDigest(List<IConfigurationElement> fragmentElements, List<Bundle> fragmentBundles) {
+		Set<String> contributions = new TreeSet<>();
+		for (IConfigurationElement ce : fragmentElements) {
+			String bundleName = ce.getContributor().getName();
+			Activator activator = Activator.getDefault();
+			Bundle bundle = activator != null ? activator.getBundleForName(bundleName) : null;
+			if (bundle == null) {
+				// the contribution can't be told apart from a changed one
+				return null;
+			}
+			contributions.add(describe(bundle) + ':' + ce.getAttribute("uri") + ':' + ce.getAttribute("apply")); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		for (Bundle bundle : fragmentBundles) {
+			contributions.add(
+					describe(bundle) + ':' + bundle.getHeaders(Util.ZERO_LENGTH_STRING).get(MODEL_FRAGMENT_HEADER));
+		}
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+			for (String contribution : contributions) {
+				messageDigest.update(contribution.getBytes(StandardCharsets.UTF_8));
+				messageDigest.update((byte) '\n');
+			}
+			return HexFormat.of().formatHex(messageDigest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			return null;
+		}
+	}
+
+	private static String describe(Bundle bundle) {
+		return bundle.getSymbolicName() + '_' + bundle.getVersion() + '@' + bundle.getLastModified();
+	}
+
+	/**
+	 * Returns whether the elements of all fragments are already part of the
+	 * application model, i.e. they were merged in a previous session and have not
+	 * been removed since.
+	 */
+	private boolean isMerged(List<ModelFragmentWrapper> wrappers) {
+		E4XMIResource applicationResource = (E4XMIResource) ((EObject) application).eResource();
+		for (ModelFragmentWrapper wrapper : wrappers) {
+			for (MApplicationElement element : wrapper.getModelFragment().getElements()) {
+				EObject o = (EObject) element;
+				if (!(o.eResource() instanceof E4XMIResource)) {
+					return false;
+				}
+				String id = ((E4XMIResource) o.eResource()).getID(o);
+				if (!applicationResource.getIDToEObjectMap().containsKey(id)) {
+					return false;
+				}
+			}
+		}
+		return true;
 	}
 
 	private List<ModelFragmentWrapper> getModelFragmentWrapperFromBundle(Bundle bundle, boolean initial) {
@@ -542,13 +814,7 @@ public class ModelAssembler {
 
 		URI uri;
 		try {
-			// check if the attrURI is already a platform URI
-			if (URIHelper.isPlatformURI(attrURI)) {
-				uri = URI.createURI(attrURI);
-			} else {
-				String path = bundleName + '/' + attrURI;
-				uri = URI.createPlatformPluginURI(path, false);
-			}
+			uri = getFragmentURI(attrURI, bundleName);
 		} catch (RuntimeException e) {
 			log(LogLevel.WARN, "Invalid location {} of model extension {}", attrURI, bundleName, e); //$NON-NLS-1$
 			return null;
@@ -576,6 +842,14 @@ public class ModelAssembler {
 		return (MModelFragments) extensionRoot;
 	}
 
+	private static URI getFragmentURI(String attrURI, String bundleName) {
+		// check if the attrURI is already a platform URI
+		if (URIHelper.isPlatformURI(attrURI)) {
+			return URI.createURI(attrURI);
+		}
+		return URI.createPlatformPluginURI(bundleName + '/' + attrURI, false);
+	}
+
 	/**
 	 * Contributes the given {@link MModelFragment} to the application model.
 	 *
@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.e4.ui.model.application.MApplication;
+import org.eclipse.e4.ui.model.application.MApplicationElement;
+import org.eclipse.e4.ui.model.application.impl.ApplicationPackageImpl;
+import org.eclipse.e4.ui.model.application.ui.MUIElement;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+
+/**
+ * An index of the elements of an application model by element id, tag and
+ * type, kept up to date from the EMF notifications of the model.
+ * <p>
+ * The index does not replace the traversal done by
+ * {@link ModelServiceImpl#findElements}, which defines the order of the result
+ * and which parts of the model are searched. It tells the traversal which
+ * elements can be skipped because neither they nor anything reachable from
+ * them can match, so that a search only walks down the paths to the elements
+ * that can.
+ * </p>
+ */
+final class ModelElementIndex extends EContentAdapter {
+
+	/**
+	 * If the best key of a query matches more elements than this, computing the
+	 * paths to all of them costs more than walking the model.
+	 */
+	private static final int MAX_CANDIDATES = 512;
+
+	private final Map<String, Set<EObject>> byId = new HashMap<>();
+	private final Map<String, Set<EObject>> byTag = new HashMap<>();
+	private final Map<EClass, Set<EObject>> byType = new HashMap<>();
+	private final Set<MPlaceholder> placeholders = new HashSet<>();
+
+	private ModelElementIndex() {
+	}
+
+	/**
+	 * Returns the index of the application the given element is contained in,
+	 * creating it on first use.
+	 *
+	 * @param element an element of an application model
+	 * @return the index, or <code>null</code> if the element is not contained in
+	 *         an application
+	 */
+	static ModelElementIndex getIndex(MApplicationElement element) {
+		if (!(element instanceof EObject)) {
+			return null;
+		}
+		EObject root = (EObject) element;
+		while (root.eContainer() != null) {
+			root = root.eContainer();
+		}
+		if (!(root instanceof MApplication)) {
+			return null;
+		}
+		for (Adapter adapter : root.eAdapters()) {
+			if (adapter instanceof ModelElementIndex) {
+				return (ModelElementIndex) adapter;
+			}
+		}
+		ModelElementIndex index = new ModelElementIndex();
+		root.eAdapters().add(index);
+		return index;
+	}
+
+	/**
+	 * Returns the elements a search for elements with the given id, class and
+	 * tags has to visit, i.e. all elements containing or referencing a matching
+	 * element, directly or through other elements.
+	 *
+	 * @param id    the element id to match, or <code>null</code>
+	 * @param clazz the class to match, or <code>null</code>
+	 * @param tags  the tags which must all be matched, or <code>null</code>
+	 * @return the elements to visit, or <code>null</code> if the whole model has
+	 *         to be searched
+	 */
+	Set<Object> getScope(String id, Class<?> clazz, List<String> tags) {
+		Collection<EObject> candidates = null;
+		if (id != null) {
+			candidates = byId.getOrDefault(id, Collections.emptySet());
+		}
+		if (tags != null) {
+			for (String tag : tags) {
+				candidates = smaller(candidates, byTag.getOrDefault(tag, Collections.emptySet()));
+			}
+		}
+		if (clazz != null && (candidates == null || candidates.size() > MAX_CANDIDATES)) {
+			candidates = smaller(candidates, getInstances(clazz));
+		}
+		if (candidates == null || candidates.size() > MAX_CANDIDATES) {
+			return null;
+		}
+
+		Set<Object> scope = new HashSet<>();
+		Deque<EObject> pending = new ArrayDeque<>(candidates);
+		for (MPlaceholder placeholder : placeholders) {
+			// Elements outside of the application are not indexed, anything may
+			// match below a placeholder referencing them
+			MUIElement ref = placeholder.getRef();
+			if (ref != null && !contains(ref)) {
+				pending.add((EObject) placeholder);
+			}
+		}
+		while (!pending.isEmpty()) {
+			while (!pending.isEmpty()) {
+				for (EObject element = pending.pop(); element != null && scope.add(element); element = element
+						.eContainer()) {
+					// add the element and all its containers
+				}
+			}
+			for (MPlaceholder placeholder : placeholders) {
+				if (!scope.contains(placeholder) && scope.contains(placeholder.getRef())) {
+					pending.add((EObject) placeholder);
+				}
+			}
+		}
+		return scope;
+	}
+
+	/**
+	 * Returns whether the given element is contained in the indexed application.
+	 *
+	 * @param element the element
+	 * @return <code>true</code> if the element is indexed
+	 */
+	boolean contains(Object element) {
+		if (!(element instanceof EObject)) {
+			return false;
+		}
+		Set<EObject> elements = byType.get(((EObject) element).eClass());
+		return elements != null && elements.contains(element);
+	}
+
+	private Collection<EObject> getInstances(Class<?> clazz) {
+		List<EObject> instances = new ArrayList<>();
+		for (Map.Entry<EClass, Set<EObject>> entry : byType.entrySet()) {
+			Class<?> instanceClass = entry.getKey().getInstanceClass();
+			if (instanceClass != null && clazz.isAssignableFrom(instanceClass)) {
+				instances.addAll(entry.getValue());
+			} else if (instanceClass == null) {
+				// dynamic model elements, test each one
+				for (EObject element : entry.getValue()) {
+					if (clazz.isInstance(element)) {
+						instances.add(element);
+					}
+				}
+			}
+		}
+		return instances;
+	}
+
+	private static Collection<EObject> smaller(Collection<EObject> a, Collection<EObject> b) {
+		return a == null || b.size() < a.size() ? b : a;
+	}
+
+	@Override
+	protected void setTarget(EObject target) {
+		add(target);
+		super.setTarget(target);
+	}
+
+	@Override
+	protected void unsetTarget(EObject target) {
+		super.unsetTarget(target);
+		remove(target);
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		super.notifyChanged(notification);
+
+		if (notification.isTouch() || !(notification.getNotifier() instanceof MApplicationElement)) {
+			return;
+		}
+		EObject element = (EObject) notification.getNotifier();
+		Object feature = notification.getFeature();
+		if (feature == ApplicationPackageImpl.Literals.APPLICATION_ELEMENT__ELEMENT_ID) {
+			removeFrom(byId, (String) notification.getOldValue(), element);
+			addTo(byId, (String) notification.getNewValue(), element);
+		} else if (feature == ApplicationPackageImpl.Literals.APPLICATION_ELEMENT__TAGS) {
+			updateTags(notification, element);
+		}
+	}
+
+	private void updateTags(Notification notification, EObject element) {
+		switch (notification.getEventType()) {
+		case Notification.ADD:
+		case Notification.SET:
+			removeTag(element, notification.getOldValue());
+			addTo(byTag, (String) notification.getNewValue(), element);
+			break;
+		case Notification.ADD_MANY:
+			for (Object tag : (Collection<?>) notification.getNewValue()) {
+				addTo(byTag, (String) tag, element);
+			}
+			break;
+		case Notification.REMOVE:
+			removeTag(element, notification.getOldValue());
+			break;
+		case Notification.REMOVE_MANY:
+			for (Object tag : (Collection<?>) notification.getOldValue()) {
+				removeTag(element, tag);
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	private void removeTag(EObject element, Object tag) {
+		// Tags may be added more than once, keep the element while any is left
+		if (tag != null && !((MApplicationElement) element).getTags().contains(tag)) {
+			removeFrom(byTag, (String) tag, element);
+		}
+	}
+
+	private void add(EObject target) {
+		if (!(target instanceof MApplicationElement)) {
+			return;
+		}
+		MApplicationElement element = (MApplicationElement) target;
+		byType.computeIfAbsent(target.eClass(), k -> new HashSet<>()).add(target);
+		addTo(byId, element.getElementId(), target);
+		for (String tag : element.getTags()) {
+			addTo(byTag, tag, target);
+		}
+		if (target instanceof MPlaceholder) {
+			placeholders.add((MPlaceholder) target);
+		}
+	}
+
+	private void remove(EObject target) {
+		if (!(target instanceof MApplicationElement)) {
+			return;
+		}
+		MApplicationElement element = (MApplicationElement) target;
+		removeFrom(byType, target.eClass(), target);
+		removeFrom(byId, element.getElementId(), target);
+		for (String tag : element.getTags()) {
+			removeFrom(byTag, tag, target);
+		}
+		if (target instanceof MPlaceholder) {
+			placeholders.remove(target);
+		}
+	}
+
+	private static <K> void addTo(Map<K, Set<EObject>> map, K key, EObject element) {
+		if (key != null) {
+			map.computeIfAbsent(key, k -> new HashSet<>()).add(element);
+		}
+	}
+
+	private static <K> void removeFrom(Map<K, Set<EObject>> map, K key, EObject element) {
+		if (key == null) {
+			return;
+		}
+		Set<EObject> elements = map.get(key);
+		if (elements != null && elements.remove(element) && elements.isEmpty()) {
+			map.remove(key);
+		}
+	}
+}
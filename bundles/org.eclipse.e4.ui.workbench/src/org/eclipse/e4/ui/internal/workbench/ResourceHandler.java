@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2021 IBM Corporation and others.
+ * Copyright (c) 2009, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -62,6 +62,20 @@ import org.osgi.framework.Bundle;
  */
 public class ResourceHandler implements IModelResourceHandler {
 
+	/**
+	 * System property to save the workbench model in the EMF binary resource
+	 * format instead of XMI, which is smaller and faster to load for large models.
+	 * Whichever of the two files was saved last is restored, so the property can
+	 * be switched on and off between sessions.
+	 */
+	private static final boolean SAVE_BINARY_MODEL = Boolean.getBoolean("org.eclipse.e4.ui.workbench.binaryModel"); //$NON-NLS-1$
+
+	private static final String XMI_MODEL_FILE = "workbench.xmi"; //$NON-NLS-1$
+
+	private static final String BINARY_MODEL_EXTENSION = "bin"; //$NON-NLS-1$
+
+	private static final String BINARY_MODEL_FILE = "workbench." + BINARY_MODEL_EXTENSION; //$NON-NLS-1$
+
 	private ResourceSet resourceSet;
 	private Resource resource;
 
@@ -105,6 +119,8 @@ public class ResourceHandler implements IModelResourceHandler {
 		resourceSet = new ResourceSetImpl();
 		resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap()
 				.put(Resource.Factory.Registry.DEFAULT_EXTENSION, new E4XMIResourceFactory());
+		resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put(BINARY_MODEL_EXTENSION,
+				new E4XMIResourceFactory(true));
 		resourceSet.getPackageRegistry().put(ApplicationPackageImpl.eNS_URI, ApplicationPackageImpl.eINSTANCE);
 		resourceSet.getPackageRegistry().put(CommandsPackageImpl.eNS_URI, CommandsPackageImpl.eINSTANCE);
 		resourceSet.getPackageRegistry().put(UiPackageImpl.eNS_URI, UiPackageImpl.eINSTANCE);
@@ -143,12 +159,13 @@ public class ResourceHandler implements IModelResourceHandler {
 		URI restoreLocation = null;
 
 		if (saveAndRestore) {
-			workbenchData = getWorkbenchSaveLocation();
+			workbenchData = getWorkbenchRestoreLocation();
 			restoreLocation = URI.createFileURI(workbenchData.getAbsolutePath());
 		}
 
-		if (clearPersistedState && workbenchData != null && workbenchData.exists()) {
-			workbenchData.delete();
+		if (clearPersistedState && workbenchData != null) {
+			new File(getBaseLocation(), XMI_MODEL_FILE).delete();
+			new File(getBaseLocation(), BINARY_MODEL_FILE).delete();
 		}
 
 		// last stored time-stamp
@@ -172,6 +189,10 @@ public class ResourceHandler implements IModelResourceHandler {
 							"The persisted application model has no top-level window. Reinitializing with the default application model."); //$NON-NLS-1$
 				}
 				resource = null;
+			} else if (resource instanceof E4XMIResource && !workbenchData.equals(getWorkbenchSaveLocation())) {
+				// Restored from the other format, save in the configured one from now on
+				resource.setURI(URI.createFileURI(getWorkbenchSaveLocation().getAbsolutePath()));
+				((E4XMIResource) resource).setBinary(SAVE_BINARY_MODEL);
 			}
 		}
 		if (resource == null) {
@@ -215,6 +236,8 @@ public class ResourceHandler implements IModelResourceHandler {
 			Map<String, Object> options = new HashMap<>();
 			options.put(E4XMIResource.OPTION_FILTER_PERSIST_STATE, Boolean.TRUE);
 			resource.save(options);
+			// Remove the model saved in the other format in a previous session
+			new File(getBaseLocation(), SAVE_BINARY_MODEL ? XMI_MODEL_FILE : BINARY_MODEL_FILE).delete();
 		}
 	}
 
@@ -241,7 +264,16 @@ public class ResourceHandler implements IModelResourceHandler {
 	}
 
 	private File getWorkbenchSaveLocation() {
-		return new File(getBaseLocation(), "workbench.xmi"); //$NON-NLS-1$
+		return new File(getBaseLocation(), SAVE_BINARY_MODEL ? BINARY_MODEL_FILE : XMI_MODEL_FILE);
+	}
+
+	/**
+	 * @return the file the model was saved to last, in either format
+	 */
+	private File getWorkbenchRestoreLocation() {
+		File saveLocation = getWorkbenchSaveLocation();
+		File other = new File(getBaseLocation(), SAVE_BINARY_MODEL ? XMI_MODEL_FILE : BINARY_MODEL_FILE);
+		return other.lastModified() > saveLocation.lastModified() ? other : saveLocation;
 	}
 
 	private File getBaseLocation() {
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.internal.workbench;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.event.EventConstants;
+import org.osgi.service.event.EventHandler;
+
+/**
+ * Keeps track of the topics of the registered {@link EventHandler} services,
+ * which includes all subscriptions made through the event broker, to tell
+ * whether an event sent on a topic would be delivered to any handler at all.
+ * <p>
+ * Topics are matched as by the event admin, i.e. a handler topic is either
+ * the exact topic, or a prefix followed by <code>*</code>. Filters of the
+ * handlers are not evaluated, a handler with a filter counts as subscribed.
+ * </p>
+ */
+final class SubscribedTopics implements ServiceListener {
+
+	private static final String WILDCARD = "*"; //$NON-NLS-1$
+
+	private static SubscribedTopics instance;
+
+	private final BundleContext bundleContext;
+
+	/** The topics of each handler. Guarded by <code>this</code>. */
+	private final Map<ServiceReference<?>, String[]> topicsByHandler = new HashMap<>();
+
+	/**
+	 * The number of handlers for each topic, wildcard topics are stored without
+	 * the trailing <code>*</code>. Guarded by <code>this</code>.
+	 */
+	private final Map<String, Integer> exactTopics = new HashMap<>();
+	private final Map<String, Integer> topicPrefixes = new HashMap<>();
+
+	/**
+	 * The subscribed topics, replaced whenever the handlers change, so that
+	 * {@link #hasHandlers(String)} does not need to lock.
+	 */
+	private volatile Snapshot snapshot = new Snapshot(Set.of(), Set.of());
+
+	/**
+	 * The subscribed topics at one point in time.
+	 */
+	private static final class Snapshot {
+
+		private final Set<String> exactTopics;
+		private final Set<String> topicPrefixes;
+
+		/** The answers given for the topics of this snapshot. */
+		private final Map<String, Boolean> subscribed = new ConcurrentHashMap<>();
+
+		Snapshot(Set<String> exactTopics, Set<String> topicPrefixes) {
+			this.exactTopics = exactTopics;
+			this.topicPrefixes = topicPrefixes;
+		}
+
+		boolean hasHandlers(String topic) {
+			return subscribed.computeIfAbsent(topic, this::computeHasHandlers).booleanValue();
+		}
+
+		private Boolean computeHasHandlers(String topic) {
+			if (exactTopics.contains(topic) || topicPrefixes.contains(Util.ZERO_LENGTH_STRING)) {
+				return Boolean.TRUE;
+			}
+			for (int i = topic.indexOf('/'); i >= 0; i = topic.indexOf('/', i + 1)) {
+				if (topicPrefixes.contains(topic.substring(0, i + 1))) {
+					return Boolean.TRUE;
+				}
+			}
+			return Boolean.FALSE;
+		}
+	}
+
+	private SubscribedTopics(BundleContext bundleContext) {
+		this.bundleContext = bundleContext;
+	}
+
+	/**
+	 * Returns the tracker of the handler topics, starting to track them on first
+	 * use.
+	 *
+	 * @return the tracker, or <code>null</code> if the workbench bundle is not
+	 *         running in a framework
+	 */
+	static synchronized SubscribedTopics getInstance() {
+		Activator activator = Activator.getDefault();
+		BundleContext context = activator != null ? activator.getContext() : null;
+		if (context == null) {
+			return null;
+		}
+		if (instance == null || instance.bundleContext != context) {
+			if (instance != null) {
+				// the bundle was restarted
+				instance.dispose();
+				instance = null;
+			}
+			SubscribedTopics topics = new SubscribedTopics(context);
+			try {
+				context.addServiceListener(topics,
+						'(' + Constants.OBJECTCLASS + '=' + EventHandler.class.getName() + ')');
+				ServiceReference<?>[] references = context.getAllServiceReferences(EventHandler.class.getName(),
+						null);
+				if (references != null) {
+					topics.addHandlers(references);
+				}
+			} catch (InvalidSyntaxException | IllegalStateException e) {
+				topics.dispose();
+				return null;
+			}
+			instance = topics;
+		}
+		return instance;
+	}
+
+	/**
+	 * Stops tracking the handler topics. Publishers still holding the tracker
+	 * send all events from now on.
+	 */
+	private void dispose() {
+		snapshot = new Snapshot(Set.of(), Set.of(Util.ZERO_LENGTH_STRING));
+		try {
+			bundleContext.removeServiceListener(this);
+		} catch (IllegalStateException e) {
+			// the context is no longer valid, its listeners are gone with it
+		}
+	}
+
+	/**
+	 * Returns whether any handler is registered for the given topic.
+	 *
+	 * @param topic the event topic
+	 * @return <code>true</code> if an event on the topic may be delivered
+	 */
+	boolean hasHandlers(String topic) {
+		return snapshot.hasHandlers(topic);
+	}
+
+	@Override
+	public synchronized void serviceChanged(ServiceEvent event) {
+		ServiceReference<?> reference = event.getServiceReference();
+		switch (event.getType()) {
+		case ServiceEvent.REGISTERED:
+			addHandler(reference);
+			break;
+		case ServiceEvent.MODIFIED:
+			removeHandler(reference);
+			addHandler(reference);
+			break;
+		default:
+			removeHandler(reference);
+			break;
+		}
+		updateSnapshot();
+	}
+
+	private synchronized void addHandlers(ServiceReference<?>[] references) {
+		for (ServiceReference<?> reference : references) {
+			addHandler(reference);
+		}
+		updateSnapshot();
+	}
+
+	private void addHandler(ServiceReference<?> reference) {
+		if (topicsByHandler.containsKey(reference)) {
+			return;
+		}
+		String[] topics = getTopics(reference.getProperty(EventConstants.EVENT_TOPIC));
+		topicsByHandler.put(reference, topics);
+		for (String topic : topics) {
+			if (topic.endsWith(WILDCARD)) {
+				topicPrefixes.merge(topic.substring(0, topic.length() - 1), 1, Integer::sum);
+			} else {
+				exactTopics.merge(topic, 1, Integer::sum);
+			}
+		}
+	}
+
+	private void removeHandler(ServiceReference<?> reference) {
+		String[] topics = topicsByHandler.remove(reference);
+		if (topics == null) {
+			return;
+		}
+		for (String topic : topics) {
+			if (topic.endsWith(WILDCARD)) {
+				topicPrefixes.computeIfPresent(topic.substring(0, topic.length() - 1),
+						(k, n) -> n > 1 ? n - 1 : null);
+			} else {
+				exactTopics.computeIfPresent(topic, (k, n) -> n > 1 ? n - 1 : null);
+			}
+		}
+	}
+
+	private void updateSnapshot() {
+		snapshot = new Snapshot(Set.copyOf(exactTopics.keySet()), Set.copyOf(topicPrefixes.keySet()));
+	}
+
+	private static String[] getTopics(Object value) {
+		if (value instanceof String) {
+			return new String[] { (String) value };
+		} else if (value instanceof String[]) {
+			return (String[]) value;
+		} else if (value instanceof Collection<?>) {
+			return ((Collection<?>) value).stream().filter(String.class::isInstance).toArray(String[]::new);
+		}
+		return new String[0];
+	}
+}
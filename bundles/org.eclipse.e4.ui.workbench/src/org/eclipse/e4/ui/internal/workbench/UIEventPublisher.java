@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2015 IBM Corporation and others.
+ * Copyright (c) 2009, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,6 +16,7 @@ package org.eclipse.e4.ui.internal.workbench;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.runtime.ILog;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.services.events.IEventBroker;
@@ -33,13 +34,25 @@ import org.eclipse.emf.ecore.util.EContentAdapter;
 
 /**
  * Transforms E4 MPart events into 3.x legacy events.
+ * <p>
+ * Events are only formatted and sent for topics some handler is subscribed to.
+ * </p>
  */
 public class UIEventPublisher extends EContentAdapter {
 
+	/**
+	 * The topics of the features, or of the attribute names of map entries,
+	 * indexed by EMF notification event type.
+	 */
+	private static final Map<Object, String[]> topics = new ConcurrentHashMap<>();
+
 	private IEclipseContext context;
 
+	private final SubscribedTopics subscribedTopics;
+
 	public UIEventPublisher(IEclipseContext e4Context) {
 		this.context = e4Context;
+		this.subscribedTopics = SubscribedTopics.getInstance();
 	}
 
 	@Override
@@ -50,10 +63,15 @@ public class UIEventPublisher extends EContentAdapter {
 		if (notification.isTouch())
 			return;
 
+		// Ignore events nobody would receive before formatting them
+		String topic = getTopic(notification);
+		if (topic == null || (subscribedTopics != null && !subscribedTopics.hasHandlers(topic)))
+			return;
+
 		// Format the EMF event as an E4 UIEvent
 		Map<String, Object> argMap = new HashMap<>();
 
-		String topic = formatData(notification, argMap);
+		topic = formatData(notification, argMap);
 
 		if (topic != null) {
 			IEventBroker eventManager = context.get(IEventBroker.class);
@@ -61,6 +79,18 @@ public class UIEventPublisher extends EContentAdapter {
 		}
 	}
 
+	private String getTopic(Notification notification) {
+		Object notifier = notification.getNotifier();
+		if (notifier instanceof MApplicationElement) {
+			return getTopic((EStructuralFeature) notification.getFeature(), notification.getEventType());
+		} else if (notifier instanceof StringToObjectMapImpl) {
+			return getTopic(UIEvents.ApplicationElement.TRANSIENTDATA, notification.getEventType());
+		} else if (notifier instanceof StringToStringMapImpl) {
+			return getTopic(UIEvents.ApplicationElement.PERSISTEDSTATE, notification.getEventType());
+		}
+		return null;
+	}
+
 	/**
 	 * Large hack here. Open to better suggestions
 	 *
@@ -115,7 +145,7 @@ public class UIEventPublisher extends EContentAdapter {
 			appElement = (MApplicationElement) notifier;
 			feature = (EStructuralFeature) notification.getFeature();
 			attributeName = feature.getName();
-			topic = getTopic(feature, getEventType(notification));
+			topic = getTopic(feature, notification.getEventType());
 			switch (notification.getEventType()) {
 			case Notification.MOVE:
 				// for MOVE, oldValue is actually the source position
@@ -165,7 +195,7 @@ public class UIEventPublisher extends EContentAdapter {
 			}
 
 			attributeName = UIEvents.ApplicationElement.TRANSIENTDATA;
-			topic = getTopic(attributeName, getEventType(notification));
+			topic = getTopic(attributeName, notification.getEventType());
 
 			// We need to send MapEntries for the old and new values.
 			oldValue = createMapEntry(key, notification.getOldValue());
@@ -188,7 +218,7 @@ public class UIEventPublisher extends EContentAdapter {
 			}
 
 			attributeName = UIEvents.ApplicationElement.PERSISTEDSTATE;
-			topic = getTopic(attributeName, getEventType(notification));
+			topic = getTopic(attributeName, notification.getEventType());
 			oldValue = createMapEntry(key, notification.getOldValue());
 			newValue = createMapEntry(key, notification.getNewValue());
 		} else {
@@ -226,7 +256,11 @@ public class UIEventPublisher extends EContentAdapter {
 	}
 
 	private String getEventType(Notification notification) {
-		switch (notification.getEventType()) {
+		return getEventType(notification.getEventType());
+	}
+
+	private String getEventType(int eventType) {
+		switch (eventType) {
 		case Notification.ADD:
 			return EventTypes.ADD;
 
@@ -269,6 +303,32 @@ public class UIEventPublisher extends EContentAdapter {
 		};
 	}
 
+	private String getTopic(EStructuralFeature eFeature, int eventType) {
+		if (eventType < 0 || eventType >= Notification.EVENT_TYPE_COUNT) {
+			return getTopic(eFeature, getEventType(eventType));
+		}
+		String[] featureTopics = topics.computeIfAbsent(eFeature, k -> new String[Notification.EVENT_TYPE_COUNT]);
+		String topic = featureTopics[eventType];
+		if (topic == null) {
+			// racy but idempotent
+			featureTopics[eventType] = topic = getTopic(eFeature, getEventType(eventType));
+		}
+		return topic;
+	}
+
+	private String getTopic(String attributeName, int eventType) {
+		if (eventType < 0 || eventType >= Notification.EVENT_TYPE_COUNT) {
+			return getTopic(attributeName, getEventType(eventType));
+		}
+		String[] attributeTopics = topics.computeIfAbsent(attributeName,
+				k -> new String[Notification.EVENT_TYPE_COUNT]);
+		String topic = attributeTopics[eventType];
+		if (topic == null) {
+			attributeTopics[eventType] = topic = getTopic(attributeName, getEventType(eventType));
+		}
+		return topic;
+	}
+
 	private String getTopic(EStructuralFeature eFeature, String type) {
 		EClass eContainingClass = eFeature.getEContainingClass();
 		return UIEvents.UIModelTopicBase + UIEvents.TOPIC_SEP
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2018 IBM Corporation and others.
+ * Copyright (c) 2004, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -1538,9 +1538,11 @@ public final class BindingManager extends HandleObjectManager<Scheme>
 
 		Scheme scheme = handleObjectsById.get(schemeId);
 		if (scheme == null) {
-			scheme = new Scheme(schemeId);
-			handleObjectsById.put(schemeId, scheme);
-			scheme.addSchemeListener(this);
+			scheme = handleObjectsById.computeIfAbsent(schemeId, id -> {
+				Scheme newScheme = new Scheme(id);
+				newScheme.addSchemeListener(this);
+				return newScheme;
+			});
 		}
 
 		return scheme;
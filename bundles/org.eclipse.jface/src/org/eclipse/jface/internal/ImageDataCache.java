@@ -0,0 +1,611 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.util.Policy;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageDataProvider;
+import org.eclipse.swt.graphics.ImageFileNameProvider;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * (NON-API) A cache of decoded {@link ImageData} for image files, used by the
+ * file and URL based image descriptors when
+ * {@link InternalPolicy#DEBUG_CACHE_IMAGE_DATA} is enabled.
+ * <p>
+ * Entries are keyed by the resolved file path of the zoom specific image, so
+ * "@2x" and "@1.5x" variants are cached separately. An entry is only valid
+ * as long as the size and modification time of the file are unchanged, which
+ * also invalidates entries extracted from a bundle of a different version.
+ * </p>
+ * <p>
+ * Decoded images are kept in a memory LRU bounded by their total number of
+ * bytes and written in a simple binary format to a cache directory, so that
+ * they can be read without decoding PNG or GIF data in the next session.
+ * When the cache is first used, the directory is pruned of entries which have
+ * not been used for {@link #MAX_DISK_AGE_DAYS} days and of the least recently
+ * used entries exceeding the disk limit. Then the most recently used entries
+ * which fit into memory are read in parallel in the background. Other
+ * persisted entries are only read when their image is requested.
+ * </p>
+ * <p>
+ * Callers get a copy of the cached image data and may modify it.
+ * </p>
+ */
+public final class ImageDataCache {
+
+	private static final int MAGIC = 0x4a464944; // "JFID"
+
+	private static final int FORMAT_VERSION = 1;
+
+	private static final String CACHE_DIRECTORY = "imageDataCache"; //$NON-NLS-1$
+
+	private static final String CACHE_FILE_EXTENSION = ".img"; //$NON-NLS-1$
+
+	/**
+	 * Images larger than this number of bytes are neither kept in memory nor
+	 * written to disk.
+	 */
+	static final int MAX_IMAGE_BYTES = 256 * 1024;
+
+	/**
+	 * The default upper bound for the bytes of the images kept in memory.
+	 */
+	private static final long DEFAULT_MAX_MEMORY_BYTES = 16 * 1024 * 1024;
+
+	/**
+	 * The default upper bound for the bytes of the cache directory.
+	 */
+	private static final long DEFAULT_MAX_DISK_BYTES = 64 * 1024 * 1024;
+
+	/**
+	 * Persisted entries which have not been used for this number of days are
+	 * deleted.
+	 */
+	public static final int MAX_DISK_AGE_DAYS = 30;
+
+	private static ImageDataCache defaultCache;
+
+	private final Path directory;
+
+	private final long maxMemoryBytes;
+
+	private final long maxDiskBytes;
+
+	/**
+	 * The entries kept in memory in access order, guarded by itself.
+	 */
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long memoryBytes;
+
+	/**
+	 * The paths of the pre-warmed entries which have not been requested yet.
+	 */
+	private final Set<String> prewarmed = ConcurrentHashMap.newKeySet();
+
+	private volatile CompletableFuture<Void> startup;
+
+	private record CacheFile(Path path, long size, long lastUsed) {
+	}
+
+	private record Entry(long length, long lastModified, ImageData data) {
+		long bytes() {
+			return byteCount(data.data) + byteCount(data.maskData) + byteCount(data.alphaData);
+		}
+	}
+
+	/**
+	 * Creates a cache of decoded images.
+	 *
+	 * @param directory      the directory to persist the entries in, or
+	 *                       <code>null</code> to only keep them in memory
+	 * @param maxMemoryBytes the upper bound for the bytes of the images kept in
+	 *                       memory
+	 * @param maxDiskBytes   the upper bound for the bytes of the directory, which
+	 *                       is enforced when it is pruned
+	 */
+	public ImageDataCache(Path directory, long maxMemoryBytes, long maxDiskBytes) {
+		this.directory = directory;
+		this.maxMemoryBytes = maxMemoryBytes;
+		this.maxDiskBytes = maxDiskBytes;
+	}
+
+	/**
+	 * Returns the cache used by the image descriptors, which persists its entries
+	 * in the data area of the JFace bundle.
+	 *
+	 * @return the shared cache
+	 */
+	public static synchronized ImageDataCache getDefault() {
+		if (defaultCache == null) {
+			defaultCache = new ImageDataCache(getDefaultDirectory(), DEFAULT_MAX_MEMORY_BYTES,
+					DEFAULT_MAX_DISK_BYTES);
+		}
+		return defaultCache;
+	}
+
+	/**
+	 * Wraps the given file name provider into an {@link ImageDataProvider} which
+	 * serves the image data of the provided files from this cache.
+	 *
+	 * @param fileNameProvider the provider of the zoom specific file names
+	 * @return a new image data provider
+	 */
+	public ImageDataProvider createProvider(ImageFileNameProvider fileNameProvider) {
+		// A new instance per image to keep the Image#equals invariant
+		return zoom -> {
+			String path = fileNameProvider.getImagePath(zoom);
+			return path == null ? null : getImageData(path);
+		};
+	}
+
+	/**
+	 * Returns the decoded image data of the given file, either from the cache or
+	 * by decoding and caching the file.
+	 *
+	 * @param path the absolute path of an image file
+	 * @return a copy of the image data owned by the caller, or <code>null</code>
+	 *         if the file does not exist or is not a valid image
+	 */
+	public ImageData getImageData(String path) {
+		startup();
+		File file = new File(path);
+		long length = file.length();
+		long lastModified = file.lastModified();
+		if (lastModified == 0L) {
+			return null;
+		}
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(path);
+		}
+		if (entry == null || entry.length() != length || entry.lastModified() != lastModified) {
+			entry = load(path, length, lastModified);
+			if (entry == null) {
+				ImageData data;
+				try {
+					data = new ImageData(path);
+				} catch (SWTException e) {
+					if (e.code != SWT.ERROR_INVALID_IMAGE && e.code != SWT.ERROR_IO) {
+						throw e;
+					}
+					return null;
+				}
+				entry = new Entry(length, lastModified, data);
+				if (entry.bytes() > MAX_IMAGE_BYTES) {
+					return data;
+				}
+				if (directory != null) {
+					Entry newEntry = entry;
+					CompletableFuture.runAsync(() -> store(path, newEntry));
+				}
+			}
+			put(path, entry);
+		} else if (prewarmed.remove(path)) {
+			touch(directory.resolve(getCacheFileName(path)));
+		}
+		return copy(entry.data());
+	}
+
+	/**
+	 * @return the number of bytes of the images kept in memory
+	 */
+	public long getMemoryBytes() {
+		synchronized (entries) {
+			return memoryBytes;
+		}
+	}
+
+	private void put(String path, Entry entry) {
+		long bytes = entry.bytes();
+		if (bytes > maxMemoryBytes) {
+			return;
+		}
+		synchronized (entries) {
+			Entry old = entries.put(path, entry);
+			if (old != null) {
+				memoryBytes -= old.bytes();
+			}
+			memoryBytes += bytes;
+			Iterator<Entry> iterator = entries.values().iterator();
+			while (memoryBytes > maxMemoryBytes && iterator.hasNext()) {
+				memoryBytes -= iterator.next().bytes();
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Adds a pre-warmed entry unless the image is already cached or the entry
+	 * would evict requested ones.
+	 */
+	private void putPrewarmed(String path, Entry entry) {
+		long bytes = entry.bytes();
+		synchronized (entries) {
+			if (entries.containsKey(path) || memoryBytes + bytes > maxMemoryBytes) {
+				return;
+			}
+			entries.put(path, entry);
+			memoryBytes += bytes;
+			prewarmed.add(path);
+		}
+	}
+
+	private static long byteCount(byte[] bytes) {
+		return bytes == null ? 0 : bytes.length;
+	}
+
+	/**
+	 * Returns a deep copy of the given image data, including its palette.
+	 */
+	private static ImageData copy(ImageData data) {
+		ImageData copy = (ImageData) data.clone();
+		PaletteData palette = data.palette;
+		if (palette.isDirect) {
+			copy.palette = new PaletteData(palette.redMask, palette.greenMask, palette.blueMask);
+		} else {
+			RGB[] colors = new RGB[palette.colors.length];
+			for (int i = 0; i < colors.length; i++) {
+				RGB rgb = palette.colors[i];
+				colors[i] = new RGB(rgb.red, rgb.green, rgb.blue);
+			}
+			copy.palette = new PaletteData(colors);
+		}
+		return copy;
+	}
+
+	/**
+	 * Starts pruning the cache directory and pre-warming the cache in the
+	 * background, once.
+	 */
+	private void startup() {
+		if (startup == null && directory != null) {
+			synchronized (this) {
+				if (startup == null) {
+					startup = CompletableFuture.runAsync(() -> {
+						pruneDirectory();
+						prewarm();
+					});
+				}
+			}
+		}
+	}
+
+	/**
+	 * Deletes the persisted entries which have not been used for
+	 * {@link #MAX_DISK_AGE_DAYS} days, as well as the least recently used entries
+	 * exceeding the disk limit. Only the file attributes are read.
+	 */
+	public void pruneDirectory() {
+		if (directory == null || !Files.isDirectory(directory)) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		long maxAge = TimeUnit.DAYS.toMillis(MAX_DISK_AGE_DAYS);
+		long maxTempAge = TimeUnit.HOURS.toMillis(1);
+		List<CacheFile> cacheFiles = new ArrayList<>();
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Iterator<Path> iterator = files.iterator(); iterator.hasNext();) {
+				Path file = iterator.next();
+				BasicFileAttributes attributes;
+				try {
+					attributes = Files.readAttributes(file, BasicFileAttributes.class);
+				} catch (NoSuchFileException e) {
+					continue;
+				}
+				long age = now - attributes.lastModifiedTime().toMillis();
+				boolean cacheFile = file.getFileName().toString().endsWith(CACHE_FILE_EXTENSION);
+				if (age > (cacheFile ? maxAge : maxTempAge)) {
+					Files.deleteIfExists(file);
+				} else if (cacheFile) {
+					cacheFiles.add(new CacheFile(file, attributes.size(), attributes.lastModifiedTime().toMillis()));
+				}
+			}
+			long diskBytes = cacheFiles.stream().mapToLong(CacheFile::size).sum();
+			cacheFiles.sort(Comparator.comparingLong(CacheFile::lastUsed));
+			for (Iterator<CacheFile> iterator = cacheFiles.iterator(); diskBytes > maxDiskBytes
+					&& iterator.hasNext();) {
+				CacheFile cacheFile = iterator.next();
+				Files.deleteIfExists(cacheFile.path());
+				diskBytes -= cacheFile.size();
+			}
+		} catch (IOException e) {
+			log(e);
+		}
+	}
+
+	/**
+	 * Reads the most recently used persisted entries which fit into memory, in
+	 * parallel. Entries of images which have changed are skipped, they are
+	 * deleted when their image is requested. Pre-warming alone does not mark an
+	 * entry as used.
+	 */
+	public void prewarm() {
+		if (directory == null || !Files.isDirectory(directory)) {
+			return;
+		}
+		List<CacheFile> cacheFiles;
+		try {
+			cacheFiles = listCacheFiles();
+		} catch (IOException e) {
+			log(e);
+			return;
+		}
+		cacheFiles.sort(Comparator.comparingLong(CacheFile::lastUsed).reversed());
+		List<Path> recent = new ArrayList<>();
+		long bytes = 0;
+		for (Iterator<CacheFile> iterator = cacheFiles.iterator(); bytes < maxMemoryBytes && iterator.hasNext();) {
+			CacheFile cacheFile = iterator.next();
+			recent.add(cacheFile.path());
+			bytes += cacheFile.size();
+		}
+		recent.parallelStream().forEach(this::prewarm);
+	}
+
+	private void prewarm(Path cacheFile) {
+		String path;
+		Entry entry;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				return;
+			}
+			path = in.readUTF();
+			File file = new File(path);
+			long length = file.length();
+			long lastModified = file.lastModified();
+			if (in.readLong() != length || in.readLong() != lastModified) {
+				return;
+			}
+			entry = new Entry(length, lastModified, readImageData(in));
+		} catch (IOException | RuntimeException e) {
+			// A corrupt entry is deleted when its image is requested
+			return;
+		}
+		putPrewarmed(path, entry);
+	}
+
+	/**
+	 * Reads the persisted entry of the given image file, if it is still valid.
+	 * The modification time of a used entry is updated so that it survives
+	 * pruning.
+	 */
+	private Entry load(String path, long length, long lastModified) {
+		if (directory == null) {
+			return null;
+		}
+		Path cacheFile = directory.resolve(getCacheFileName(path));
+		if (!Files.isRegularFile(cacheFile)) {
+			return null;
+		}
+		Entry entry = null;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+			if (in.readInt() == MAGIC && in.readInt() == FORMAT_VERSION) {
+				if (!path.equals(in.readUTF())) {
+					// Collision of the file names, the entry is replaced when stored
+					return null;
+				}
+				// The entry is stale if the image has changed, e.g. because the
+				// bundle was updated
+				if (in.readLong() == length && in.readLong() == lastModified) {
+					entry = new Entry(length, lastModified, readImageData(in));
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			// A corrupt entry is simply decoded again
+		}
+		if (entry == null) {
+			try {
+				Files.deleteIfExists(cacheFile);
+			} catch (IOException e) {
+				log(e);
+			}
+		} else {
+			touch(cacheFile);
+		}
+		return entry;
+	}
+
+	/**
+	 * Marks the given persisted entry as used so that it survives pruning.
+	 */
+	private static void touch(Path cacheFile) {
+		try {
+			Files.setLastModifiedTime(cacheFile, FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (NoSuchFileException e) {
+			// Pruned concurrently, the image is decoded again in the next session
+		} catch (IOException e) {
+			log(e);
+		}
+	}
+
+	private List<CacheFile> listCacheFiles() throws IOException {
+		List<CacheFile> cacheFiles = new ArrayList<>();
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Iterator<Path> iterator = files.iterator(); iterator.hasNext();) {
+				Path file = iterator.next();
+				if (file.getFileName().toString().endsWith(CACHE_FILE_EXTENSION)) {
+					try {
+						BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+						cacheFiles.add(new CacheFile(file, attributes.size(), attributes.lastModifiedTime().toMillis()));
+					} catch (NoSuchFileException e) {
+						// Deleted concurrently
+					}
+				}
+			}
+		}
+		return cacheFiles;
+	}
+
+	private void store(String path, Entry entry) {
+		try {
+			Files.createDirectories(directory);
+			Path cacheFile = directory.resolve(getCacheFileName(path));
+			Path tempFile = Files.createTempFile(directory, null, null);
+			try (OutputStream stream = Files.newOutputStream(tempFile);
+					DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeUTF(path);
+				out.writeLong(entry.length());
+				out.writeLong(entry.lastModified());
+				writeImageData(out, entry.data());
+			}
+			Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log(e);
+		}
+	}
+
+	private static String getCacheFileName(String path) {
+		// The path is stored in the file itself, a collision only costs a decode
+		return Integer.toHexString(path.hashCode()) + '_' + Integer.toHexString(path.length())
+				+ CACHE_FILE_EXTENSION;
+	}
+
+	private static Path getDefaultDirectory() {
+		if (!InternalPolicy.OSGI_AVAILABLE) {
+			return null;
+		}
+		Bundle bundle = FrameworkUtil.getBundle(ImageDataCache.class);
+		BundleContext context = bundle == null ? null : bundle.getBundleContext();
+		File dataFile = context == null ? null : context.getDataFile(CACHE_DIRECTORY);
+		return dataFile == null ? null : dataFile.toPath();
+	}
+
+	private static void writeImageData(DataOutputStream out, ImageData data) throws IOException {
+		out.writeInt(data.width);
+		out.writeInt(data.height);
+		out.writeInt(data.depth);
+		out.writeInt(data.scanlinePad);
+		out.writeInt(data.transparentPixel);
+		out.writeInt(data.maskPad);
+		out.writeInt(data.alpha);
+		out.writeInt(data.type);
+		out.writeInt(data.x);
+		out.writeInt(data.y);
+		out.writeInt(data.disposalMethod);
+		out.writeInt(data.delayTime);
+		PaletteData palette = data.palette;
+		out.writeBoolean(palette.isDirect);
+		if (palette.isDirect) {
+			out.writeInt(palette.redMask);
+			out.writeInt(palette.greenMask);
+			out.writeInt(palette.blueMask);
+		} else {
+			out.writeInt(palette.colors.length);
+			for (RGB rgb : palette.colors) {
+				out.writeByte(rgb.red);
+				out.writeByte(rgb.green);
+				out.writeByte(rgb.blue);
+			}
+		}
+		writeBytes(out, data.data);
+		writeBytes(out, data.maskData);
+		writeBytes(out, data.alphaData);
+	}
+
+	private static ImageData readImageData(DataInputStream in) throws IOException {
+		int width = in.readInt();
+		int height = in.readInt();
+		int depth = in.readInt();
+		int scanlinePad = in.readInt();
+		int transparentPixel = in.readInt();
+		int maskPad = in.readInt();
+		int alpha = in.readInt();
+		int type = in.readInt();
+		int x = in.readInt();
+		int y = in.readInt();
+		int disposalMethod = in.readInt();
+		int delayTime = in.readInt();
+		PaletteData palette;
+		if (in.readBoolean()) {
+			palette = new PaletteData(in.readInt(), in.readInt(), in.readInt());
+		} else {
+			RGB[] colors = new RGB[in.readInt()];
+			for (int i = 0; i < colors.length; i++) {
+				colors[i] = new RGB(in.readUnsignedByte(), in.readUnsignedByte(), in.readUnsignedByte());
+			}
+			palette = new PaletteData(colors);
+		}
+		ImageData data = new ImageData(width, height, depth, palette, scanlinePad, readBytes(in));
+		data.transparentPixel = transparentPixel;
+		data.maskPad = maskPad;
+		data.maskData = readBytes(in);
+		data.alphaData = readBytes(in);
+		data.alpha = alpha;
+		data.type = type;
+		data.x = x;
+		data.y = y;
+		data.disposalMethod = disposalMethod;
+		data.delayTime = delayTime;
+		return data;
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		if (bytes == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static byte[] readBytes(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		if (length > MAX_IMAGE_BYTES) {
+			throw new IOException("Corrupt image cache entry"); //$NON-NLS-1$
+		}
+		return in.readNBytes(length);
+	}
+
+	private static void log(IOException e) {
+		Policy.getLog().log(new Status(IStatus.WARNING, Policy.JFACE, e.getLocalizedMessage(), e));
+	}
+}
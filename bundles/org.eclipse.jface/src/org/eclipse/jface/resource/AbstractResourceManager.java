@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2023 IBM Corporation and others.
+ * Copyright (c) 2004, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,26 +13,32 @@
  *******************************************************************************/
 package org.eclipse.jface.resource;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Abstract implementation of ResourceManager. Maintains reference counts for all previously
  * allocated SWT resources. Delegates to the abstract method allocate(...) the first time a resource
  * is referenced and delegates to the abstract method deallocate(...) the last time a reference is
  * removed.
+ * <p>
+ * The reference counts are kept in a concurrent map, so descriptors may be looked up and
+ * reference counted from any thread. Allocation itself is done outside of the map, if two threads
+ * race to allocate the same descriptor the loser deallocates its resource again.
+ * </p>
  *
  * @since 3.1
  */
 abstract class AbstractResourceManager extends ResourceManager {
 
 	/**
-	 * Map of ResourceDescriptor onto RefCount. (null when empty)
+	 * Map of ResourceDescriptor onto RefCount.
 	 */
-	private Map<DeviceResourceDescriptor<?>, RefCount<?>> map = null;
+	private final Map<DeviceResourceDescriptor<?>, RefCount<?>> map = new ConcurrentHashMap<>();
 
 	/**
-	 * Holds a reference count for a previously-allocated resource
+	 * Holds a reference count for a previously-allocated resource. The count is
+	 * only modified while the map holds the lock of the entry.
 	 */
 	private static class RefCount<R> {
 		final R resource;
@@ -48,6 +54,14 @@ abstract class AbstractResourceManager extends ResourceManager {
 		return (RefCount) map.get(descriptor);
 	}
 
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private <R> RefCount<R> increment(DeviceResourceDescriptor<R> descriptor) {
+		return (RefCount) map.computeIfPresent(descriptor, (key, refCount) -> {
+			refCount.count++;
+			return refCount;
+		});
+	}
+
 	/**
 	 * Called the first time a resource is requested. Should allocate and return a resource
 	 * of the correct type.
@@ -73,52 +87,49 @@ abstract class AbstractResourceManager extends ResourceManager {
 
 	@Override
 	public final <R> R create(DeviceResourceDescriptor<R> descriptor) throws DeviceResourceException {
-
-		// Lazily allocate the map
-		if (map == null) {
-			map = new HashMap<>();
-		}
-
-		// Get the current reference count
-		RefCount<R> count = getRefCount(descriptor);
+		// If this resource already exists, increment the reference count and return
+		// the existing resource.
+		RefCount<R> count = increment(descriptor);
 		if (count != null) {
-			// If this resource already exists, increment the reference count and return
-			// the existing resource.
-			count.count++;
 			return count.resource;
 		}
 
-		// Allocate and return a new resource (with ref count = 1)
+		// Allocate a new resource outside of the map, allocation may recursively
+		// create other resources
 		R resource = allocate(descriptor);
 
-		count = new RefCount<>(resource);
-		map.put(descriptor, count);
-
-		return resource;
+		RefCount<R> newCount = new RefCount<>(resource);
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		RefCount<R> current = (RefCount) map.merge(descriptor, newCount, (old, unused) -> {
+			old.count++;
+			return old;
+		});
+		if (current != newCount) {
+			// Another thread allocated the same resource concurrently
+			deallocate(resource, descriptor);
+		}
+		return current.resource;
 	}
 
 	@Override
 	public final <R> void destroy(DeviceResourceDescriptor<R> descriptor) {
-		// If the map is empty (null) then there are no resources to dispose
-		if (map == null) {
+		if (descriptor == null) {
 			return;
 		}
 
-		// Find the existing resource
-		RefCount<R> count = getRefCount(descriptor);
-		if (count != null) {
-			// If the resource exists, decrement the reference count.
-			count.count--;
-			if (count.count == 0) {
-				// If this was the last reference, deallocate it.
-				deallocate(count.resource, descriptor);
-				map.remove(descriptor);
+		// Find the existing resource and decrement the reference count.
+		RefCount<?>[] released = new RefCount<?>[1];
+		map.computeIfPresent(descriptor, (key, refCount) -> {
+			refCount.count--;
+			if (refCount.count == 0) {
+				released[0] = refCount;
+				return null;
 			}
-		}
-
-		// Null out the map when empty to save a small amount of memory
-		if (map.isEmpty()) {
-			map = null;
+			return refCount;
+		});
+		if (released[0] != null) {
+			// If this was the last reference, deallocate it.
+			deallocate(released[0].resource, descriptor);
 		}
 	}
 
@@ -132,16 +143,13 @@ abstract class AbstractResourceManager extends ResourceManager {
 	public void dispose() {
 		super.dispose();
 
-		if (map == null) {
-			return;
-		}
 		map.forEach((key, val) -> deallocate(val.resource, key));
-		map = null;
+		map.clear();
 	}
 
 	@Override
 	public <R> R find(DeviceResourceDescriptor<R> descriptor) {
-		if (map == null) {
+		if (descriptor == null) {
 			return null;
 		}
 		RefCount<R> refCount = getRefCount(descriptor);
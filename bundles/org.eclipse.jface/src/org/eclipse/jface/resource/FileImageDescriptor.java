@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2022 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -31,6 +31,7 @@ import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.internal.ImageDataCache;
 import org.eclipse.jface.internal.InternalPolicy;
 import org.eclipse.jface.util.Policy;
 import org.eclipse.swt.SWT;
@@ -241,6 +242,13 @@ class FileImageDescriptor extends ImageDescriptor implements IAdaptable {
 	@Override
 	public Image createImage(boolean returnMissingImageOnError, Device device) {
 		if (InternalPolicy.DEBUG_LOAD_URL_IMAGE_DESCRIPTOR_2x) {
+			if (InternalPolicy.DEBUG_CACHE_IMAGE_DATA) {
+				try {
+					return new Image(device, ImageDataCache.getDefault().createProvider(new ImageProvider()));
+				} catch (SWTException | IllegalArgumentException exception) {
+					// If we fail, fall back to loading the file directly.
+				}
+			}
 			try {
 				// We really want a fresh ImageFileNameProvider instance to make
 				// sure the code that uses created images can use equals(),
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021, 2023 Joerg Kubitz and others.
+ * Copyright (c) 2021, 2024 Joerg Kubitz and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,6 +16,7 @@ package org.eclipse.jface.resource;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.pde.api.tools.annotations.NoReference;
 import org.eclipse.swt.graphics.Device;
@@ -23,6 +24,15 @@ import org.eclipse.swt.graphics.Image;
 
 /**
  * A LRU based ResourceManager Wrapper. Not to be used by clients.
+ * <p>
+ * The reference counts are split into shards by the hash code of the
+ * descriptor, each guarded by its own lock, so that resources can be created
+ * and destroyed from any thread without contending on a single lock. Only a
+ * descriptor which loses its last reference or is revived from the LRU takes
+ * the lock of the LRU, which keeps the global least recently used order. The
+ * number of requests served from the cache and the number of requests which
+ * needed a new resource are recorded for diagnostic purposes.
+ * </p>
  */
 @NoReference
 public class LazyResourceManager extends ResourceManager {
@@ -34,6 +44,7 @@ public class LazyResourceManager extends ResourceManager {
 	private static class LruMap extends LinkedHashMap<DeviceResourceDescriptor<?>, ResourceManager> {
 		private static final long serialVersionUID = 1L;
 		int cacheSize;
+		long evictions;
 
 		LruMap(int cacheSize) {
 			super(cacheSize, 0.75f, true); // last access-order
@@ -46,14 +57,31 @@ public class LazyResourceManager extends ResourceManager {
 			if (remove) {
 				// destroy resource which was not used recently:
 				eldest.getValue().destroy(eldest.getKey());
+				evictions++;
 			}
 			return remove;
 		}
 	}
 
+	/**
+	 * The number of shards, a power of two.
+	 */
+	private static final int SHARD_COUNT = 16;
+
+	/**
+	 * The reference counts of the descriptors hashed to one shard, guarded by the
+	 * shard itself. The lock of a shard is always taken before the lock of the
+	 * LRU, never after it.
+	 */
+	private static final class Shard {
+		final Map<DeviceResourceDescriptor<?>, Integer> refCount = new HashMap<>();
+	}
+
 	private final ResourceManager parent;
 	private final LruMap unreferenced;
-	private final Map<DeviceResourceDescriptor<?>, Integer> refCount;
+	private final Shard[] shards;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
 
 	/**
 	 * @param cacheSize the lru cache size
@@ -62,7 +90,15 @@ public class LazyResourceManager extends ResourceManager {
 	public LazyResourceManager(int cacheSize, ResourceManager parent) {
 		this.parent = parent;
 		this.unreferenced = new LruMap(cacheSize);
-		this.refCount = new HashMap<>();
+		this.shards = new Shard[SHARD_COUNT];
+		for (int i = 0; i < SHARD_COUNT; i++) {
+			shards[i] = new Shard();
+		}
+	}
+
+	private Shard getShard(DeviceResourceDescriptor<?> descriptor) {
+		int hash = descriptor.hashCode();
+		return shards[(hash ^ (hash >>> 16)) & (SHARD_COUNT - 1)];
 	}
 
 	@Override
@@ -87,18 +123,24 @@ public class LazyResourceManager extends ResourceManager {
 		if (!shouldBeCached(descriptor)) {
 			return parent.create(descriptor);
 		}
-		@SuppressWarnings("boxing")
-		int updatedRefs = refCount.compute(descriptor, (k, refs) -> refs == null ? 1 : refs + 1);
-		if (updatedRefs == 1) {
-			ResourceManager cached = unreferenced.remove(descriptor);
-			if (cached == null) {
-				return parent.create(descriptor);
+		Shard shard = getShard(descriptor);
+		synchronized (shard) {
+			@SuppressWarnings("boxing")
+			int updatedRefs = shard.refCount.compute(descriptor, (k, refs) -> refs == null ? 1 : refs + 1);
+			if (updatedRefs == 1) {
+				ResourceManager cached;
+				synchronized (unreferenced) {
+					cached = unreferenced.remove(descriptor);
+				}
+				if (cached == null) {
+					misses.increment();
+					return parent.create(descriptor);
+				}
+				// referenced again
 			}
-			// referenced again
-		} else {
-			assert !unreferenced.containsKey(descriptor);
+			hits.increment();
+			return parent.find(descriptor);
 		}
-		return parent.find(descriptor);
 	}
 
 	@Override
@@ -107,12 +149,17 @@ public class LazyResourceManager extends ResourceManager {
 			parent.destroy(descriptor);
 			return;
 		}
-		@SuppressWarnings("boxing")
-		Integer refsLeft = refCount.computeIfPresent(descriptor, (k, refs) -> refs == 1 ? null : (refs - 1));
-		if (refsLeft == null) {
-			// defer destroy:
-			ResourceManager old = unreferenced.put(descriptor, parent);
-			assert old == null;
+		Shard shard = getShard(descriptor);
+		synchronized (shard) {
+			@SuppressWarnings("boxing")
+			Integer refsLeft = shard.refCount.computeIfPresent(descriptor, (k, refs) -> refs == 1 ? null : (refs - 1));
+			if (refsLeft == null) {
+				// defer destroy:
+				synchronized (unreferenced) {
+					ResourceManager old = unreferenced.put(descriptor, parent);
+					assert old == null;
+				}
+			}
 		}
 	}
 
@@ -121,10 +168,39 @@ public class LazyResourceManager extends ResourceManager {
 		if (!shouldBeCached(descriptor)) {
 			return parent.find(descriptor);
 		}
-		if (refCount.containsKey(descriptor)) {
-			return parent.find(descriptor);
+		Shard shard = getShard(descriptor);
+		synchronized (shard) {
+			if (shard.refCount.containsKey(descriptor)) {
+				return parent.find(descriptor);
+			}
 		}
 		return null;
 	}
 
+	/**
+	 * @return the number of created resources which were still referenced or
+	 *         could be revived from the LRU cache
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of created resources which had to be allocated by the
+	 *         parent ResourceManager
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of unreferenced resources which were destroyed because
+	 *         the LRU cache was full
+	 */
+	public long getEvictionCount() {
+		synchronized (unreferenced) {
+			return unreferenced.evictions;
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,7 +13,9 @@
  *******************************************************************************/
 package org.eclipse.jface.viewers.deferred;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -189,6 +191,7 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 
 		// Fill it in with all existing known objects
 		Object[] knownObjects = updator.getKnownObjects();
+		collection.setCapacity(knownObjects.length);
 		for (Object object : knownObjects) {
 			if (object != null) {
 				collection.add(object);
@@ -210,6 +213,7 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 				LazySortedCollection newCollection = new LazySortedCollection(order);
 
 				Object[] items = collection.getItems(false);
+				newCollection.setCapacity(items.length);
 				for (int j = 0; j < items.length && order == sortOrder; j++) {
 					Object item = items[j];
 
@@ -230,15 +234,17 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 				f = filter;
 
 				Object[] items = collection.getItems(false);
+				List<Object> toRemove = new ArrayList<>();
 
 				// Remove any items that don't pass the new filter
 				for (int j = 0; j < items.length && f == filter; j++) {
 					Object toTest = items[j];
 
 					if (!f.select(toTest)) {
-						collection.remove(toTest);
+						toRemove.add(toTest);
 					}
 				}
+				collection.removeAll(toRemove.toArray());
 				continue;
 			}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,33 +13,114 @@
  *******************************************************************************/
 package org.eclipse.jface.viewers.deferred;
 
-import java.util.HashMap;
-
 /**
- * Represents a map of objects onto ints. This is intended for future optimization:
- * using int primitives would allow for an implementation that doesn't require
- * additional object allocations for Integers. However, the current implementation
- * simply delegates to the Java HashMap class.
+ * Represents a map of objects onto ints. Keys and values are stored in parallel
+ * arrays using open addressing with linear probing, so no additional objects
+ * are allocated per entry. Keys are compared using {@link Object#equals(Object)}.
  *
  * @since 3.1
  */
 /* package */ class IntHashMap {
-	private HashMap map;
+	private static final int MIN_CAPACITY = 16;
+
+	private Object[] keys;
+	private int[] values;
+	private int size;
+	private int threshold;
+	private final float loadFactor;
 
 	public IntHashMap(int size, float loadFactor) {
-		map = new HashMap(size, loadFactor);
+		this.loadFactor = loadFactor;
+		allocate(tableSizeFor(size));
 	}
 
 	public IntHashMap() {
-		map = new HashMap();
+		this(MIN_CAPACITY, 0.75f);
+	}
+
+	private static int tableSizeFor(int capacity) {
+		int result = MIN_CAPACITY;
+		while (result < capacity && result < (1 << 30)) {
+			result <<= 1;
+		}
+		return result;
+	}
+
+	private void allocate(int capacity) {
+		keys = new Object[capacity];
+		values = new int[capacity];
+		threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+	}
+
+	private static int hash(Object key) {
+		// Spread consecutive hash codes, otherwise they form long probe sequences
+		int h = key.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * @return the slot containing the given key, or the free slot where it would
+	 *         be inserted
+	 */
+	private int slot(Object key) {
+		int mask = keys.length - 1;
+		int idx = hash(key) & mask;
+		Object current;
+		while ((current = keys[idx]) != null && !current.equals(key)) {
+			idx = (idx + 1) & mask;
+		}
+		return idx;
 	}
 
 	public void remove(Object key) {
-		map.remove(key);
+		int idx = slot(key);
+		if (keys[idx] == null) {
+			return;
+		}
+		keys[idx] = null;
+		size--;
+
+		// Shift back the following entries of the probe sequence so that lookups
+		// never stop at the slot we just emptied
+		int mask = keys.length - 1;
+		int free = idx;
+		for (int next = (idx + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+			int home = hash(keys[next]) & mask;
+			// Move the entry if its home slot is not within (free, next]
+			if (free <= next ? (home <= free || home > next) : (home <= free && home > next)) {
+				keys[free] = keys[next];
+				values[free] = values[next];
+				keys[next] = null;
+				free = next;
+			}
+		}
 	}
 
 	public void put(Object key, int value) {
-		map.put(key, Integer.valueOf(value));
+		int idx = slot(key);
+		if (keys[idx] == null) {
+			if (size >= threshold) {
+				rehash(keys.length * 2);
+				idx = slot(key);
+			}
+			keys[idx] = key;
+			size++;
+		}
+		values[idx] = value;
+	}
+
+	private void rehash(int newCapacity) {
+		Object[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(newCapacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			Object key = oldKeys[i];
+			if (key != null) {
+				int idx = slot(key);
+				keys[idx] = key;
+				values[idx] = oldValues[i];
+			}
+		}
 	}
 
 	/**
@@ -53,10 +134,9 @@ import java.util.HashMap;
 	 * @return the int value at the given key, or the default value if this map does not contain the given key
 	 */
 	public int get(Object key, int defaultValue) {
-		Integer result = (Integer)map.get(key);
-
-		if (result != null) {
-			return result.intValue();
+		int idx = slot(key);
+		if (keys[idx] != null) {
+			return values[idx];
 		}
 
 		return defaultValue;
@@ -66,13 +146,13 @@ import java.util.HashMap;
 	 * @return <code>true</code> if this map contains the given key, <code>false</code> otherwise
 	 */
 	public boolean containsKey(Object key) {
-		return map.containsKey(key);
+		return keys[slot(key)] != null;
 	}
 
 	/**
 	 * @return the number of key/value pairs
 	 */
 	public int size() {
-		return map.size();
+		return size;
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -285,9 +285,11 @@ public class LazySortedCollection {
 
 		// If neither subtree has any children, add a pseudorandom chance of the
 		// newly added element becoming the new pivot for this node. Note: instead
-		// of a real pseudorandom generator, we simply use a counter here.
+		// of a real pseudorandom generator, we simply use a counter here. A pivot
+		// scheduled for lazy removal must not be demoted to an unsorted node.
 		if (!enableDebug && leftSubTree[subTree] == -1 && rightSubTree[subTree] == -1
-				&& leftSubTree[elementToAdd] == -1 && rightSubTree[elementToAdd] == -1) {
+				&& leftSubTree[elementToAdd] == -1 && rightSubTree[elementToAdd] == -1
+				&& contents[subTree] != lazyRemovalFlag) {
 			counter--;
 
 			if (counter % treeSize[subTree] == 0) {
@@ -354,6 +356,22 @@ public class LazySortedCollection {
 		return result;
 	}
 
+	/**
+	 * Partitions the given subtree without progress reporting, see
+	 * {@link #partition(int, FastProgressReporter)}.
+	 *
+	 * @return the replacement node
+	 */
+	@SuppressWarnings("deprecation")
+	private final int partition(int subTree) {
+		try {
+			return partition(subTree, new FastProgressReporter());
+		} catch (InterruptedException e) {
+			// shouldn't happen
+			return subTree;
+		}
+	}
+
 	/**
 	 * Partitions the given subtree. Moves all unsorted elements at the given node
 	 * to either the left or right subtrees. If the node itself was scheduled for
@@ -369,7 +387,9 @@ public class LazySortedCollection {
 			return -1;
 		}
 
-		if (contents[subTree] == lazyRemovalFlag) {
+		// Removing a node may swap in the contents of a replacement node which was
+		// itself scheduled for lazy removal, so repeat until the pivot is valid
+		while (contents[subTree] == lazyRemovalFlag) {
 			subTree = removeNode(subTree);
 			if (subTree == -1) {
 				return -1;
@@ -415,6 +435,19 @@ public class LazySortedCollection {
 		}
 	}
 
+	/**
+	 * Increases the capacity of this collection, if necessary, so that it can hold the
+	 * given number of elements. The capacity grows at least geometrically, so that a
+	 * sequence of small additions does not copy the arrays every time.
+	 *
+	 * @param minCapacity the required capacity
+	 */
+	private final void ensureCapacity(int minCapacity) {
+		if (minCapacity > contents.length) {
+			setArraySize(Math.max(minCapacity, contents.length * 2));
+		}
+	}
+
 	/**
 	 * Adjusts the capacity of the array.
 	 */
@@ -750,6 +783,7 @@ public class LazySortedCollection {
 	 */
 	public final void addAll(Collection toAdd) {
 		Assert.isNotNull(toAdd);
+		ensureCapacity(lastNode + toAdd.size());
 		Iterator iter = toAdd.iterator();
 		while (iter.hasNext()) {
 			add(iter.next());
@@ -765,6 +799,7 @@ public class LazySortedCollection {
 	 */
 	public final void addAll(Object[] toAdd) {
 		Assert.isNotNull(toAdd);
+		ensureCapacity(lastNode + toAdd.length);
 		for (Object object : toAdd) {
 			add(object);
 		}
@@ -1021,6 +1056,22 @@ public class LazySortedCollection {
 		return subTree;
 	}
 
+	/**
+	 * Partitions the given node and all nodes reached from it by following the
+	 * given direction.
+	 *
+	 * @param node first node to partition
+	 * @param direction either DIR_LEFT or DIR_RIGHT
+	 */
+	private final void partitionPath(int node, int direction) {
+		while (node != -1) {
+			node = partition(node);
+			if (node != -1) {
+				node = direction == DIR_LEFT ? leftSubTree[node] : rightSubTree[node];
+			}
+		}
+	}
+
 	/**
 	 * Removes the given subtree, replacing it with one of its children.
 	 * Returns the new root of the subtree
@@ -1070,6 +1121,16 @@ public class LazySortedCollection {
 			return result;
 		}
 
+		// Partition the paths to the next-smallest and next-largest nodes. Otherwise
+		// unsorted nodes on these paths could be smaller (or larger) than the
+		// replacement node, and nodes scheduled for lazy removal could be chosen
+		// as replacement. If this changes the children, start over.
+		partitionPath(left, DIR_RIGHT);
+		partitionPath(right, DIR_LEFT);
+		if (leftSubTree[subTree] != left || rightSubTree[subTree] != right) {
+			return removeNode(subTree);
+		}
+
 		// Find the edges that lead to the next-smallest and
 		// next-largest nodes
 		Edge nextSmallest = new Edge(subTree, DIR_LEFT);
@@ -1297,6 +1358,53 @@ public class LazySortedCollection {
 		return returnValue;
 	}
 
+	/**
+	 * Returns the index of the given item in sorted order, or -1 if this
+	 * collection does not contain the item. Only the nodes on the path from the
+	 * root to the item are partitioned, so this runs in O(log n) expected
+	 * amortized time.
+	 *
+	 * @param item item to search for
+	 * @return the index of the item or -1 if the collection does not contain it
+	 * @since 3.35
+	 */
+	public final int indexOf(Object item) {
+		Assert.isNotNull(item);
+		int node = getObjectIndex(item);
+		if (node == -1) {
+			return -1;
+		}
+
+		// Partition the topmost node on the path to the root which still has
+		// unsorted children until the item is a pivot and no node on its path has
+		// unsorted children. Removals of lazily removed nodes may swap contents, so
+		// the index of the item is looked up again after each partition.
+		while (true) {
+			int toPartition = -1;
+			for (int current = node; current != -1; current = parentTree[current]) {
+				if (!isUnsorted(current) && nextUnsorted[current] != -1) {
+					toPartition = current;
+				}
+			}
+			if (toPartition == -1) {
+				break;
+			}
+			partition(toPartition);
+			node = getObjectIndex(item);
+		}
+
+		int result = getSubtreeSize(leftSubTree[node]);
+		for (int child = node, parent = parentTree[node]; parent != -1; child = parent, parent = parentTree[parent]) {
+			if (rightSubTree[parent] == child) {
+				result += getSubtreeSize(leftSubTree[parent]) + (contents[parent] == lazyRemovalFlag ? 0 : 1);
+			}
+		}
+
+		testInvariants();
+
+		return result;
+	}
+
 	/**
 	 * Returns the contents of this collection as a sorted or unsorted
 	 * array. Computing an unsorted array is more efficient.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -24,11 +24,13 @@ import java.io.StringWriter;
 import java.text.CollationKey;
 import java.text.Collator;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IResource;
@@ -83,6 +85,7 @@ import org.eclipse.ui.internal.WorkbenchMessages;
 import org.eclipse.ui.internal.WorkbenchPlugin;
 import org.eclipse.ui.internal.ide.IDEWorkbenchMessages;
 import org.eclipse.ui.internal.ide.IIDEHelpContextIds;
+import org.eclipse.ui.internal.ide.dialogs.ResourceNameIndex;
 import org.eclipse.ui.internal.ide.model.ResourceFactory;
 import org.eclipse.ui.model.WorkbenchLabelProvider;
 import org.eclipse.ui.statushandlers.StatusManager;
@@ -583,7 +586,9 @@ public class FilteredResourcesSelectionDialog extends FilteredItemsSelectionDial
 	@Override
 	protected void fillContentProvider(AbstractContentProvider contentProvider, ItemsFilter itemsFilter,
 			IProgressMonitor progressMonitor) throws CoreException {
-		if (itemsFilter instanceof ResourceFilter) {
+		if (itemsFilter instanceof ResourceFilter && container.getType() == IResource.ROOT) {
+			fillContentProviderFromIndex(contentProvider, (ResourceFilter) itemsFilter, progressMonitor);
+		} else if (itemsFilter instanceof ResourceFilter) {
 			IResource[] members = container.members();
 			progressMonitor.beginTask(WorkbenchMessages.FilteredItemsSelectionDialog_searchJob_taskName,
 					members.length);
@@ -605,6 +610,27 @@ public class FilteredResourcesSelectionDialog extends FilteredItemsSelectionDial
 		progressMonitor.done();
 	}
 
+	/**
+	 * Fills the content provider from the workspace wide resource index instead
+	 * of walking the workspace. The items are matched in parallel if the filter is
+	 * the default {@link ResourceFilter}, whose matching is thread safe.
+	 */
+	private void fillContentProviderFromIndex(AbstractContentProvider contentProvider, ResourceFilter resourceFilter,
+			IProgressMonitor progressMonitor) throws CoreException {
+		progressMonitor.beginTask(WorkbenchMessages.FilteredItemsSelectionDialog_searchJob_taskName,
+				IProgressMonitor.UNKNOWN);
+		Collection<ResourceNameIndex.Entry> entries = ResourceNameIndex.getInstance().getEntries(progressMonitor);
+		if (entries != null && !progressMonitor.isCanceled()) {
+			Stream<ResourceNameIndex.Entry> stream = resourceFilter.getClass() == ResourceFilter.class
+					? entries.parallelStream()
+					: entries.stream();
+			boolean showDerived = resourceFilter.isShowDerived();
+			stream.filter(entry -> (showDerived || !entry.inDerivedFolder()) && !entry.isHidden()
+					&& !progressMonitor.isCanceled())
+					.forEach(entry -> contentProvider.add(entry.resource(), resourceFilter));
+		}
+	}
+
 	private boolean parentIsRoot(IResource resource) {
 		if (resource.getParent() == null) {
 			return false;
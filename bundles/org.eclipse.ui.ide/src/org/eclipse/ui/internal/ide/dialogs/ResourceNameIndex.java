@@ -0,0 +1,283 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.ide.dialogs;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.ui.internal.ide.IDEWorkbenchPlugin;
+
+/**
+ * An index of all accessible resources of the workspace, used by the Open
+ * Resource dialog to avoid walking the whole workspace each time it is opened
+ * or its filter is broadened.
+ * <p>
+ * The index is built on first use and then kept up to date from the resource
+ * deltas, including the deltas notified while it is being built. Changes that
+ * affect whole subtrees in a way the deltas do not spell out, i.e. opening or
+ * closing a project or changing the derived flag of a resource, discard the
+ * index so that it is built again on next use.
+ * </p>
+ * <p>
+ * Hidden and team private resources are indexed too, since changing these
+ * flags does not result in a resource delta. Use {@link Entry#isHidden()} to
+ * skip them.
+ * </p>
+ */
+public final class ResourceNameIndex implements IResourceChangeListener {
+
+	/**
+	 * An indexed resource.
+	 *
+	 * @param resource        the resource
+	 * @param inDerivedFolder whether any of the ancestors of the resource is a
+	 *                        derived folder
+	 */
+	public record Entry(IResource resource, boolean inDerivedFolder) {
+
+		/**
+		 * Answers whether the resource or any of its ancestors is hidden or a team
+		 * private member, checking the current state of these flags.
+		 *
+		 * @return whether the resource would be skipped by a workspace walk
+		 */
+		public boolean isHidden() {
+			return resource.isHidden(IResource.CHECK_ANCESTORS)
+					|| resource.isTeamPrivateMember(IResource.CHECK_ANCESTORS);
+		}
+	}
+
+	/**
+	 * A change of the workspace taken from a resource delta.
+	 *
+	 * @param resource the changed resource
+	 * @param kind     {@link IResourceDelta#ADDED} or
+	 *                 {@link IResourceDelta#REMOVED}, or
+	 *                 {@link IResourceDelta#CHANGED} for a change that discards
+	 *                 the index
+	 */
+	private record Change(IResource resource, int kind) {
+	}
+
+	/**
+	 * The member flags used to walk the workspace and the resource deltas.
+	 */
+	private static final int MEMBER_FLAGS = IContainer.INCLUDE_HIDDEN | IContainer.INCLUDE_TEAM_PRIVATE_MEMBERS;
+
+	private static ResourceNameIndex instance;
+
+	private final IWorkspace workspace;
+
+	private final Object lock = new Object();
+
+	/**
+	 * The indexed resources, <code>null</code> if the index has not been built
+	 * yet or has been discarded. Guarded by {@link #lock}.
+	 */
+	private Map<IResource, Entry> entries;
+
+	/**
+	 * The changes notified while the index is being built, to be applied to it
+	 * once built, <code>null</code> if it is not being built. Guarded by
+	 * {@link #lock}.
+	 */
+	private List<Change> pendingChanges;
+
+	/**
+	 * The number of threads building the index. Guarded by {@link #lock}.
+	 */
+	private int builds;
+
+	private ResourceNameIndex(IWorkspace workspace) {
+		this.workspace = workspace;
+	}
+
+	/**
+	 * Returns the index of the workspace resources, registering it as a resource
+	 * change listener on first call.
+	 *
+	 * @return the index, never <code>null</code>
+	 */
+	public static synchronized ResourceNameIndex getInstance() {
+		if (instance == null) {
+			instance = new ResourceNameIndex(ResourcesPlugin.getWorkspace());
+			instance.workspace.addResourceChangeListener(instance, IResourceChangeEvent.POST_CHANGE);
+		}
+		return instance;
+	}
+
+	/**
+	 * Unregisters and drops the index, if it has been created.
+	 */
+	public static synchronized void shutdown() {
+		if (instance != null) {
+			instance.workspace.removeResourceChangeListener(instance);
+			instance = null;
+		}
+	}
+
+	/**
+	 * Returns all accessible resources of the workspace, building the index first
+	 * if necessary. The returned collection is safe for concurrent use, but may
+	 * reflect resource changes made while it is being iterated.
+	 *
+	 * @param monitor the monitor to cancel building the index, must not be
+	 *                <code>null</code>
+	 * @return the indexed resources, or <code>null</code> if building the index
+	 *         was canceled
+	 * @throws CoreException if the workspace could not be visited
+	 */
+	public Collection<Entry> getEntries(IProgressMonitor monitor) throws CoreException {
+		int firstChange;
+		synchronized (lock) {
+			if (entries != null) {
+				return entries.values();
+			}
+			if (pendingChanges == null) {
+				pendingChanges = new ArrayList<>();
+			}
+			firstChange = pendingChanges.size();
+			builds++;
+		}
+		Map<IResource, Entry> newEntries = new ConcurrentHashMap<>(4096);
+		boolean built = false;
+		try {
+			workspace.getRoot().accept(proxy -> {
+				if (monitor.isCanceled()) {
+					return false;
+				}
+				IResource resource = proxy.requestResource();
+				if (resource.getType() == IResource.PROJECT && !resource.isAccessible()) {
+					return false;
+				}
+				newEntries.put(resource, new Entry(resource, isInDerivedFolder(newEntries, resource)));
+				return true;
+			}, MEMBER_FLAGS);
+			built = !monitor.isCanceled();
+		} finally {
+			synchronized (lock) {
+				if (built && entries == null) {
+					// The walk may or may not reflect the changes notified while it
+					// was running, applying them again brings it up to date either way
+					if (apply(newEntries, pendingChanges.subList(firstChange, pendingChanges.size()))) {
+						entries = newEntries;
+					}
+				}
+				if (--builds == 0) {
+					pendingChanges = null;
+				}
+			}
+		}
+		if (!built) {
+			return null;
+		}
+		return newEntries.values();
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null) {
+			return;
+		}
+		synchronized (lock) {
+			if (entries == null && pendingChanges == null) {
+				return;
+			}
+			List<Change> changes = new ArrayList<>();
+			try {
+				delta.accept(child -> collectChange(child, changes), MEMBER_FLAGS);
+			} catch (CoreException | RuntimeException e) {
+				IDEWorkbenchPlugin.log(e.getMessage(), e);
+				changes.add(new Change(delta.getResource(), IResourceDelta.CHANGED));
+			}
+			if (pendingChanges != null) {
+				pendingChanges.addAll(changes);
+			}
+			if (entries != null && !apply(entries, changes)) {
+				entries = null;
+			}
+		}
+	}
+
+	private static boolean collectChange(IResourceDelta delta, List<Change> changes) {
+		IResource resource = delta.getResource();
+		int kind = delta.getKind();
+		switch (kind) {
+		case IResourceDelta.ADDED:
+			if (resource.getType() == IResource.PROJECT && !resource.isAccessible()) {
+				return false;
+			}
+			changes.add(new Change(resource, kind));
+			return true;
+		case IResourceDelta.REMOVED:
+			changes.add(new Change(resource, kind));
+			return true;
+		case IResourceDelta.CHANGED:
+			if ((delta.getFlags() & (IResourceDelta.OPEN | IResourceDelta.DERIVED_CHANGED)) != 0) {
+				changes.add(new Change(resource, kind));
+				return false;
+			}
+			return true;
+		default:
+			return true;
+		}
+	}
+
+	/**
+	 * Applies the given changes to the given index.
+	 *
+	 * @return <code>false</code> if one of the changes discards the index
+	 */
+	private static boolean apply(Map<IResource, Entry> index, List<Change> changes) {
+		for (Change change : changes) {
+			IResource resource = change.resource();
+			switch (change.kind()) {
+			case IResourceDelta.ADDED:
+				index.put(resource, new Entry(resource, isInDerivedFolder(index, resource)));
+				break;
+			case IResourceDelta.REMOVED:
+				index.remove(resource);
+				break;
+			default:
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isInDerivedFolder(Map<IResource, Entry> entries, IResource resource) {
+		IResource parent = resource.getParent();
+		if (parent == null) {
+			return false;
+		}
+		Entry parentEntry = entries.get(parent);
+		if (parentEntry == null) {
+			return false;
+		}
+		return parentEntry.inDerivedFolder() || (parent.getType() == IResource.FOLDER && parent.isDerived());
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,7 +16,10 @@ package org.eclipse.ui.internal.views.markers;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Set;
 
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.jobs.Job;
@@ -64,6 +67,13 @@ public class CachedMarkerBuilder {
 
 	private boolean[] changeFlags;
 
+	/**
+	 * The entries whose markers changed since the last UI update, or
+	 * <code>null</code> if the labels of all entries have to be updated.
+	 * Guarded by <code>this</code>.
+	 */
+	private Set<MarkerEntry> changedEntries;
+
 	private IPropertyChangeListener workingSetListener;
 
 	private boolean active;
@@ -435,11 +445,12 @@ public class CachedMarkerBuilder {
 				// ensure cancellation before calling the method
 				// updateJob.cancel();
 			} else {
-				/*
-				 * updateJob = isIncremental() ? new IncrementUpdateJob(this):
-				 * new MarkerUpdateJob(this);
-				 */
-				updateJob = new MarkerUpdateJob(this);
+				if (isIncremental()) {
+					incrementJob = new IncrementUpdateJob(this);
+					updateJob = incrementJob;
+				} else {
+					updateJob = new MarkerUpdateJob(this);
+				}
 				updateJob.setPriority(Job.LONG);
 				updateJob.setSystem(true);
 			}
@@ -580,20 +591,17 @@ public class CachedMarkerBuilder {
 	}
 
 ///////	<Incremental update code>///////
-		private IncrementUpdateJob incrementJob;
+	private IncrementUpdateJob incrementJob;
+
 	/**
-	 * Checks whether the builder should perform incrementally Note : Incremental
-	 * updating method is NOT used and tested yet but left out for further
-	 * investigation(*).
+	 * Checks whether the builder should perform incrementally, i.e. apply the
+	 * marker deltas to the markers gathered before instead of gathering all
+	 * markers for every change.
 	 *
 	 * @return Returns true if we should collect markers incrementally.
 	 */
 	boolean isIncremental() {
-		/*
-		 * We do not update incrementally. We have
-		 * code for further investigation(*) for this anyway.
-		 */
-		return false;
+		return true;
 	}
 
 	/**
@@ -619,18 +627,51 @@ public class CachedMarkerBuilder {
 	}
 
 	/**
-	 * Handles an incremental update
+	 * Handles an incremental update. Updates arriving before the first update
+	 * job was scheduled are dropped, the job gathers all markers on its first
+	 * run anyway.
 	 */
 	void incrementalUpdate(MarkerUpdate update) {
+		IncrementUpdateJob job;
 		synchronized (getUpdateScheduler().getSchedulingLock()) {
-			if (incrementJob == null) {
-				scheduleUpdateJob(MarkerUpdateScheduler.SHORT_DELAY, true);
-			}
+			job = incrementJob;
 		}
-		if (incrementJob != null) {
-			incrementJob.addUpdate(update);
+		if (job != null) {
+			job.addUpdate(update);
 		}
 	}
+
+	/**
+	 * Remember the entries whose markers changed, so that only their labels are
+	 * updated by the next UI update.
+	 */
+	synchronized void entriesChanged(Collection<MarkerEntry> entries) {
+		if (changedEntries != null) {
+			// replace equal entries of earlier changes, the viewer shows the given ones
+			changedEntries.removeAll(entries);
+			changedEntries.addAll(entries);
+		}
+	}
+
+	/**
+	 * Request the labels of all entries to be updated by the next UI update.
+	 */
+	synchronized void allEntriesChanged() {
+		changedEntries = null;
+	}
+
+	/**
+	 * Return the entries whose markers changed since the last call and start
+	 * collecting them anew.
+	 *
+	 * @return the changed entries, or <code>null</code> if the labels of all
+	 *         entries have to be updated
+	 */
+	synchronized Set<MarkerEntry> takeChangedEntries() {
+		Set<MarkerEntry> result = changedEntries;
+		changedEntries = new HashSet<>();
+		return result;
+	}
 ///////	</Incremental update code>///////
 
 ///helpers//
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 IBM Corporation and others.
+ * Copyright (c) 2015, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,72 +14,73 @@
 
 package org.eclipse.ui.internal.views.markers;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
 
+import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.ui.views.markers.internal.MarkerMessages;
 
 /**
- * The job that performs incremental update. Once the processing is complete it
- * schedules an UI update. If it'll be possible and beneficial switch to
- * incremental updatation, this has been left out for further investigation(*).
- * only, and not used currently.
+ * The job that performs incremental updates. The markers shown by the view are
+ * gathered once and kept in an index by marker, the marker deltas received
+ * afterwards are applied to the index instead of gathering all markers again.
+ * Once the processing is complete it schedules an UI update.
+ * <p>
+ * A clean update, e.g. after a change of the filters, the selection or the
+ * generator, gathers all markers again.
+ * </p>
  *
  * @since 3.6
  */
 class IncrementUpdateJob extends MarkerUpdateJob {
 
-	private LinkedList<MarkerEntry> incrementEntryList;
+	/**
+	 * The entries of the markers shown by the view, or <code>null</code> if they
+	 * have to be gathered. Only accessed by the job.
+	 */
+	private Map<IMarker, MarkerEntry> index;
+
+	/**
+	 * Whether the index changed since it was last passed to the
+	 * {@link Markers}.
+	 */
+	private boolean markersOutdated;
+
+	private volatile boolean rebuild = true;
+
 	private LinkedList<MarkerUpdate> updateQueue;
 
 	public IncrementUpdateJob(CachedMarkerBuilder builder) {
 		super(builder);
-		incrementEntryList = new LinkedList<>();
 	}
 
 	@Override
 	protected IStatus run(IProgressMonitor monitor) {
 		monitor.beginTask(MarkerMessages.MarkerView_processUpdates, IProgressMonitor.UNKNOWN);
-		boolean clean= isClean();
-		if (clean) {
-			clearEntries();
-		}
-		Collection<MarkerEntry> markerEntries = incrementalEntries();
-		if (clean) {
-			/*
-			 * Unfortunately we cannot lock marker operations between gathering
-			 * and updation. We have this code in place only for further
-			 * investigation
-			 */
-			clean = !clean(markerEntries, monitor);
-			LinkedList<MarkerUpdate> queue = getUpdatesQueue();
-			synchronized (queue) {
-				queue.clear();
+		if (rebuild || index == null) {
+			if (!rebuildIndex(monitor)) {
+				return Status.CANCEL_STATUS;
 			}
+		} else {
+			processUpdates();
 		}
 		if (monitor.isCanceled()) {
 			return Status.CANCEL_STATUS;
 		}
-		if (!clean) {
-			builder.registerTypesToListener();
-			if (!processUpdates(monitor)) {
+		if (markersOutdated) {
+			if (!processMarkerEntries(new ArrayList<>(index.values()), monitor)) {
 				return Status.CANCEL_STATUS;
 			}
-		}
-		if (!processMarkerEntries(markerEntries, monitor)) {
-			return Status.CANCEL_STATUS;
+			markersOutdated = false;
 		}
-		if (monitor.isCanceled()) {
-			return Status.CANCEL_STATUS;
-		}
-		// update with sorted entries
-		updateIncrementalList(markerEntries);
-
 		if (monitor.isCanceled()) {
 			return Status.CANCEL_STATUS;
 		}
@@ -93,151 +94,131 @@ class IncrementUpdateJob extends MarkerUpdateJob {
 	}
 
 	/**
-	 * Update the list
+	 * Gather all markers into a new index. The updates queued so far are covered
+	 * by the gathered markers, the ones arriving while gathering are applied on
+	 * the next run.
 	 */
-	private boolean updateIncrementalList(Collection<MarkerEntry> markerEntries) {
-		markerEntries.clear();
-		Markers clone = builder.getMarkers();
-		synchronized (clone) {
-			clone = clone.getClone();
+	private boolean rebuildIndex(IProgressMonitor monitor) {
+		rebuild = false;
+		LinkedList<MarkerUpdate> queue = getUpdatesQueue();
+		synchronized (queue) {
+			queue.clear();
+		}
+		Collection<MarkerEntry> markerEntries = new ArrayList<>();
+		if (!clean(markerEntries, monitor) || monitor.isCanceled()) {
+			rebuild = true;
+			return false;
 		}
-		markerEntries.addAll(Arrays.asList(clone.getMarkerEntryArray()));
+		Map<IMarker, MarkerEntry> newIndex = new HashMap<>(markerEntries.size() * 4 / 3 + 1);
+		for (MarkerEntry entry : markerEntries) {
+			newIndex.put(entry.getMarker(), entry);
+		}
+		index = newIndex;
+		markersOutdated = true;
+		builder.allEntriesChanged();
 		return true;
 	}
 
 	/**
-	 * Process the incremental updates
+	 * Apply the queued updates to the index. Entries of changed markers are
+	 * replaced by equal ones, so that the viewer only needs to update their
+	 * labels.
 	 */
-	private boolean processUpdates(IProgressMonitor monitor) {
-		Collection<MarkerEntry> markerEntries = incrementalEntries();
-		int addCount = 0, removedCount = 0, changedCount = 0, size = 0, newSize = 0;
+	private void processUpdates() {
+		MarkerContentGenerator generator = builder.getGenerator();
+		if (generator == null) {
+			return;
+		}
+		boolean added = false;
+		boolean removed = false;
+		Set<MarkerEntry> changed = new HashSet<>();
 		LinkedList<MarkerUpdate> queue = getUpdatesQueue();
-		MarkerUpdate next = null;
-		do {
+		while (true) {
+			MarkerUpdate next;
 			synchronized (queue) {
-				if (!queue.isEmpty()) {
-					next = queue.removeFirst();
-				} else {
-					next = null;
+				if (queue.isEmpty()) {
+					break;
 				}
+				next = queue.removeFirst();
 			}
-			if (monitor.isCanceled() || next == null) {
-				break;
+			for (MarkerEntry entry : next.removed) {
+				if (index.remove(entry.getMarker()) != null) {
+					removed = true;
+					changed.remove(entry);
+				}
 			}
-			/**
-			 * The following performs incremental updation of the markers that
-			 * were gathered intially, and keeps them synched at any point with
-			 * the markers of interest in Workspace
-			 */
-			// unfortunately marker operations cannot be locked
-			// so locking between gathering of markers and
-			// marker deltas is not possible
-			size = markerEntries.size();
-			handleRemovedEntries(markerEntries, next.removed);
-			newSize = markerEntries.size();
-			removedCount += size - newSize;
-
-			handleChangedEntries(markerEntries, next.changed);
-			changedCount += next.changed.size();
-
-			size = newSize;
-			handleAddedEntries(markerEntries, next.added);
-			newSize = markerEntries.size();
-			removedCount += newSize - size;
-		} while (next != null);
-		boolean[] changeFlags = new boolean[] { addCount > 0, removedCount > 0,
-				changedCount > 0 };
-		for (boolean changeFlag : changeFlags) {
-			if (changeFlag) {
-				builder.updateChangeFlags(changeFlags);
-				return true;
+			for (MarkerEntry entry : next.added) {
+				int result = addOrUpdate(generator, entry, changed);
+				added |= result > 0;
+				removed |= result < 0;
 			}
-		}
-		return false;
-	}
-
-	private void handleAddedEntries(Collection<MarkerEntry> markerEntries, Collection<MarkerEntry> added) {
-		MarkerContentGenerator generator = builder.getGenerator();
-		Iterator<MarkerEntry> iterator = added.iterator();
-		while (iterator.hasNext()) {
-			MarkerEntry entry = iterator.next();
-			if (generator.select(entry)) {
-				markerEntries.add(entry);
+			for (MarkerEntry entry : next.changed) {
+				int result = addOrUpdate(generator, entry, changed);
+				added |= result > 0;
+				removed |= result < 0;
 			}
 		}
-	}
-
-	private void handleChangedEntries(Collection<MarkerEntry> markerEntries,
-			Collection<MarkerEntry> changed) {
-		MarkerContentGenerator generator = builder.getGenerator();
-		Iterator<MarkerEntry> iterator = changed.iterator();
-		while (iterator.hasNext()) {
-			MarkerEntry entry = iterator.next();
-			Iterator<MarkerEntry> iterator2 = markerEntries.iterator();
-			while (iterator2.hasNext()) {
-				MarkerEntry oldEntry = iterator2.next();
-				if (oldEntry.getMarker().equals(entry.getMarker())) {
-					iterator2.remove();
-				}
-			}
-			if (!generator.select(entry)) {
-				iterator.remove();
-			}
+		if (added || removed || !changed.isEmpty()) {
+			markersOutdated = true;
+			builder.updateChangeFlags(new boolean[] { added, removed, !changed.isEmpty() });
+			builder.entriesChanged(changed);
 		}
-		markerEntries.addAll(changed);
 	}
 
-	private void handleRemovedEntries(Collection<MarkerEntry> markerEntries,
-			Collection<MarkerEntry> removed) {
-		boolean found = false;
-		Iterator<MarkerEntry> iterator = markerEntries.iterator();
-		while (iterator.hasNext()) {
-			MarkerEntry entry = iterator.next();
-			found = entry.getStaleState();
-			if (found) {
-				iterator.remove();
-			}
-			if (removed.isEmpty()) {
-				continue;
-			}
-			Iterator<MarkerEntry> iterator2 = removed.iterator();
-			while (iterator2.hasNext()) {
-				MarkerEntry stale = iterator2.next();
-				if (stale.getMarker().equals(entry.getMarker())) {
-					iterator2.remove();
-					if (!found) {
-						iterator.remove();
-					}
-					break;
-				}
+	/**
+	 * Add, update or remove the entry of the marker depending on whether it
+	 * exists and is selected by the filters.
+	 *
+	 * @return <code>1</code> if an entry was added, <code>-1</code> if one was
+	 *         removed, otherwise <code>0</code>
+	 */
+	private int addOrUpdate(MarkerContentGenerator generator, MarkerEntry entry, Set<MarkerEntry> changed) {
+		IMarker marker = entry.getMarker();
+		MarkerEntry existing = index.get(marker);
+		if (!marker.exists()) {
+			// the marker was removed after the delta was created
+			if (existing != null) {
+				index.remove(marker);
+				changed.remove(existing);
+				return -1;
 			}
+			return 0;
 		}
-		if (removed.isEmpty()) {
-			// TODO: do we check for residuals?
-			return;
-		}
-		// TODO: do we check for residuals?
-		iterator = markerEntries.iterator();
-		while (iterator.hasNext()) {
-			MarkerEntry entry = iterator.next();
-			if (entry.getMarker() != null && !entry.getMarker().exists()) {
-				iterator.remove();
+		if (existing == null) {
+			if (generator.select(entry)) {
+				index.put(marker, entry);
+				return 1;
 			}
-		}
+			return 0;
+		}
+		// the existing entry may be shown, so it is replaced by the fresh entry of
+		// the update instead of being changed
+		changed.remove(existing);
+		if (generator.select(entry)) {
+			index.put(marker, entry);
+			changed.add(entry);
+			return 0;
+		}
+		index.remove(marker);
+		changed.remove(existing);
+		return -1;
 	}
 
-	/**
-	 * Clean
-	 */
-	void clearEntries() {
-		incrementEntryList = new LinkedList<>();
+	@Override
+	void setClean() {
+		super.setClean();
+		rebuild = true;
 	}
 
 	/**
-	 * @return Returns the incrementEntryies.
+	 * Discard the queued updates and gather all markers on the next run.
 	 */
-	Collection<MarkerEntry> incrementalEntries() {
-		return incrementEntryList;
+	void clearEntries() {
+		rebuild = true;
+		LinkedList<MarkerUpdate> queue = getUpdatesQueue();
+		synchronized (queue) {
+			queue.clear();
+		}
 	}
 
 	/**
@@ -269,4 +250,4 @@ class IncrementUpdateJob extends MarkerUpdateJob {
 		}
 		return super.belongsTo(family);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.internal.views.markers;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * A snapshot of the marker attributes most often read for sorting, filtering
+ * and labeling a number of {@link MarkerEntry}s, stored by column. Each
+ * attribute is read once per marker when the table is built, instead of once
+ * per comparison or label.
+ * <p>
+ * Equal marker types and paths share one string. Changed markers get a new
+ * entry, which reads the marker until the next table is built. An entry only
+ * uses the row of its table which holds the entry itself, otherwise it reads
+ * the marker.
+ * </p>
+ */
+public final class MarkerAttributeTable {
+
+	/**
+	 * Value of an integer attribute which is not set on the marker.
+	 */
+	static final int NOT_SET = Integer.MIN_VALUE;
+
+	/**
+	 * Value of an attribute which is not in the table, it has to be read from the
+	 * marker.
+	 */
+	static final int NOT_CACHED = Integer.MIN_VALUE + 1;
+
+	private static final String[] INT_ATTRIBUTES = { IMarker.SEVERITY, IMarker.PRIORITY, IMarker.LINE_NUMBER };
+
+	/**
+	 * The number of markers from which on the attributes are read in parallel.
+	 */
+	private static final int PARALLEL_THRESHOLD = 5000;
+
+	private final MarkerEntry[] entries;
+	private final int[] severities;
+	private final int[] priorities;
+	private final int[] lineNumbers;
+	private final long[] creationTimes;
+	private final String[] types;
+	private final String[] paths;
+
+	private MarkerAttributeTable(MarkerEntry[] entries) {
+		this.entries = entries;
+		int size = entries.length;
+		severities = new int[size];
+		priorities = new int[size];
+		lineNumbers = new int[size];
+		creationTimes = new long[size];
+		types = new String[size];
+		paths = new String[size];
+	}
+
+	/**
+	 * Build the table for the given entries and attach it to them.
+	 *
+	 * @param entries the entries, which must not be changed afterwards
+	 */
+	public static void build(MarkerEntry[] entries) {
+		if (entries.length == 0) {
+			return;
+		}
+		MarkerAttributeTable table = new MarkerAttributeTable(entries);
+		Map<String, String> strings = new ConcurrentHashMap<>();
+		IntStream rows = IntStream.range(0, entries.length);
+		if (entries.length >= PARALLEL_THRESHOLD) {
+			rows = rows.parallel();
+		}
+		rows.forEach(row -> table.read(row, strings));
+		for (int row = 0; row < entries.length; row++) {
+			entries[row].setAttributeTable(table, row);
+		}
+	}
+
+	/**
+	 * Build a table for those of the given entries which are not in one.
+	 * <p>
+	 * A table holds its entries, also those which were removed since it was
+	 * built. If less than half of the rows of the tables of the given entries
+	 * belong to them, one table is built for all of them instead, so that no
+	 * entry references the old tables anymore.
+	 * </p>
+	 *
+	 * @param entries the entries, which may be changed afterwards
+	 */
+	public static void buildMissing(MarkerEntry[] entries) {
+		Set<MarkerAttributeTable> tables = Collections.newSetFromMap(new IdentityHashMap<>());
+		int missing = 0;
+		long rows = 0;
+		for (MarkerEntry entry : entries) {
+			MarkerAttributeTable table = entry.getAttributeTable();
+			if (table == null) {
+				missing++;
+			} else if (tables.add(table)) {
+				rows += table.entries.length;
+			}
+		}
+		if (rows > 2L * (entries.length - missing)) {
+			build(entries.clone());
+			return;
+		}
+		if (missing == 0) {
+			return;
+		}
+		MarkerEntry[] newEntries = new MarkerEntry[missing];
+		int i = 0;
+		for (MarkerEntry entry : entries) {
+			if (entry.getAttributeTable() == null) {
+				newEntries[i++] = entry;
+			}
+		}
+		build(newEntries);
+	}
+
+	private void read(int row, Map<String, String> strings) {
+		MarkerEntry entry = entries[row];
+		IMarker marker = entry.getMarker();
+		if (marker == null) {
+			severities[row] = NOT_CACHED;
+			priorities[row] = NOT_CACHED;
+			lineNumbers[row] = NOT_CACHED;
+			return;
+		}
+		try {
+			Object[] values = marker.getAttributes(INT_ATTRIBUTES);
+			severities[row] = toInt(values[0]);
+			priorities[row] = toInt(values[1]);
+			lineNumbers[row] = toInt(values[2]);
+			creationTimes[row] = marker.getCreationTime();
+			types[row] = strings.computeIfAbsent(marker.getType(), k -> k);
+			paths[row] = strings.computeIfAbsent(entry.getPath(marker.getResource()), k -> k);
+		} catch (CoreException e) {
+			// the marker does not exist anymore
+			entry.checkIfMarkerStale();
+			severities[row] = NOT_CACHED;
+			priorities[row] = NOT_CACHED;
+			lineNumbers[row] = NOT_CACHED;
+			creationTimes[row] = -1;
+		}
+	}
+
+	private static int toInt(Object value) {
+		if (value == null) {
+			return NOT_SET;
+		}
+		if (value instanceof Integer) {
+			int result = ((Integer) value).intValue();
+			return result == NOT_SET || result == NOT_CACHED ? NOT_CACHED : result;
+		}
+		// not an integer, let the entry deal with it
+		return NOT_CACHED;
+	}
+
+	/**
+	 * @return whether the row of the table holds the attributes of the entry
+	 */
+	boolean isRowOf(MarkerEntry entry, int row) {
+		return row >= 0 && row < entries.length && entries[row] == entry;
+	}
+
+	/**
+	 * Return the value of an integer attribute.
+	 *
+	 * @return the value, {@link #NOT_SET} or {@link #NOT_CACHED}
+	 */
+	int getIntAttribute(int row, String attribute) {
+		if (IMarker.SEVERITY.equals(attribute)) {
+			return severities[row];
+		}
+		if (IMarker.LINE_NUMBER.equals(attribute)) {
+			return lineNumbers[row];
+		}
+		if (IMarker.PRIORITY.equals(attribute)) {
+			return priorities[row];
+		}
+		return NOT_CACHED;
+	}
+
+	long getCreationTime(int row) {
+		return creationTimes[row];
+	}
+
+	/**
+	 * @return the marker type, or <code>null</code> if not known
+	 */
+	String getType(int row) {
+		return types[row];
+	}
+
+	/**
+	 * @return the path, or <code>null</code> if not known
+	 */
+	String getPath(int row) {
+		return paths[row];
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -121,6 +121,38 @@ class MarkerComparator implements Comparator<MarkerItem> {
 		return this::compareFields;
 	}
 
+	/**
+	 * Return whether the fields can be compared from several threads at once.
+	 * This is only known for the fields of the markers views themselves,
+	 * contributed fields may cache their values in structures that are not
+	 * thread-safe.
+	 *
+	 * @return boolean
+	 */
+	boolean canCompareFieldsInParallel() {
+		for (MarkerField field : fields) {
+			if (!isBuiltIn(field)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return whether the category and the fields can be compared from several
+	 * threads at once.
+	 *
+	 * @return boolean
+	 * @see #canCompareFieldsInParallel()
+	 */
+	boolean canCompareInParallel() {
+		return (category == null || isBuiltIn(category)) && canCompareFieldsInParallel();
+	}
+
+	private static boolean isBuiltIn(MarkerField field) {
+		return field.getClass().getPackageName().equals(MarkerComparator.class.getPackageName());
+	}
+
 	/**
 	 * Switch the priority of the field from ascending to descending or vice
 	 * versa.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2022 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -68,7 +68,7 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 	// The key for the string we built for display
 	private static final String LOCATION_STRING = "LOCATION_STRING"; //$NON-NLS-1$
 	private static final Object CACHED_NULL = new String("CACHED_NULL"); //$NON-NLS-1$
-	private MarkerCategory category;
+	private volatile MarkerCategory category;
 	private final Map<String, Object> cache = new ConcurrentHashMap<>();
 	private static Map<String, CollationKey> collationCache = new ConcurrentHashMap<>();
 
@@ -85,6 +85,14 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 	/** cached value **/
 	private String markerTypeName;
 
+	/**
+	 * The snapshot of the attributes of the marker and the row of the entry in
+	 * it, see {@link MarkerAttributeTable}. The row is only valid if the table
+	 * confirms it.
+	 */
+	private volatile MarkerAttributeTable attributeTable;
+	private volatile int attributeRow;
+
 	/**
 	 * Important: access to these fields must be via methods, they must be in sync
 	 * and their values should reflect correctly the state of the other
@@ -138,6 +146,17 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 
 	@Override
 	public int getAttributeValue(String attribute, int defaultValue) {
+		int row = attributeRow;
+		MarkerAttributeTable table = attributeTable;
+		if (table != null && table.isRowOf(this, row)) {
+			int tableValue = table.getIntAttribute(row, attribute);
+			if (tableValue == MarkerAttributeTable.NOT_SET) {
+				return defaultValue;
+			}
+			if (tableValue != MarkerAttributeTable.NOT_CACHED) {
+				return tableValue;
+			}
+		}
 		Object value = getAttributeValue(attribute);
 		if (value == null) {
 			return defaultValue;
@@ -217,6 +236,12 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 		if (creationTime != 0) {
 			return creationTime;
 		}
+		int row = attributeRow;
+		MarkerAttributeTable table = attributeTable;
+		if (table != null && table.isRowOf(this, row)) {
+			creationTime = table.getCreationTime(row);
+			return creationTime;
+		}
 		if(stale){
 			creationTime = -1;
 			return creationTime;
@@ -292,6 +317,12 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 		if (markerType != null) {
 			return markerType;
 		}
+		int row = attributeRow;
+		MarkerAttributeTable table = attributeTable;
+		if (table != null && table.isRowOf(this, row) && table.getType(row) != null) {
+			markerType = table.getType(row);
+			return markerType;
+		}
 		if(stale){
 			markerType = NLS.bind(MarkerMessages.FieldMessage_WrongType, marker.toString());
 			return markerType;
@@ -314,6 +345,11 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 
 	@Override
 	public String getPath() {
+		int row = attributeRow;
+		MarkerAttributeTable table = attributeTable;
+		if (table != null && table.isRowOf(this, row) && table.getPath(row) != null) {
+			return table.getPath(row);
+		}
 		Object value = getCachedValueOrCompute(MarkerViewUtil.PATH_ATTRIBUTE, () -> {
 			if (stale || checkIfMarkerStale()) {
 				return MarkerSupportInternalUtilities.UNKNOWN_ATRRIBTE_VALUE_STRING;
@@ -341,6 +377,13 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 
 	/**
 	 * Set the category to markerCategory.
+	 * <p>
+	 * Entries of unchanged markers are shared by the shown and the next
+	 * {@link Markers}, so this may be called while the entry is shown. The
+	 * categories of both have the same name and are equal, see
+	 * {@link MarkerCategory#equals(Object)}, so the viewer finds the same parent
+	 * item through either. Changed markers get a new entry instead.
+	 * </p>
 	 */
 	void setCategory(MarkerCategory markerCategory) {
 		category = markerCategory;
@@ -365,6 +408,27 @@ class MarkerEntry extends MarkerSupportItem implements IAdaptable {
 		cache.clear();
 	}
 
+	/**
+	 * Set the snapshot of the attributes of the marker.
+	 *
+	 * @param table the table holding the attributes
+	 * @param row   the row of the entry in the table
+	 */
+	void setAttributeTable(MarkerAttributeTable table, int row) {
+		attributeRow = row;
+		attributeTable = table;
+	}
+
+	/**
+	 * @return the {@link MarkerAttributeTable} holding the attributes of the
+	 *         marker, or <code>null</code> if they are not in one
+	 */
+	MarkerAttributeTable getAttributeTable() {
+		int row = attributeRow;
+		MarkerAttributeTable table = attributeTable;
+		return table != null && table.isRowOf(this, row) ? table : null;
+	}
+
 	static void clearCollationCache() {
 		collationCache = new ConcurrentHashMap<>();
 	}
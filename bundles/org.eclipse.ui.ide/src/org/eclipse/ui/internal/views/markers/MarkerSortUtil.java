@@ -66,6 +66,14 @@ public class MarkerSortUtil {
 	 */
 	private static float MERGE_OR_HEAP_SWITCH=1.5f;
 
+	/*
+	 * From this number of elements on, Arrays.parallelSort() is used instead of
+	 * Arrays.sort() if the caller allows it. The attributes the comparators read
+	 * are snapshot in a MarkerAttributeTable, so the comparisons do not contend
+	 * on the workspace.
+	 */
+	private static final int PARALLEL_SORT_THRESHOLD = 10000;
+
 	/**
 	 * Sorts [first,middle] in the array of [first,last] using a variant of
 	 * modified heapsort, such that {@literal
@@ -272,6 +280,18 @@ public class MarkerSortUtil {
 	public static void sortStartingKElement(MarkerEntry[] entries,
  Comparator<MarkerItem> comparator, int from, int to,
 			int k, IProgressMonitor monitor) {
+		sortStartingKElement(entries, comparator, from, to, k, false, monitor);
+	}
+
+	/**
+	 * Sorts <code>[from,first+k-1]</code> in the array of <code>[from,to]</code>
+	 * like {@link #sortStartingKElement(MarkerEntry[], Comparator, int, int, int, IProgressMonitor)}.
+	 * If <code>parallel</code> is <code>true</code>, large ranges are sorted
+	 * with {@link Arrays#parallelSort(Object[], int, int, Comparator)}, so the
+	 * comparator must be safe to call from several threads at once.
+	 */
+	public static void sortStartingKElement(MarkerEntry[] entries, Comparator<MarkerItem> comparator, int from, int to,
+			int k, boolean parallel, IProgressMonitor monitor) {
 		// check range valid
 		int last = from + k-1;
 		if (entries.length == 0 || from < 0 || from >= to || last < from
@@ -281,7 +301,11 @@ public class MarkerSortUtil {
 		if (BATCH_SIZE == Integer.MAX_VALUE || (n <= BATCH_SIZE && (((float) n / k) <= MERGE_OR_HEAP_SWITCH))
 				/*|| ((float) n / k) <= MERGE_OR_HEAP_SWITCH*/) {
 			// use arrays sort
-			Arrays.sort(entries, from, to + 1, comparator);
+			if (parallel && n >= PARALLEL_SORT_THRESHOLD) {
+				Arrays.parallelSort(entries, from, to + 1, comparator);
+			} else {
+				Arrays.sort(entries, from, to + 1, comparator);
+			}
 			// clear cache for first to middle since we are done with sort
 			for (int i = from; i <= to; i++) {
 				entries[i].clearCache();
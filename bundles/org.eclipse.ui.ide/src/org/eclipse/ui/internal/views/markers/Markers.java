@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2018 IBM Corporation and others.
+ * Copyright (c) 2009, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -26,6 +26,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.runtime.CoreException;
@@ -47,6 +49,9 @@ class Markers {
 	static final MarkerCategory[] EMPTY_CATEGORY_ARRAY = new MarkerCategory[0];
 	static final MarkerEntry[] EMPTY_ENTRY_ARRAY = new MarkerEntry[0];
 
+	// the number of markers from which on the categories are sorted in parallel
+	private static final int PARALLEL_THRESHOLD = 5000;
+
 	// the marker entries
 	private volatile MarkerEntry[] markerEntryArray = EMPTY_ENTRY_ARRAY;
 	// the categories
@@ -93,6 +98,9 @@ class Markers {
 			}
 			MarkerEntry[] markerArray = new MarkerEntry[markerEntries.size()];
 			markerEntries.toArray(markerArray);
+			// only entries which passed the filters are read into a table, entries
+			// added by incremental updates get their own one
+			MarkerAttributeTable.buildMissing(markerArray);
 			markerEntryArray = markerArray;
 			if (sortAndGroup) {
 				if (monitor.isCanceled()) {
@@ -144,32 +152,42 @@ class Markers {
 		}
 		boolean initialVal = inChange;
 		MarkerComparator markerComparator = builder.getComparator();
-		MarkerCategory lastCategory = null;
+		AtomicReference<MarkerCategory> lastCategory = new AtomicReference<>();
 		try {
 			inChange = true;
 			if (builder.isShowingHierarchy()) {
 				Comparator<MarkerItem> comparator = markerComparator.getFieldsComparator();
-				for (MarkerCategory category : categories) {
+				MarkerEntry[] entries = markerEntryArray;
+				Stream<MarkerCategory> toSort = Arrays.stream(categories);
+				boolean parallel = markerComparator.canCompareFieldsInParallel();
+				if (parallel && categories.length > 1 && entries.length >= PARALLEL_THRESHOLD) {
+					// the categories are disjoint ranges of the array
+					toSort = toSort.parallel();
+				}
+				toSort.forEach(category -> {
 					if (monitor.isCanceled()) {
-						return false;
+						return;
 					}
-					lastCategory = category;
 					// sort various categories
 					category.resetChildren(); // reset cached children
 					int avaliable = category.end - category.start + 1;
 					int effLimit = getShowingLimit(avaliable);
-					MarkerSortUtil.sortStartingKElement(markerEntryArray,
-							comparator, category.start, category.end, effLimit,
-							monitor);
-				}
+					try {
+						MarkerSortUtil.sortStartingKElement(entries, comparator, category.start, category.end,
+								effLimit, parallel, monitor);
+					} catch (IllegalArgumentException e) {
+						lastCategory.compareAndSet(null, category);
+						throw e;
+					}
+				});
 			} else {
 				if (monitor.isCanceled()) {
 					return false;
 				}
 				int avaialble = markerEntryArray.length - 1;
 				int effLimit = getShowingLimit(avaialble);
-				MarkerSortUtil.sortStartingKElement(markerEntryArray,
-						markerComparator, effLimit, monitor);
+				MarkerSortUtil.sortStartingKElement(markerEntryArray, markerComparator, 0,
+						markerEntryArray.length - 1, effLimit, markerComparator.canCompareInParallel(), monitor);
 			}
 			if (monitor.isCanceled()) {
 				return false;
@@ -178,8 +196,8 @@ class Markers {
 			return true;
 		} catch (IllegalArgumentException e) {
 			StringBuilder err = new StringBuilder("Bug 371586: broken comparator. "); //$NON-NLS-1$
-			if (lastCategory != null) {
-				err.append(lastCategory);
+			if (lastCategory.get() != null) {
+				err.append(lastCategory.get());
 			} else {
 				err.append(markerComparator.getCategory());
 			}
@@ -231,6 +249,23 @@ class Markers {
 		return markerCategories;
 	}
 
+	/**
+	 * Find the group of the entry.
+	 *
+	 * @return the group or <code>null</code> if the marker does not exist
+	 */
+	private static MarkerGroupingEntry findGroupValue(MarkerGroup group, MarkerEntry entry) {
+		IMarker marker = entry.getMarker();
+		if (marker == null) {
+			return null;
+		}
+		String type = entry.getMarkerTypeId();
+		if (entry.getStaleState()) {
+			return null;
+		}
+		return group.findGroupValue(type, marker);
+	}
+
 	/**
 	 * Sorts/groups the markers in O(N) comparisons and returns the boundary
 	 * indices in the map. The O(N) complexity requires the use of a few data
@@ -243,25 +278,22 @@ class Markers {
 			int k, IProgressMonitor monitor) {
 		TreeMap<MarkerGroupingEntry, List<MarkerEntry>> map = new TreeMap<>(
 				group.getEntriesComparator());
+		// MarkerGroup caches the group values in maps which are not thread-safe,
+		// so they are looked up sequentially
 		for (int i = 0; i <= k; i++) {
-			IMarker marker = entries[i].getMarker();
-			if (marker == null) {
-				continue;// skip stale markers
-			}
 			if (monitor.isCanceled()) {
 				return Collections.emptyMap();
 			}
-			try {
-				MarkerGroupingEntry groupingEntry = group.findGroupValue(marker.getType(), marker);
-				List<MarkerEntry> list = map.get(groupingEntry);
-				if (list == null) {
-					list = new ArrayList<>();
-					map.put(groupingEntry, list);
-				}
-				list.add(entries[i]);
-			} catch (CoreException e) {
-				entries[i].checkIfMarkerStale();
+			MarkerGroupingEntry groupingEntry = findGroupValue(group, entries[i]);
+			if (groupingEntry == null) {
+				continue;// skip stale markers
+			}
+			List<MarkerEntry> list = map.get(groupingEntry);
+			if (list == null) {
+				list = new ArrayList<>();
+				map.put(groupingEntry, list);
 			}
+			list.add(entries[i]);
 		}
 		TreeMap<MarkerGroupingEntry, Integer> result = new TreeMap<>(
 				group.getEntriesComparator());
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015 IBM Corporation and others.
+ * Copyright (c) 2015, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -127,6 +127,11 @@ class MarkersChangeListener implements IResourceChangeListener {
 				builder.getUpdateScheduler().speedUpPendingUpdates();
 				return;
 			}
+			if (builder.isIncremental() && hasProjectChanges(event)) {
+				// markers of closed projects are not reported as removed
+				builder.scheduleUpdate();
+				return;
+			}
 			if(!hasApplicableTypes(event)){
 				return;
 			}
@@ -174,8 +179,8 @@ class MarkersChangeListener implements IResourceChangeListener {
 	 * operations cannot be locked so locking between gathering of markers and
 	 * marker deltas is not possible.
 	 *
-	 * Note : this method of updating is NOT used and tested yet and has holes
-	 * but left out SOLELY for further investigation(*).
+	 * The updates are applied by the {@link IncrementUpdateJob}, which checks
+	 * again whether each marker still exists.
 	 */
 	private void handleIncrementalChange(IResourceChangeEvent event) {
 		IMarkerDelta[] markerDeltas = event.findMarkerDeltas(null, true);
@@ -224,6 +229,24 @@ class MarkersChangeListener implements IResourceChangeListener {
 		return;
 	}
 
+	/**
+	 * @return true if a project was added, removed, opened or closed, which
+	 *         changes the markers in a way not described by marker deltas.
+	 */
+	private boolean hasProjectChanges(IResourceChangeEvent event) {
+		IResourceDelta delta = event.getDelta();
+		if (delta == null) {
+			return false;
+		}
+		for (IResourceDelta projectDelta : delta.getAffectedChildren()) {
+			if (projectDelta.getKind() != IResourceDelta.CHANGED
+					|| (projectDelta.getFlags() & IResourceDelta.OPEN) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * @return true if the marker delta has a change in an applicable marker
 	 *         type else false.
@@ -522,6 +545,19 @@ class MarkerUpdateScheduler {
 		// updateTimer.reset();
 	}
 
+	/**
+	 * Schedule marker update for changes of the markers, which are applied
+	 * incrementally if the builder supports it.
+	 */
+	private void scheduleMarkerChangeUpdate(long delay, boolean cancelPrevious) {
+		builder.setBuilding(true);
+		if (cancelPrevious) {
+			cancelQueuedUIUpdates();
+			cancelUpdate();
+		}
+		updateJob = builder.scheduleUpdateJob(delay, !builder.isIncremental());
+	}
+
 	/**
 	 * Schedule marker update.
 	 */
@@ -780,7 +816,7 @@ class MarkerUpdateScheduler {
 
 		private void go(long delay, boolean cancelPrevious) {
 			timeB4Update = System.currentTimeMillis() + delay;
-			scheduleUpdate(delay + AFTER_MARGIN, cancelPrevious);
+			scheduleMarkerChangeUpdate(delay + AFTER_MARGIN, cancelPrevious);
 		}
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2015 IBM Corporation and others.
+ * Copyright (c) 2010, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -12,9 +12,12 @@
  *     IBM Corporation - initial API and implementation
  *******************************************************************************/
 package org.eclipse.ui.internal.views.markers;
+
+import org.eclipse.core.resources.IMarker;
+
 /**
  * @since 3.4
- *	Mock Class needed for testing Sort
+ *	Mock Class needed for testing Sort and the MarkerAttributeTable
  */
 public class MockMarkerEntry extends MarkerEntry{
 	public String name;
@@ -22,6 +25,10 @@ public class MockMarkerEntry extends MarkerEntry{
 		super(null);
 		this.name=name;
 	}
+	public MockMarkerEntry(IMarker marker) {
+		super(marker);
+		this.name=String.valueOf(marker.getId());
+	}
 	@Override
 	public boolean equals(Object obj) {
 		// TODO Auto-generated method stub
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2018 IBM Corporation and others.
+ * Copyright (c) 2009, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,8 @@
 
 package org.eclipse.ui.internal.views.markers;
 
+import java.util.Set;
+
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -99,7 +101,17 @@ class UIUpdateJob extends WorkbenchJob {
 				contentProvider.inputChanged(viewer, view.getViewerInput(), clone);
 
 				viewer.getTree().setRedraw(false);
-				viewer.refresh(true);
+				Set<MarkerEntry> changedEntries = view.getBuilder().takeChangedEntries();
+				if (changedEntries == null) {
+					viewer.refresh(true);
+				} else {
+					// only the labels of changed markers and of categories are out of date
+					viewer.refresh(false);
+					if (!changedEntries.isEmpty()) {
+						viewer.update(changedEntries.toArray(), null);
+					}
+					viewer.update(clone.getCategories(), null);
+				}
 				if (!monitor.isCanceled()) {
 					//do not expand if canceled
 					view.reexpandCategories();
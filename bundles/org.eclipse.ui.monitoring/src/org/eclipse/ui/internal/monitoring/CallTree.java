@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Aggregates stack samples into a call tree per thread. For each node of the tree the self
+ * time, spent in the frame itself, and the total time, spent in the frame and its callees, is
+ * recorded. The time of a sample is the sampling interval.
+ * <p>
+ * The tree can be written in the collapsed stack format understood by flame graph tools: one
+ * line per call path, the frames separated by semicolons followed by the self time in
+ * milliseconds.
+ * </p>
+ * <p>
+ * The number of nodes and frames is limited. Once the limit is reached, the call paths and
+ * frames seen for the first time are folded into a node or frame named {@value #OTHER}.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+public class CallTree {
+	/** The name of the node or frame the call paths or frames over the limit are folded into. */
+	public static final String OTHER = "[other]"; //$NON-NLS-1$
+
+	private static final int MAX_NODES = 100000;
+	private static final int MAX_FRAMES = 20000;
+
+	/**
+	 * The time spent in a frame, summed over all call paths and threads.
+	 */
+	public static class FrameStatistics {
+		private final String frame;
+		private final long selfTime;
+		private final long totalTime;
+
+		FrameStatistics(String frame, long selfTime, long totalTime) {
+			this.frame = frame;
+			this.selfTime = selfTime;
+			this.totalTime = totalTime;
+		}
+
+		/** Returns the fully qualified method name of the frame. */
+		public String getFrame() {
+			return frame;
+		}
+
+		/** Returns the time in milliseconds spent in the frame itself. */
+		public long getSelfTime() {
+			return selfTime;
+		}
+
+		/**
+		 * Returns the time in milliseconds spent in the frame or its callees. Recursive calls
+		 * are counted once.
+		 */
+		public long getTotalTime() {
+			return totalTime;
+		}
+	}
+
+	private static class Node {
+		final String frame;
+		Map<String, Node> children;
+		long selfTime;
+		long totalTime;
+
+		Node(String frame) {
+			this.frame = frame;
+		}
+
+		Map<String, Node> getChildren() {
+			if (children == null) {
+				children = new HashMap<>();
+			}
+			return children;
+		}
+	}
+
+	/** The roots of the call trees by thread name. */
+	private final Map<String, Node> roots = new TreeMap<>();
+	/** The self and total time by frame. */
+	private final Map<String, long[]> frameTimes = new HashMap<>();
+	/** Shared frame names. */
+	private final Map<String, String> frameNames = new HashMap<>();
+	private final Set<String> sampleFrames = new HashSet<>();
+	private final int maxNodes;
+	private final int maxFrames;
+	private int nodeCount;
+	private long totalTime;
+
+	/**
+	 * Creates an empty call tree.
+	 */
+	public CallTree() {
+		this(MAX_NODES, MAX_FRAMES);
+	}
+
+	/**
+	 * Creates an empty call tree with the given limits.
+	 *
+	 * @param maxNodes the number of nodes from which on new call paths are folded
+	 * @param maxFrames the number of frames from which on new frames are folded
+	 */
+	CallTree(int maxNodes, int maxFrames) {
+		this.maxNodes = maxNodes;
+		this.maxFrames = maxFrames;
+	}
+
+	/**
+	 * Adds a stack sample.
+	 *
+	 * @param threadName the name of the sampled thread
+	 * @param stack the stack trace, the innermost frame first
+	 * @param time the time in milliseconds represented by the sample
+	 */
+	public synchronized void addSample(String threadName, StackTraceElement[] stack, long time) {
+		if (stack.length == 0) {
+			return;
+		}
+		totalTime += time;
+		Node node = getNode(roots, getRootName(threadName));
+		node.totalTime += time;
+		sampleFrames.clear();
+		for (int i = stack.length; --i >= 0;) {
+			String frame = getFrameName(stack[i]);
+			if (!OTHER.equals(node.frame)) {
+				// the callees of a folded call path are folded as well
+				node = getNode(node.getChildren(), frame);
+				node.totalTime += time;
+			}
+			long[] times = frameTimes.get(frame);
+			if (times == null) {
+				if (frameTimes.size() >= maxFrames) {
+					frame = OTHER;
+				}
+				times = frameTimes.computeIfAbsent(frame, f -> new long[2]);
+			}
+			if (i == 0) {
+				times[0] += time;
+			}
+			if (sampleFrames.add(frame)) {
+				times[1] += time;
+			}
+		}
+		node.selfTime += time;
+	}
+
+	/**
+	 * Returns the name of the root of the thread's call tree. Job workers append the name of the
+	 * job they run to their own, e.g. "Worker-3: Build", which is dropped to keep one call tree
+	 * per worker.
+	 */
+	private static String getRootName(String threadName) {
+		int colon = threadName.indexOf(':');
+		return colon > 0 ? threadName.substring(0, colon) : threadName;
+	}
+
+	/**
+	 * Returns the node for the given frame, which is created if there are fewer than the
+	 * maximum number of nodes. Otherwise the node folding new call paths is returned.
+	 */
+	private Node getNode(Map<String, Node> nodes, String frame) {
+		Node node = nodes.get(frame);
+		if (node == null) {
+			if (nodeCount >= maxNodes) {
+				frame = OTHER;
+				node = nodes.get(frame);
+			}
+			if (node == null) {
+				node = new Node(frame);
+				nodes.put(frame, node);
+				nodeCount++;
+			}
+		}
+		return node;
+	}
+
+	private String getFrameName(StackTraceElement element) {
+		String name = element.getClassName() + '.' + element.getMethodName();
+		String sharedName = frameNames.get(name);
+		if (sharedName != null) {
+			return sharedName;
+		}
+		if (frameNames.size() < maxFrames) {
+			frameNames.put(name, name);
+		}
+		return name;
+	}
+
+	/**
+	 * Returns the total time of all samples in milliseconds.
+	 */
+	public synchronized long getTotalTime() {
+		return totalTime;
+	}
+
+	/**
+	 * Returns the frames with the highest self time.
+	 *
+	 * @param maxFrames the maximum number of frames to return
+	 * @return the frames, the one with the highest self time first
+	 */
+	public synchronized List<FrameStatistics> getHottestFrames(int maxFrames) {
+		List<FrameStatistics> frames = new ArrayList<>(frameTimes.size());
+		for (Map.Entry<String, long[]> entry : frameTimes.entrySet()) {
+			long[] times = entry.getValue();
+			if (times[0] > 0) {
+				frames.add(new FrameStatistics(entry.getKey(), times[0], times[1]));
+			}
+		}
+		frames.sort(Comparator.comparingLong(FrameStatistics::getSelfTime).reversed()
+				.thenComparing(FrameStatistics::getFrame));
+		return frames.size() > maxFrames ? new ArrayList<>(frames.subList(0, maxFrames)) : frames;
+	}
+
+	/**
+	 * Writes the call trees in the collapsed stack format, the thread name being the outermost
+	 * frame of each call path.
+	 *
+	 * @param out the destination
+	 * @throws IOException if writing fails
+	 */
+	public synchronized void writeCollapsedStacks(Appendable out) throws IOException {
+		StringBuilder path = new StringBuilder();
+		for (Node root : roots.values()) {
+			path.setLength(0);
+			path.append(root.frame.replace(';', ':'));
+			writeCollapsedStacks(root, path, out);
+		}
+	}
+
+	private static void writeCollapsedStacks(Node node, StringBuilder path, Appendable out)
+			throws IOException {
+		if (node.selfTime > 0) {
+			out.append(path).append(' ').append(Long.toString(node.selfTime)).append('\n');
+		}
+		if (node.children != null) {
+			int length = path.length();
+			for (Node child : node.children.values()) {
+				path.append(';').append(child.frame);
+				writeCollapsedStacks(child, path, out);
+				path.setLength(length);
+			}
+		}
+	}
+
+	/**
+	 * Removes all samples.
+	 */
+	public synchronized void clear() {
+		roots.clear();
+		frameTimes.clear();
+		frameNames.clear();
+		nodeCount = 0;
+		totalTime = 0;
+	}
+}
@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.util.function.LongSupplier;
+
+import org.eclipse.swt.SWT;
+
+/**
+ * Measures the time the UI thread spends in each dispatched event and records it into
+ * {@link LatencyMetrics}. The time spent in nested event loops waiting for or dispatching
+ * native events, e.g. while a modal dialog is open, is excluded since the events dispatched
+ * there are measured on their own.
+ * <p>
+ * Accessed only by the UI thread.
+ * </p>
+ */
+class EventLatencyRecorder {
+	/** The maximum depth of events and external event dispatches that are tracked. */
+	private static final int MAX_DEPTH = 256;
+
+	private static final String ASYNC_EXEC_CATEGORY = getEventTypeName(SWT.None);
+
+	private final LatencyMetrics metrics;
+
+	/** Returns the current time in nanoseconds. */
+	private final LongSupplier clock;
+
+	// The stack of events that are being dispatched.
+	private final String[] eventCategories = new String[MAX_DEPTH];
+	private final long[] eventStartTimes = new long[MAX_DEPTH];
+	private final long[] eventExcludedTimes = new long[MAX_DEPTH];
+	private final boolean[] topLevelEvents = new boolean[MAX_DEPTH];
+	/** The number of events being dispatched, may exceed {@link #MAX_DEPTH}. */
+	private int eventDepth;
+
+	// The stack of external event dispatches.
+	private final long[] dispatchStartTimes = new long[MAX_DEPTH];
+	private final long[] dispatchExcludedTimes = new long[MAX_DEPTH];
+	private int dispatchDepth;
+
+	/** The total time in nanoseconds spent in external event dispatches. */
+	private long excludedTime;
+
+	EventLatencyRecorder(LatencyMetrics metrics) {
+		this(metrics, System::nanoTime);
+	}
+
+	/**
+	 * Creates a recorder measuring the time with the given clock, for testing purposes.
+	 */
+	EventLatencyRecorder(LatencyMetrics metrics, LongSupplier clock) {
+		this.metrics = metrics;
+		this.clock = clock;
+	}
+
+	/**
+	 * Called before an event is dispatched.
+	 *
+	 * @param eventType the SWT event type, {@link SWT#None} for {@code asyncExec} and
+	 *     {@code syncExec} runnables
+	 * @param topLevel whether the event is dispatched by an event loop rather than sent while
+	 *     another event is handled
+	 */
+	void eventStarted(int eventType, boolean topLevel) {
+		if (eventDepth < MAX_DEPTH) {
+			eventCategories[eventDepth] = getEventTypeName(eventType);
+			eventStartTimes[eventDepth] = clock.getAsLong();
+			eventExcludedTimes[eventDepth] = excludedTime;
+			topLevelEvents[eventDepth] = topLevel;
+		}
+		eventDepth++;
+	}
+
+	/**
+	 * Called after an event was dispatched.
+	 */
+	void eventEnded() {
+		if (eventDepth == 0) {
+			return; // The event started before the recording.
+		}
+		int i = --eventDepth;
+		if (i < MAX_DEPTH) {
+			long duration = clock.getAsLong() - eventStartTimes[i]
+					- (excludedTime - eventExcludedTimes[i]);
+			metrics.record(eventCategories[i], duration, topLevelEvents[i]);
+			eventCategories[i] = null;
+		}
+	}
+
+	/**
+	 * Replaces the category of the innermost event being dispatched if it is an
+	 * {@code asyncExec} or {@code syncExec} runnable that has not been categorized yet, for
+	 * example by the name of the UI job the runnable runs.
+	 */
+	void setAsyncExecCategory(String category) {
+		if (eventDepth > 0 && eventDepth <= MAX_DEPTH
+				&& ASYNC_EXEC_CATEGORY.equals(eventCategories[eventDepth - 1])) {
+			eventCategories[eventDepth - 1] = category;
+		}
+	}
+
+	/**
+	 * Called before native events are waited for or dispatched.
+	 */
+	void externalDispatchStarted() {
+		if (dispatchDepth < MAX_DEPTH) {
+			dispatchStartTimes[dispatchDepth] = clock.getAsLong();
+			dispatchExcludedTimes[dispatchDepth] = excludedTime;
+		}
+		dispatchDepth++;
+	}
+
+	/**
+	 * Called after native events were waited for or dispatched.
+	 */
+	void externalDispatchEnded() {
+		if (dispatchDepth == 0) {
+			return; // The dispatch started before the recording.
+		}
+		int i = --dispatchDepth;
+		if (i < MAX_DEPTH) {
+			// Nested dispatches have already been added.
+			long duration = clock.getAsLong() - dispatchStartTimes[i];
+			excludedTime += duration - (excludedTime - dispatchExcludedTimes[i]);
+		}
+	}
+
+	/**
+	 * Returns the name of an SWT event type, which is the category of the event unless it is
+	 * replaced by {@link #setAsyncExecCategory(String)}.
+	 */
+	static String getEventTypeName(int eventType) {
+		switch (eventType) {
+		case SWT.None:
+			return "asyncExec/syncExec"; //$NON-NLS-1$
+		case SWT.KeyDown:
+			return "KeyDown"; //$NON-NLS-1$
+		case SWT.KeyUp:
+			return "KeyUp"; //$NON-NLS-1$
+		case SWT.MouseDown:
+			return "MouseDown"; //$NON-NLS-1$
+		case SWT.MouseUp:
+			return "MouseUp"; //$NON-NLS-1$
+		case SWT.MouseMove:
+			return "MouseMove"; //$NON-NLS-1$
+		case SWT.MouseEnter:
+			return "MouseEnter"; //$NON-NLS-1$
+		case SWT.MouseExit:
+			return "MouseExit"; //$NON-NLS-1$
+		case SWT.MouseDoubleClick:
+			return "MouseDoubleClick"; //$NON-NLS-1$
+		case SWT.Paint:
+			return "Paint"; //$NON-NLS-1$
+		case SWT.Move:
+			return "Move"; //$NON-NLS-1$
+		case SWT.Resize:
+			return "Resize"; //$NON-NLS-1$
+		case SWT.Selection:
+			return "Selection"; //$NON-NLS-1$
+		case SWT.DefaultSelection:
+			return "DefaultSelection"; //$NON-NLS-1$
+		case SWT.FocusIn:
+			return "FocusIn"; //$NON-NLS-1$
+		case SWT.FocusOut:
+			return "FocusOut"; //$NON-NLS-1$
+		case SWT.Expand:
+			return "Expand"; //$NON-NLS-1$
+		case SWT.Collapse:
+			return "Collapse"; //$NON-NLS-1$
+		case SWT.Iconify:
+			return "Iconify"; //$NON-NLS-1$
+		case SWT.Deiconify:
+			return "Deiconify"; //$NON-NLS-1$
+		case SWT.Close:
+			return "Close"; //$NON-NLS-1$
+		case SWT.Show:
+			return "Show"; //$NON-NLS-1$
+		case SWT.Hide:
+			return "Hide"; //$NON-NLS-1$
+		case SWT.Modify:
+			return "Modify"; //$NON-NLS-1$
+		case SWT.Verify:
+			return "Verify"; //$NON-NLS-1$
+		case SWT.Activate:
+			return "Activate"; //$NON-NLS-1$
+		case SWT.Deactivate:
+			return "Deactivate"; //$NON-NLS-1$
+		case SWT.Help:
+			return "Help"; //$NON-NLS-1$
+		case SWT.DragDetect:
+			return "DragDetect"; //$NON-NLS-1$
+		case SWT.Arm:
+			return "Arm"; //$NON-NLS-1$
+		case SWT.Traverse:
+			return "Traverse"; //$NON-NLS-1$
+		case SWT.MouseHover:
+			return "MouseHover"; //$NON-NLS-1$
+		case SWT.MenuDetect:
+			return "MenuDetect"; //$NON-NLS-1$
+		case SWT.SetData:
+			return "SetData"; //$NON-NLS-1$
+		case SWT.MouseWheel:
+			return "MouseWheel"; //$NON-NLS-1$
+		case SWT.MouseHorizontalWheel:
+			return "MouseHorizontalWheel"; //$NON-NLS-1$
+		case SWT.Settings:
+			return "Settings"; //$NON-NLS-1$
+		case SWT.EraseItem:
+			return "EraseItem"; //$NON-NLS-1$
+		case SWT.PaintItem:
+			return "PaintItem"; //$NON-NLS-1$
+		case SWT.ImeComposition:
+			return "ImeComposition"; //$NON-NLS-1$
+		case SWT.Gesture:
+			return "Gesture"; //$NON-NLS-1$
+		case SWT.Touch:
+			return "Touch"; //$NON-NLS-1$
+		case SWT.ZoomChanged:
+			return "ZoomChanged"; //$NON-NLS-1$
+		default:
+			return "Event " + eventType; //$NON-NLS-1$
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014, 2015 Google Inc and others.
+ * Copyright (C) 2014, 2024 Google Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -31,12 +31,17 @@ import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.IJobChangeListener;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
+import org.eclipse.ui.progress.UIJob;
 import org.eclipse.ui.monitoring.IUiFreezeEventLogger;
 import org.eclipse.ui.monitoring.PreferenceConstants;
 import org.eclipse.ui.monitoring.StackSample;
@@ -50,6 +55,7 @@ import org.eclipse.ui.monitoring.UiFreezeEvent;
 public class EventLoopMonitorThread extends Thread {
 	private static final int EVENT_HISTORY_SIZE = 100;
 	private static final String EXTENSION_ID = "org.eclipse.ui.monitoring.logger"; //$NON-NLS-1$
+	private static final String JOB_CATEGORY_PREFIX = "Job: "; //$NON-NLS-1$
 	private static final String NEW_LINE_AND_BULLET = "\n* "; //$NON-NLS-1$
 	private static final String TRACE_EVENT_MONITOR = "/debug/event_monitor"; //$NON-NLS-1$
 	private static final String TRACE_PREFIX = "Event Loop Monitor"; //$NON-NLS-1$
@@ -80,6 +86,15 @@ public class EventLoopMonitorThread extends Thread {
 		public String uiThreadFilter;
 		/** @see org.eclipse.ui.monitoring.PreferenceConstants#NONINTERESTING_THREAD_FILTER */
 		public String noninterestingThreadFilter;
+		/**
+		 * The interval in milliseconds at which the stacks are sampled continuously, or zero
+		 * to disable the sampling profiler.
+		 */
+		public long samplingInterval;
+		/** @see org.eclipse.ui.monitoring.PreferenceConstants#SAMPLED_THREAD_FILTER */
+		public String sampledThreadFilter = ""; //$NON-NLS-1$
+		/** @see org.eclipse.ui.monitoring.PreferenceConstants#LATENCY_METRICS_ENABLED */
+		public boolean recordLatency;
 
 		/**
 		 * Checks if the values of parameters for UI responsiveness monitoring are valid.
@@ -107,6 +122,11 @@ public class EventLoopMonitorThread extends Thread {
 						NLS.bind(Messages.EventLoopMonitorThread_deadlock_threshold_too_low_error_2,
 								deadlockThreshold, longEventErrorThreshold));
 			}
+			if (samplingInterval < 0) {
+				problems.append(NEW_LINE_AND_BULLET +
+						NLS.bind(Messages.EventLoopMonitorThread_sampling_interval_error_1,
+								samplingInterval));
+			}
 
 			if (problems.length() != 0) {
 				throw new IllegalArgumentException(
@@ -170,6 +190,9 @@ public class EventLoopMonitorThread extends Thread {
 				if (eventHistory != null) {
 					eventHistory.recordEvent(event.type, event.detail, nestingLevel);
 				}
+				if (latencyRecorder != null) {
+					latencyRecorder.eventStarted(event.detail, nestingLevel == 1);
+				}
 				// Log a long interval, start the timer.
 				handleEventTransition(true, true);
 				break;
@@ -185,6 +208,9 @@ public class EventLoopMonitorThread extends Thread {
 				if (eventHistory != null) {
 					eventHistory.recordEvent(event.type, event.detail, nestingLevel);
 				}
+				if (latencyRecorder != null) {
+					latencyRecorder.eventEnded();
+				}
 				// Log a long interval, start the timer if inside another event.
 				handleEventTransition(true, nestingLevel > 0);
 				break;
@@ -193,6 +219,9 @@ public class EventLoopMonitorThread extends Thread {
 				if (eventHistory != null) {
 					eventHistory.recordEvent(event.type, event.detail, nestingLevel);
 				}
+				if (latencyRecorder != null) {
+					latencyRecorder.externalDispatchStarted();
+				}
 				// Log a long interval, stop the timer.
 				handleEventTransition(true, false);
 				break;
@@ -201,6 +230,9 @@ public class EventLoopMonitorThread extends Thread {
 				if (eventHistory != null) {
 					eventHistory.recordEvent(event.type, event.detail, nestingLevel);
 				}
+				if (latencyRecorder != null) {
+					latencyRecorder.externalDispatchEnded();
+				}
 				// Don't log a long interval, start the timer if inside another event.
 				handleEventTransition(false, nestingLevel > 0);
 				break;
@@ -324,6 +356,20 @@ public class EventLoopMonitorThread extends Thread {
 	// Accessed only by the UI thread. */
 	private final EventLoopState eventLoopState = new EventLoopState();
 
+	/**
+	 * Names the {@code asyncExec} runnables in which UI jobs run after the job. UI jobs finish
+	 * in the runnable that runs them. Other jobs finishing on the UI thread, e.g. because they
+	 * are canceled while an event is handled, leave the category alone.
+	 */
+	private final IJobChangeListener uiJobListener = new JobChangeAdapter() {
+		@Override
+		public void done(IJobChangeEvent event) {
+			if (event.getJob() instanceof UIJob && Thread.currentThread().getId() == uiThreadId) {
+				latencyRecorder.setAsyncExecCategory(JOB_CATEGORY_PREFIX + event.getJob().getName());
+			}
+		}
+	};
+
 	/*
 	 * Tracks when the current event was started, or if the event has nested {@link Event#sendEvent}
 	 * calls, then the time when the most recent nested call returns and the current event is
@@ -358,6 +404,12 @@ public class EventLoopMonitorThread extends Thread {
 	private final long uiThreadId;
 	private final Object sleepMonitor;
 	private final boolean logToErrorLog;
+	private final long samplingInterval;
+	private final String sampledThreadFilter;
+	private final String noninterestingThreadFilterSpec;
+	// Accessed only by the UI thread.
+	private final EventLatencyRecorder latencyRecorder;
+	private volatile SamplingProfiler samplingProfiler;
 	private EventHistory eventHistory;
 	private ThreadMXBean threadMXBean;
 	private boolean dumpLockedMonitors;
@@ -395,6 +447,12 @@ public class EventLoopMonitorThread extends Thread {
 		logToErrorLog = args.logToErrorLog;
 		uiThreadFilter = new FilterHandler(args.uiThreadFilter);
 		noninterestingThreadFilter = new FilterHandler(args.noninterestingThreadFilter);
+		noninterestingThreadFilterSpec = args.noninterestingThreadFilter;
+		samplingInterval = args.samplingInterval;
+		sampledThreadFilter = args.sampledThreadFilter;
+		latencyRecorder = args.recordLatency
+				? new EventLatencyRecorder(MonitoringPlugin.getLatencyMetrics())
+				: null;
 		sleepMonitor = new Object();
 	}
 
@@ -403,12 +461,19 @@ public class EventLoopMonitorThread extends Thread {
 	 */
 	public void shutdown() throws SWTException {
 		cancelled.set(true);
+		SamplingProfiler profiler = samplingProfiler;
+		if (profiler != null) {
+			profiler.shutdown();
+		}
 		if (!display.isDisposed()) {
 			display.removeListener(SWT.PreEvent, eventLoopState);
 			display.removeListener(SWT.PostEvent, eventLoopState);
 			display.removeListener(SWT.PreExternalEventDispatch, eventLoopState);
 			display.removeListener(SWT.PostExternalEventDispatch, eventLoopState);
 		}
+		if (latencyRecorder != null) {
+			Job.getJobManager().removeJobChangeListener(uiJobListener);
+		}
 		wakeUp();
 	}
 
@@ -460,6 +525,7 @@ public class EventLoopMonitorThread extends Thread {
 
 		monitoringThreadId = Thread.currentThread().getId();
 		threadMXBean = ManagementFactory.getThreadMXBean();
+		startSamplingProfiler();
 		dumpLockedMonitors = threadMXBean.isObjectMonitorUsageSupported();
 		dumpLockedSynchronizers = threadMXBean.isSynchronizerUsageSupported();
 		boolean contentionMonitoringSupported = threadMXBean.isThreadContentionMonitoringSupported();
@@ -645,6 +711,21 @@ public class EventLoopMonitorThread extends Thread {
 		}
 	}
 
+	private void startSamplingProfiler() {
+		if (samplingInterval <= 0) {
+			return;
+		}
+		// The filter handler is not thread safe, the profiler gets its own.
+		SamplingProfiler profiler = new SamplingProfiler(MonitoringPlugin.getCallTree(),
+				uiThreadId, samplingInterval, sampledThreadFilter,
+				new FilterHandler(noninterestingThreadFilterSpec));
+		samplingProfiler = profiler;
+		if (cancelled.get()) {
+			return;
+		}
+		profiler.start();
+	}
+
 	private ThreadInfo[] captureThreadStacks(boolean dumpAllThreads) {
 		if (dumpAllThreads) {
 			ThreadInfo[] threadStacks =
@@ -742,6 +823,9 @@ public class EventLoopMonitorThread extends Thread {
 		display.addListener(SWT.PostEvent, eventLoopState);
 		display.addListener(SWT.PreExternalEventDispatch, eventLoopState);
 		display.addListener(SWT.PostExternalEventDispatch, eventLoopState);
+		if (latencyRecorder != null && !cancelled.get()) {
+			Job.getJobManager().addJobChangeListener(uiJobListener);
+		}
 	}
 
 	/**
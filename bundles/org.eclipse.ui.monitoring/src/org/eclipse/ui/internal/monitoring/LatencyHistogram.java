@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.io.IOException;
+
+/**
+ * A histogram of durations in microseconds with logarithmic buckets, each power of two being
+ * divided into {@value #SUB_BUCKET_COUNT} linear sub-buckets. Recording a value costs a few
+ * instructions and no allocation, the relative error of the reported values is about 3%.
+ * Durations longer than about nineteen hours are recorded as the maximal trackable value.
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+public class LatencyHistogram {
+	/**
+	 * Receives the non-empty buckets of a histogram.
+	 */
+	public interface BucketVisitor {
+		/**
+		 * @param highestValue the highest duration in microseconds recorded in the bucket
+		 * @param count the number of durations recorded in the bucket
+		 */
+		void visit(long highestValue, long count) throws IOException;
+	}
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	/** The number of bits of the largest trackable value. */
+	private static final int MAX_VALUE_BITS = 36;
+	private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+	private static final int BUCKET_COUNT =
+			(MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+	private final long[] counts;
+	private long totalCount;
+	private long maxValue;
+	private long sum;
+
+	public LatencyHistogram() {
+		counts = new long[BUCKET_COUNT];
+	}
+
+	private LatencyHistogram(LatencyHistogram other) {
+		counts = other.counts.clone();
+		totalCount = other.totalCount;
+		maxValue = other.maxValue;
+		sum = other.sum;
+	}
+
+	/**
+	 * Records a duration.
+	 *
+	 * @param micros the duration in microseconds, negative durations are recorded as zero
+	 */
+	public synchronized void recordValue(long micros) {
+		long value = Math.min(Math.max(micros, 0), MAX_VALUE);
+		counts[getBucket(value)]++;
+		totalCount++;
+		sum += value;
+		if (value > maxValue) {
+			maxValue = value;
+		}
+	}
+
+	static int getBucket(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+	}
+
+	/**
+	 * Returns the highest value that is recorded in the given bucket.
+	 */
+	static long getHighestValue(int bucket) {
+		if (bucket < SUB_BUCKET_COUNT) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKET_COUNT - 1;
+		long lowestValue = (long) (SUB_BUCKET_COUNT + bucket % SUB_BUCKET_COUNT) << shift;
+		return lowestValue + (1L << shift) - 1;
+	}
+
+	/**
+	 * Returns the number of recorded durations.
+	 */
+	public synchronized long getTotalCount() {
+		return totalCount;
+	}
+
+	/**
+	 * Returns the longest recorded duration in microseconds.
+	 */
+	public synchronized long getMaxValue() {
+		return maxValue;
+	}
+
+	/**
+	 * Returns the mean of the recorded durations in microseconds, or zero if there are none.
+	 */
+	public synchronized double getMean() {
+		return totalCount == 0 ? 0 : (double) sum / totalCount;
+	}
+
+	/**
+	 * Returns the duration which the given percentage of the recorded durations does not
+	 * exceed.
+	 *
+	 * @param percentile the percentage, between 0 and 100
+	 * @return the duration in microseconds, or zero if there are no recorded durations
+	 */
+	public synchronized long getValueAtPercentile(double percentile) {
+		if (totalCount == 0) {
+			return 0;
+		}
+		// Rounded rather than ceiled to be immune to floating point errors.
+		long countAtPercentile =
+				(long) (Math.min(Math.max(percentile, 0), 100) / 100 * totalCount + 0.5);
+		countAtPercentile = Math.max(countAtPercentile, 1);
+		long count = 0;
+		for (int i = 0; i < counts.length; i++) {
+			count += counts[i];
+			if (count >= countAtPercentile) {
+				return Math.min(getHighestValue(i), maxValue);
+			}
+		}
+		return maxValue;
+	}
+
+	/**
+	 * Passes the non-empty buckets, the one with the shortest durations first, to the given
+	 * visitor.
+	 */
+	public synchronized void visitBuckets(BucketVisitor visitor) throws IOException {
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] != 0) {
+				visitor.visit(Math.min(getHighestValue(i), maxValue), counts[i]);
+			}
+		}
+	}
+
+	/**
+	 * Returns a copy of the histogram.
+	 */
+	public synchronized LatencyHistogram copy() {
+		return new LatencyHistogram(this);
+	}
+}
@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms of the events dispatched by the UI thread, one per event category, for
+ * example the SWT event type or the name of a UI job, and one for all top level events.
+ * <p>
+ * This class is thread safe.
+ * </p>
+ */
+public class LatencyMetrics {
+	/** The category of all top level events. */
+	public static final String ALL_EVENTS = "All Events"; //$NON-NLS-1$
+	/** The category of the events recorded after {@link #MAX_CATEGORIES} was reached. */
+	public static final String OTHER_EVENTS = "Other Events"; //$NON-NLS-1$
+	/**
+	 * The maximum number of categories. Job names may contain varying text, this keeps the
+	 * memory bounded.
+	 */
+	private static final int MAX_CATEGORIES = 200;
+	/** The percentiles written by {@link #writeJson(Appendable)}. */
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+	private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+	private volatile LatencyHistogram allEvents = new LatencyHistogram();
+	private volatile long startTime = System.currentTimeMillis();
+
+	/**
+	 * Records the duration of an event.
+	 *
+	 * @param category the category of the event
+	 * @param durationNanos the duration in nanoseconds
+	 * @param topLevel whether the event is dispatched by an event loop rather than sent while
+	 *     another event is handled
+	 */
+	public void record(String category, long durationNanos, boolean topLevel) {
+		long micros = durationNanos / 1000;
+		LatencyHistogram histogram = histograms.get(category);
+		if (histogram == null) {
+			histogram = histograms.computeIfAbsent(
+					histograms.size() < MAX_CATEGORIES ? category : OTHER_EVENTS,
+					c -> new LatencyHistogram());
+		}
+		histogram.recordValue(micros);
+		if (topLevel) {
+			allEvents.recordValue(micros);
+		}
+	}
+
+	/**
+	 * Returns the categories, {@link #ALL_EVENTS} first, then the categories with the most
+	 * events.
+	 */
+	public List<String> getCategories() {
+		Map<String, Long> counts = new HashMap<>();
+		for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+			counts.put(entry.getKey(), entry.getValue().getTotalCount());
+		}
+		List<String> categories = new ArrayList<>(counts.keySet());
+		categories.sort((c1, c2) -> {
+			int result = Long.compare(counts.get(c2), counts.get(c1));
+			return result != 0 ? result : c1.compareTo(c2);
+		});
+		categories.add(0, ALL_EVENTS);
+		return categories;
+	}
+
+	/**
+	 * Returns copies of the histograms by category, in the order of {@link #getCategories()}.
+	 */
+	public Map<String, LatencyHistogram> getSnapshot() {
+		Map<String, LatencyHistogram> snapshot = new LinkedHashMap<>();
+		for (String category : getCategories()) {
+			LatencyHistogram histogram = getHistogram(category);
+			if (histogram != null) {
+				snapshot.put(category, histogram);
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Returns a copy of the histogram of the given category, or {@code null} if no event of the
+	 * category was recorded.
+	 */
+	public LatencyHistogram getHistogram(String category) {
+		LatencyHistogram histogram =
+				ALL_EVENTS.equals(category) ? allEvents : histograms.get(category);
+		return histogram == null ? null : histogram.copy();
+	}
+
+	/**
+	 * Returns the time in milliseconds since the epoch at which the recording started.
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * Writes the histograms as a JSON object. Besides the percentiles it contains the non-empty
+	 * buckets of each histogram, so that the histograms of several sessions can be merged.
+	 * Durations are in microseconds.
+	 *
+	 * @param out the destination
+	 * @throws IOException if writing fails
+	 */
+	public void writeJson(Appendable out) throws IOException {
+		long endTime = System.currentTimeMillis();
+		Map<String, LatencyHistogram> snapshot = getSnapshot();
+		out.append("{\n  \"start\": \"").append(Instant.ofEpochMilli(startTime).toString()); //$NON-NLS-1$
+		out.append("\",\n  \"end\": \"").append(Instant.ofEpochMilli(endTime).toString()); //$NON-NLS-1$
+		out.append("\",\n  \"unit\": \"us\",\n  \"categories\": ["); //$NON-NLS-1$
+		boolean first = true;
+		for (Map.Entry<String, LatencyHistogram> entry : snapshot.entrySet()) {
+			LatencyHistogram histogram = entry.getValue();
+			out.append(first ? "\n" : ",\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			first = false;
+			out.append("    {\"name\": "); //$NON-NLS-1$
+			appendJsonString(entry.getKey(), out);
+			out.append(", \"count\": ").append(Long.toString(histogram.getTotalCount())); //$NON-NLS-1$
+			out.append(", \"mean\": ").append(Long.toString(Math.round(histogram.getMean()))); //$NON-NLS-1$
+			for (double percentile : PERCENTILES) {
+				out.append(", \"p").append(formatPercentile(percentile)).append("\": ") //$NON-NLS-1$ //$NON-NLS-2$
+						.append(Long.toString(histogram.getValueAtPercentile(percentile)));
+			}
+			out.append(", \"max\": ").append(Long.toString(histogram.getMaxValue())); //$NON-NLS-1$
+			out.append(", \"buckets\": ["); //$NON-NLS-1$
+			boolean[] firstBucket = { true };
+			histogram.visitBuckets((highestValue, count) -> {
+				out.append(firstBucket[0] ? "[" : ", [").append(Long.toString(highestValue)) //$NON-NLS-1$ //$NON-NLS-2$
+						.append(", ").append(Long.toString(count)).append(']'); //$NON-NLS-1$
+				firstBucket[0] = false;
+			});
+			out.append("]}"); //$NON-NLS-1$
+		}
+		out.append("\n  ]\n}\n"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the name of a percentile in the JSON output, e.g. "999" for 99.9.
+	 */
+	private static String formatPercentile(double percentile) {
+		String text = Double.toString(percentile);
+		if (text.endsWith(".0")) { //$NON-NLS-1$
+			text = text.substring(0, text.length() - 2);
+		}
+		return text.replace(".", ""); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static void appendJsonString(String text, Appendable out) throws IOException {
+		out.append('"');
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+			case '"':
+			case '\\':
+				out.append('\\').append(c);
+				break;
+			case '\n':
+				out.append("\\n"); //$NON-NLS-1$
+				break;
+			case '\r':
+				out.append("\\r"); //$NON-NLS-1$
+				break;
+			case '\t':
+				out.append("\\t"); //$NON-NLS-1$
+				break;
+			default:
+				if (c < ' ') {
+					out.append(String.format("\\u%04x", (int) c)); //$NON-NLS-1$
+				} else {
+					out.append(c);
+				}
+			}
+		}
+		out.append('"');
+	}
+
+	/**
+	 * Removes all recorded durations and restarts the recording.
+	 */
+	public void clear() {
+		histograms.clear();
+		allEvents = new LatencyHistogram();
+		startTime = System.currentTimeMillis();
+	}
+}
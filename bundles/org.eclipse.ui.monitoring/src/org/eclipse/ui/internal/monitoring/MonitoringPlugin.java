@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014 , 2023 Google Inc and others.
+ * Copyright (C) 2014, 2024 Google Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -30,6 +30,8 @@ public class MonitoringPlugin {
 
 	private static ILog logger = ILog.of(MonitoringPlugin.class);
 	private static IPreferenceStore store;
+	private static final CallTree callTree = new CallTree();
+	private static final LatencyMetrics latencyMetrics = new LatencyMetrics();
 
 	public static void logError(String message, Throwable e) {
 		logger.log(new Status(IStatus.ERROR, PreferenceConstants.PLUGIN_ID, message, e));
@@ -41,6 +43,20 @@ public class MonitoringPlugin {
 
 
 
+	/**
+	 * Returns the call tree collecting the samples of the sampling profiler.
+	 */
+	public static CallTree getCallTree() {
+		return callTree;
+	}
+
+	/**
+	 * Returns the latency histograms of the events dispatched by the UI thread.
+	 */
+	public static LatencyMetrics getLatencyMetrics() {
+		return latencyMetrics;
+	}
+
 	public static IPreferenceStore getPreferenceStore() {
 		if (store == null) {
 			store = PlatformUI.createPreferenceStore(MonitoringPlugin.class);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014, 2023 Google Inc and others.
+ * Copyright (C) 2014, 2024 Google Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -91,6 +91,12 @@ public class MonitoringStartup implements EventHandler {
 		args.noninterestingThreadFilter =
 				preferences.getString(PreferenceConstants.NONINTERESTING_THREAD_FILTER);
 		args.logToErrorLog = preferences.getBoolean(PreferenceConstants.LOG_TO_ERROR_LOG);
+		if (preferences.getBoolean(PreferenceConstants.SAMPLING_ENABLED)) {
+			args.samplingInterval =
+					preferences.getInt(PreferenceConstants.SAMPLING_INTERVAL_MILLIS);
+		}
+		args.sampledThreadFilter = preferences.getString(PreferenceConstants.SAMPLED_THREAD_FILTER);
+		args.recordLatency = preferences.getBoolean(PreferenceConstants.LATENCY_METRICS_ENABLED);
 
 		return args;
 	}
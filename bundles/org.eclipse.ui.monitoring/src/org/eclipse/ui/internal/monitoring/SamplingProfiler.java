@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * Samples the stacks of the UI thread and of the threads with matching names at a fixed
+ * interval, independent of the duration of events, and adds them to a {@link CallTree}. This
+ * shows where time goes in a session even if no single event is long enough to be logged as
+ * a UI freeze.
+ * <p>
+ * Samples of idle threads are dropped: the UI thread is idle while it sleeps in
+ * {@code Display.sleep()}, other threads are idle when all their frames match the
+ * non-interesting thread filter.
+ * </p>
+ */
+public class SamplingProfiler extends Thread {
+	private static final String DISPLAY_SLEEP_CLASS = "org.eclipse.swt.widgets.Display"; //$NON-NLS-1$
+	private static final String DISPLAY_SLEEP_METHOD = "sleep"; //$NON-NLS-1$
+	/**
+	 * The maximum number of frames captured per stack, deeper stacks lose their outermost
+	 * frames.
+	 */
+	private static final int MAX_STACK_DEPTH = 256;
+	/** The interval in milliseconds at which the sampled threads are looked up again. */
+	private static final long THREAD_LOOKUP_INTERVAL = 1000;
+
+	private final CallTree callTree;
+	private final long uiThreadId;
+	private final long samplingInterval;
+	private final Pattern sampledThreadPattern;
+	private final FilterHandler noninterestingThreadFilter;
+	private volatile boolean cancelled;
+	private ThreadMXBean threadMXBean;
+	private long[] sampledThreadIds;
+	private long nextThreadLookup;
+
+	/**
+	 * Creates the profiler.
+	 *
+	 * @param callTree the call tree to add the samples to
+	 * @param uiThreadId the ID of the UI thread
+	 * @param samplingInterval the sampling interval in milliseconds
+	 * @param sampledThreadFilter comma separated names of the non-UI threads to sample, which
+	 *     may contain wildcard characters '*' and '?'
+	 * @param noninterestingThreadFilter the filter identifying idle non-UI threads
+	 */
+	public SamplingProfiler(CallTree callTree, long uiThreadId, long samplingInterval,
+			String sampledThreadFilter, FilterHandler noninterestingThreadFilter) {
+		super("UI Sampling Profiler"); //$NON-NLS-1$
+		setDaemon(true);
+		this.callTree = callTree;
+		this.uiThreadId = uiThreadId;
+		this.samplingInterval = Math.max(samplingInterval, 1);
+		this.sampledThreadPattern = createThreadNamePattern(sampledThreadFilter);
+		this.noninterestingThreadFilter = noninterestingThreadFilter;
+	}
+
+	/**
+	 * Converts comma separated thread names with wildcards to a pattern, or returns
+	 * {@code null} if there are no names.
+	 */
+	static Pattern createThreadNamePattern(String commaSeparatedNames) {
+		StringBuilder regex = new StringBuilder();
+		for (String name : commaSeparatedNames.split(",")) { //$NON-NLS-1$
+			name = name.trim();
+			if (name.isEmpty()) {
+				continue;
+			}
+			if (regex.length() != 0) {
+				regex.append('|');
+			}
+			int start = 0;
+			for (int i = 0; i < name.length(); i++) {
+				char c = name.charAt(i);
+				if (c == '*' || c == '?') {
+					if (i > start) {
+						regex.append(Pattern.quote(name.substring(start, i)));
+					}
+					regex.append(c == '*' ? ".*" : "."); //$NON-NLS-1$ //$NON-NLS-2$
+					start = i + 1;
+				}
+			}
+			if (start < name.length()) {
+				regex.append(Pattern.quote(name.substring(start)));
+			}
+		}
+		return regex.length() == 0 ? null : Pattern.compile(regex.toString());
+	}
+
+	/**
+	 * Stops sampling.
+	 */
+	public void shutdown() {
+		cancelled = true;
+		interrupt();
+	}
+
+	@Override
+	public void run() {
+		threadMXBean = ManagementFactory.getThreadMXBean();
+		long lastSampleTime = System.currentTimeMillis();
+		while (!cancelled) {
+			try {
+				Thread.sleep(samplingInterval);
+			} catch (InterruptedException e) {
+				continue;
+			}
+			long now = System.currentTimeMillis();
+			// A sample represents the elapsed time, but not more than a few intervals if the
+			// profiler was starved.
+			long time = Math.min(now - lastSampleTime, 4 * samplingInterval);
+			lastSampleTime = now;
+			if (time > 0) {
+				sample(now, time);
+			}
+		}
+	}
+
+	private void sample(long now, long time) {
+		if (sampledThreadIds == null || now >= nextThreadLookup) {
+			sampledThreadIds = findSampledThreads();
+			nextThreadLookup = now + THREAD_LOOKUP_INTERVAL;
+		}
+		ThreadInfo[] threads = threadMXBean.getThreadInfo(sampledThreadIds, MAX_STACK_DEPTH);
+		for (ThreadInfo thread : threads) {
+			if (thread == null) {
+				continue; // The thread has terminated.
+			}
+			StackTraceElement[] stack = thread.getStackTrace();
+			if (thread.getThreadId() == uiThreadId ? isSleeping(stack) : !isInteresting(stack)) {
+				continue;
+			}
+			callTree.addSample(thread.getThreadName(), stack, time);
+		}
+	}
+
+	private long[] findSampledThreads() {
+		if (sampledThreadPattern == null) {
+			return new long[] { uiThreadId };
+		}
+		long[] threadIds = threadMXBean.getAllThreadIds();
+		ThreadInfo[] threads = threadMXBean.getThreadInfo(threadIds, 0);
+		long[] result = new long[threadIds.length + 1];
+		int count = 0;
+		result[count++] = uiThreadId;
+		long profilerThreadId = getId();
+		for (ThreadInfo thread : threads) {
+			if (thread != null && thread.getThreadId() != uiThreadId
+					&& thread.getThreadId() != profilerThreadId
+					&& sampledThreadPattern.matcher(thread.getThreadName()).matches()) {
+				result[count++] = thread.getThreadId();
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	private static boolean isSleeping(StackTraceElement[] stack) {
+		for (StackTraceElement element : stack) {
+			if (DISPLAY_SLEEP_METHOD.equals(element.getMethodName())
+					&& DISPLAY_SLEEP_CLASS.equals(element.getClassName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isInteresting(StackTraceElement[] stack) {
+		for (StackTraceElement element : stack) {
+			if (!noninterestingThreadFilter.matchesFilter(element)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014 Google Inc and others.
+ * Copyright (C) 2014, 2024 Google Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -46,5 +46,9 @@ public class MonitoringPreferenceInitializer extends AbstractPreferenceInitializ
 				+ ",org.eclipse.osgi.framework.eventmgr.EventManager$EventThread.run" //$NON-NLS-1$
 				+ ",org.eclipse.equinox.internal.util.impl.tpt.timer.TimerImpl.run" //$NON-NLS-1$
 				+ ",org.eclipse.equinox.internal.util.impl.tpt.threadpool.Executor.run"); //$NON-NLS-1$
+		store.setDefault(PreferenceConstants.SAMPLING_ENABLED, false);
+		store.setDefault(PreferenceConstants.SAMPLING_INTERVAL_MILLIS, 20);
+		store.setDefault(PreferenceConstants.SAMPLED_THREAD_FILTER, "Worker-*"); //$NON-NLS-1$
+		store.setDefault(PreferenceConstants.LATENCY_METRICS_ENABLED, false);
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014, 2019 Google Inc and others.
+ * Copyright (C) 2014, 2024 Google Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -55,7 +55,11 @@ public class MonitoringPreferenceListener implements IPropertyChangeListener {
 				&& !property.equals(PreferenceConstants.LOG_TO_ERROR_LOG)
 				&& !property.equals(PreferenceConstants.MAX_STACK_SAMPLES)
 				&& !property.equals(PreferenceConstants.UI_THREAD_FILTER)
-				&& !property.equals(PreferenceConstants.NONINTERESTING_THREAD_FILTER)) {
+				&& !property.equals(PreferenceConstants.NONINTERESTING_THREAD_FILTER)
+				&& !property.equals(PreferenceConstants.SAMPLING_ENABLED)
+				&& !property.equals(PreferenceConstants.SAMPLING_INTERVAL_MILLIS)
+				&& !property.equals(PreferenceConstants.SAMPLED_THREAD_FILTER)
+				&& !property.equals(PreferenceConstants.LATENCY_METRICS_ENABLED)) {
 			return;
 		}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014, 2019 Google Inc and others.
+ * Copyright (C) 2014, 2024 Google Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -26,6 +26,7 @@ import org.eclipse.jface.preference.BooleanFieldEditor;
 import org.eclipse.jface.preference.FieldEditor;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
 import org.eclipse.jface.preference.IntegerFieldEditor;
+import org.eclipse.jface.preference.StringFieldEditor;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
@@ -146,6 +147,15 @@ public class MonitoringPreferencePage extends FieldEditorPreferencePage
 		createIntegerEditor(
 				PreferenceConstants.MAX_STACK_SAMPLES,
 				Messages.MonitoringPreferencePage_max_stack_samples_label, block, 0, 100);
+		createBooleanEditor(PreferenceConstants.SAMPLING_ENABLED,
+				Messages.MonitoringPreferencePage_sampling_enabled_label, block);
+		createIntegerEditor(
+				PreferenceConstants.SAMPLING_INTERVAL_MILLIS,
+				Messages.MonitoringPreferencePage_sampling_interval_label, block, 1, 1000);
+		addField(new StringFieldEditor(PreferenceConstants.SAMPLED_THREAD_FILTER,
+				Messages.MonitoringPreferencePage_sampled_threads_label, block), block);
+		createBooleanEditor(PreferenceConstants.LATENCY_METRICS_ENABLED,
+				Messages.MonitoringPreferencePage_latency_metrics_enabled_label, block);
 		GridLayoutFactory.fillDefaults()
 				.numColumns(2)
 				.spacing(LayoutConstants.getSpacing())
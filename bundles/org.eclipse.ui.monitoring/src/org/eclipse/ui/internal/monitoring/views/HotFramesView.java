@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring.views;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.action.IToolBarManager;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ColumnLabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.TableViewerColumn;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.FileDialog;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.ui.ISharedImages;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.internal.monitoring.CallTree;
+import org.eclipse.ui.internal.monitoring.CallTree.FrameStatistics;
+import org.eclipse.ui.internal.monitoring.MonitoringPlugin;
+import org.eclipse.ui.monitoring.PreferenceConstants;
+import org.eclipse.ui.part.ViewPart;
+
+/**
+ * Shows the frames in which the sampling profiler found the sampled threads most often, and
+ * exports the samples in the collapsed stack format for flame graph tools.
+ */
+public class HotFramesView extends ViewPart {
+	/** The ID of the view. */
+	public static final String ID = "org.eclipse.ui.monitoring.hotFramesView"; //$NON-NLS-1$
+	private static final int MAX_FRAMES = 200;
+	private static final int REFRESH_INTERVAL = 1000;
+
+	private TableViewer viewer;
+	private long totalTime;
+	private final Runnable refreshTimer = this::refreshPeriodically;
+
+	@Override
+	public void createPartControl(Composite parent) {
+		viewer = new TableViewer(parent,
+				SWT.MULTI | SWT.FULL_SELECTION | SWT.V_SCROLL | SWT.H_SCROLL);
+		Table table = viewer.getTable();
+		table.setHeaderVisible(true);
+		table.setLinesVisible(true);
+		createColumn(Messages.HotFramesView_frame_column, 500, SWT.LEFT, FrameStatistics::getFrame);
+		createColumn(Messages.HotFramesView_self_time_column, 90, SWT.RIGHT,
+				frame -> Long.toString(frame.getSelfTime()));
+		createColumn(Messages.HotFramesView_self_percent_column, 70, SWT.RIGHT,
+				frame -> totalTime == 0 ? "" : //$NON-NLS-1$
+						String.format("%.1f", 100.0 * frame.getSelfTime() / totalTime)); //$NON-NLS-1$
+		createColumn(Messages.HotFramesView_total_time_column, 90, SWT.RIGHT,
+				frame -> Long.toString(frame.getTotalTime()));
+		viewer.setContentProvider(ArrayContentProvider.getInstance());
+
+		createActions();
+		refresh();
+		viewer.getControl().getDisplay().timerExec(REFRESH_INTERVAL, refreshTimer);
+	}
+
+	private interface ColumnText {
+		String getText(FrameStatistics frame);
+	}
+
+	private void createColumn(String title, int width, int alignment, ColumnText text) {
+		TableViewerColumn column = new TableViewerColumn(viewer, alignment);
+		column.getColumn().setText(title);
+		column.getColumn().setWidth(width);
+		column.setLabelProvider(new ColumnLabelProvider() {
+			@Override
+			public String getText(Object element) {
+				return text.getText((FrameStatistics) element);
+			}
+		});
+	}
+
+	private void createActions() {
+		ISharedImages images = PlatformUI.getWorkbench().getSharedImages();
+		Action refreshAction = new Action(Messages.HotFramesView_refresh_action) {
+			@Override
+			public void run() {
+				refresh();
+			}
+		};
+		refreshAction.setImageDescriptor(images.getImageDescriptor(ISharedImages.IMG_ELCL_SYNCED));
+		Action clearAction = new Action(Messages.HotFramesView_clear_action) {
+			@Override
+			public void run() {
+				MonitoringPlugin.getCallTree().clear();
+				refresh();
+			}
+		};
+		clearAction.setImageDescriptor(images.getImageDescriptor(ISharedImages.IMG_ETOOL_CLEAR));
+		Action exportAction = new Action(Messages.HotFramesView_export_action) {
+			@Override
+			public void run() {
+				export();
+			}
+		};
+		exportAction.setImageDescriptor(
+				images.getImageDescriptor(ISharedImages.IMG_ETOOL_SAVE_EDIT));
+
+		IToolBarManager toolBar = getViewSite().getActionBars().getToolBarManager();
+		toolBar.add(refreshAction);
+		toolBar.add(clearAction);
+		toolBar.add(exportAction);
+	}
+
+	private void refreshPeriodically() {
+		if (viewer.getControl().isDisposed()) {
+			return;
+		}
+		if (viewer.getControl().isVisible()) {
+			refresh();
+		}
+		viewer.getControl().getDisplay().timerExec(REFRESH_INTERVAL, refreshTimer);
+	}
+
+	private void refresh() {
+		CallTree callTree = MonitoringPlugin.getCallTree();
+		totalTime = callTree.getTotalTime();
+		List<FrameStatistics> frames = callTree.getHottestFrames(MAX_FRAMES);
+		viewer.setInput(frames);
+		if (isSamplingEnabled()) {
+			setContentDescription(NLS.bind(Messages.HotFramesView_total_time_description,
+					totalTime));
+		} else {
+			setContentDescription(Messages.HotFramesView_sampling_disabled_description);
+		}
+	}
+
+	private static boolean isSamplingEnabled() {
+		IPreferenceStore preferences = MonitoringPlugin.getPreferenceStore();
+		return preferences.getBoolean(PreferenceConstants.MONITORING_ENABLED)
+				&& preferences.getBoolean(PreferenceConstants.SAMPLING_ENABLED);
+	}
+
+	private void export() {
+		FileDialog dialog = new FileDialog(getSite().getShell(), SWT.SAVE);
+		dialog.setText(Messages.HotFramesView_export_dialog_title);
+		dialog.setFileName("ui-samples.collapsed"); //$NON-NLS-1$
+		dialog.setOverwrite(true);
+		String path = dialog.open();
+		if (path == null) {
+			return;
+		}
+		try (Writer writer = Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8)) {
+			MonitoringPlugin.getCallTree().writeCollapsedStacks(writer);
+		} catch (IOException e) {
+			MonitoringPlugin.logError(e.getMessage(), e);
+			MessageDialog.openError(getSite().getShell(), Messages.HotFramesView_export_dialog_title,
+					NLS.bind(Messages.HotFramesView_export_error, path, e.getMessage()));
+		}
+	}
+
+	@Override
+	public void setFocus() {
+		viewer.getControl().setFocus();
+	}
+
+	@Override
+	public void dispose() {
+		if (viewer != null && !viewer.getControl().isDisposed()) {
+			viewer.getControl().getDisplay().timerExec(-1, refreshTimer);
+		}
+		super.dispose();
+	}
+}
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring.views;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.action.IToolBarManager;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.ColumnLabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.TableViewerColumn;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.FileDialog;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.ui.ISharedImages;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.internal.monitoring.LatencyHistogram;
+import org.eclipse.ui.internal.monitoring.LatencyMetrics;
+import org.eclipse.ui.internal.monitoring.MonitoringPlugin;
+import org.eclipse.ui.monitoring.PreferenceConstants;
+import org.eclipse.ui.part.ViewPart;
+
+/**
+ * Shows the percentiles of the time the UI thread spent dispatching events, by event category,
+ * and exports the latency histograms as JSON.
+ */
+public class LatencyView extends ViewPart {
+	/** The ID of the view. */
+	public static final String ID = "org.eclipse.ui.monitoring.latencyView"; //$NON-NLS-1$
+	private static final int REFRESH_INTERVAL = 1000;
+
+	private TableViewer viewer;
+	private final Runnable refreshTimer = this::refreshPeriodically;
+
+	@Override
+	public void createPartControl(Composite parent) {
+		viewer = new TableViewer(parent,
+				SWT.MULTI | SWT.FULL_SELECTION | SWT.V_SCROLL | SWT.H_SCROLL);
+		Table table = viewer.getTable();
+		table.setHeaderVisible(true);
+		table.setLinesVisible(true);
+		createColumn(Messages.LatencyView_category_column, 300, SWT.LEFT, Map.Entry::getKey);
+		createColumn(Messages.LatencyView_count_column, 80, SWT.RIGHT,
+				entry -> Long.toString(entry.getValue().getTotalCount()));
+		createPercentileColumn(Messages.LatencyView_p50_column, 50);
+		createPercentileColumn(Messages.LatencyView_p99_column, 99);
+		createPercentileColumn(Messages.LatencyView_p999_column, 99.9);
+		createColumn(Messages.LatencyView_max_column, 80, SWT.RIGHT,
+				entry -> formatMillis(entry.getValue().getMaxValue()));
+		viewer.setContentProvider(ArrayContentProvider.getInstance());
+
+		createActions();
+		refresh();
+		viewer.getControl().getDisplay().timerExec(REFRESH_INTERVAL, refreshTimer);
+	}
+
+	private void createPercentileColumn(String title, double percentile) {
+		createColumn(title, 80, SWT.RIGHT,
+				entry -> formatMillis(entry.getValue().getValueAtPercentile(percentile)));
+	}
+
+	private static String formatMillis(long micros) {
+		return String.format("%.2f", micros / 1000.0); //$NON-NLS-1$
+	}
+
+	@SuppressWarnings("unchecked")
+	private void createColumn(String title, int width, int alignment,
+			Function<Map.Entry<String, LatencyHistogram>, String> text) {
+		TableViewerColumn column = new TableViewerColumn(viewer, alignment);
+		column.getColumn().setText(title);
+		column.getColumn().setWidth(width);
+		column.setLabelProvider(new ColumnLabelProvider() {
+			@Override
+			public String getText(Object element) {
+				return text.apply((Map.Entry<String, LatencyHistogram>) element);
+			}
+		});
+	}
+
+	private void createActions() {
+		ISharedImages images = PlatformUI.getWorkbench().getSharedImages();
+		Action refreshAction = new Action(Messages.LatencyView_refresh_action) {
+			@Override
+			public void run() {
+				refresh();
+			}
+		};
+		refreshAction.setImageDescriptor(images.getImageDescriptor(ISharedImages.IMG_ELCL_SYNCED));
+		Action resetAction = new Action(Messages.LatencyView_reset_action) {
+			@Override
+			public void run() {
+				MonitoringPlugin.getLatencyMetrics().clear();
+				refresh();
+			}
+		};
+		resetAction.setImageDescriptor(images.getImageDescriptor(ISharedImages.IMG_ETOOL_CLEAR));
+		Action exportAction = new Action(Messages.LatencyView_export_action) {
+			@Override
+			public void run() {
+				export();
+			}
+		};
+		exportAction.setImageDescriptor(
+				images.getImageDescriptor(ISharedImages.IMG_ETOOL_SAVE_EDIT));
+
+		IToolBarManager toolBar = getViewSite().getActionBars().getToolBarManager();
+		toolBar.add(refreshAction);
+		toolBar.add(resetAction);
+		toolBar.add(exportAction);
+	}
+
+	private void refreshPeriodically() {
+		if (viewer.getControl().isDisposed()) {
+			return;
+		}
+		if (viewer.getControl().isVisible()) {
+			refresh();
+		}
+		viewer.getControl().getDisplay().timerExec(REFRESH_INTERVAL, refreshTimer);
+	}
+
+	private void refresh() {
+		LatencyMetrics metrics = MonitoringPlugin.getLatencyMetrics();
+		viewer.setInput(metrics.getSnapshot().entrySet().toArray());
+		if (isRecordingEnabled()) {
+			setContentDescription(NLS.bind(Messages.LatencyView_recording_since_description,
+					new Date(metrics.getStartTime())));
+		} else {
+			setContentDescription(Messages.LatencyView_recording_disabled_description);
+		}
+	}
+
+	private static boolean isRecordingEnabled() {
+		IPreferenceStore preferences = MonitoringPlugin.getPreferenceStore();
+		return preferences.getBoolean(PreferenceConstants.MONITORING_ENABLED)
+				&& preferences.getBoolean(PreferenceConstants.LATENCY_METRICS_ENABLED);
+	}
+
+	private void export() {
+		FileDialog dialog = new FileDialog(getSite().getShell(), SWT.SAVE);
+		dialog.setText(Messages.LatencyView_export_dialog_title);
+		dialog.setFilterExtensions(new String[] { "*.json" }); //$NON-NLS-1$
+		dialog.setFileName("ui-latency.json"); //$NON-NLS-1$
+		dialog.setOverwrite(true);
+		String path = dialog.open();
+		if (path == null) {
+			return;
+		}
+		try (Writer writer = Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8)) {
+			MonitoringPlugin.getLatencyMetrics().writeJson(writer);
+		} catch (IOException e) {
+			MonitoringPlugin.logError(e.getMessage(), e);
+			MessageDialog.openError(getSite().getShell(), Messages.LatencyView_export_dialog_title,
+					NLS.bind(Messages.LatencyView_export_error, path, e.getMessage()));
+		}
+	}
+
+	@Override
+	public void setFocus() {
+		viewer.getControl().setFocus();
+	}
+
+	@Override
+	public void dispose() {
+		if (viewer != null && !viewer.getControl().isDisposed()) {
+			viewer.getControl().getDisplay().timerExec(-1, refreshTimer);
+		}
+		super.dispose();
+	}
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring.views;
+
+import org.eclipse.osgi.util.NLS;
+
+final class Messages extends NLS {
+	public static String HotFramesView_clear_action;
+	public static String HotFramesView_export_action;
+	public static String HotFramesView_export_dialog_title;
+	public static String HotFramesView_export_error;
+	public static String HotFramesView_frame_column;
+	public static String HotFramesView_refresh_action;
+	public static String HotFramesView_sampling_disabled_description;
+	public static String HotFramesView_self_percent_column;
+	public static String HotFramesView_self_time_column;
+	public static String HotFramesView_total_time_column;
+	public static String HotFramesView_total_time_description;
+	public static String LatencyView_category_column;
+	public static String LatencyView_count_column;
+	public static String LatencyView_export_action;
+	public static String LatencyView_export_dialog_title;
+	public static String LatencyView_export_error;
+	public static String LatencyView_max_column;
+	public static String LatencyView_p50_column;
+	public static String LatencyView_p99_column;
+	public static String LatencyView_p999_column;
+	public static String LatencyView_recording_disabled_description;
+	public static String LatencyView_recording_since_description;
+	public static String LatencyView_refresh_action;
+	public static String LatencyView_reset_action;
+
+	private Messages() {
+		// Do not instantiate.
+	}
+
+	static {
+		NLS.initializeMessages(Messages.class.getName(), Messages.class);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (C) 2014 Google Inc and others.
+ * Copyright (C) 2014, 2024 Google Inc and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -58,6 +58,34 @@ public class PreferenceConstants {
 	 * message if all stack frames of the thread match the filter.
 	 */
 	public static final String NONINTERESTING_THREAD_FILTER = "noninteresting_thread_filter"; //$NON-NLS-1$
+	/**
+	 * If true, the stacks of the UI thread and of the threads matching
+	 * {@link #SAMPLED_THREAD_FILTER} are sampled continuously while monitoring is enabled.
+	 *
+	 * @since 1.4
+	 */
+	public static final String SAMPLING_ENABLED = "sampling_enabled"; //$NON-NLS-1$
+	/**
+	 * The interval in milliseconds at which the stacks are sampled.
+	 *
+	 * @since 1.4
+	 */
+	public static final String SAMPLING_INTERVAL_MILLIS = "sampling_interval"; //$NON-NLS-1$
+	/**
+	 * Comma separated names of the non-UI threads to sample. The names may contain '*' and
+	 * '?' wildcard characters.
+	 *
+	 * @since 1.4
+	 */
+	public static final String SAMPLED_THREAD_FILTER = "sampled_thread_filter"; //$NON-NLS-1$
+	/**
+	 * If true, the time the UI thread spends dispatching events is recorded into latency
+	 * histograms while monitoring is enabled.
+	 *
+	 * @see UiLatencyStatistics
+	 * @since 1.4
+	 */
+	public static final String LATENCY_METRICS_ENABLED = "latency_metrics_enabled"; //$NON-NLS-1$
 
 	private PreferenceConstants() {}
 }
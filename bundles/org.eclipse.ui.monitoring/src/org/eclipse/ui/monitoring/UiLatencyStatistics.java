@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.monitoring;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.eclipse.ui.internal.monitoring.LatencyHistogram;
+import org.eclipse.ui.internal.monitoring.LatencyMetrics;
+import org.eclipse.ui.internal.monitoring.MonitoringPlugin;
+
+/**
+ * Provides the latencies of the events dispatched by the UI thread, recorded while
+ * {@link PreferenceConstants#LATENCY_METRICS_ENABLED} is set. Events are categorized by their
+ * SWT event type, {@code asyncExec} and {@code syncExec} runnables share one category unless
+ * they run a UI job, in which case the category is named after the job.
+ *
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ * @since 1.4
+ */
+public final class UiLatencyStatistics {
+	/**
+	 * The category of all events dispatched by an event loop. Events sent while another event
+	 * is handled are only included in the category of their type.
+	 */
+	public static final String ALL_EVENTS = LatencyMetrics.ALL_EVENTS;
+
+	private UiLatencyStatistics() {}
+
+	/**
+	 * Returns the categories of the recorded events, {@link #ALL_EVENTS} first, then the
+	 * categories with the most events.
+	 */
+	public static List<String> getCategories() {
+		return MonitoringPlugin.getLatencyMetrics().getCategories();
+	}
+
+	/**
+	 * Returns the number of recorded events of the given category.
+	 */
+	public static long getCount(String category) {
+		LatencyHistogram histogram = MonitoringPlugin.getLatencyMetrics().getHistogram(category);
+		return histogram == null ? 0 : histogram.getTotalCount();
+	}
+
+	/**
+	 * Returns the duration which the given percentage of the recorded events of a category does
+	 * not exceed. For example {@code getPercentile(ALL_EVENTS, 99.9)} returns the duration which
+	 * one in a thousand events exceeds. The precision is about 3%.
+	 *
+	 * @param category the category of the events
+	 * @param percentile the percentage, between 0 and 100
+	 * @return the duration in milliseconds, or zero if no event of the category was recorded
+	 */
+	public static double getPercentile(String category, double percentile) {
+		LatencyHistogram histogram = MonitoringPlugin.getLatencyMetrics().getHistogram(category);
+		return histogram == null ? 0 : histogram.getValueAtPercentile(percentile) / 1000.0;
+	}
+
+	/**
+	 * Writes the recorded latencies as a JSON object containing, for each category, the count,
+	 * the mean, the 50th, 90th, 99th and 99.9th percentiles and the maximum, as well as the
+	 * non-empty histogram buckets so that the data of several sessions can be merged. Durations
+	 * are in microseconds.
+	 *
+	 * @param out the destination
+	 * @throws IOException if writing fails
+	 */
+	public static void writeJson(Appendable out) throws IOException {
+		MonitoringPlugin.getLatencyMetrics().writeJson(out);
+	}
+
+	/**
+	 * Discards the recorded latencies.
+	 */
+	public static void reset() {
+		MonitoringPlugin.getLatencyMetrics().clear();
+	}
+}
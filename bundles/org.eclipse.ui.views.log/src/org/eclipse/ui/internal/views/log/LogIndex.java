@@ -0,0 +1,368 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.views.log;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * An index of the sessions and top level entries of a log file. For each
+ * <code>!SESSION</code> and <code>!ENTRY</code> line it keeps the file offset,
+ * and for entries the severity and plugin id, so that the entries to show can
+ * be chosen without parsing the file. The file is scanned in large chunks,
+ * only the header lines are decoded.
+ * <p>
+ * Only the tail of the file which is shown is indexed, the records start at
+ * the first line beginning in the tail. The index can be updated after the
+ * file grew, only the appended part is scanned. If the file was replaced or
+ * truncated, or a longer tail is asked for, the tail is scanned again. A
+ * replaced file is recognized by its length, its modification time or the
+ * first bytes, which differ between sessions.
+ * </p>
+ */
+class LogIndex {
+
+	static final byte SESSION = 1;
+	static final byte ENTRY = 2;
+
+	/** The number of bytes scanned at once. */
+	private static final int CHUNK_SIZE = 1024 * 1024;
+	/** The maximal length of a header line which is decoded. */
+	private static final int MAX_HEADER_LENGTH = 1024;
+	/** The number of bytes at the start of the file compared to detect a replaced file. */
+	private static final int HEAD_LENGTH = 256;
+	private static final byte[] SESSION_BYTES = LogSession.SESSION.getBytes(StandardCharsets.UTF_8);
+	private static final byte[] ENTRY_BYTES = "!ENTRY ".getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$
+
+	private final File file;
+
+	private long[] offsets = new long[256];
+	private byte[] kinds = new byte[256];
+	private int[] severities = new int[256];
+	/** The plugin id of entries, the header line of sessions. */
+	private String[] names = new String[256];
+	private int size;
+
+	/** The offset from which on the file is indexed, none before the first update. */
+	private long start = Long.MAX_VALUE;
+	/** The offset up to which the file was scanned. */
+	private long scanned;
+	/**
+	 * Whether a line starts at {@link #scanned}, which is not known before the
+	 * first line break of a tail was scanned.
+	 */
+	private boolean scannedLineStart = true;
+	/** The length of the file when it was last scanned. */
+	private long length;
+	private long lastModified;
+	/** The first bytes of the file when it was last scanned. */
+	private byte[] head = new byte[0];
+	private final Map<String, String> pluginIds = new HashMap<>();
+
+	LogIndex(File file) {
+		this.file = file;
+	}
+
+	File getFile() {
+		return file;
+	}
+
+	/**
+	 * Scan the whole file, see {@link #update(long)}.
+	 */
+	synchronized boolean update() throws IOException {
+		return update(Long.MAX_VALUE);
+	}
+
+	/**
+	 * Scan the part of the tail appended since the last update, or the whole
+	 * tail if the file was replaced or the tail starts before the part indexed
+	 * so far.
+	 *
+	 * @param tailLength the number of bytes at the end of the file to index
+	 * @return whether records were added or the index was reset
+	 */
+	synchronized boolean update(long tailLength) throws IOException {
+		long newLength = file.length();
+		long newLastModified = file.lastModified();
+		// the first complete line of the tail starts after this offset
+		long newStart = newLength > tailLength ? newLength - tailLength + 1 : 0;
+		boolean reset = false;
+		int oldSize = size;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			byte[] newHead = readHead(channel, newLength);
+			if (newLength < length || (newLength == length && newLastModified != lastModified)
+					|| !Arrays.equals(head, 0, head.length, newHead, 0, Math.min(head.length, newHead.length))) {
+				// the file was replaced, e.g. by a rotation of the log
+				clear(newStart);
+				reset = true;
+			} else if (newStart < start) {
+				// the first update, or a longer tail
+				clear(newStart);
+				reset = true;
+			}
+			if (newLength > scanned) {
+				scan(channel, newLength);
+			}
+			head = newHead;
+		}
+		length = newLength;
+		lastModified = newLastModified;
+		return reset || size > oldSize;
+	}
+
+	private static byte[] readHead(FileChannel channel, long length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(HEAD_LENGTH, length));
+		while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+			// read the head
+		}
+		return Arrays.copyOf(buffer.array(), buffer.position());
+	}
+
+	private void clear(long newStart) {
+		size = 0;
+		start = newStart;
+		// a record at the start is only found if the line break before it is scanned
+		scanned = Math.max(0, newStart - 1);
+		scannedLineStart = newStart == 0;
+		length = 0;
+		pluginIds.clear();
+	}
+
+	private void scan(FileChannel channel, long end) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+		byte[] chunk = buffer.array();
+		long lineStart = scanned;
+		boolean atLineStart = scannedLineStart;
+		long chunkStart = scanned;
+		while (chunkStart < end) {
+			buffer.clear();
+			buffer.limit((int) Math.min(CHUNK_SIZE, end - chunkStart));
+			int count = channel.read(buffer, chunkStart);
+			if (count <= 0) {
+				break;
+			}
+			for (int i = 0; i < count; i++) {
+				byte b = chunk[i];
+				if (b == '\n' || b == '\r') {
+					atLineStart = true;
+					lineStart = chunkStart + i + 1;
+					scanned = lineStart;
+					scannedLineStart = true;
+				} else if (atLineStart) {
+					if (b == '!') {
+						readHeader(channel, lineStart, chunkStart + i, end);
+						atLineStart = false;
+					} else if (b != ' ' && b != '\t') {
+						atLineStart = false;
+					}
+				}
+			}
+			chunkStart += count;
+		}
+	}
+
+	/**
+	 * Add a record if the line starting at the given offset is a session or
+	 * entry header.
+	 */
+	private void readHeader(FileChannel channel, long lineStart, long markerStart, long end) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(MAX_HEADER_LENGTH, end - markerStart));
+		while (buffer.hasRemaining() && channel.read(buffer, markerStart + buffer.position()) > 0) {
+			// read the header
+		}
+		byte[] bytes = buffer.array();
+		int lineLength = 0;
+		while (lineLength < buffer.position() && bytes[lineLength] != '\n' && bytes[lineLength] != '\r') {
+			lineLength++;
+		}
+		if (lineLength == buffer.position() && buffer.position() < MAX_HEADER_LENGTH) {
+			// the line is still being written, it is scanned again on the next update
+			return;
+		}
+		if (startsWith(bytes, lineLength, SESSION_BYTES)) {
+			add(lineStart, SESSION, 0, new String(bytes, 0, lineLength, StandardCharsets.UTF_8).trim());
+		} else if (startsWith(bytes, lineLength, ENTRY_BYTES)) {
+			String line = new String(bytes, 0, lineLength, StandardCharsets.UTF_8);
+			// !ENTRY <pluginID> <severity> <code> <date>, see LogEntry.processEntry()
+			StringTokenizer tokenizer = new StringTokenizer(line, LogEntry.SPACE);
+			tokenizer.nextToken();
+			String pluginId = tokenizer.hasMoreTokens() ? tokenizer.nextToken() : null;
+			int severity = 0;
+			if (tokenizer.hasMoreTokens()) {
+				try {
+					severity = Integer.parseInt(tokenizer.nextToken());
+				} catch (NumberFormatException e) {
+					// logged by the framework without severity
+				}
+			}
+			if (pluginId != null) {
+				pluginId = pluginIds.computeIfAbsent(pluginId, id -> id);
+			}
+			add(lineStart, ENTRY, severity, pluginId);
+		}
+	}
+
+	private static boolean startsWith(byte[] bytes, int length, byte[] prefix) {
+		if (length < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (bytes[i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void add(long offset, byte kind, int severity, String name) {
+		if (size == offsets.length) {
+			int newCapacity = size * 2;
+			offsets = Arrays.copyOf(offsets, newCapacity);
+			kinds = Arrays.copyOf(kinds, newCapacity);
+			severities = Arrays.copyOf(severities, newCapacity);
+			names = Arrays.copyOf(names, newCapacity);
+		}
+		offsets[size] = offset;
+		kinds[size] = kind;
+		severities[size] = severity;
+		names[size] = name;
+		size++;
+	}
+
+	synchronized int size() {
+		return size;
+	}
+
+	synchronized long getLength() {
+		return length;
+	}
+
+	synchronized long getOffset(int record) {
+		return offsets[record];
+	}
+
+	synchronized byte getKind(int record) {
+		return kinds[record];
+	}
+
+	synchronized int getSeverity(int record) {
+		return severities[record];
+	}
+
+	/**
+	 * @return the plugin id of an entry, or <code>null</code>
+	 */
+	synchronized String getPluginId(int record) {
+		return kinds[record] == ENTRY ? names[record] : null;
+	}
+
+	/**
+	 * @return the header line of a session, or <code>null</code>
+	 */
+	synchronized String getSessionLine(int record) {
+		return kinds[record] == SESSION ? names[record] : null;
+	}
+
+	/**
+	 * @return the index of the first record at or after the offset
+	 */
+	synchronized int getFirstRecord(long offset) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			if (offsets[middle] < offset) {
+				low = middle + 1;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns a stream of the text of the given records, in the given order,
+	 * each record reaching up to the next record or the end of the file.
+	 *
+	 * @param records the indexes of the records, ascending
+	 * @return the stream, to be closed by the caller
+	 */
+	InputStream openRecords(int[] records) throws IOException {
+		long[][] ranges = new long[records.length][];
+		synchronized (this) {
+			for (int i = 0; i < records.length; i++) {
+				int record = records[i];
+				long end = record + 1 < size ? offsets[record + 1] : length;
+				ranges[i] = new long[] { offsets[record], end };
+			}
+		}
+		return new RangesInputStream(FileChannel.open(file.toPath(), StandardOpenOption.READ), ranges);
+	}
+
+	/**
+	 * Reads a number of ranges of a file one after the other.
+	 */
+	private static class RangesInputStream extends InputStream {
+
+		private final FileChannel channel;
+		private final long[][] ranges;
+		private int range;
+		private long position;
+
+		RangesInputStream(FileChannel channel, long[][] ranges) {
+			this.channel = channel;
+			this.ranges = ranges;
+			position = ranges.length > 0 ? ranges[0][0] : 0;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			int len = read(b, 0, 1);
+			return len < 0 ? -1 : b[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			while (range < ranges.length && position >= ranges[range][1]) {
+				range++;
+				if (range < ranges.length) {
+					position = ranges[range][0];
+				}
+			}
+			if (range >= ranges.length) {
+				return -1;
+			}
+			int count = (int) Math.min(len, ranges[range][1] - position);
+			int read = channel.read(ByteBuffer.wrap(b, off, count), position);
+			if (read < 0) {
+				// the file was truncated
+				range = ranges.length;
+				return -1;
+			}
+			position += read;
+			return read;
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -35,8 +35,14 @@ class LogReader {
 	private static final int TEXT_STATE = 60;
 	private static final int UNKNOWN_STATE = 70;
 
-	public static LogSession parseLogFile(File file, long maxLogTailSizeInMegaByte, List<LogEntry> entries,
+	/**
+	 * Parses the entries of the log file to show. The index is brought up to date
+	 * first and used to choose the entries by session, severity and count limit,
+	 * only the chosen entries and the sessions are parsed.
+	 */
+	static LogSession parseLogFile(LogIndex index, long maxLogTailSizeInMegaByte, List<LogEntry> entries,
 			IMemento memento) {
+		File file = index.getFile();
 		if (!file.exists())
 			return null;
 
@@ -44,6 +50,86 @@ class LogReader {
 				&& memento.getInteger(LogView.P_LOG_LIMIT).intValue() == 0)
 			return null;
 
+		LogSession currentSession = null;
+		long maxTailSizeInBytes = maxLogTailSizeInMegaByte > 0 ? maxLogTailSizeInMegaByte * ONE_MEGA_BYTE_IN_BYTES
+				: ONE_MEGA_BYTE_IN_BYTES;
+		try {
+			index.update(maxTailSizeInBytes);
+			long length = index.getLength();
+			// the first complete line of the tail, as read by TailInputStream
+			long start = length > maxTailSizeInBytes ? length - maxTailSizeInBytes + 1 : 0;
+			int[] records = selectRecords(index, start, memento);
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(index.openRecords(records), StandardCharsets.UTF_8))) {
+				currentSession = parse(reader, entries, memento);
+			}
+		} catch (IOException e) { // do nothing
+		} finally {
+			if (file.length() > maxLogTailSizeInMegaByte && entries.isEmpty()) {
+				LogEntry entry = new LogEntry(new Status(IStatus.WARNING, Activator.PLUGIN_ID, NLS.bind(
+						Messages.LogReader_warn_noEntryWithinMaxLogTailSize, Long.valueOf(maxLogTailSizeInMegaByte))));
+				entry.setSession(currentSession == null ? new LogSession() : currentSession);
+				entries.add(entry);
+			}
+		}
+
+		return currentSession;
+	}
+
+	/**
+	 * Returns the records of the index to parse: all sessions and, of the
+	 * entries not filtered by severity, the ones of the most recent session
+	 * unless all sessions are shown, limited to the last ones if the entry count
+	 * is limited.
+	 */
+	private static int[] selectRecords(LogIndex index, long start, IMemento memento) {
+		boolean showAllSessions = memento.getString(LogView.P_SHOW_ALL_SESSIONS).equals("true"); //$NON-NLS-1$
+		int limit = Integer.MAX_VALUE;
+		if (memento.getString(LogView.P_USE_LIMIT).equals("true")) { //$NON-NLS-1$
+			limit = memento.getInteger(LogView.P_LOG_LIMIT).intValue();
+		}
+		int first = index.getFirstRecord(start);
+		int size = index.size();
+		// entries before the most recent session are dropped, see parse()
+		int firstEntry = first;
+		int sessions = 0;
+		LogSession currentSession = null;
+		for (int record = first; record < size; record++) {
+			if (index.getKind(record) == LogIndex.SESSION) {
+				sessions++;
+				LogSession session = new LogSession();
+				session.processLogLine(index.getSessionLine(record));
+				currentSession = updateCurrentSession(currentSession, session);
+				if (currentSession == session && !showAllSessions) {
+					firstEntry = record;
+				}
+			}
+		}
+		int logged = 0;
+		for (int record = firstEntry; record < size; record++) {
+			if (index.getKind(record) == LogIndex.ENTRY && isLogged(index.getSeverity(record), memento)) {
+				logged++;
+			}
+		}
+		int skip = Math.max(0, logged - limit);
+		int[] records = new int[sessions + logged - skip];
+		int count = 0;
+		for (int record = first; record < size; record++) {
+			if (index.getKind(record) == LogIndex.SESSION) {
+				records[count++] = record;
+			} else if (record >= firstEntry && isLogged(index.getSeverity(record), memento)) {
+				if (skip > 0) {
+					skip--;
+				} else {
+					records[count++] = record;
+				}
+			}
+		}
+		return records;
+	}
+
+	private static LogSession parse(BufferedReader reader, List<LogEntry> entries, IMemento memento)
+			throws IOException {
 		ArrayList<LogEntry> parents = new ArrayList<>();
 		LogEntry current = null;
 		LogSession session = null;
@@ -52,10 +138,7 @@ class LogReader {
 		PrintWriter writer = null;
 		int state = UNKNOWN_STATE;
 		LogSession currentSession = null;
-		long maxTailSizeInBytes = maxLogTailSizeInMegaByte > 0 ? maxLogTailSizeInMegaByte * ONE_MEGA_BYTE_IN_BYTES
-				: ONE_MEGA_BYTE_IN_BYTES;
-		try (BufferedReader reader = new BufferedReader(
-				new InputStreamReader(new TailInputStream(file, maxTailSizeInBytes), StandardCharsets.UTF_8))) {
+		try {
 			for (;;) {
 				String line0 = reader.readLine();
 				if (line0 == null)
@@ -158,14 +241,7 @@ class LogReader {
 				writerState = UNKNOWN_STATE;
 				current.setStack(swriter.toString());
 			}
-		} catch (IOException e) { // do nothing
 		} finally {
-			if (file.length() > maxLogTailSizeInMegaByte && entries.isEmpty()) {
-				LogEntry entry = new LogEntry(new Status(IStatus.WARNING, Activator.PLUGIN_ID, NLS.bind(
-						Messages.LogReader_warn_noEntryWithinMaxLogTailSize, Long.valueOf(maxLogTailSizeInMegaByte))));
-				entry.setSession(currentSession == null ? new LogSession() : currentSession);
-				entries.add(entry);
-			}
 			if (writer != null) {
 				setData(current, session, writerState, swriter);
 				writer.close();
@@ -175,10 +251,6 @@ class LogReader {
 		return currentSession;
 	}
 
-	public static LogSession parseLogFile(File file, List<LogEntry> entries, IMemento memento) {
-		return parseLogFile(file, ONE_MEGA_BYTE_IN_BYTES, entries, memento);
-	}
-
 	/**
 	 * Assigns data from writer to appropriate field of current Log Entry or Session,
 	 * depending on writer state.
@@ -238,7 +310,14 @@ class LogReader {
 	 * @return is entry logged or filtered
 	 */
 	public static boolean isLogged(LogEntry entry, IMemento memento) {
-		int severity = entry.getSeverity();
+		return isLogged(entry.getSeverity(), memento);
+	}
+
+	/**
+	 * Returns whether entries of the given severity are logged (true) or filtered (false).
+	 * @return is severity logged or filtered
+	 */
+	static boolean isLogged(int severity, IMemento memento) {
 		switch (severity) {
 			case IStatus.INFO :
 				return memento.getString(LogView.P_LOG_INFO).equals("true"); //$NON-NLS-1$
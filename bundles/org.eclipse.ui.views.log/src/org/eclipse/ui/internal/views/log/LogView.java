@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -32,6 +32,7 @@ import java.util.*;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.core.runtime.*;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.core.runtime.preferences.DefaultScope;
@@ -111,19 +112,34 @@ public class LogView extends ViewPart implements LogListener {
 	public static final int GROUP_BY_SESSION = 1;
 	public static final int GROUP_BY_PLUGIN = 2;
 
+	/** The time in milliseconds live entries are collected before being pushed to the view. */
+	private static final long BATCH_DELAY = 100;
+
 	private ServiceTracker<LogReaderService, LogReaderService> logReaderServiceTracker;
 
 	private final List<AbstractEntry> elements;
 	private Map<Object, Group> groups;
 	private LogSession currentSession;
 
+	/**
+	 * The entries logged since the last time entries were pushed to the view,
+	 * guarded by itself.
+	 */
 	private final List<LogEntry> batchedEntries;
+	/** Whether the view is hidden and logged entries are only collected. */
 	private volatile boolean batchEntries;
+	/** Pushes the batched entries to the view, off the UI thread. */
+	private final Job pushBatchedEntriesJob;
+	private final AtomicBoolean pushBatchedEntriesScheduled = new AtomicBoolean();
+	/** Whether a read of the log file requested by a logged entry did not start yet. */
+	private final AtomicBoolean fReadLogPending = new AtomicBoolean();
 
 	private Clipboard fClipboard;
 
 	private IMemento fMemento;
 	private File fInputFile;
+	/** The index of the input file, kept to only scan what was appended on a reload. */
+	private LogIndex fLogIndex;
 	private String fDirectory;
 
 	private Comparator<?> fComparator;
@@ -154,6 +170,9 @@ public class LogView extends ViewPart implements LogListener {
 	private Action fOpenLogAction;
 	private Action fExportLogAction;
 	private Action fExportLogEntryAction;
+	/** The time in milliseconds the last refresh of the viewer took. */
+	private volatile long fLastRefreshDuration;
+
 	private Throttler mutualRefresh;
 	private Throttler mutualActivate;
 
@@ -189,6 +208,11 @@ public class LogView extends ViewPart implements LogListener {
 		elements = new CopyOnWriteArrayList<>();
 		groups = new ConcurrentHashMap<>();
 		batchedEntries = new ArrayList<>();
+		pushBatchedEntriesJob = Job.create(Messages.LogView_AddingBatchedEvents, monitor -> {
+			pushBatchedEntriesScheduled.set(false);
+			pushEntries(takeBatchedEntries());
+		});
+		pushBatchedEntriesJob.setSystem(true);
 		fInputFile = Platform.getLogFileLocation().toFile();
 	}
 
@@ -709,6 +733,7 @@ public class LogView extends ViewPart implements LogListener {
 	public void dispose() {
 		writeSettings();
 		this.logReaderServiceTracker.close();
+		pushBatchedEntriesJob.cancel();
 
 		if (fClipboard != null) {
 			fClipboard.dispose();
@@ -893,7 +918,9 @@ public class LogView extends ViewPart implements LogListener {
 	}
 
 	/**
-	 * Reads the chosen backing log file
+	 * Reads the chosen backing log file. The log index only scans the part of
+	 * the file appended since the last read, but the entries to show are parsed
+	 * again and replace the ones in the view.
 	 */
 	void readLogFile() {
 		setContentDescription(Messages.LogView_readLog_loading);
@@ -902,8 +929,9 @@ public class LogView extends ViewPart implements LogListener {
 
 	private CompletableFuture<List<LogEntry>> fetchLogEntries() {
 		return CompletableFuture.supplyAsync(() -> {
+			fReadLogPending.set(false);
 			List<LogEntry> result = new ArrayList<>();
-			LogSession lastLogSession = LogReader.parseLogFile(this.fInputFile, getLogMaxTailSize(), result,
+			LogSession lastLogSession = LogReader.parseLogFile(getLogIndex(), getLogMaxTailSize(), result,
 					this.fMemento);
 			if (lastLogSession != null
 					&& (lastLogSession.getDate() == null || isEclipseStartTime(lastLogSession.getDate()))) {
@@ -915,6 +943,17 @@ public class LogView extends ViewPart implements LogListener {
 		});
 	}
 
+	/**
+	 * Returns the index of the input file, replacing the one of a previous input.
+	 */
+	private synchronized LogIndex getLogIndex() {
+		File file = fInputFile;
+		if (fLogIndex == null || !fLogIndex.getFile().equals(file)) {
+			fLogIndex = new LogIndex(file);
+		}
+		return fLogIndex;
+	}
+
 	private void updateLogViewer(List<LogEntry> entries) {
 		OptionalInt maxSeverity = entries.stream().mapToInt(LogEntry::getSeverity).max();
 		synchronized (elements) {
@@ -1126,22 +1165,26 @@ public class LogView extends ViewPart implements LogListener {
 		}
 
 		if (shouldReadLog) {
-			readLogFile();
+			// every read parses all entries shown, reads requested in a burst are done once
+			if (fReadLogPending.compareAndSet(false, true)) {
+				readLogFile();
+			}
 		} else {
-			LogEntry entry = betterInput != null ? createLogEntry(betterInput) : createLogEntry(input);
+			batchEntry(betterInput != null ? createLogEntry(betterInput) : createLogEntry(input));
+		}
+	}
 
-			boolean useBatchedEntries;
-			synchronized (batchedEntries) {
-				useBatchedEntries = !batchedEntries.isEmpty();
-				// batch new entry as well, to have only one asyncRefresh()
-				if (useBatchedEntries) {
-					batchedEntries.add(entry);
-					pushBatchedEntries();
-				}
-			}
-			if (!useBatchedEntries) {
-				pushEntry(entry);
-			}
+	/**
+	 * Queues an entry logged while the view is visible. Entries logged in a
+	 * burst are pushed to the view together.
+	 */
+	void batchEntry(LogEntry entry) {
+		synchronized (batchedEntries) {
+			batchedEntries.add(entry);
+		}
+		if (pushBatchedEntriesScheduled.compareAndSet(false, true)) {
+			// leave the UI thread most of the time if refreshing the viewer is slow
+			pushBatchedEntriesJob.schedule(Math.max(BATCH_DELAY, 4 * fLastRefreshDuration));
 		}
 	}
 
@@ -1149,23 +1192,16 @@ public class LogView extends ViewPart implements LogListener {
 	 * Push batched entries to log view.
 	 */
 	private void pushBatchedEntries() {
-		Job job = new Job(Messages.LogView_AddingBatchedEvents) {
-			@Override
-			protected IStatus run(IProgressMonitor monitor) {
-				synchronized (batchedEntries) {
-					Iterator<LogEntry> iterator = batchedEntries.iterator();
-					while (iterator.hasNext()) {
-						if (!monitor.isCanceled()) {
-							LogEntry entry = iterator.next();
-							pushEntry(entry);
-							iterator.remove();
-						}
-					}
-				}
-				return Status.OK_STATUS;
-			}
-		};
-		job.schedule();
+		pushBatchedEntriesScheduled.set(true);
+		pushBatchedEntriesJob.schedule();
+	}
+
+	private List<LogEntry> takeBatchedEntries() {
+		synchronized (batchedEntries) {
+			List<LogEntry> entries = new ArrayList<>(batchedEntries);
+			batchedEntries.clear();
+			return entries;
+		}
 	}
 
 	private LogEntry createLogEntry(IStatus status) {
@@ -1202,22 +1238,46 @@ public class LogView extends ViewPart implements LogListener {
 		return logEntry;
 	}
 
-	private void pushEntry(LogEntry entry) {
+	/**
+	 * Adds the entries to the view, limits the entry count once and refreshes
+	 * the viewer once for all of them.
+	 */
+	private void pushEntries(List<LogEntry> entries) {
+		if (entries.isEmpty() || isDisposed()) {
+			return;
+		}
+		int maxSeverity = IStatus.OK;
 		synchronized (elements) {
-			if (LogReader.isLogged(entry, fMemento)) {
-				group(Collections.singletonList(entry));
+			List<LogEntry> logged = new ArrayList<>(entries.size());
+			for (LogEntry entry : entries) {
+				if (LogReader.isLogged(entry, fMemento)) {
+					logged.add(entry);
+				}
+				maxSeverity = Math.max(maxSeverity, entry.getSeverity());
+			}
+			if (fMemento.getString(P_USE_LIMIT).equals("true")) { //$NON-NLS-1$
+				// the older ones would be removed right away by the limit of the entry count
+				int limit = fMemento.getInteger(P_LOG_LIMIT).intValue();
+				if (logged.size() > limit) {
+					logged = logged.subList(logged.size() - limit, logged.size());
+				}
+			}
+			if (!logged.isEmpty()) {
+				group(logged);
 				limitEntriesCount();
 			}
 		}
-		asyncRefreshAndActivate(entry.getSeverity());
+		asyncRefreshAndActivate(maxSeverity);
 	}
 
 	private Throttler createMutualRefresh(Display display) {
 		return new Throttler(display, Duration.ofMillis(16), () -> {
 			if (!fTree.isDisposed()) {
+				long start = System.currentTimeMillis();
 				TreeViewer viewer = fFilteredTree.getViewer();
 				viewer.refresh();
 				viewer.expandToLevel(2);
+				fLastRefreshDuration = System.currentTimeMillis() - start;
 				fTree.setEnabled(true);
 				boolean exists = fInputFile.exists();
 				boolean enabled = exists && fInputFile.equals(Platform.getLogFileLocation().toFile());
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -513,7 +513,14 @@ public class FilteredTree extends Composite {
 							}
 						}
 					}
-					treeViewer.refresh(true);
+					// the pattern filter has already dropped what the new pattern
+					// invalidates, keep the leaf matches it could reuse
+					refreshingFilter = true;
+					try {
+						treeViewer.refresh(true);
+					} finally {
+						refreshingFilter = false;
+					}
 
 					if (text.length() > 0 && !initial) {
 						/*
@@ -757,6 +764,12 @@ public class FilteredTree extends Composite {
 
 	private boolean narrowingDown;
 
+	/**
+	 * Whether the tree is being refreshed by the refresh job after a change of the
+	 * filter text, as opposed to a change of the tree content.
+	 */
+	private boolean refreshingFilter;
+
 	/**
 	 * Update the receiver after the text has changed.
 	 */
@@ -992,7 +1005,9 @@ public class FilteredTree extends Composite {
 
 		@Override
 		public void refresh(boolean updateLabels) {
-			getPatternFilter().clearCaches();
+			if (!refreshingFilter) {
+				getPatternFilter().clearCaches();
+			}
 			super.refresh(updateLabels);
 		}
 
@@ -1050,6 +1065,19 @@ public class FilteredTree extends Composite {
 			super.setHasChildren(elementOrTreePath, hasChildren);
 		}
 
+		@Override
+		public void update(Object element, String[] properties) {
+			// the cached leaf matches were computed from the old labels
+			getPatternFilter().clearCaches();
+			super.update(element, properties);
+		}
+
+		@Override
+		public void update(Object[] elements, String[] properties) {
+			getPatternFilter().clearCaches();
+			super.update(elements, properties);
+		}
+
 	}
 
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015, 2017 IBM Corporation and others.
+ * Copyright (c) 2004, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -46,8 +46,21 @@ public class PatternFilter extends ViewerFilter {
 	 */
 	private Map foundAnyCache = new HashMap();
 
+	/*
+	 * Maps elements to the result of isLeafMatch for the current pattern
+	 */
+	private Map<Object, Boolean> leafMatchCache = new HashMap<>();
+
 	private boolean useCache = false;
 
+	/*
+	 * The pattern string and leading wildcard setting of the current matcher, used
+	 * to detect when a new pattern only narrows down the current one
+	 */
+	private String currentPattern;
+
+	private boolean currentIncludeLeadingWildcard;
+
 	/**
 	 * Whether to include a leading wildcard for all provided patterns. A trailing
 	 * wildcard is always included.
@@ -63,6 +76,33 @@ public class PatternFilter extends ViewerFilter {
 
 	private static Object[] EMPTY = new Object[0];
 
+	/*
+	 * Whether a subclass of PatternFilter overrides isLeafMatch or wordMatches. An
+	 * overridden leaf match may match an element for a pattern, but not for a
+	 * shorter pattern it extends, so its negative results are not kept.
+	 */
+	private static final ClassValue<Boolean> OVERRIDES_LEAF_MATCH = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			for (Class<?> c = type; c != PatternFilter.class; c = c.getSuperclass()) {
+				if (declares(c, "isLeafMatch", Viewer.class, Object.class) //$NON-NLS-1$
+						|| declares(c, "wordMatches", String.class)) { //$NON-NLS-1$
+					return Boolean.TRUE;
+				}
+			}
+			return Boolean.FALSE;
+		}
+
+		private boolean declares(Class<?> type, String name, Class<?>... parameterTypes) {
+			try {
+				type.getDeclaredMethod(name, parameterTypes);
+				return true;
+			} catch (NoSuchMethodException e) {
+				return false;
+			}
+		}
+	};
+
 	@Override
 	public Object[] filter(Viewer viewer, Object parent, Object[] elements) {
 		// we don't want to optimize if we've extended the filter ... this
@@ -163,7 +203,17 @@ public class PatternFilter extends ViewerFilter {
 			useEarlyReturnIfMatcherIsNull = false;
 			return;
 		}
-		clearCaches();
+		if (isNarrowingDown(patternString)) {
+			// Elements whose label did not match the current pattern cannot match
+			// the longer one, only the positive results need to be computed again
+			cache.clear();
+			foundAnyCache.clear();
+			leafMatchCache.values().removeIf(Boolean::booleanValue);
+		} else {
+			clearCaches();
+		}
+		currentPattern = patternString;
+		currentIncludeLeadingWildcard = includeLeadingWildcard;
 		if (patternString == null || patternString.isEmpty()) {
 			matcher = null;
 		} else {
@@ -179,11 +229,44 @@ public class PatternFilter extends ViewerFilter {
 
 	/**
 	 * Clears the caches used for optimizing this filter. Needs to be called
-	 * whenever the tree content changes.
+	 * whenever the tree content or the labels of its elements change.
 	 */
 	/* package */ void clearCaches() {
 		cache.clear();
 		foundAnyCache.clear();
+		leafMatchCache.clear();
+	}
+
+	/**
+	 * Answers whether the given pattern string is an extension of the current one,
+	 * so that every element matching it also matches the current pattern. This is
+	 * not the case if the current pattern ends with whitespace, since its last word
+	 * then has no trailing wildcard, nor if it ends with an unescaped backslash,
+	 * since that escapes the trailing wildcard of the current pattern but the
+	 * following character of the new one. Nor is it known if a subclass decides
+	 * on the leaf matches itself.
+	 *
+	 * @param patternString the new pattern string
+	 * @return whether the cached negative leaf matches remain valid
+	 */
+	private boolean isNarrowingDown(String patternString) {
+		return useCache && matcher != null && currentPattern != null && patternString != null
+				&& !OVERRIDES_LEAF_MATCH.get(getClass()).booleanValue()
+				&& patternString.length() > currentPattern.length() && patternString.startsWith(currentPattern)
+				&& !Character.isWhitespace(currentPattern.charAt(currentPattern.length() - 1))
+				&& !endsWithEscape(currentPattern) && includeLeadingWildcard == currentIncludeLeadingWildcard;
+	}
+
+	/**
+	 * Answers whether the given pattern ends with an odd number of backslashes,
+	 * that is with a backslash escaping whatever is appended to the pattern.
+	 */
+	private static boolean endsWithEscape(String pattern) {
+		int backslashes = 0;
+		for (int i = pattern.length() - 1; i >= 0 && pattern.charAt(i) == '\\'; i--) {
+			backslashes++;
+		}
+		return backslashes % 2 != 0;
 	}
 
 	/**
@@ -227,7 +310,25 @@ public class PatternFilter extends ViewerFilter {
 	 * @return true if the element matches the filter pattern
 	 */
 	public boolean isElementVisible(Viewer viewer, Object element) {
-		return isParentMatch(viewer, element) || isLeafMatch(viewer, element);
+		return isParentMatch(viewer, element) || isCachedLeafMatch(viewer, element);
+	}
+
+	/**
+	 * Returns the result of {@link #isLeafMatch(Viewer, Object)}, which is cached
+	 * per element if caching is enabled. Computing it usually requires the label
+	 * of the element, and the result does not change until either the pattern or
+	 * the tree content changes.
+	 */
+	private boolean isCachedLeafMatch(Viewer viewer, Object element) {
+		if (!useCache || matcher == null) {
+			return isLeafMatch(viewer, element);
+		}
+		Boolean leafMatch = leafMatchCache.get(element);
+		if (leafMatch == null) {
+			leafMatch = Boolean.valueOf(isLeafMatch(viewer, element));
+			leafMatchCache.put(element, leafMatch);
+		}
+		return leafMatch.booleanValue();
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -56,6 +56,16 @@ public class ActionExpression {
 			return null;
 		}
 
+		/**
+		 * Returns whether the result of {@link #isEnabledFor(Object)} only depends on
+		 * the class of the object.
+		 *
+		 * @return boolean whether the expression only tests the object class.
+		 */
+		public boolean dependsOnObjectClassOnly() {
+			return false;
+		}
+
 		/**
 		 * Returns whether the expression is valid for the given object.
 		 *
@@ -185,6 +195,16 @@ public class ActionExpression {
 			return returnValue;
 		}
 
+		@Override
+		public boolean dependsOnObjectClassOnly() {
+			for (AbstractExpression expression : list) {
+				if (!expression.dependsOnObjectClassOnly()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
 		/**
 		 * Computes the hash code for this object based on the id.
 		 *
@@ -328,6 +348,11 @@ public class ActionExpression {
 			return new String[] { className };
 		}
 
+		@Override
+		public boolean dependsOnObjectClassOnly() {
+			return true;
+		}
+
 		/**
 		 * Computes the hash code for this object based on the id.
 		 *
@@ -652,6 +677,11 @@ public class ActionExpression {
 			return child.extractObjectClasses();
 		}
 
+		@Override
+		public boolean dependsOnObjectClassOnly() {
+			return child.dependsOnObjectClassOnly();
+		}
+
 		/**
 		 * Computes the hash code for this object based on the id.
 		 *
@@ -905,6 +935,16 @@ public class ActionExpression {
 		return root.extractObjectClasses();
 	}
 
+	/**
+	 * Returns whether the result of {@link #isEnabledFor(Object)} only depends on
+	 * the class of the object, so that it can be computed once per class.
+	 *
+	 * @return boolean whether the expression only tests the object class.
+	 */
+	public boolean dependsOnObjectClassOnly() {
+		return root == null || root.dependsOnObjectClassOnly();
+	}
+
 	/**
 	 * Computes the hash code for this object based on the id.
 	 *
@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal;
+
+import java.lang.StackWalker.StackFrame;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.core.commands.internal.util.Tracing;
+
+/**
+ * Records the queue depth, wait time and run time of the runnables posted to
+ * the {@link UISynchronizer}, per posting call site. Runnables that wait or run
+ * longer than {@link #SLOW_THRESHOLD_MILLIS} are traced right away, the
+ * statistics of the busiest call sites are traced every
+ * {@link #REPORT_INTERVAL_MILLIS}.
+ * <p>
+ * Enabled by the <code>org.eclipse.ui/trace/asyncExec</code> debug option.
+ * </p>
+ */
+public final class AsyncExecTracer {
+	private static final String TRACING_COMPONENT = "ASYNC_EXEC"; //$NON-NLS-1$
+
+	static final long SLOW_THRESHOLD_MILLIS = 100;
+
+	static final long REPORT_INTERVAL_MILLIS = 60000;
+
+	private static final int REPORTED_CALL_SITES = 20;
+
+	private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+	/**
+	 * The classes posting runnables on behalf of their callers, which are not
+	 * reported as call sites.
+	 */
+	private static final String[] DISPATCHER_CLASS_PREFIXES = { "org.eclipse.swt.widgets.Display", //$NON-NLS-1$
+			"org.eclipse.swt.widgets.Synchronizer", //$NON-NLS-1$
+			"org.eclipse.ui.internal.UISynchronizer", //$NON-NLS-1$
+			"org.eclipse.ui.internal.AsyncExecTracer", //$NON-NLS-1$
+			"org.eclipse.e4.ui.workbench.swt.DisplayUISynchronize", //$NON-NLS-1$
+			"org.eclipse.e4.ui.di.UISynchronize" }; //$NON-NLS-1$
+
+	private final Map<String, CallSiteStatistics> statistics = new ConcurrentHashMap<>();
+
+	private final AtomicInteger queueDepth = new AtomicInteger();
+
+	private long lastReport = System.nanoTime();
+
+	/**
+	 * The statistics of the runnables posted from one call site.
+	 */
+	public static final class CallSiteStatistics {
+		final String callSite;
+		long asyncCount;
+		long syncCount;
+		long coalescedCount;
+		long totalWaitNanos;
+		long maxWaitNanos;
+		long totalRunNanos;
+		long maxRunNanos;
+		int maxQueueDepth;
+
+		CallSiteStatistics(String callSite) {
+			this.callSite = callSite;
+		}
+
+		synchronized void posted(boolean sync, int depth) {
+			if (sync) {
+				syncCount++;
+			} else {
+				asyncCount++;
+			}
+			maxQueueDepth = Math.max(maxQueueDepth, depth);
+		}
+
+		synchronized void coalesced() {
+			coalescedCount++;
+		}
+
+		synchronized void ran(long waitNanos, long runNanos) {
+			totalWaitNanos += waitNanos;
+			maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+			totalRunNanos += runNanos;
+			maxRunNanos = Math.max(maxRunNanos, runNanos);
+		}
+
+		public String getCallSite() {
+			return callSite;
+		}
+
+		public synchronized long getAsyncCount() {
+			return asyncCount;
+		}
+
+		public synchronized long getSyncCount() {
+			return syncCount;
+		}
+
+		public synchronized long getCoalescedCount() {
+			return coalescedCount;
+		}
+
+		public synchronized int getMaxQueueDepth() {
+			return maxQueueDepth;
+		}
+
+		synchronized long getTotalRunNanos() {
+			return totalRunNanos;
+		}
+
+		@Override
+		public synchronized String toString() {
+			long count = asyncCount + syncCount;
+			return callSite + " async=" + asyncCount //$NON-NLS-1$
+					+ " sync=" + syncCount //$NON-NLS-1$
+					+ " coalesced=" + coalescedCount //$NON-NLS-1$
+					+ " maxDepth=" + maxQueueDepth //$NON-NLS-1$
+					+ " avgWait=" + toMillis(count == 0 ? 0 : totalWaitNanos / count) + "ms" //$NON-NLS-1$ //$NON-NLS-2$
+					+ " maxWait=" + toMillis(maxWaitNanos) + "ms" //$NON-NLS-1$ //$NON-NLS-2$
+					+ " totalRun=" + toMillis(totalRunNanos) + "ms" //$NON-NLS-1$ //$NON-NLS-2$
+					+ " maxRun=" + toMillis(maxRunNanos) + "ms"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * Returns a runnable recording the statistics of the given one under the call
+	 * site of the current thread.
+	 */
+	Runnable wrap(Runnable runnable, boolean sync) {
+		CallSiteStatistics callSite = getCallSiteStatistics();
+		int depth = queueDepth.incrementAndGet();
+		callSite.posted(sync, depth);
+		long postTime = System.nanoTime();
+		return () -> {
+			long startTime = System.nanoTime();
+			queueDepth.decrementAndGet();
+			try {
+				runnable.run();
+			} finally {
+				long endTime = System.nanoTime();
+				ran(callSite, depth, startTime - postTime, endTime - startTime, sync);
+			}
+		};
+	}
+
+	/**
+	 * Records that a runnable posted from the call site of the current thread was
+	 * coalesced with a pending one.
+	 */
+	void coalesced() {
+		getCallSiteStatistics().coalesced();
+	}
+
+	private void ran(CallSiteStatistics callSite, int depth, long waitNanos, long runNanos, boolean sync) {
+		callSite.ran(waitNanos, runNanos);
+		long threshold = TimeUnit.MILLISECONDS.toNanos(SLOW_THRESHOLD_MILLIS);
+		if (waitNanos >= threshold || runNanos >= threshold) {
+			Tracing.printTrace(TRACING_COMPONENT, (sync ? "syncExec " : "asyncExec ") + callSite.callSite //$NON-NLS-1$ //$NON-NLS-2$
+					+ " depth=" + depth //$NON-NLS-1$
+					+ " wait=" + toMillis(waitNanos) + "ms" //$NON-NLS-1$ //$NON-NLS-2$
+					+ " run=" + toMillis(runNanos) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		long now = System.nanoTime();
+		boolean report;
+		synchronized (this) {
+			report = now - lastReport >= TimeUnit.MILLISECONDS.toNanos(REPORT_INTERVAL_MILLIS);
+			if (report) {
+				lastReport = now;
+			}
+		}
+		if (report) {
+			report();
+		}
+	}
+
+	/**
+	 * Returns the statistics of all call sites, the ones which spent the most time
+	 * running first.
+	 *
+	 * @return the statistics
+	 */
+	public List<CallSiteStatistics> getStatistics() {
+		List<CallSiteStatistics> callSites = new ArrayList<>(statistics.values());
+		callSites.sort((a, b) -> Long.compare(b.getTotalRunNanos(), a.getTotalRunNanos()));
+		return callSites;
+	}
+
+	/**
+	 * Traces the statistics of the call sites which spent the most time running.
+	 */
+	void report() {
+		List<CallSiteStatistics> callSites = getStatistics();
+		StringBuilder buffer = new StringBuilder("statistics of the busiest call sites, queue depth="); //$NON-NLS-1$
+		buffer.append(queueDepth.get());
+		for (CallSiteStatistics callSite : callSites.subList(0, Math.min(REPORTED_CALL_SITES, callSites.size()))) {
+			buffer.append(System.lineSeparator()).append('\t').append(callSite);
+		}
+		Tracing.printTrace(TRACING_COMPONENT, buffer.toString());
+	}
+
+	private CallSiteStatistics getCallSiteStatistics() {
+		String callSite = STACK_WALKER.walk(frames -> frames.filter(frame -> !isDispatcher(frame)).findFirst())
+				.map(AsyncExecTracer::toCallSite).orElse("<unknown>"); //$NON-NLS-1$
+		return statistics.computeIfAbsent(callSite, CallSiteStatistics::new);
+	}
+
+	private static boolean isDispatcher(StackFrame frame) {
+		String className = frame.getClassName();
+		for (String prefix : DISPATCHER_CLASS_PREFIXES) {
+			if (className.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String toCallSite(StackFrame frame) {
+		return frame.getClassName() + '.' + frame.getMethodName() + ':' + frame.getLineNumber();
+	}
+
+	private static long toMillis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -570,17 +570,31 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
 	 * @return the list of interested contributors (<code>IObjectContributor</code>)
 	 */
 	protected List getContributors(List elements) {
+		// Get the resource class. It will be null if any of the
+		// elements are resources themselves or do not adapt to
+		// IResource.
+		return getContributors(elements, getCommonResourceClass(elements), getResourceMappingClass(elements));
+	}
+
+	/**
+	 * Returns the list of contributors that are interested in the given list of
+	 * model elements, for the given resource classes of the elements.
+	 *
+	 * @param elements             a list of model elements (<code>Object</code>)
+	 * @param resourceClass        the result of
+	 *                             {@link #getCommonResourceClass(List)} for the
+	 *                             elements
+	 * @param resourceMappingClass the result of
+	 *                             {@link #getResourceMappingClass(List)} for the
+	 *                             elements
+	 * @return the list of interested contributors (<code>IObjectContributor</code>)
+	 */
+	protected List getContributors(List elements, Class resourceClass, Class resourceMappingClass) {
 		// Calculate the common class, interfaces, and adapters registered
 		// via the IAdapterManager.
 		List commonAdapters = new ArrayList();
 		List commonClasses = getCommonClasses(elements, commonAdapters);
 
-		// Get the resource class. It will be null if any of the
-		// elements are resources themselves or do not adapt to
-		// IResource.
-		Class resourceClass = getCommonResourceClass(elements);
-		Class resourceMappingClass = getResourceMappingClass(elements);
-
 		// Get the contributors.
 
 		List contributors = new ArrayList();
@@ -862,7 +876,7 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
 	 * objects. Do not return a resource class if the objects are resources
 	 * themselves so as to prevent double registration of actions.
 	 */
-	private Class getCommonResourceClass(List objects) {
+	protected Class getCommonResourceClass(List objects) {
 		if (objects == null || objects.isEmpty()) {
 			return null;
 		}
@@ -900,7 +914,7 @@ public abstract class ObjectContributorManager implements IExtensionChangeHandle
 	/**
 	 * Return the ResourceMapping class if the elements all adapt to it.
 	 */
-	private Class getResourceMappingClass(List objects) {
+	protected Class getResourceMappingClass(List objects) {
 		if (objects == null || objects.isEmpty()) {
 			return null;
 		}
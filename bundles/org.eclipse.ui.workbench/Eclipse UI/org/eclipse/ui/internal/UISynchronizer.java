@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,9 +16,14 @@ package org.eclipse.ui.internal;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Synchronizer;
 import org.eclipse.ui.internal.StartupThreading.StartupRunnable;
+import org.eclipse.ui.internal.misc.Policy;
 
 public class UISynchronizer extends Synchronizer {
 	protected UILockListener lockListener;
@@ -35,6 +40,18 @@ public class UISynchronizer extends Synchronizer {
 	 */
 	protected List<Runnable> pendingStartup = new ArrayList<>();
 
+	/**
+	 * The runnables posted with {@link #coalescedAsyncExec(Object, Runnable)}
+	 * which have not started yet, by key.
+	 */
+	private final Map<Object, CoalescedRunnable> coalescedRunnables = new ConcurrentHashMap<>();
+
+	/**
+	 * Records the statistics of the posted runnables, or <code>null</code> if
+	 * {@link Policy#DEBUG_ASYNC_EXEC} is not set.
+	 */
+	private volatile AsyncExecTracer tracer = Policy.DEBUG_ASYNC_EXEC ? new AsyncExecTracer() : null;
+
 	/**
 	 * Setting this variable to the value {@link Boolean#TRUE} will allow a thread
 	 * to execute code during the startup sequence.
@@ -76,6 +93,16 @@ public class UISynchronizer extends Synchronizer {
 		this.lockListener = lock;
 	}
 
+	/**
+	 * Sets the tracer recording the statistics of the posted runnables. For
+	 * testing purposes only.
+	 *
+	 * @param tracer the tracer, or <code>null</code> to not record statistics
+	 */
+	public void setTracer(AsyncExecTracer tracer) {
+		this.tracer = tracer;
+	}
+
 	public void started() {
 		synchronized (this) {
 			if (!isStarting)
@@ -98,6 +125,14 @@ public class UISynchronizer extends Synchronizer {
 
 	@Override
 	protected void asyncExec(Runnable runnable) {
+		asyncExec(runnable, true);
+	}
+
+	/**
+	 * Posts the runnable, recording it in the statistics of the tracer unless
+	 * it is posted on behalf of a runnable recorded already.
+	 */
+	private void asyncExec(Runnable runnable, boolean trace) {
 		if (runnable != null) {
 			synchronized (this) {
 				if (isStarting && !(runnable instanceof StartupRunnable) && overrideThread.get() == Boolean.FALSE) {
@@ -108,10 +143,108 @@ public class UISynchronizer extends Synchronizer {
 					return;
 				}
 			}
+			AsyncExecTracer currentTracer = tracer;
+			if (currentTracer != null && trace) {
+				runnable = currentTracer.wrap(runnable, false);
+			}
 		}
 		super.asyncExec(runnable);
 	}
 
+	/**
+	 * Causes the runnable to be run by the UI thread at the next reasonable
+	 * opportunity, unless a runnable posted with an equal key has not started yet.
+	 * In that case the pending runnable is replaced by the given one, which runs
+	 * in its place. Runnables posted with the same key must therefore be
+	 * interchangeable, such as the refreshes of the same viewer, and are run at
+	 * most once per turn of the display's queue.
+	 *
+	 * @param key      the key identifying the interchangeable runnables
+	 * @param runnable the code to run on the UI thread
+	 * @see Display#asyncExec(Runnable)
+	 */
+	public void coalescedAsyncExec(Object key, Runnable runnable) {
+		Assert.isNotNull(key);
+		Assert.isNotNull(runnable);
+		CoalescedRunnable pending = coalescedRunnables.get(key);
+		if (pending != null && pending.replace(runnable)) {
+			AsyncExecTracer currentTracer = tracer;
+			if (currentTracer != null) {
+				currentTracer.coalesced();
+			}
+			return;
+		}
+		CoalescedRunnable coalesced = new CoalescedRunnable(key, runnable);
+		coalescedRunnables.put(key, coalesced);
+		asyncExec(coalesced);
+	}
+
+	/**
+	 * Posts the runnable with
+	 * {@link UISynchronizer#coalescedAsyncExec(Object, Runnable)} if the display
+	 * uses a UISynchronizer, and with {@link Display#asyncExec(Runnable)}
+	 * otherwise.
+	 *
+	 * @param display  the display to run the runnable on
+	 * @param key      the key identifying the interchangeable runnables
+	 * @param runnable the code to run on the UI thread
+	 * @exception org.eclipse.swt.SWTException
+	 *                <ul>
+	 *                <li>ERROR_DEVICE_DISPOSED - if the display has been
+	 *                disposed</li>
+	 *                </ul>
+	 */
+	public static void coalescedAsyncExec(Display display, Object key, Runnable runnable) {
+		if (display.isDisposed()) {
+			SWT.error(SWT.ERROR_DEVICE_DISPOSED);
+		}
+		if (display.getSynchronizer() instanceof UISynchronizer synchronizer) {
+			synchronizer.coalescedAsyncExec(key, runnable);
+		} else {
+			display.asyncExec(runnable);
+		}
+	}
+
+	/**
+	 * Runs the last runnable posted with its key. Once it is removed from
+	 * {@link UISynchronizer#coalescedRunnables}, runnables posted with the same
+	 * key may still replace the one to run until it starts.
+	 */
+	private final class CoalescedRunnable implements Runnable {
+		private final Object key;
+
+		private Runnable runnable;
+
+		CoalescedRunnable(Object key, Runnable runnable) {
+			this.key = key;
+			this.runnable = runnable;
+		}
+
+		/**
+		 * Replaces the runnable to run, unless it already started.
+		 *
+		 * @return <code>true</code> if the runnable was replaced
+		 */
+		synchronized boolean replace(Runnable newRunnable) {
+			if (runnable == null) {
+				return false;
+			}
+			runnable = newRunnable;
+			return true;
+		}
+
+		@Override
+		public void run() {
+			coalescedRunnables.remove(key, this);
+			Runnable toRun;
+			synchronized (this) {
+				toRun = runnable;
+				runnable = null;
+			}
+			toRun.run();
+		}
+	}
+
 	@Override
 	public void syncExec(Runnable runnable) {
 
@@ -127,6 +260,11 @@ public class UISynchronizer extends Synchronizer {
 			}
 		}
 
+		AsyncExecTracer currentTracer = tracer;
+		if (currentTracer != null && runnable != null && !lockListener.isUI()) {
+			runnable = currentTracer.wrap(runnable, true);
+		}
+
 		// if this thread is the UI or this thread does not own any locks, just do the
 		// syncExec
 		if ((runnable == null) || lockListener.isUI() || !lockListener.isLockOwner()) {
@@ -136,7 +274,8 @@ public class UISynchronizer extends Synchronizer {
 		PendingSyncExec work = new PendingSyncExec(runnable);
 		work.setOperationThread(Thread.currentThread());
 		lockListener.addPendingWork(work);
-		asyncExec(lockListener::doPendingWork);
+		// the runnable is recorded as a syncExec already
+		asyncExec(lockListener::doPendingWork, false);
 
 		try {
 			work.waitUntilExecuted(lockListener);
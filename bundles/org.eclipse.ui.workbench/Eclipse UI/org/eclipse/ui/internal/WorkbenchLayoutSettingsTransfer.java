@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2015 IBM Corporation and others.
+ * Copyright (c) 2006, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -49,33 +49,12 @@ public class WorkbenchLayoutSettingsTransfer extends WorkbenchSettingsTransfer {
 				return new Status(IStatus.ERROR, WorkbenchPlugin.PI_WORKBENCH,
 						WorkbenchMessages.WorkbenchSettings_CouldNotCreateDirectories);
 
-			File deltas = new File(currentLocation.toOSString(), "deltas.xml"); //$NON-NLS-1$
-			if (deltas.exists()) {
-				byte[] bytes = new byte[8192];
-				try (FileInputStream inputStream = new FileInputStream(deltas);
-						FileOutputStream outputStream = new FileOutputStream(new File(workspaceFile, "deltas.xml")) //$NON-NLS-1$
-				) {
-					int read = inputStream.read(bytes, 0, 8192);
-					while (read != -1) {
-						outputStream.write(bytes, 0, read);
-						read = inputStream.read(bytes, 0, 8192);
-					}
-				}
-			}
-
-			File workbenchModel = new File(currentLocation.toOSString(), "workbench.xmi"); //$NON-NLS-1$
-			if (workbenchModel.exists()) {
-				byte[] bytes = new byte[8192];
-				try (FileInputStream inputStream = new FileInputStream(workbenchModel);
-						FileOutputStream outputStream = new FileOutputStream(new File(workspaceFile, "workbench.xmi")) //$NON-NLS-1$
-				) {
-					int read = inputStream.read(bytes, 0, 8192);
-					while (read != -1) {
-						outputStream.write(bytes, 0, read);
-						read = inputStream.read(bytes, 0, 8192);
-					}
-				}
-			}
+			copyFile(currentLocation, workspaceFile, "deltas.xml", false); //$NON-NLS-1$
+			// The model is saved to workbench.bin when the binary model format is
+			// enabled and the newer of the two files is restored, so copy both and
+			// remove a model the new workspace has but the current one has not
+			copyFile(currentLocation, workspaceFile, "workbench.xmi", true); //$NON-NLS-1$
+			copyFile(currentLocation, workspaceFile, "workbench.bin", true); //$NON-NLS-1$
 		} catch (IOException e) {
 			return new Status(IStatus.ERROR, WorkbenchPlugin.PI_WORKBENCH,
 					WorkbenchMessages.Workbench_problemsSavingMsg, e);
@@ -85,6 +64,35 @@ public class WorkbenchLayoutSettingsTransfer extends WorkbenchSettingsTransfer {
 		return Status.OK_STATUS;
 	}
 
+	/**
+	 * Copy the file with the given name from the current workbench state location
+	 * to the new one, keeping its modification time.
+	 *
+	 * @param deleteMissing whether to delete the file in the new location if it
+	 *                      does not exist in the current one
+	 */
+	private static void copyFile(IPath currentLocation, File workspaceFile, String name, boolean deleteMissing)
+			throws IOException {
+		File source = new File(currentLocation.toOSString(), name);
+		File target = new File(workspaceFile, name);
+		if (!source.exists()) {
+			if (deleteMissing) {
+				target.delete();
+			}
+			return;
+		}
+		byte[] bytes = new byte[8192];
+		try (FileInputStream inputStream = new FileInputStream(source);
+				FileOutputStream outputStream = new FileOutputStream(target)) {
+			int read = inputStream.read(bytes, 0, 8192);
+			while (read != -1) {
+				outputStream.write(bytes, 0, read);
+				read = inputStream.read(bytes, 0, 8192);
+			}
+		}
+		target.setLastModified(source.lastModified());
+	}
+
 	/**
 	 * Create the parent directories for the workbench layout file and then return
 	 * the File.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -31,7 +31,7 @@ public class DeclarativeDecorator implements ILightweightLabelDecorator {
 
 	private IConfigurationElement configElement;
 
-	private ImageDescriptor descriptor;
+	private volatile ImageDescriptor descriptor;
 
 	DeclarativeDecorator(IConfigurationElement definingElement, String iconPath) {
 		this.iconLocation = iconPath;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,11 +19,9 @@ package org.eclipse.ui.internal.decorators;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.runtime.Assert;
@@ -66,16 +64,25 @@ import org.eclipse.ui.progress.WorkbenchJob;
  * <code>decorationJob</code> to be executed asynchonously.</li>
  *
  * <li>The <code>decorationJob</code> processes the list of elements in
- * <code>awaitingDecoration</code> one by one. For each element, it calls
- * <code>ensureResultCached</code>, which in turn calls the actual lightweight
+ * <code>awaitingDecoration</code> one by one, elements requested again while
+ * waiting first. The scheduler does not know which items a viewer shows, the
+ * elements a viewer updates or shows again stand in for them. For each element,
+ * it calls <code>queue</code>, which in turn calls the actual lightweight
  * decorator(s) for the element and stores the decoration result in the
  * <code>resultCache</code> and adds the element to the
  * <code>pendingUpdate</code> collection to remember that it needs to be updated
- * in the UI.</li>
+ * in the UI. As soon as many elements are waiting, helper jobs process the
+ * list in parallel. An element is never decorated by two jobs at once. Helper
+ * jobs only decorate elements whose decorators are all declared thread safe,
+ * they pass other elements back to the <code>decorationJob</code>, so that
+ * the decorators written for the single decoration thread keep being called
+ * by one job only.</li>
  *
  * <li>When the <code>decorationJob</code> has finished processing all elements
  * in <code>awaitingDecoration</code>, it finally schedules the
- * <code>updateJob</code>.</li>
+ * <code>updateJob</code>. While processing many elements it schedules the
+ * <code>updateJob</code> every <code>UPDATE_INTERVAL</code> as well, so that
+ * the elements requested first are shown decorated early.</li>
  *
  * <li>
  * <p>
@@ -126,12 +133,36 @@ public class DecorationScheduler {
 	/** manually synchronized on DecorationScheduler.this **/
 	private final LinkedHashMap<Object, DecorationReference> awaitingDecoration = new LinkedHashMap<>();
 
+	/**
+	 * Elements waiting for decoration which a helper job found to need a
+	 * decorator that is not thread safe. Only the first decoration job decorates
+	 * them. Manually synchronized on DecorationScheduler.this
+	 **/
+	private final LinkedHashMap<Object, DecorationReference> awaitingFirstJob = new LinkedHashMap<>();
+
+	/**
+	 * Elements in {@link #awaitingDecoration} which were requested again while
+	 * waiting, e.g. because a viewer updates or shows them again. They are
+	 * decorated first. Manually synchronized on DecorationScheduler.this
+	 **/
+	private final Set<Object> prioritized = new LinkedHashSet<>();
+
+	/**
+	 * Elements which are being decorated by one of the decoration jobs. Manually
+	 * synchronized on DecorationScheduler.this
+	 **/
+	private final Set<Object> decorating = new HashSet<>();
+
 	/** manually synchronized on DecorationScheduler.this **/
 	private boolean shutdown = false;
 
 	private final DecoratorManager decoratorManager;
 
-	private final Job decorationJob;
+	/**
+	 * The jobs decorating the elements, the first one is scheduled for any
+	 * request, the others only help with a long list of waiting elements.
+	 */
+	private final Job[] decorationJobs;
 
 	// Notifies about updateJob or clearJob finishing
 	private final class JobChangeListener extends JobChangeAdapter {
@@ -169,6 +200,24 @@ public class DecorationScheduler {
 	/** Amount of time to delay the update notification when max reached. */
 	private static final int UPDATE_DELAY = 100;
 
+	/**
+	 * Amount of time after which the decorations calculated so far are shown
+	 * while decorating many elements.
+	 */
+	private static final int UPDATE_INTERVAL = 500;
+
+	/**
+	 * The number of waiting elements from which on they are decorated by more
+	 * than one job.
+	 */
+	private static final int PARALLEL_THRESHOLD = 100;
+
+	/**
+	 * The maximal number of jobs decorating in parallel.
+	 */
+	private static final int MAX_DECORATION_JOBS = Math.max(1,
+			Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
 	/**
 	 * Flag which is used to indicate that the update job is running in the UI
 	 * thread
@@ -181,7 +230,10 @@ public class DecorationScheduler {
 	 */
 	DecorationScheduler(DecoratorManager manager) {
 		decoratorManager = manager;
-		decorationJob = createDecorationJob();
+		decorationJobs = new Job[MAX_DECORATION_JOBS];
+		for (int i = 0; i < decorationJobs.length; i++) {
+			decorationJobs[i] = createDecorationJob(i == 0);
+		}
 	}
 
 	/**
@@ -220,11 +272,15 @@ public class DecorationScheduler {
 
 		Assert.isNotNull(context);
 		DecorationReference reference = awaitingDecoration.get(element);
+		if (reference == null) {
+			reference = awaitingFirstJob.get(element);
+		}
 		if (reference != null) {
 			if (forceUpdate) {// Make sure we don't loose a force
 				reference.setForceUpdate(forceUpdate);
 			}
 			reference.addContext(context);
+			prioritized.add(element);
 		} else {
 			reference = new DecorationReference(element, adaptedElement, context);
 			reference.setForceUpdate(forceUpdate);
@@ -234,6 +290,8 @@ public class DecorationScheduler {
 				return;
 			}
 			schedule();
+			// the list may grow long while the decoration job is running
+			scheduleHelpers();
 		}
 
 	}
@@ -243,7 +301,22 @@ public class DecorationScheduler {
 	 * incomplete constructed DecorationScheduler.this
 	 */
 	void schedule() {
-		decorationJob.schedule();
+		decorationJobs[0].schedule();
+	}
+
+	/**
+	 * Schedule the jobs helping with a long list of waiting elements, if they are
+	 * not running already.
+	 */
+	private synchronized void scheduleHelpers() {
+		if (shutdown || awaitingDecoration.size() < PARALLEL_THRESHOLD) {
+			return;
+		}
+		for (int i = 1; i < decorationJobs.length; i++) {
+			if (decorationJobs[i].getState() == Job.NONE) {
+				decorationJobs[i].schedule();
+			}
+		}
 	}
 
 	/**
@@ -331,25 +404,107 @@ public class DecorationScheduler {
 	}
 
 	/**
-	 * Get the next resource to be decorated.
+	 * Get the next resource to be decorated. Elements which are being decorated
+	 * by another job are skipped, they are picked up once that job is done.
 	 *
-	 * @return IResource
+	 * @param firstJob whether the first decoration job asks, which also
+	 *                 decorates the elements passed back by the helper jobs
+	 * @return the reference or <code>null</code> if there is none to decorate
 	 */
-	synchronized DecorationReference removeNextReference() {
-		Iterator<Entry<Object, DecorationReference>> iterator = awaitingDecoration.entrySet().iterator();
-		if (shutdown || !iterator.hasNext()) {
+	synchronized DecorationReference removeNextReference(boolean firstJob) {
+		if (shutdown) {
 			return null;
 		}
-		Entry<Object, DecorationReference> entry = iterator.next();
-		iterator.remove();
-		DecorationReference reference = entry.getValue();
-		return reference;
+		Object element = firstIdleElement(prioritized, firstJob);
+		if (element == null && firstJob) {
+			// the helper jobs cannot decorate these
+			element = firstIdleElement(awaitingFirstJob.keySet(), true);
+		}
+		if (element == null) {
+			element = firstIdleElement(awaitingDecoration.keySet(), firstJob);
+			if (element == null) {
+				return null;
+			}
+		}
+		prioritized.remove(element);
+		decorating.add(element);
+		DecorationReference reference = awaitingDecoration.remove(element);
+		return reference != null ? reference : awaitingFirstJob.remove(element);
+	}
+
+	private Object firstIdleElement(Collection<Object> elements, boolean firstJob) {
+		for (Object element : elements) {
+			if (!decorating.contains(element) && (firstJob || !awaitingFirstJob.containsKey(element))) {
+				return element;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Pass an element returned by {@link #removeNextReference(boolean)} to a
+	 * helper job back to the first decoration job, because one of its decorators
+	 * is not thread safe.
+	 */
+	private synchronized void passToFirstJob(DecorationReference reference) {
+		Object element = reference.getElement();
+		decorating.remove(element);
+		// the element may have been requested again in the meantime
+		DecorationReference newer = awaitingDecoration.remove(element);
+		if (newer != null) {
+			for (IDecorationContext context : reference.getContexts()) {
+				newer.addContext(context);
+			}
+			if (reference.shouldForceUpdate()) {
+				newer.setForceUpdate(true);
+			}
+			reference = newer;
+		}
+		awaitingFirstJob.put(element, reference);
+		if (!shutdown) {
+			// the first job may have run out of elements already
+			schedule();
+		}
+	}
+
+	/**
+	 * The element returned by {@link #removeNextReference(boolean)} is decorated.
+	 */
+	private synchronized void decorationDone(Object element) {
+		decorating.remove(element);
+	}
+
+	/**
+	 * Return whether no element is waiting for or in decoration.
+	 */
+	private synchronized boolean isDecorationDone() {
+		return awaitingDecoration.isEmpty() && awaitingFirstJob.isEmpty() && decorating.isEmpty();
+	}
+
+	/**
+	 * Return the number of elements waiting for decoration.
+	 */
+	private synchronized int getAwaitingCount() {
+		return awaitingDecoration.size() + awaitingFirstJob.size();
+	}
+
+	/**
+	 * Show the decorations calculated so far, unless the update job is about to
+	 * do so anyway.
+	 */
+	private synchronized void scheduleIntermediateUpdate() {
+		if (updateJob == null || updateJob.getState() == Job.NONE) {
+			scheduleUpdateJob();
+		}
 	}
 
 	/**
 	 * Create the Thread used for running decoration.
+	 *
+	 * @param firstJob whether the job is the first decoration job, which calls
+	 *                 the decorators that are not thread safe
 	 */
-	private Job createDecorationJob() {
+	private Job createDecorationJob(boolean firstJob) {
 		Job decorationJob = new Job(WorkbenchMessages.DecorationScheduler_CalculationJobName) {
 			@Override
 			public IStatus run(IProgressMonitor monitor) {
@@ -371,25 +526,40 @@ public class DecorationScheduler {
 					}
 				}
 
+				scheduleHelpers();
 				SubMonitor subMonitor = SubMonitor.convert(monitor,
-						WorkbenchMessages.DecorationScheduler_CalculatingTask, awaitingDecoration.size() + 1);
+						WorkbenchMessages.DecorationScheduler_CalculatingTask, getAwaitingCount() + 1);
 				// will block if there are no resources to be decorated
 				DecorationReference reference;
 
 				boolean queued = false;
+				long nextUpdate = System.currentTimeMillis() + UPDATE_INTERVAL;
 				// for each in awaitingDecorationValues, but not locking the map during the whole iteration:
-				while ((reference = removeNextReference()) != null) {
-					subMonitor.split(1);
-					queued = true;
+				while ((reference = removeNextReference(firstJob)) != null) {
 					Object element = reference.getElement();
-					boolean force = reference.shouldForceUpdate();
-					Collection<IDecorationContext> contexts = reference.getContexts();
-					for (IDecorationContext context : contexts) {
-						queued |= queue(element, force, context);
+					if (!firstJob && !decoratorManager.getLightweightManager().isThreadSafeFor(element)) {
+						passToFirstJob(reference);
+						continue;
 					}
-					subMonitor.setWorkRemaining(awaitingDecoration.size() + 1); // may grow asynchronously
+					try {
+						subMonitor.split(1);
+						queued = true;
+						boolean force = reference.shouldForceUpdate();
+						Collection<IDecorationContext> contexts = reference.getContexts();
+						for (IDecorationContext context : contexts) {
+							queued |= queue(element, force, context);
+						}
+					} finally {
+						decorationDone(element);
+					}
+					subMonitor.setWorkRemaining(getAwaitingCount() + 1); // may grow asynchronously
 					// Only notify listeners when we have exhausted the
-					// queue of decoration requests.
+					// queue of decoration requests, or when it takes long
+					// enough for the user to notice.
+					if (queued && System.currentTimeMillis() >= nextUpdate) {
+						scheduleIntermediateUpdate();
+						nextUpdate = System.currentTimeMillis() + UPDATE_INTERVAL;
+					}
 				}
 				if (queued) {
 					scheduleUpdateJob();
@@ -587,7 +757,7 @@ public class DecorationScheduler {
 				// Other decoration requests may have occurred due to
 				// updates or we may have timed out updating listeners.
 				// Only clear the results if there are none pending.
-				if (awaitingDecoration.isEmpty()) {
+				if (isDecorationDone()) {
 					resultCache.clear();
 				}
 			}
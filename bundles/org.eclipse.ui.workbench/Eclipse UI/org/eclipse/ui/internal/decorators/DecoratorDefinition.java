@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -303,6 +303,29 @@ public abstract class DecoratorDefinition implements IPluginContribution {
 
 	}
 
+	/**
+	 * Return whether the enablement expression of the decorator is true for the
+	 * given element, whether or not the decorator is enabled.
+	 *
+	 * @param element the element to be decorated
+	 * @return whether the decorator would be applied to the element if enabled
+	 */
+	boolean matchesEnablement(Object element) {
+		ActionExpression expression = getEnablement();
+		return expression == null || expression.isEnabledFor(element);
+	}
+
+	/**
+	 * Return whether {@link #matchesEnablement(Object)} gives the same result for
+	 * all elements of a class.
+	 *
+	 * @return whether the enablement expression only tests the object class
+	 */
+	boolean hasObjectClassEnablement() {
+		ActionExpression expression = getEnablement();
+		return expression == null || expression.dependsOnObjectClassOnly();
+	}
+
 	@Override
 	public String getPluginId() {
 		IConfigurationElement element = getConfigurationElement();
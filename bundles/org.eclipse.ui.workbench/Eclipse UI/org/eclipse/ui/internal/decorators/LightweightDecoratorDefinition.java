@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -36,6 +36,8 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements IObj
 
 	static final String ATT_ICON = "icon"; //$NON-NLS-1$
 
+	private static final String ATT_THREAD_SAFE = "threadSafe"; //$NON-NLS-1$
+
 	// Constants for quadrants
 	/**
 	 * Position <code>TOP_LEFT</code>. Value <code>0</code>
@@ -92,8 +94,24 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements IObj
 
 	private String[] objectClasses;
 
+	/**
+	 * Held while the decorator is created or called. Elements are decorated by
+	 * several jobs at once, but a decorator is only called concurrently if it is
+	 * thread safe. Other decorators are only called by the first decoration job,
+	 * the lock guards against one being enabled while an element is decorated.
+	 */
+	private final Object decorationLock = new Object();
+
+	/**
+	 * Whether the decorator may be called by several decoration jobs at once.
+	 * Declarative decorators only add their icon and always are, other decorators
+	 * declare it in their extension.
+	 */
+	private final boolean threadSafe;
+
 	LightweightDecoratorDefinition(String identifier, IConfigurationElement element) {
 		super(identifier, element);
+		threadSafe = isDeclarative() || Boolean.parseBoolean(element.getAttribute(ATT_THREAD_SAFE));
 	}
 
 	/**
@@ -228,22 +246,47 @@ class LightweightDecoratorDefinition extends DecoratorDefinition implements IObj
 
 	}
 
+	/**
+	 * Return whether the decorator may be called by several decoration jobs at
+	 * once.
+	 *
+	 * @return boolean
+	 */
+	boolean isThreadSafe() {
+		return threadSafe;
+	}
+
 	/**
 	 * Decorate the element using the decoration to store the result.
 	 */
 	public void decorate(Object element, IDecoration decoration) {
+		if (!isEnabled()) {
+			return;
+		}
+		if (threadSafe) {
+			internalDecorate(element, decoration);
+		} else {
+			synchronized (decorationLock) {
+				internalDecorate(element, decoration);
+			}
+		}
+	}
+
+	private void internalDecorate(Object element, IDecoration decoration) {
 		try {
-			if (!isEnabled()) {
-				return;
+			ILightweightLabelDecorator currentDecorator;
+			String[] classes;
+			// the decorator and the object classes are read lazily
+			synchronized (decorationLock) {
+				currentDecorator = internalGetDecorator();
+				classes = getObjectClasses();
 			}
 			// Internal decorator might be null so be prepared
-			ILightweightLabelDecorator currentDecorator = internalGetDecorator();
 			if (currentDecorator == null) {
 				return;
 			}
 
 			if (isAdaptable()) {
-				String[] classes = getObjectClasses();
 				for (String className : classes) {
 					Object adapted = LegacyResourceSupport.getAdapter(element, className);
 					if (adapted != null) {
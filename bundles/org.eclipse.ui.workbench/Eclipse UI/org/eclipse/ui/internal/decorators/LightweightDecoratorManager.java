@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,8 +14,11 @@
 package org.eclipse.ui.internal.decorators;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.runtime.IExtension;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
@@ -117,13 +120,69 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 		}
 	}
 
-	private LightweightRunnable runnable = new LightweightRunnable();
+	/**
+	 * The decorators which can apply to the elements of one class, see
+	 * {@link LightweightDecoratorManager#getDecoratorsFor(Object)}.
+	 */
+	private static class ClassDecorators {
+
+		/** The decorators in definition order. */
+		final LightweightDecoratorDefinition[] candidates;
+
+		/**
+		 * Whether the enablement expression of a candidate has to be evaluated for
+		 * each element, as it does not only test the object class.
+		 */
+		final boolean[] testElement;
+
+		ClassDecorators(Object element, List<?> contributors) {
+			List<LightweightDecoratorDefinition> decorators = new ArrayList<>(contributors.size());
+			List<Boolean> tests = new ArrayList<>(contributors.size());
+			for (Object contributor : contributors) {
+				LightweightDecoratorDefinition decorator = (LightweightDecoratorDefinition) contributor;
+				if (!decorator.hasObjectClassEnablement()) {
+					decorators.add(decorator);
+					tests.add(Boolean.TRUE);
+				} else if (decorator.matchesEnablement(element)) {
+					decorators.add(decorator);
+					tests.add(Boolean.FALSE);
+				}
+			}
+			candidates = decorators.toArray(EMPTY_LIGHTWEIGHT_DEF);
+			testElement = new boolean[candidates.length];
+			for (int i = 0; i < testElement.length; i++) {
+				testElement[i] = tests.get(i).booleanValue();
+			}
+		}
+
+		LightweightDecoratorDefinition[] getDecoratorsFor(Object element) {
+			if (candidates.length == 0) {
+				return EMPTY_LIGHTWEIGHT_DEF;
+			}
+			LightweightDecoratorDefinition[] decorators = new LightweightDecoratorDefinition[candidates.length];
+			int count = 0;
+			for (int i = 0; i < candidates.length; i++) {
+				LightweightDecoratorDefinition candidate = candidates[i];
+				if (candidate.isEnabled() && (!testElement[i] || candidate.matchesEnablement(element))) {
+					decorators[count++] = candidate;
+				}
+			}
+			return count == decorators.length ? decorators : Arrays.copyOf(decorators, count);
+		}
+	}
 
 	// The lightweight definitions read from the registry
 	private LightweightDecoratorDefinition[] lightweightDefinitions;
 
 	private static final LightweightDecoratorDefinition[] EMPTY_LIGHTWEIGHT_DEF = new LightweightDecoratorDefinition[0];
 
+	/**
+	 * The decorators which can apply, by the class of the element and the classes
+	 * of the resource and resource mapping it adapts to. Only modified while
+	 * holding the lock of the receiver.
+	 */
+	private final Map<List<Class<?>>, ClassDecorators> classDecorators = new ConcurrentHashMap<>();
+
 	LightweightDecoratorManager(LightweightDecoratorDefinition[] definitions) {
 		super();
 		lightweightDefinitions = definitions;
@@ -274,7 +333,17 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 	 * Reset any cached values.
 	 */
 	void reset() {
-		runnable.clearReferences();
+		synchronized (this) {
+			classDecorators.clear();
+		}
+	}
+
+	@Override
+	public void flushLookup() {
+		super.flushLookup();
+		synchronized (this) {
+			classDecorators.clear();
+		}
 	}
 
 	/**
@@ -308,7 +377,9 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 	}
 
 	/**
-	 * Get the lightweight registered for elements of this type.
+	 * Get the lightweight registered for elements of this type. The contributors
+	 * and the enablement expressions testing only the object class are looked up
+	 * once per class, only the remaining expressions are evaluated per element.
 	 */
 	LightweightDecoratorDefinition[] getDecoratorsFor(Object element) {
 
@@ -316,20 +387,52 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 			return EMPTY_LIGHTWEIGHT_DEF;
 		}
 
-		List elements = new ArrayList(1);
-		elements.add(element);
-		LightweightDecoratorDefinition[] decoratorArray = EMPTY_LIGHTWEIGHT_DEF;
-		List contributors = getContributors(elements);
-		if (!contributors.isEmpty()) {
-			Collection decorators = DecoratorManager.getDecoratorsFor(element,
-					(DecoratorDefinition[]) contributors.toArray(new DecoratorDefinition[contributors.size()]));
-			if (decorators.size() > 0) {
-				decoratorArray = new LightweightDecoratorDefinition[decorators.size()];
-				decorators.toArray(decoratorArray);
+		List elements = Collections.singletonList(element);
+		List<Class<?>> key = getClassKey(elements);
+		ClassDecorators decorators = classDecorators.get(key);
+		if (decorators == null) {
+			// the lookup caches are shared by the decoration jobs
+			synchronized (this) {
+				List contributors = getContributors(elements, key.get(1), key.get(2));
+				decorators = new ClassDecorators(element, contributors);
+				classDecorators.put(key, decorators);
 			}
 		}
+		return decorators.getDecoratorsFor(element);
+	}
 
-		return decoratorArray;
+	/**
+	 * Return whether all decorators for the element may be called by several
+	 * decoration jobs at once.
+	 */
+	boolean isThreadSafeFor(Object element) {
+		for (LightweightDecoratorDefinition decorator : getDecoratorsFor(element)) {
+			if (!decorator.isThreadSafe()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return the key of the decorators which can apply to the element in the
+	 * list: the class of the element and the classes of the resource and resource
+	 * mapping it adapts to.
+	 */
+	private List<Class<?>> getClassKey(List elements) {
+		return Arrays.asList(elements.get(0).getClass(), getCommonResourceClass(elements),
+				getResourceMappingClass(elements));
+	}
+
+	/**
+	 * Return whether the decorators which can apply to the element are looked up
+	 * already. For testing purposes only.
+	 *
+	 * @param element the element
+	 * @return whether the decorators for the class of the element are cached
+	 */
+	public boolean hasCachedDecoratorsFor(Object element) {
+		return classDecorators.containsKey(getClassKey(Collections.singletonList(element)));
 	}
 
 	/**
@@ -347,7 +450,8 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 	}
 
 	/**
-	 * Decorate the element receiver in a SafeRunnable.
+	 * Decorate the element receiver in a SafeRunnable. Elements are decorated by
+	 * several jobs at once, so each call uses its own runnable.
 	 *
 	 * @param element    The Object to be decorated
 	 * @param decoration The object building decorations.
@@ -355,6 +459,7 @@ public class LightweightDecoratorManager extends ObjectContributorManager {
 	 */
 	private void decorate(Object element, DecorationBuilder decoration, LightweightDecoratorDefinition decorator) {
 
+		LightweightRunnable runnable = new LightweightRunnable();
 		runnable.setValues(element, decoration, decorator);
 		SafeRunner.run(runnable);
 	}
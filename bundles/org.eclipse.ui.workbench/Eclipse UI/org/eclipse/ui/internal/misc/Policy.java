@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -159,6 +159,12 @@ public class Policy {
 	 */
 	public static boolean DEBUG_WORKING_SETS = DEFAULT;
 
+	/**
+	 * Whether to trace the queue depth, wait time and run time of the runnables
+	 * posted with asyncExec and syncExec, per posting call site.
+	 */
+	public static boolean DEBUG_ASYNC_EXEC = DEFAULT;
+
 	static {
 		if (getDebugOption("/debug")) { //$NON-NLS-1$
 			DEBUG_SWT_GRAPHICS = getDebugOption("/trace/graphics"); //$NON-NLS-1$
@@ -191,6 +197,7 @@ public class Policy {
 			EXPERIMENTAL_MENU = getDebugOption("/experimental/menus"); //$NON-NLS-1$
 			DEBUG_MPE = getDebugOption("/trace/multipageeditor"); //$NON-NLS-1$
 			DEBUG_WORKING_SETS = getDebugOption("/debug/workingSets"); //$NON-NLS-1$
+			DEBUG_ASYNC_EXEC = getDebugOption("/trace/asyncExec"); //$NON-NLS-1$
 
 			if (DEBUG_SWT_DEBUG_GLOBAL)
 				Device.DEBUG = true;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2022 IBM Corporation and others.
+ * Copyright (c) 2003, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -152,6 +152,14 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	 */
 	private Map<JobInfo, Set<IJobProgressManagerListener>> pendingJobUpdates = new LinkedHashMap<>();
 
+	/**
+	 * The job infos with a pending update in {@link #pendingJobUpdates}, or about
+	 * to be added to it. Progress reported again before the listeners are
+	 * notified is skipped without taking the {@link #pendingUpdatesMutex}, the
+	 * listeners read the latest state of the job anyway.
+	 */
+	private final Set<JobInfo> pendingJobUpdateInfos = ConcurrentHashMap.newKeySet();
+
 	/**
 	 * Modification guarded by {@link #pendingUpdatesMutex}.
 	 */
@@ -364,6 +372,7 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 		Map<JobInfo, Set<IJobProgressManagerListener>> localPendingJobUpdates, localPendingJobAddition,
 				localPendingJobRemoval;
 		synchronized (pendingUpdatesMutex) {
+			pendingJobUpdateInfos.clear();
 			localPendingJobUpdates = pendingJobUpdates;
 			pendingJobUpdates = new LinkedHashMap<>();
 			localPendingGroupUpdates = pendingGroupUpdates;
@@ -626,6 +635,9 @@ public class ProgressManager extends ProgressProvider implements IProgressServic
 	 */
 	public void refreshJobInfo(JobInfo info) {
 		checkForStaleness(info.getJob());
+		if (!pendingJobUpdateInfos.add(info)) {
+			return;
+		}
 		synchronized (pendingUpdatesMutex) {
 			Predicate<IJobProgressManagerListener> predicate = listener -> !isNeverDisplaying(info.getJob(), listener.showsDebug());
 			rememberListenersForJob(info, pendingJobUpdates, predicate);
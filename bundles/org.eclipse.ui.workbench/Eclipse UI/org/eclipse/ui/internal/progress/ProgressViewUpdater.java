@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2003, 2015 IBM Corporation and others.
+ * Copyright (c) 2003, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,11 +15,14 @@ package org.eclipse.ui.internal.progress;
 
 import java.time.Duration;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import org.eclipse.jface.util.Throttler;
 import org.eclipse.ui.IWorkbenchPreferenceConstants;
 import org.eclipse.ui.PlatformUI;
@@ -135,6 +138,18 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 
 			additions.removeAll(staleAdditions);
 
+			// A job is added once per run, so a job added and removed since the
+			// last update was never shown and does not need to be removed. The
+			// removal of a previous run of the job may be pending as well, which
+			// was shown. JobInfo equality delegates to the job, so only removals of
+			// the very same info are dropped.
+			Set<JobTreeElement> staleRuns = Collections.newSetFromMap(new IdentityHashMap<>());
+			for (JobTreeElement treeElement : staleAdditions) {
+				if (treeElement instanceof JobInfo) {
+					staleRuns.add(treeElement);
+				}
+			}
+
 			HashSet<JobTreeElement> obsoleteRefresh = new HashSet<>();
 			for (JobTreeElement treeElement : refreshes) {
 				if (deletions.contains(treeElement) || additions.contains(treeElement)) {
@@ -155,6 +170,7 @@ class ProgressViewUpdater implements IJobProgressManagerListener {
 			}
 
 			refreshes.removeAll(obsoleteRefresh);
+			deletions.removeIf(staleRuns::contains);
 
 			JobTreeElement[] updateItems = refreshes.toArray(new JobTreeElement[0]);
 			JobTreeElement[] additionItems = additions.toArray(new JobTreeElement[0]);
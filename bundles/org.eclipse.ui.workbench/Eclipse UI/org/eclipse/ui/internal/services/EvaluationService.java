@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2016 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -23,6 +23,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.core.expressions.Expression;
 import org.eclipse.core.expressions.ExpressionInfo;
 import org.eclipse.core.expressions.IEvaluationContext;
@@ -34,6 +35,7 @@ import org.eclipse.e4.core.contexts.ContextFunction;
 import org.eclipse.e4.core.contexts.IEclipseContext;
 import org.eclipse.e4.core.contexts.RunAndTrack;
 import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.di.UISynchronize;
 import org.eclipse.e4.ui.services.IServiceConstants;
 import org.eclipse.e4.ui.workbench.UIEvents;
 import org.eclipse.jface.util.IPropertyChangeListener;
@@ -80,11 +82,20 @@ public final class EvaluationService implements IEvaluationService {
 			}
 			// This ties tool item enablement to variable changes that can
 			// effect the enablement.
-			getEventBroker().send(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC, UIEvents.ALL_ELEMENT_ID);
+			requestEnablementUpdate();
 			return true;
 		}
 	};
 
+	/**
+	 * Set while an update of the tool item enablement is scheduled. All variable
+	 * changes until it runs, e.g. of the active part, editor and selection when
+	 * switching parts, are covered by a single update of all tool items.
+	 */
+	private final AtomicBoolean enablementUpdatePending = new AtomicBoolean();
+	private boolean disposed;
+	private UISynchronize uiSync;
+
 	private HashSet<String> variableFilter = new HashSet<>();
 	private IEventBroker eventBroker;
 
@@ -188,6 +199,7 @@ public final class EvaluationService implements IEvaluationService {
 
 	@Override
 	public void dispose() {
+		disposed = true;
 		for (EvaluationReference ref : refs) {
 			invalidate(ref, false);
 		}
@@ -327,6 +339,40 @@ public final class EvaluationService implements IEvaluationService {
 		}
 	}
 
+	/**
+	 * Asks all tool items to update their enablement after a variable changed.
+	 * <p>
+	 * The request is not sent right away but posted with
+	 * {@link UISynchronize#asyncExec(Runnable)}, and it is sent only once for all
+	 * variable changes made until it runs. So the tool items reflect a change only
+	 * after the code making it returned to the event loop, and after the
+	 * evaluation listeners, which are still notified synchronously. Without a
+	 * {@link UISynchronize} in the context the request is sent right away.
+	 * </p>
+	 */
+	private void requestEnablementUpdate() {
+		UISynchronize sync = getUISynchronize();
+		if (sync == null) {
+			getEventBroker().send(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC, UIEvents.ALL_ELEMENT_ID);
+			return;
+		}
+		if (enablementUpdatePending.compareAndSet(false, true)) {
+			sync.asyncExec(() -> {
+				enablementUpdatePending.set(false);
+				if (!disposed) {
+					getEventBroker().send(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC, UIEvents.ALL_ELEMENT_ID);
+				}
+			});
+		}
+	}
+
+	private UISynchronize getUISynchronize() {
+		if (uiSync == null) {
+			uiSync = context.get(UISynchronize.class);
+		}
+		return uiSync;
+	}
+
 	IEventBroker getEventBroker() {
 		if (eventBroker == null) {
 			eventBroker = context.get(IEventBroker.class);
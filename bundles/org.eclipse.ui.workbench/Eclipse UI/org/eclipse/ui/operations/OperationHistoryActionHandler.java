@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2021 IBM Corporation and others.
+ * Copyright (c) 2005, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -44,6 +44,7 @@ import org.eclipse.ui.IWorkbenchPartSite;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.actions.ActionFactory;
+import org.eclipse.ui.internal.UISynchronizer;
 import org.eclipse.ui.internal.WorkbenchMessages;
 import org.eclipse.ui.internal.WorkbenchPlugin;
 import org.eclipse.ui.internal.misc.StatusUtil;
@@ -148,7 +149,8 @@ public abstract class OperationHistoryActionHandler extends Action
 			case OperationHistoryEvent.UNDONE:
 			case OperationHistoryEvent.REDONE:
 				if (event.getOperation().hasContext(undoContext)) {
-					display.asyncExec(() -> update());
+					UISynchronizer.coalescedAsyncExec(display, OperationHistoryActionHandler.this,
+							() -> update());
 				}
 				break;
 			case OperationHistoryEvent.OPERATION_NOT_OK:
@@ -174,7 +176,8 @@ public abstract class OperationHistoryActionHandler extends Action
 				break;
 			case OperationHistoryEvent.OPERATION_CHANGED:
 				if (event.getOperation() == getOperation()) {
-					display.asyncExec(() -> update());
+					UISynchronizer.coalescedAsyncExec(display, OperationHistoryActionHandler.this,
+							() -> update());
 				}
 				break;
 			}
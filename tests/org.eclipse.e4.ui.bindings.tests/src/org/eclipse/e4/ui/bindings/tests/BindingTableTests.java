@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2023 IBM Corporation and others.
+ * Copyright (c) 2013, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -190,6 +191,25 @@ public class BindingTableTests {
 		assertFalse(table.isPartialMatch(ctrl8));
 	}
 
+	@Test
+	public void testRemoveBindingUpdatesMatches() throws Exception {
+		BindingTable table = loadTable(ID_DIALOG_AND_WINDOW);
+		Binding about = getTestBinding(ABOUT_ID);
+		KeySequence ctrl5 = KeySequence.getInstance("CTRL+5");
+		KeySequence aboutSeq = KeySequence.getInstance("CTRL+5 A");
+
+		table.removeBinding(about);
+		assertNull(table.getPerfectMatch(aboutSeq));
+		assertFalse(table.isPartialMatch(ctrl5));
+		assertFalse(table.getBindings().contains(about));
+
+		table.addBinding(about);
+		assertEquals(about, table.getPerfectMatch(aboutSeq));
+		assertTrue(table.isPartialMatch(ctrl5));
+		assertEquals(List.of(about), new ArrayList<>(table.getPartialMatches(ctrl5)));
+		assertNull(table.getPerfectMatch(ctrl5));
+	}
+
 	@Test
 	public void testContextSet() {
 		BindingTableManager manager = ContextInjectionFactory.make(BindingTableManager.class, workbenchContext);
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.tests.css.core.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.net.URL;
+import java.util.List;
+
+import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
+import org.eclipse.e4.ui.css.core.impl.dom.CSSStyleSheetImpl;
+import org.eclipse.e4.ui.css.core.impl.dom.StyleSheetCompiler;
+import org.eclipse.e4.ui.css.core.impl.sac.ExtendedSelector;
+import org.eclipse.e4.ui.tests.css.core.util.ParserTestUtil;
+import org.junit.jupiter.api.Test;
+import org.w3c.css.sac.SelectorList;
+import org.w3c.dom.css.CSSPrimitiveValue;
+import org.w3c.dom.css.CSSRuleList;
+import org.w3c.dom.css.CSSStyleDeclaration;
+import org.w3c.dom.css.CSSStyleRule;
+import org.w3c.dom.css.RGBColor;
+
+public class StyleSheetCompilerTest {
+
+	private static CSSStyleSheetImpl compileAndLoad(CSSStyleSheetImpl styleSheet) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		StyleSheetCompiler.write(styleSheet, new DataOutputStream(bytes));
+		return StyleSheetCompiler.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+	}
+
+	private static void assertSameRules(CSSStyleSheetImpl expected, CSSStyleSheetImpl actual) {
+		CSSRuleList expectedRules = expected.getCssRules();
+		CSSRuleList actualRules = actual.getCssRules();
+		assertEquals(expectedRules.getLength(), actualRules.getLength());
+		for (int i = 0; i < expectedRules.getLength(); i++) {
+			CSSStyleRule expectedRule = (CSSStyleRule) expectedRules.item(i);
+			CSSStyleRule actualRule = (CSSStyleRule) actualRules.item(i);
+			assertEquals(expectedRule.getSelectorText(), actualRule.getSelectorText());
+			SelectorList expectedSelectors = ((ExtendedCSSRule) expectedRule).getSelectorList();
+			SelectorList actualSelectors = ((ExtendedCSSRule) actualRule).getSelectorList();
+			for (int j = 0; j < expectedSelectors.getLength(); j++) {
+				assertEquals(((ExtendedSelector) expectedSelectors.item(j)).getSpecificity(),
+						((ExtendedSelector) actualSelectors.item(j)).getSpecificity());
+			}
+			CSSStyleDeclaration expectedStyle = expectedRule.getStyle();
+			CSSStyleDeclaration actualStyle = actualRule.getStyle();
+			assertEquals(expectedStyle.getCssText(), actualStyle.getCssText());
+			for (int j = 0; j < expectedStyle.getLength(); j++) {
+				String name = expectedStyle.item(j);
+				assertEquals(name, actualStyle.item(j));
+				assertEquals(expectedStyle.getPropertyPriority(name), actualStyle.getPropertyPriority(name));
+			}
+		}
+	}
+
+	@Test
+	void testSelectorsAreLoaded() throws Exception {
+		String css = """
+				Shell { color: red; }
+				.MTrimmedWindow, #PerspectiveSwitcher { color: red; }
+				CTabFolder:selected CTabItem { color: red; }
+				Composite > Label.title[style~='SWT.BORDER'] { color: red; }
+				Label + Button[lang|='en'] { color: red; }
+				Button:lang(en)[swt-enabled] { color: red; }
+				""";
+		CSSStyleSheetImpl parsed = (CSSStyleSheetImpl) ParserTestUtil.parseCss(css);
+		assertSameRules(parsed, compileAndLoad(parsed));
+	}
+
+	@Test
+	void testValuesAreLoaded() throws Exception {
+		String css = """
+				Label {
+					color: #FF0220;
+					background-color: rgb(10, 20, 30) !important;
+					font: Verdana 12px italic;
+					margin: 1px 2em 3% 4;
+					swt-corner-radius: 1.5pt;
+					font-family: 'Segoe UI';
+					background-image: url(./image.png);
+					swt-selected-tabs-background: #FFFFFF #ECE9D8 100%;
+					border-visible: inherit;
+				}
+				""";
+		CSSStyleSheetImpl parsed = (CSSStyleSheetImpl) ParserTestUtil.parseCss(css);
+		CSSStyleSheetImpl loaded = compileAndLoad(parsed);
+		assertSameRules(parsed, loaded);
+
+		CSSStyleDeclaration style = ((CSSStyleRule) loaded.getCssRules().item(0)).getStyle();
+		RGBColor color = ((CSSPrimitiveValue) style.getPropertyCSSValue("color")).getRGBColorValue();
+		assertEquals(255.0f, color.getRed().getFloatValue(CSSPrimitiveValue.CSS_NUMBER));
+		assertEquals(2.0f, color.getGreen().getFloatValue(CSSPrimitiveValue.CSS_NUMBER));
+		assertEquals(32.0f, color.getBlue().getFloatValue(CSSPrimitiveValue.CSS_NUMBER));
+		assertEquals("important", style.getPropertyPriority("background-color"));
+	}
+
+	@Test
+	void testImportsAreLoaded() throws Exception {
+		CSSStyleSheetImpl parsed = (CSSStyleSheetImpl) ParserTestUtil.parseCss("Label { color: red; }");
+		List<URL> imports = List.of(new URL("file:/a.css"), new URL("jar:file:/b.jar!/b.css"));
+		parsed.setImports(imports);
+		assertEquals(imports, compileAndLoad(parsed).getImports());
+	}
+
+	@Test
+	void testUnsupportedRuleIsNotCompiled() throws Exception {
+		CSSStyleSheetImpl parsed = (CSSStyleSheetImpl) ParserTestUtil.parseCss("@unknown-rule;\nLabel { color: red; }");
+		assertThrows(NotSerializableException.class,
+				() -> StyleSheetCompiler.write(parsed, new DataOutputStream(new ByteArrayOutputStream())));
+	}
+
+	@Test
+	void testOtherVersionIsNotLoaded() {
+		byte[] otherVersion = { 0, 0, 0, 0 };
+		assertThrows(IOException.class,
+				() -> StyleSheetCompiler.read(new DataInputStream(new ByteArrayInputStream(otherVersion))));
+	}
+}
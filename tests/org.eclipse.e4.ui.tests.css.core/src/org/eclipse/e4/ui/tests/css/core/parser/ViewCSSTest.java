@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2018 EclipseSource and others.
+ * Copyright (c) 2009, 2024 EclipseSource and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -123,6 +123,38 @@ public class ViewCSSTest {
 		assertEquals("color: blue;", buttonStyle.getCssText());
 	}
 
+	@Test
+	void testGetComputedStyleByIdAndClass() throws Exception {
+		String css = """
+			Button { color: blue; }
+			.primary { font-weight: bold; }
+			Composite > .primary { color: red; }
+			#ok.primary { font-size: 12px; }
+			* { margin: 0; }
+			""";
+		ViewCSS viewCSS = createViewCss(css);
+
+		final TestElement shell = new TestElement("Shell", engine);
+		final TestElement composite = new TestElement("Composite", shell, engine);
+		final TestElement button = new TestElement("Button", composite, engine);
+
+		CSSStyleDeclaration buttonStyle = viewCSS.getComputedStyle(button, null);
+		assertEquals("margin: 0; color: blue;", buttonStyle.getCssText().replace('\n', ' ').trim());
+
+		button.setClass("default primary");
+		buttonStyle = viewCSS.getComputedStyle(button, null);
+		assertEquals("margin: 0; font-weight: bold; color: red;",
+				buttonStyle.getCssText().replace('\n', ' ').trim());
+
+		button.setId("ok");
+		buttonStyle = viewCSS.getComputedStyle(button, null);
+		assertEquals("margin: 0; font-weight: bold; color: red; font-size: 12.0px;",
+				buttonStyle.getCssText().replace('\n', ' ').trim());
+
+		CSSStyleDeclaration shellStyle = viewCSS.getComputedStyle(shell, null);
+		assertEquals("margin: 0;", shellStyle.getCssText());
+	}
+
 	@SuppressWarnings("unchecked")
 	@Test
 	void testRuleCaching() throws Exception {
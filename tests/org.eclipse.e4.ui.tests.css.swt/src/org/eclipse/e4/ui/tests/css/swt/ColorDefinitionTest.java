@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2019 IBM Corporation and others.
+ * Copyright (c) 2013, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,15 +18,20 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 
 import java.util.Hashtable;
 
 import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.eclipse.e4.ui.css.swt.engine.CSSSWTEngineImpl;
+import org.eclipse.e4.ui.css.swt.resources.ResourceByDefinitionKey;
+import org.eclipse.e4.ui.css.swt.resources.SWTResourcesRegistry;
 import org.eclipse.e4.ui.internal.css.swt.definition.IColorAndFontProvider;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Label;
@@ -121,6 +126,37 @@ public class ColorDefinitionTest extends CSSSWTTestCase {
 		shell.dispose();
 	}
 
+	@Test
+	void testChangedColorDefinitionIsAppliedWhenSkippingUnchangedProperties() {
+		// given
+		RGB[] definitionValue = { new RGB(255, 0, 0) };
+		IColorAndFontProvider provider = mock(IColorAndFontProvider.class);
+		doAnswer(invocation -> definitionValue[0]).when(provider).getColor("ACTIVE_HYPERLINK_COLOR");
+		registerColorProvider(provider);
+
+		CSSEngine engine = createEngine("Label {background-color: '#ACTIVE_HYPERLINK_COLOR'}", display);
+		((CSSSWTEngineImpl) engine).setSkipUnchangedProperties(true);
+
+		Shell shell = new Shell(display, SWT.SHELL_TRIM);
+		Label label = new Label(shell, SWT.NONE);
+		label.setText("Some label text");
+		engine.applyStyles(label, true);
+		assertEquals(new RGB(255, 0, 0), label.getBackground().getRGB());
+
+		// when the definition changes, the workbench drops the resources created
+		// from definitions and reapplies the styles
+		definitionValue[0] = new RGB(0, 255, 0);
+		((SWTResourcesRegistry) engine.getResourcesRegistry())
+				.removeResourcesByKeyTypeAndType(ResourceByDefinitionKey.class, Color.class, Font.class);
+		engine.reapply();
+
+		// then
+		assertEquals(new RGB(0, 255, 0), label.getBackground().getRGB());
+
+		engine.dispose();
+		shell.dispose();
+	}
+
 	@Test
 	void testUnset() {
 		CSSEngine engine = createEngine("Button {background-color: unset;}", display);
@@ -172,6 +208,10 @@ public class ColorDefinitionTest extends CSSSWTTestCase {
 	private void registerColorProviderWith(final String symbolicName, final RGB rgb) {
 		IColorAndFontProvider provider = mock(IColorAndFontProvider.class);
 		doReturn(rgb).when(provider).getColor(symbolicName);
+		registerColorProvider(provider);
+	}
+
+	private void registerColorProvider(IColorAndFontProvider provider) {
 		Hashtable<String, Object> properties = new Hashtable<>();
 		properties.put("service.ranking", "1000");
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2014 IBM Corporation and others.
+ * Copyright (c) 2008, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,6 +17,7 @@ package org.eclipse.e4.ui.tests.css.swt;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import org.eclipse.e4.ui.css.swt.dom.WidgetElement;
+import org.eclipse.e4.ui.css.swt.engine.CSSSWTEngineImpl;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.layout.FillLayout;
@@ -90,4 +91,27 @@ public class IdClassLabelColorTest extends CSSSWTTestCase {
 
 		assertEquals(BLUE, labelToTest.getBackground().getRGB());
 	}
+
+	// Only properties whose value changed are pushed into the widget again
+	@Test
+	void testSkipUnchangedProperties() {
+		Label labelToTest = createTestLabel(
+				"Label { background-color: #FF0000 }\n." + CSS_CLASS_NAME + "2 { background-color: #00FF00 }");
+		((CSSSWTEngineImpl) engine).setSkipUnchangedProperties(true);
+		engine.applyStyles(labelToTest, false);
+		assertEquals(RED, labelToTest.getBackground().getRGB());
+
+		// The value has not changed, so it is not pushed into the widget again
+		labelToTest.setBackground(display.getSystemColor(SWT.COLOR_BLUE));
+		engine.applyStyles(labelToTest, false);
+		assertEquals(BLUE, labelToTest.getBackground().getRGB());
+
+		// Reapplying the styles, as done after a theme change, applies all values
+		engine.reapply();
+		assertEquals(RED, labelToTest.getBackground().getRGB());
+
+		WidgetElement.setCSSClass(labelToTest, CSS_CLASS_NAME + "2");
+		engine.applyStyles(labelToTest, false);
+		assertEquals(GREEN, labelToTest.getBackground().getRGB());
+	}
 }
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.tests.css.swt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.eclipse.e4.ui.css.core.impl.dom.CSSStyleSheetImpl;
+import org.eclipse.e4.ui.css.swt.engine.CSSSWTEngineImpl;
+import org.eclipse.e4.ui.css.swt.internal.theme.ThemeEngine;
+import org.eclipse.e4.ui.css.swt.theme.ITheme;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.stylesheets.StyleSheet;
+import org.w3c.dom.stylesheets.StyleSheetList;
+
+/**
+ * Tests that the theme engine reuses the style sheets an engine has parsed, in
+ * the same session or compiled in a previous one, only as long as neither they
+ * nor their imports change.
+ */
+public class ThemeStyleSheetReuseTest extends CSSSWTTestCase {
+
+	@TempDir
+	Path folder;
+
+	private ThemeEngine themeEngine;
+
+	private ITheme theme;
+
+	private Path imported;
+
+	private Path main;
+
+	@Override
+	@BeforeEach
+	public void setUp() {
+		super.setUp();
+		themeEngine = new ThemeEngine(display);
+	}
+
+	private void registerTheme() throws IOException {
+		imported = folder.resolve("imported.css");
+		Files.writeString(imported, "Label { background-color: #FF0000 }");
+		main = folder.resolve("main.css");
+		Files.writeString(main, "@import url(\"imported.css\");\nShell { background-color: #0000FF }");
+		theme = registerTheme(themeEngine);
+	}
+
+	private ITheme registerTheme(ThemeEngine engine) {
+		return engine.registerTheme("org.eclipse.e4.ui.tests.css.swt.reuse", "Reuse", main.toUri().toString());
+	}
+
+	private CSSEngine addEngine() {
+		return addEngine(themeEngine);
+	}
+
+	private CSSEngine addEngine(ThemeEngine engine) {
+		CSSEngine cssEngine = new CSSSWTEngineImpl(display);
+		engine.addCSSEngine(cssEngine);
+		return cssEngine;
+	}
+
+	/**
+	 * Starts a new session, in which the theme engine is created anew, and returns
+	 * the CSS engine styled with the theme.
+	 */
+	private CSSEngine startNextSession() {
+		ThemeEngine nextThemeEngine = new ThemeEngine(display);
+		ITheme nextTheme = registerTheme(nextThemeEngine);
+		CSSEngine cssEngine = addEngine(nextThemeEngine);
+		nextThemeEngine.setTheme(nextTheme, false);
+		return cssEngine;
+	}
+
+	private static StyleSheet getThemeStyleSheet(CSSEngine cssEngine) {
+		StyleSheetList styleSheets = cssEngine.getDocumentCSS().getStyleSheets();
+		for (int i = 0; i < styleSheets.getLength(); i++) {
+			if (styleSheets.item(i) instanceof CSSStyleSheetImpl styleSheet) {
+				for (URL url : styleSheet.getImports()) {
+					if (url.getPath().endsWith("/imported.css")) {
+						return styleSheet;
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	private Label createLabel(CSSEngine cssEngine) {
+		Shell shell = new Shell(display, SWT.SHELL_TRIM);
+		Label label = new Label(shell, SWT.NONE);
+		cssEngine.applyStyles(shell, true);
+		return label;
+	}
+
+	@Test
+	void testStyleSheetIsReusedUntilAnImportChanges() throws IOException {
+		registerTheme();
+		CSSEngine cssEngine = addEngine();
+		themeEngine.setTheme(theme, false);
+		StyleSheet parsed = getThemeStyleSheet(cssEngine);
+		assertNotNull(parsed);
+		assertEquals(RED, createLabel(cssEngine).getBackground().getRGB());
+
+		themeEngine.setTheme(theme, false, true);
+		assertSame(parsed, getThemeStyleSheet(cssEngine));
+
+		Files.writeString(imported, "Label { background-color: #00FF00 }");
+		imported.toFile().setLastModified(imported.toFile().lastModified() + 2000);
+		themeEngine.setTheme(theme, false, true);
+		assertNotSame(parsed, getThemeStyleSheet(cssEngine));
+		assertEquals(GREEN, createLabel(cssEngine).getBackground().getRGB());
+	}
+
+	@Test
+	void testStyleSheetsAreNotSharedBetweenEngines() throws IOException {
+		registerTheme();
+		CSSEngine first = addEngine();
+		CSSEngine second = addEngine();
+		themeEngine.setTheme(theme, false);
+
+		StyleSheet firstStyleSheet = getThemeStyleSheet(first);
+		assertNotNull(firstStyleSheet);
+		assertNotNull(getThemeStyleSheet(second));
+		assertNotSame(firstStyleSheet, getThemeStyleSheet(second));
+	}
+
+	@Test
+	void testCompiledStyleSheetIsReadInNextSession() throws IOException {
+		registerTheme();
+		addEngine();
+		themeEngine.setTheme(theme, false);
+
+		// an edit keeping the size and the modification time goes unnoticed, so the
+		// next session shows the compiled style sheet instead of parsing it
+		long lastModified = imported.toFile().lastModified();
+		Files.writeString(imported, "Label { background-color: #00FF00 }");
+		imported.toFile().setLastModified(lastModified);
+		CSSEngine cssEngine = startNextSession();
+		assertNotNull(getThemeStyleSheet(cssEngine));
+		assertEquals(RED, createLabel(cssEngine).getBackground().getRGB());
+
+		imported.toFile().setLastModified(lastModified + 2000);
+		cssEngine = startNextSession();
+		assertEquals(GREEN, createLabel(cssEngine).getBackground().getRGB());
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 IBM Corporation and others.
+ * Copyright (c) 2017, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,17 +16,29 @@ package org.eclipse.e4.ui.tests.application;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.stream.Collectors;
 import org.eclipse.e4.ui.internal.workbench.E4XMIResource;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.MApplicationFactory;
+import org.eclipse.e4.ui.model.application.ui.advanced.MAdvancedFactory;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
 import org.eclipse.e4.ui.model.application.ui.basic.MBasicFactory;
+import org.eclipse.e4.ui.model.application.ui.basic.MPart;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartSashContainer;
+import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
 import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
+import org.eclipse.e4.ui.workbench.IWorkbench;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.junit.Test;
 
 public class E4ResourceTest {
@@ -58,6 +70,78 @@ public class E4ResourceTest {
 		assertThatMapsAreEquals(r.getIDToEObjectMap(), r.getEObjectToIDMap());
 	}
 
+	@Test
+	public void testBinaryRoundTrip() throws IOException {
+		E4XMIResource r = new E4XMIResource();
+		r.setBinary(true);
+		MApplication a = MApplicationFactory.INSTANCE.createApplication();
+		MTrimmedWindow w = MBasicFactory.INSTANCE.createTrimmedWindow();
+		MPartStack stack = MBasicFactory.INSTANCE.createPartStack();
+		MPart part = MBasicFactory.INSTANCE.createPart();
+		part.setElementId("part");
+		part.getTags().add("tag");
+		part.getPersistedState().put("key", "value");
+		stack.getChildren().add(part);
+		stack.setSelectedElement(part);
+		w.getChildren().add(stack);
+		a.getChildren().add(w);
+		r.getContents().add((EObject) a);
+		String partId = r.getID((EObject) part);
+
+		E4XMIResource loaded = saveAndLoad(r, Map.of());
+
+		assertTrue(EcoreUtil.equals(r.getContents(), loaded.getContents()));
+		MApplication loadedApp = (MApplication) loaded.getContents().get(0);
+		MPartStack loadedStack = (MPartStack) loadedApp.getChildren().get(0).getChildren().get(0);
+		assertSame(loadedStack.getChildren().get(0), loadedStack.getSelectedElement());
+		assertEquals(partId, loaded.getID((EObject) loadedStack.getChildren().get(0)));
+		assertEquals(r.getID((EObject) a), loaded.getID((EObject) loadedApp));
+	}
+
+	@Test
+	public void testBinarySaveFiltersNonPersistedElements() throws IOException {
+		E4XMIResource r = new E4XMIResource();
+		r.setBinary(true);
+		MApplication a = MApplicationFactory.INSTANCE.createApplication();
+		MTrimmedWindow w = MBasicFactory.INSTANCE.createTrimmedWindow();
+		MPartStack stack = MBasicFactory.INSTANCE.createPartStack();
+		MPart part = MBasicFactory.INSTANCE.createPart();
+		MPart transientPart = MBasicFactory.INSTANCE.createPart();
+		transientPart.getPersistedState().put(IWorkbench.PERSIST_STATE, Boolean.FALSE.toString());
+		stack.getChildren().add(part);
+		stack.getChildren().add(transientPart);
+		stack.setSelectedElement(transientPart);
+		MPlaceholder placeholder = MAdvancedFactory.INSTANCE.createPlaceholder();
+		placeholder.setRef(transientPart);
+		MPartSashContainer sash = MBasicFactory.INSTANCE.createPartSashContainer();
+		sash.getChildren().add(stack);
+		sash.getChildren().add(placeholder);
+		w.getChildren().add(sash);
+		a.getChildren().add(w);
+		r.getContents().add((EObject) a);
+
+		E4XMIResource loaded = saveAndLoad(r, Map.of(E4XMIResource.OPTION_FILTER_PERSIST_STATE, Boolean.TRUE));
+
+		MPartSashContainer loadedSash = (MPartSashContainer) ((MApplication) loaded.getContents().get(0))
+				.getChildren().get(0).getChildren().get(0);
+		MPartStack loadedStack = (MPartStack) loadedSash.getChildren().get(0);
+		assertEquals(1, loadedStack.getChildren().size());
+		assertNull(loadedStack.getSelectedElement());
+		assertNull(((MPlaceholder) loadedSash.getChildren().get(1)).getRef());
+		// the saved model itself is left untouched
+		assertEquals(2, stack.getChildren().size());
+		assertSame(transientPart, stack.getSelectedElement());
+	}
+
+	private E4XMIResource saveAndLoad(E4XMIResource r, Map<String, Object> options) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		r.save(out, options);
+		E4XMIResource loaded = new E4XMIResource();
+		loaded.setBinary(true);
+		loaded.load(new ByteArrayInputStream(out.toByteArray()), null);
+		return loaded;
+	}
+
 	private void assertThatMapsAreEquals(Map<String, EObject> idToObject, Map<EObject, String> objectToId) {
 		assertEquals(idToObject.size(), objectToId.size());
 		Map<String, EObject> checkMap = objectToId.entrySet().stream()
@@ -35,6 +35,7 @@ import org.eclipse.e4.ui.model.application.ui.menu.MMenu;
 import org.eclipse.e4.ui.model.application.ui.menu.MMenuFactory;
 import org.eclipse.e4.ui.tests.model.test.MTestFactory;
 import org.eclipse.e4.ui.tests.model.test.MTestHarness;
+import org.eclipse.e4.ui.workbench.UIEvents;
 import org.eclipse.e4.ui.workbench.UIEvents.ApplicationElement;
 import org.eclipse.e4.ui.workbench.UIEvents.Command;
 import org.eclipse.e4.ui.workbench.UIEvents.Context;
@@ -42,12 +43,14 @@ import org.eclipse.e4.ui.workbench.UIEvents.Contribution;
 import org.eclipse.e4.ui.workbench.UIEvents.Dirtyable;
 import org.eclipse.e4.ui.workbench.UIEvents.ElementContainer;
 import org.eclipse.e4.ui.workbench.UIEvents.EventTags;
+import org.eclipse.e4.ui.workbench.UIEvents.EventTypes;
 import org.eclipse.e4.ui.workbench.UIEvents.Parameter;
 import org.eclipse.e4.ui.workbench.UIEvents.UIElement;
 import org.eclipse.e4.ui.workbench.UIEvents.UILabel;
 import org.eclipse.e4.ui.workbench.UIEvents.Window;
 import org.eclipse.emf.common.notify.Notifier;
 import org.junit.Test;
+import org.osgi.service.event.Event;
 import org.osgi.service.event.EventHandler;
 
 public class UIEventsTest extends HeadlessApplicationElementTest {
@@ -314,6 +317,117 @@ public class UIEventsTest extends HeadlessApplicationElementTest {
 		checkForFailures(allTesters, windowTester);
 	}
 
+	/**
+	 * Adds a publisher to the given element, which records the topics it sends
+	 * events on.
+	 */
+	private void addRecordingPublisher(MApplicationElement element, List<String> sentTopics) {
+		IEventBroker eventBroker = rule.getApplicationContext().get(IEventBroker.class);
+		IEclipseContext publisherContext = EclipseContextFactory.create();
+		publisherContext.set(IEventBroker.class, new IEventBroker() {
+			@Override
+			public boolean send(String topic, Object data) {
+				sentTopics.add(topic);
+				return eventBroker.send(topic, data);
+			}
+
+			@Override
+			public boolean post(String topic, Object data) {
+				sentTopics.add(topic);
+				return eventBroker.post(topic, data);
+			}
+
+			@Override
+			public boolean subscribe(String topic, EventHandler eventHandler) {
+				return eventBroker.subscribe(topic, eventHandler);
+			}
+
+			@Override
+			public boolean subscribe(String topic, String filter, EventHandler eventHandler, boolean headless) {
+				return eventBroker.subscribe(topic, filter, eventHandler, headless);
+			}
+
+			@Override
+			public boolean unsubscribe(EventHandler eventHandler) {
+				return eventBroker.unsubscribe(eventHandler);
+			}
+		});
+		((Notifier) element).eAdapters().add(new UIEventPublisher(publisherContext));
+	}
+
+	@Test
+	public void testEventOnExactTopicIsSent() {
+		IEventBroker eventBroker = rule.getApplicationContext().get(IEventBroker.class);
+		MTestHarness allData = MTestFactory.eINSTANCE.createTestHarness();
+		List<String> sentTopics = new ArrayList<>();
+		addRecordingPublisher(allData, sentTopics);
+		String topic = Parameter.TOPIC_NAME.replace(UIEvents.ALL_SUB_TOPICS, EventTypes.SET);
+
+		List<Event> events = new ArrayList<>();
+		EventHandler handler = events::add;
+		eventBroker.subscribe(topic, handler);
+		try {
+			allData.setName("name");
+			assertEquals(List.of(topic), sentTopics);
+			assertEquals(1, events.size());
+			assertEquals("name", events.get(0).getProperty(EventTags.NEW_VALUE));
+		} finally {
+			eventBroker.unsubscribe(handler);
+		}
+	}
+
+	@Test
+	public void testEventOnWildcardTopicIsSent() {
+		IEventBroker eventBroker = rule.getApplicationContext().get(IEventBroker.class);
+		MTestHarness allData = MTestFactory.eINSTANCE.createTestHarness();
+		List<String> sentTopics = new ArrayList<>();
+		addRecordingPublisher(allData, sentTopics);
+
+		List<Event> events = new ArrayList<>();
+		EventHandler handler = events::add;
+		eventBroker.subscribe(Parameter.TOPIC_ALL, handler);
+		try {
+			allData.setName("name");
+			allData.setValue("value");
+			assertEquals(2, sentTopics.size());
+			assertEquals(2, events.size());
+			assertEquals(Parameter.NAME, events.get(0).getProperty(EventTags.ATTNAME));
+			assertEquals(Parameter.VALUE, events.get(1).getProperty(EventTags.ATTNAME));
+		} finally {
+			eventBroker.unsubscribe(handler);
+		}
+	}
+
+	@Test
+	public void testEventOnUnsubscribedTopicIsDropped() {
+		IEventBroker eventBroker = rule.getApplicationContext().get(IEventBroker.class);
+		MTestHarness allData = MTestFactory.eINSTANCE.createTestHarness();
+		List<String> sentTopics = new ArrayList<>();
+		addRecordingPublisher(allData, sentTopics);
+
+		List<Event> events = new ArrayList<>();
+		EventHandler handler = events::add;
+		eventBroker.subscribe(Parameter.TOPIC_NAME, handler);
+		try {
+			allData.setName("first");
+			assertEquals(1, sentTopics.size());
+			assertEquals(1, events.size());
+
+			eventBroker.unsubscribe(handler);
+			allData.setName("second");
+			assertEquals("event sent without handler", 1, sentTopics.size());
+			assertEquals(1, events.size());
+
+			eventBroker.subscribe(Parameter.TOPIC_NAME, handler);
+			allData.setName("third");
+			assertEquals(2, sentTopics.size());
+			assertEquals(2, events.size());
+			assertEquals("third", events.get(1).getProperty(EventTags.NEW_VALUE));
+		} finally {
+			eventBroker.unsubscribe(handler);
+		}
+	}
+
 	// Verify bug 374534
 	@Test
 	public void testBrokerCleanup() {
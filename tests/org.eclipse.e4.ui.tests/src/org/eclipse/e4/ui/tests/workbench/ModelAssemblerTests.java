@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2016, 2021 EclipseSource Muenchen GmbH and others.
+ * Copyright (c) 2016, 2024 EclipseSource Muenchen GmbH and others.
  *
  *
  * This program and the accompanying materials
@@ -17,6 +17,10 @@
 package org.eclipse.e4.ui.tests.workbench;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import jakarta.annotation.PostConstruct;
@@ -76,6 +80,8 @@ public class ModelAssemblerTests {
 	private static final String EXTENSION_POINT_ID = "org.eclipse.e4.workbench.model";
 	private static final String BUNDLE_SYMBOLIC_NAME = "org.eclipse.e4.ui.tests";
 	private static final String APPLICATION_ID = "org.eclipse.e4.ui.tests.modelassembler.app";
+	private static final String CACHE_FRAGMENTS_PROPERTY = "org.eclipse.e4.ui.workbench.cacheModelFragments";
+	private static final String FRAGMENTS_DIGEST = "org.eclipse.e4.ui.workbench.modelFragmentsDigest";
 	private IEclipseContext appContext;
 	private MApplication application;
 	private E4XMIResourceFactory factory;
@@ -386,6 +392,93 @@ public class ModelAssemblerTests {
 		assertEquals(0, logMessages.size());
 	}
 
+	/**
+	 * Tests that the fragments of several contributions, which are loaded in
+	 * parallel, are all merged.
+	 */
+	@Test
+	public void testFragments_parallelLoading() throws Exception {
+		contributeFragments("org.eclipse.e4.ui.tests/data/ModelAssembler/parallelFragments.xml");
+
+		assembler.processModel(true);
+
+		assertNotNull(modelService.find("parallelFragment1-window", application));
+		assertNotNull(modelService.find("parallelFragment2-window", application));
+		assertNull(application.getPersistedState().get(FRAGMENTS_DIGEST));
+		assertEquals(0, logMessages.size());
+	}
+
+	/**
+	 * Tests that a fragment which can't be loaded is reported and does not keep
+	 * the fragments loaded along with it from being merged.
+	 */
+	@Test
+	public void testFragments_parallelLoadingMissingFragment() throws Exception {
+		contributeFragments("org.eclipse.e4.ui.tests/data/ModelAssembler/missingFragment.xml");
+
+		assembler.processModel(true);
+
+		assertNotNull(modelService.find("parallelFragment1-window", application));
+		assertEquals(1, logMessages.size());
+		assertTrue(logMessages.poll().startsWith("Unable to read model extension"));
+	}
+
+	/**
+	 * Tests that with the fragment cache enabled, unchanged fragments are not
+	 * merged again into a persisted model which already contains their elements.
+	 */
+	@Test
+	public void testFragments_cacheSkipsUnchangedFragments() throws Exception {
+		System.setProperty(CACHE_FRAGMENTS_PROPERTY, Boolean.TRUE.toString());
+		try {
+			contributeFragments("org.eclipse.e4.ui.tests/data/ModelAssembler/parallelFragments.xml");
+			assembler.processModel(false);
+			String digest = application.getPersistedState().get(FRAGMENTS_DIGEST);
+			assertNotNull(digest);
+			MUIElement window = modelService.find("parallelFragment1-window", application);
+			assertNotNull(window);
+			int children = application.getChildren().size();
+
+			unloadFragments();
+			assembler.processModel(false);
+
+			assertSame(window, modelService.find("parallelFragment1-window", application));
+			assertEquals(children, application.getChildren().size());
+			assertEquals(digest, application.getPersistedState().get(FRAGMENTS_DIGEST));
+			assertEquals(0, logMessages.size());
+		} finally {
+			System.clearProperty(CACHE_FRAGMENTS_PROPERTY);
+		}
+	}
+
+	/**
+	 * Tests that with the fragment cache enabled, the fragments are merged again
+	 * if the contributions changed since the model was last assembled.
+	 */
+	@Test
+	public void testFragments_cacheMergesChangedFragments() throws Exception {
+		System.setProperty(CACHE_FRAGMENTS_PROPERTY, Boolean.TRUE.toString());
+		try {
+			contributeFragments("org.eclipse.e4.ui.tests/data/ModelAssembler/parallelFragments.xml");
+			assembler.processModel(false);
+			String digest = application.getPersistedState().get(FRAGMENTS_DIGEST);
+			MUIElement window = modelService.find("parallelFragment1-window", application);
+			assertNotNull(window);
+
+			application.getPersistedState().put(FRAGMENTS_DIGEST, "outdated");
+			unloadFragments();
+			assembler.processModel(false);
+
+			MUIElement merged = modelService.find("parallelFragment1-window", application);
+			assertNotNull(merged);
+			assertNotSame(window, merged);
+			assertEquals(digest, application.getPersistedState().get(FRAGMENTS_DIGEST));
+			assertEquals(0, logMessages.size());
+		} finally {
+			System.clearProperty(CACHE_FRAGMENTS_PROPERTY);
+		}
+	}
+
 	/**
 	 * Tests that pre-processors running from a non-persisted state that are
 	 * marked as "always" are executed.
@@ -556,6 +649,21 @@ public class ModelAssemblerTests {
 		assembler.runProcessors(extensions, initial, afterFragments);
 	}
 
+	private void contributeFragments(String filePath) throws Exception {
+		IContributor contributor = ContributorFactorySimple.createContributor(BUNDLE_SYMBOLIC_NAME);
+		IExtensionRegistry registry = createTestExtensionRegistry();
+		assembler.setExtensionRegistry(registry);
+		registry.addContribution(getContentsAsInputStream(filePath), contributor, false, null, null, null);
+	}
+
+	/**
+	 * Removes the fragment resources from the resource set, as on a restart from
+	 * the persisted model.
+	 */
+	private void unloadFragments() {
+		resourceSet.getResources().removeIf(resource -> resource != appResource);
+	}
+
 	private IExtensionRegistry createTestExtensionRegistry() {
 		IExtensionRegistry defaultRegistry = RegistryFactory.getRegistry();
 		IExtensionPoint extensionPoint = defaultRegistry.getExtensionPoint(EXTENSION_POINT_ID);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019, 2022 KGU-Consulting GmbH and others.
+ * Copyright (c) 2019, 2024 KGU-Consulting GmbH and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,8 @@
 
 package org.eclipse.e4.ui.tests.workbench;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
@@ -25,6 +27,8 @@ import org.eclipse.e4.ui.internal.workbench.PartStackUtil;
 import org.eclipse.e4.ui.model.application.MApplication;
 import org.eclipse.e4.ui.model.application.ui.advanced.MArea;
 import org.eclipse.e4.ui.model.application.ui.advanced.MPerspective;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPerspectiveStack;
+import org.eclipse.e4.ui.model.application.ui.advanced.MPlaceholder;
 import org.eclipse.e4.ui.model.application.ui.basic.MPart;
 import org.eclipse.e4.ui.model.application.ui.basic.MPartStack;
 import org.eclipse.e4.ui.model.application.ui.basic.MTrimmedWindow;
@@ -86,6 +90,60 @@ public class ModelServiceImplTest {
 		return app;
 	}
 
+	@Test
+	public void testFindElementsFollowsModelChanges() {
+		MApplication app = createAppWithEditorInSharedElements();
+		MTrimmedWindow window = (MTrimmedWindow) app.getChildren().get(0);
+		assertEquals(List.of(editor), findInSharedElements(app, DUMMY_EDITOR_ID, null));
+
+		editor.setElementId("renamedEditor");
+		assertTrue(findInSharedElements(app, DUMMY_EDITOR_ID, null).isEmpty());
+		assertEquals(List.of(editor), findInSharedElements(app, "renamedEditor", null));
+
+		editor.getTags().add("Pinned");
+		assertEquals(List.of(editor), findInSharedElements(app, null, List.of("Editor", "Pinned")));
+		editor.getTags().remove("Pinned");
+		assertTrue(findInSharedElements(app, null, List.of("Pinned")).isEmpty());
+
+		MPartStack otherStack = modelService.createModelElement(MPartStack.class);
+		window.getSharedElements().add(otherStack);
+		otherStack.getChildren().add(editor);
+		assertEquals(List.of(editor), findInSharedElements(app, "renamedEditor", null));
+
+		otherStack.getChildren().remove(editor);
+		assertTrue(findInSharedElements(app, "renamedEditor", null).isEmpty());
+	}
+
+	private List<MPart> findInSharedElements(MApplication app, String id, List<String> tags) {
+		return modelService.findElements(app, id, MPart.class, tags, EModelService.IN_SHARED_ELEMENTS);
+	}
+
+	@Test
+	public void testFindElementsThroughPlaceholder() {
+		MApplication app = createAppWithEditorInSharedElements();
+		MTrimmedWindow window = (MTrimmedWindow) app.getChildren().get(0);
+		MPerspectiveStack perspectiveStack = modelService.createModelElement(MPerspectiveStack.class);
+		MPerspective perspective = modelService.createModelElement(MPerspective.class);
+		MPlaceholder placeholder = modelService.createModelElement(MPlaceholder.class);
+		placeholder.setRef(window.getSharedElements().get(0));
+		perspective.getChildren().add(placeholder);
+		perspectiveStack.getChildren().add(perspective);
+		perspectiveStack.setSelectedElement(perspective);
+		window.getChildren().add(perspectiveStack);
+
+		assertSame(editor, modelService.find(DUMMY_EDITOR_ID, app));
+		assertTrue(modelService.findElements(app, DUMMY_EDITOR_ID, MPart.class, null,
+				EModelService.IN_ANY_PERSPECTIVE).isEmpty());
+
+		// elements outside of the application are found through placeholders too
+		MPart detachedPart = modelService.createModelElement(MPart.class);
+		detachedPart.setElementId("detachedPart");
+		MPlaceholder detachedPlaceholder = modelService.createModelElement(MPlaceholder.class);
+		detachedPlaceholder.setRef(detachedPart);
+		perspective.getChildren().add(detachedPlaceholder);
+		assertEquals(List.of(detachedPart), modelService.findElements(app, "detachedPart", MPart.class));
+	}
+
 	@Test
 	public void testRemovePerspectiveModelWhenPerspectiveHasNoParent() {
 		// given
@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.images;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.jface.internal.ImageDataCache;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link ImageDataCache}.
+ */
+public class ImageDataCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private String createImage(String name, int size) throws IOException {
+		PaletteData palette = new PaletteData(new RGB(0, 0, 0), new RGB(255, 0, 0));
+		ImageData data = new ImageData(size, size, 1, palette);
+		data.setPixel(0, 0, 1);
+		ImageLoader loader = new ImageLoader();
+		loader.data = new ImageData[] { data };
+		File file = folder.newFile(name);
+		loader.save(file.getAbsolutePath(), SWT.IMAGE_PNG);
+		return file.getAbsolutePath();
+	}
+
+	private static List<Path> listCacheFiles(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> file.getFileName().toString().endsWith(".img"))
+					.collect(Collectors.toList());
+		}
+	}
+
+	private static List<Path> waitForCacheFiles(Path directory, int count) throws Exception {
+		long end = System.currentTimeMillis() + 10000;
+		List<Path> files;
+		while ((files = listCacheFiles(directory)).size() < count && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+		return files;
+	}
+
+	@Test
+	public void testCallersGetCopies() throws Exception {
+		ImageDataCache cache = new ImageDataCache(null, 1024 * 1024, 0);
+		String path = createImage("image.png", 16);
+
+		ImageData first = cache.getImageData(path);
+		assertEquals(1, first.getPixel(0, 0));
+		first.setPixel(0, 0, 0);
+		first.palette.colors[1].green = 255;
+
+		ImageData second = cache.getImageData(path);
+		assertNotSame(first, second);
+		assertEquals(1, second.getPixel(0, 0));
+		assertEquals(new RGB(255, 0, 0), second.palette.colors[1]);
+	}
+
+	@Test
+	public void testMissingFile() throws Exception {
+		ImageDataCache cache = new ImageDataCache(null, 1024 * 1024, 0);
+		assertNull(cache.getImageData(new File(folder.getRoot(), "missing.png").getAbsolutePath()));
+	}
+
+	@Test
+	public void testMemoryIsBoundedByBytes() throws Exception {
+		ImageDataCache cache = new ImageDataCache(null, 1024, 0);
+		// 64x64 with a depth of 1 takes 512 bytes
+		for (int i = 0; i < 5; i++) {
+			cache.getImageData(createImage("image" + i + ".png", 64));
+			assertTrue(cache.getMemoryBytes() <= 1024);
+		}
+		assertEquals(1024, cache.getMemoryBytes());
+	}
+
+	@Test
+	public void testChangedImageIsDecodedAgain() throws Exception {
+		Path directory = folder.newFolder("cache").toPath();
+		ImageDataCache cache = new ImageDataCache(directory, 1024 * 1024, 1024 * 1024);
+		String path = createImage("image.png", 16);
+		assertEquals(16, cache.getImageData(path).width);
+
+		ImageData data = new ImageData(32, 32, 1, new PaletteData(new RGB(0, 0, 0), new RGB(255, 0, 0)));
+		ImageLoader loader = new ImageLoader();
+		loader.data = new ImageData[] { data };
+		loader.save(path, SWT.IMAGE_PNG);
+		new File(path).setLastModified(System.currentTimeMillis() + 2000);
+
+		assertEquals(32, cache.getImageData(path).width);
+		assertEquals(32, new ImageDataCache(directory, 1024 * 1024, 1024 * 1024).getImageData(path).width);
+	}
+
+	@Test
+	public void testPersistedEntriesAreReadOnDemand() throws Exception {
+		Path directory = folder.newFolder("cache").toPath();
+		String path = createImage("image.png", 16);
+		new ImageDataCache(directory, 1024 * 1024, 1024 * 1024).getImageData(path);
+		List<Path> cacheFiles = waitForCacheFiles(directory, 1);
+		assertEquals(1, cacheFiles.size());
+		Path cacheFile = cacheFiles.get(0);
+		FileTime old = FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1));
+		Files.setLastModifiedTime(cacheFile, old);
+
+		ImageDataCache cache = new ImageDataCache(directory, 1024 * 1024, 1024 * 1024);
+		assertEquals(old, Files.getLastModifiedTime(cacheFile));
+		ImageData data = cache.getImageData(path);
+		assertEquals(16, data.width);
+		assertEquals(1, data.getPixel(0, 0));
+		// Reading the entry marks it as used
+		assertTrue(Files.getLastModifiedTime(cacheFile).compareTo(old) > 0);
+	}
+
+	@Test
+	public void testPrewarmReadsPersistedEntries() throws Exception {
+		Path directory = folder.newFolder("cache").toPath();
+		String path = createImage("image.png", 16);
+		String changedPath = createImage("changed.png", 16);
+		ImageDataCache reference = new ImageDataCache(directory, 1024 * 1024, 1024 * 1024);
+		reference.getImageData(path);
+		long memoryBytes = reference.getMemoryBytes();
+		reference.getImageData(changedPath);
+		List<Path> cacheFiles = waitForCacheFiles(directory, 2);
+		assertEquals(2, cacheFiles.size());
+		FileTime old = FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1));
+		for (Path cacheFile : cacheFiles) {
+			Files.setLastModifiedTime(cacheFile, old);
+		}
+		new File(changedPath).setLastModified(System.currentTimeMillis() + 2000);
+
+		ImageDataCache cache = new ImageDataCache(directory, 1024 * 1024, 1024 * 1024);
+		cache.prewarm();
+		// The entry of the changed image is not read
+		assertEquals(memoryBytes, cache.getMemoryBytes());
+		// Pre-warming alone does not mark the entries as used
+		for (Path cacheFile : cacheFiles) {
+			assertEquals(old, Files.getLastModifiedTime(cacheFile));
+		}
+
+		ImageData data = cache.getImageData(path);
+		assertEquals(16, data.width);
+		assertEquals(1, data.getPixel(0, 0));
+		assertTrue(listCacheFiles(directory).stream().anyMatch(file -> {
+			try {
+				return Files.getLastModifiedTime(file).compareTo(old) > 0;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}));
+	}
+
+	@Test
+	public void testPruneDirectory() throws Exception {
+		Path directory = folder.newFolder("cache").toPath();
+		long now = System.currentTimeMillis();
+		Path stale = directory.resolve("stale.img");
+		Files.write(stale, new byte[10]);
+		Files.setLastModifiedTime(stale,
+				FileTime.fromMillis(now - TimeUnit.DAYS.toMillis(ImageDataCache.MAX_DISK_AGE_DAYS + 1)));
+		Path leftOverTemp = directory.resolve("entry.tmp");
+		Files.write(leftOverTemp, new byte[10]);
+		Files.setLastModifiedTime(leftOverTemp, FileTime.fromMillis(now - TimeUnit.DAYS.toMillis(1)));
+		for (int i = 0; i < 4; i++) {
+			Path file = directory.resolve(i + ".img");
+			Files.write(file, new byte[100]);
+			Files.setLastModifiedTime(file, FileTime.fromMillis(now - TimeUnit.MINUTES.toMillis(10 - i)));
+		}
+
+		new ImageDataCache(directory, 1024 * 1024, 250).pruneDirectory();
+
+		assertFalse(Files.exists(stale));
+		assertFalse(Files.exists(leftOverTemp));
+		// The least recently used entries are deleted until the limit is met
+		assertFalse(Files.exists(directory.resolve("0.img")));
+		assertFalse(Files.exists(directory.resolve("1.img")));
+		assertTrue(Files.exists(directory.resolve("2.img")));
+		assertTrue(Files.exists(directory.resolve("3.img")));
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2016 IBM Corporation and others.
+ * Copyright (c) 2004, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,13 +14,19 @@
  *******************************************************************************/
 package org.eclipse.jface.tests.images;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.jface.dialogs.Dialog;
@@ -78,7 +84,7 @@ public class LazyResourceManagerTest {
 		}
 
 		@Override
-		public AtomicReference<DeviceResourceDescriptor> create(DeviceResourceDescriptor descriptor) {
+		public synchronized AtomicReference<DeviceResourceDescriptor> create(DeviceResourceDescriptor descriptor) {
 			AtomicReference<DeviceResourceDescriptor> newInstance = new AtomicReference<>(descriptor);
 			AtomicReference<DeviceResourceDescriptor> previous = objects.putIfAbsent(descriptor, newInstance);
 			refCount.compute(descriptor, (k, refs) -> Integer.valueOf((refs == null ? 0 : refs.intValue()) + 1));
@@ -86,7 +92,7 @@ public class LazyResourceManagerTest {
 		}
 
 		@Override
-		public void destroy(DeviceResourceDescriptor descriptor) {
+		public synchronized void destroy(DeviceResourceDescriptor descriptor) {
 			if (!refCount.containsKey(descriptor)) {
 				throw new RuntimeException("not created");
 			}
@@ -105,7 +111,7 @@ public class LazyResourceManagerTest {
 		}
 
 		@Override
-		public AtomicReference<DeviceResourceDescriptor> find(DeviceResourceDescriptor descriptor) {
+		public synchronized AtomicReference<DeviceResourceDescriptor> find(DeviceResourceDescriptor descriptor) {
 			return objects.get(descriptor);
 		}
 
@@ -367,6 +373,79 @@ public class LazyResourceManagerTest {
 		assertCached(expected2, mgr, tst, descriptor2); // 2 still cached, because recently used
 	}
 
+	@Test
+	public void testLazyResourceManagerStatistics() {
+		TestResourceManager tst = new TestResourceManager();
+		LazyResourceManager mgr = new LazyResourceManager(1, tst);
+		DeviceResourceDescriptor descriptor1 = new CachableTestDescriptor();
+		DeviceResourceDescriptor descriptor2 = new CachableTestDescriptor();
+
+		mgr.create(descriptor1); // miss
+		mgr.create(descriptor1); // hit, still referenced
+		mgr.destroy(descriptor1);
+		mgr.destroy(descriptor1);
+		mgr.create(descriptor1); // hit, revived from cache
+		mgr.destroy(descriptor1);
+		assertEquals(2, mgr.getHitCount());
+		assertEquals(1, mgr.getMissCount());
+		assertEquals(0, mgr.getEvictionCount());
+
+		mgr.create(descriptor2); // miss
+		mgr.destroy(descriptor2); // evicts descriptor1
+		assertEquals(2, mgr.getHitCount());
+		assertEquals(2, mgr.getMissCount());
+		assertEquals(1, mgr.getEvictionCount());
+	}
+
+	@Test
+	public void testConcurrentCreateDestroy() throws Exception {
+		int cacheSize = 8;
+		TestResourceManager tst = new TestResourceManager();
+		LazyResourceManager mgr = new LazyResourceManager(cacheSize, tst);
+		DeviceResourceDescriptor[] descriptors = new DeviceResourceDescriptor[64];
+		for (int i = 0; i < descriptors.length; i++) {
+			descriptors[i] = new CachableTestDescriptor();
+		}
+		int threadCount = 8;
+		int iterations = 20000;
+		List<Thread> threads = new ArrayList<>();
+		List<Throwable> errors = new ArrayList<>();
+		for (int t = 0; t < threadCount; t++) {
+			Thread thread = new Thread(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int i = 0; i < iterations; i++) {
+					DeviceResourceDescriptor descriptor = descriptors[random.nextInt(descriptors.length)];
+					Object created = mgr.create(descriptor);
+					if (created == null || created != mgr.find(descriptor)) {
+						throw new AssertionError("resource not alive while referenced");
+					}
+					mgr.destroy(descriptor);
+				}
+			});
+			thread.setUncaughtExceptionHandler((th, e) -> {
+				synchronized (errors) {
+					errors.add(e);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertTrue(errors.toString(), errors.isEmpty());
+		assertEquals(threadCount * iterations, mgr.getHitCount() + mgr.getMissCount());
+		int alive = 0;
+		for (DeviceResourceDescriptor descriptor : descriptors) {
+			assertNull(mgr.find(descriptor)); // no references left
+			int refs = tst.refCount.getOrDefault(descriptor, Integer.valueOf(0)).intValue();
+			assertTrue("parent referenced more than once: " + refs, refs <= 1);
+			alive += refs;
+		}
+		assertEquals(cacheSize, alive);
+		assertEquals(mgr.getMissCount() - cacheSize, mgr.getEvictionCount());
+	}
+
 	@Test
 	public void testNullDescriptor() {
 		TestResourceManager tst = new TestResourceManager();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2023 IBM Corporation and others.
+ * Copyright (c) 2004, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -464,6 +464,89 @@ public class LazySortedCollectionTest {
 		assertContentsValid();
 	}
 
+	/**
+	 * Removing a node must not move unsorted nodes of the subtree it is replaced
+	 * from onto the wrong side of the replacement, nor use a node scheduled for
+	 * lazy removal as replacement.
+	 */
+	@Test
+	public void testRemoveRangeWithLazilyRemovedAndUnsortedNodes() {
+		clear();
+		add(se[4]);
+		add(se[14]);
+		add(se[17]);
+		queryRange(0, comparisonCollection.size(), true);
+		add(se[10]);
+		collection.indexOf(se[4]);
+		add(se[3]);
+		add(se[2]);
+		removeRange(1, 2);
+		assertIndicesValid();
+		queryRange(0, comparisonCollection.size(), true);
+
+		clear();
+		add(se[6]);
+		add(se[19]);
+		add(se[17]);
+		add(se[1]);
+		queryRange(0, comparisonCollection.size(), true);
+		remove(se[17]);
+		add(se[13]);
+		add(se[2]);
+		removeRange(1, 2);
+		queryRange(0, comparisonCollection.size(), true);
+	}
+
+	private void assertIndicesValid() {
+		int index = 0;
+		for (Object element : comparisonCollection) {
+			assertEquals(element.toString(), index++, collection.indexOf(element));
+			collection.testInvariants();
+		}
+	}
+
+	@Test
+	public void testIndexOfUnsorted() {
+		assertIndicesValid();
+		assertContentsValid();
+	}
+
+	@Test
+	public void testIndexOfPartiallySorted() {
+		queryRange(10, 5, true);
+		assertIndicesValid();
+		assertContentsValid();
+	}
+
+	@Test
+	public void testIndexOfAfterRemovals() {
+		remove(se[0]);
+		remove(se[19]);
+		removeRange(5, 3);
+		add(se[0]);
+		assertIndicesValid();
+		assertEquals(-1, collection.indexOf(se[19]));
+		assertContentsValid();
+	}
+
+	/**
+	 * Many small addAll calls must not reallocate the node arrays every time,
+	 * which used to make them quadratic.
+	 */
+	@Test(timeout = 10000)
+	public void testRepeatedSmallAddAll() {
+		LazySortedCollection numbers = new LazySortedCollection(
+				(a, b) -> ((Integer) a).compareTo((Integer) b));
+		int count = 100000;
+		for (int i = 0; i < count; i++) {
+			numbers.addAll(new Object[] { Integer.valueOf(i) });
+		}
+		assertEquals(count, numbers.size());
+		Object[] first = new Object[3];
+		numbers.getFirst(first, true);
+		assertArrayEquals(new Object[] { Integer.valueOf(0), Integer.valueOf(1), Integer.valueOf(2) }, first);
+	}
+
 	//
 //
 //    public static void testAdditions() {
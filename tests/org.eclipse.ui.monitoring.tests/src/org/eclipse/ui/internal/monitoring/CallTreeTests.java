@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.eclipse.ui.internal.monitoring.CallTree.FrameStatistics;
+import org.junit.Test;
+
+/**
+ * Tests for {@link CallTree} and {@link SamplingProfiler} classes.
+ */
+public class CallTreeTests {
+	/**
+	 * Creates a stack, the outermost frame first.
+	 */
+	private static StackTraceElement[] createStack(String... methods) {
+		StackTraceElement[] stack = new StackTraceElement[methods.length];
+		for (int i = 0; i < methods.length; i++) {
+			stack[methods.length - 1 - i] = new StackTraceElement("a.B", methods[i], null, -1);
+		}
+		return stack;
+	}
+
+	@Test
+	public void testSelfAndTotalTime() {
+		CallTree callTree = new CallTree();
+		callTree.addSample("main", createStack("run", "dispatch", "paint"), 10);
+		callTree.addSample("main", createStack("run", "dispatch", "layout"), 20);
+		callTree.addSample("main", createStack("run", "dispatch"), 5);
+
+		assertEquals(35, callTree.getTotalTime());
+		List<FrameStatistics> frames = callTree.getHottestFrames(10);
+		assertEquals(3, frames.size());
+		assertFrame(frames.get(0), "a.B.layout", 20, 20);
+		assertFrame(frames.get(1), "a.B.paint", 10, 10);
+		assertFrame(frames.get(2), "a.B.dispatch", 5, 35);
+		assertEquals(2, callTree.getHottestFrames(2).size());
+	}
+
+	@Test
+	public void testRecursionCountedOnce() {
+		CallTree callTree = new CallTree();
+		callTree.addSample("main", createStack("run", "visit", "visit", "visit"), 10);
+
+		List<FrameStatistics> frames = callTree.getHottestFrames(10);
+		assertEquals(1, frames.size());
+		assertFrame(frames.get(0), "a.B.visit", 10, 10);
+	}
+
+	@Test
+	public void testCollapsedStacks() throws Exception {
+		CallTree callTree = new CallTree();
+		callTree.addSample("main", createStack("run", "paint"), 10);
+		callTree.addSample("main", createStack("run", "paint"), 10);
+		callTree.addSample("main", createStack("run"), 5);
+		callTree.addSample("Worker;1", createStack("run"), 7);
+
+		StringBuilder out = new StringBuilder();
+		callTree.writeCollapsedStacks(out);
+		List<String> lines = Arrays.asList(out.toString().split("\n"));
+		assertEquals(3, lines.size());
+		assertTrue(lines.contains("main;a.B.run 5"));
+		assertTrue(lines.contains("main;a.B.run;a.B.paint 20"));
+		assertTrue(lines.contains("Worker:1;a.B.run 7"));
+
+		callTree.clear();
+		out.setLength(0);
+		callTree.writeCollapsedStacks(out);
+		assertEquals("", out.toString());
+		assertEquals(0, callTree.getTotalTime());
+	}
+
+	@Test
+	public void testJobNameDroppedFromThreadName() throws Exception {
+		CallTree callTree = new CallTree();
+		callTree.addSample("Worker-1: Build", createStack("run"), 10);
+		callTree.addSample("Worker-1: Refresh", createStack("run"), 5);
+		callTree.addSample("Worker-2", createStack("run"), 7);
+
+		StringBuilder out = new StringBuilder();
+		callTree.writeCollapsedStacks(out);
+		assertEquals("Worker-1;a.B.run 15\nWorker-2;a.B.run 7\n", out.toString());
+	}
+
+	@Test
+	public void testNodesOverLimitFolded() throws Exception {
+		CallTree callTree = new CallTree(4, 100);
+		callTree.addSample("main", createStack("run", "paint"), 10);
+		callTree.addSample("main", createStack("run", "layout"), 20);
+		// the limit of four nodes is reached
+		callTree.addSample("main", createStack("run", "dispatch", "paint"), 5);
+		callTree.addSample("main", createStack("run", "update"), 3);
+		callTree.addSample("main", createStack("run", "paint"), 10);
+		callTree.addSample("Worker-1", createStack("run"), 7);
+
+		StringBuilder out = new StringBuilder();
+		callTree.writeCollapsedStacks(out);
+		List<String> lines = Arrays.asList(out.toString().split("\n"));
+		assertEquals(4, lines.size());
+		assertTrue(lines.contains("main;a.B.run;a.B.paint 20"));
+		assertTrue(lines.contains("main;a.B.run;a.B.layout 20"));
+		assertTrue(lines.contains("main;a.B.run;" + CallTree.OTHER + " 8"));
+		assertTrue(lines.contains(CallTree.OTHER + " 7"));
+		assertEquals(55, callTree.getTotalTime());
+
+		// the time of the frames is still recorded
+		List<FrameStatistics> frames = callTree.getHottestFrames(10);
+		assertFrame(frames.get(0), "a.B.paint", 25, 25);
+		assertFrame(frames.get(2), "a.B.run", 7, 55);
+	}
+
+	@Test
+	public void testFramesOverLimitFolded() {
+		CallTree callTree = new CallTree(100, 2);
+		callTree.addSample("main", createStack("run", "paint"), 10);
+		callTree.addSample("main", createStack("run", "layout"), 20);
+		callTree.addSample("main", createStack("run", "dispatch", "update"), 5);
+
+		List<FrameStatistics> frames = callTree.getHottestFrames(10);
+		assertEquals(2, frames.size());
+		assertFrame(frames.get(0), CallTree.OTHER, 25, 25);
+		assertFrame(frames.get(1), "a.B.paint", 10, 10);
+	}
+
+	@Test
+	public void testThreadNamePattern() {
+		Pattern pattern = SamplingProfiler.createThreadNamePattern(" Worker-*, Job ?, a.b ");
+		assertTrue(pattern.matcher("Worker-12").matches());
+		assertTrue(pattern.matcher("Job 1").matches());
+		assertTrue(pattern.matcher("a.b").matches());
+		assertFalse(pattern.matcher("axb").matches());
+		assertFalse(pattern.matcher("Job 12").matches());
+		assertNull(SamplingProfiler.createThreadNamePattern(" , "));
+	}
+
+	private static void assertFrame(FrameStatistics frame, String name, long selfTime,
+			long totalTime) {
+		assertEquals(name, frame.getFrame());
+		assertEquals(selfTime, frame.getSelfTime());
+		assertEquals(totalTime, frame.getTotalTime());
+	}
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.monitoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.eclipse.swt.SWT;
+import org.junit.Test;
+
+/**
+ * Tests for {@link LatencyHistogram}, {@link LatencyMetrics} and {@link EventLatencyRecorder}
+ * classes.
+ */
+public class LatencyMetricsTests {
+	@Test
+	public void testBuckets() {
+		long previousHighestValue = -1;
+		for (int bucket = 0; bucket < 1024; bucket++) {
+			long highestValue = LatencyHistogram.getHighestValue(bucket);
+			assertEquals(bucket, LatencyHistogram.getBucket(previousHighestValue + 1));
+			assertEquals(bucket, LatencyHistogram.getBucket(highestValue));
+			assertTrue(highestValue - previousHighestValue <= Math.max(1, highestValue / 32 + 1));
+			previousHighestValue = highestValue;
+		}
+	}
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getValueAtPercentile(50));
+		for (int i = 1; i <= 1000; i++) {
+			histogram.recordValue(i * 1000L);
+		}
+		assertEquals(1000, histogram.getTotalCount());
+		assertEquals(1000000, histogram.getMaxValue());
+		assertEquals(500500, histogram.getMean(), 0.001);
+		assertWithinPrecision(500000, histogram.getValueAtPercentile(50));
+		assertWithinPrecision(990000, histogram.getValueAtPercentile(99));
+		assertWithinPrecision(999000, histogram.getValueAtPercentile(99.9));
+		assertEquals(1000000, histogram.getValueAtPercentile(100));
+		assertWithinPrecision(1000, histogram.getValueAtPercentile(0));
+	}
+
+	private static void assertWithinPrecision(long expected, long actual) {
+		assertTrue("Expected about " + expected + " but was " + actual,
+				Math.abs(expected - actual) <= expected / 32);
+	}
+
+	@Test
+	public void testJson() throws Exception {
+		LatencyMetrics metrics = new LatencyMetrics();
+		metrics.record("Job: \"Refresh\"", 2000000, true);
+		metrics.record("Paint", 1000000, false);
+		metrics.record("Paint", 3000000, false);
+
+		assertEquals(Arrays.asList(LatencyMetrics.ALL_EVENTS, "Paint", "Job: \"Refresh\""),
+				metrics.getCategories());
+		StringBuilder out = new StringBuilder();
+		metrics.writeJson(out);
+		String json = out.toString();
+		assertTrue(json, json.contains("{\"name\": \"All Events\", \"count\": 1, \"mean\": 2000,"));
+		assertTrue(json, json.contains("{\"name\": \"Job: \\\"Refresh\\\"\", \"count\": 1,"));
+		assertTrue(json, json.contains("{\"name\": \"Paint\", \"count\": 2,"));
+		assertTrue(json, json.contains("\"p999\": "));
+		assertTrue(json, json.contains("\"max\": 3000, \"buckets\": [[1007, 1], [3000, 1]]}"));
+
+		metrics.clear();
+		assertEquals(0, metrics.getHistogram(LatencyMetrics.ALL_EVENTS).getTotalCount());
+		assertNull(metrics.getHistogram("Paint"));
+	}
+
+	@Test
+	public void testRecorder() {
+		LatencyMetrics metrics = new LatencyMetrics();
+		EventLatencyRecorder recorder = new EventLatencyRecorder(metrics);
+		recorder.eventEnded(); // Started before the recording, ignored.
+		recorder.eventStarted(SWT.MouseUp, true);
+		recorder.eventStarted(SWT.Selection, false);
+		recorder.eventEnded();
+		recorder.externalDispatchStarted();
+		recorder.eventStarted(SWT.Paint, true);
+		recorder.eventEnded();
+		recorder.externalDispatchEnded();
+		recorder.eventEnded();
+		recorder.eventStarted(SWT.None, true);
+		recorder.setAsyncExecCategory("Job: Update");
+		recorder.setAsyncExecCategory("Job: Canceled");
+		recorder.eventEnded();
+
+		assertEquals(3, metrics.getHistogram(LatencyMetrics.ALL_EVENTS).getTotalCount());
+		assertEquals(1, metrics.getHistogram("MouseUp").getTotalCount());
+		assertEquals(1, metrics.getHistogram("Selection").getTotalCount());
+		assertEquals(1, metrics.getHistogram("Paint").getTotalCount());
+		assertEquals(1, metrics.getHistogram("Job: Update").getTotalCount());
+		assertNull(metrics.getHistogram(EventLatencyRecorder.getEventTypeName(SWT.None)));
+		assertNull(metrics.getHistogram("Job: Canceled"));
+	}
+
+	@Test
+	public void testRecorderKeepsCategoryOfOtherEvents() {
+		LatencyMetrics metrics = new LatencyMetrics();
+		EventLatencyRecorder recorder = new EventLatencyRecorder(metrics);
+		recorder.eventStarted(SWT.Selection, true);
+		recorder.setAsyncExecCategory("Job: Canceled");
+		recorder.eventEnded();
+
+		assertEquals(1, metrics.getHistogram("Selection").getTotalCount());
+		assertNull(metrics.getHistogram("Job: Canceled"));
+	}
+
+	@Test
+	public void testRecorderExcludesExternalDispatches() {
+		LatencyMetrics metrics = new LatencyMetrics();
+		long[] time = { 0 };
+		EventLatencyRecorder recorder = new EventLatencyRecorder(metrics, () -> time[0]);
+		long millis = 1000000;
+		recorder.eventStarted(SWT.Selection, true);
+		time[0] += 2 * millis;
+		// A modal dialog runs a nested event loop.
+		recorder.externalDispatchStarted();
+		time[0] += 100 * millis;
+		recorder.externalDispatchStarted();
+		time[0] += 50 * millis;
+		recorder.externalDispatchEnded();
+		recorder.eventStarted(SWT.Paint, true);
+		time[0] += 5 * millis;
+		recorder.eventEnded();
+		time[0] += 100 * millis;
+		recorder.externalDispatchEnded();
+		time[0] += 3 * millis;
+		recorder.eventEnded();
+
+		assertEquals(5000, metrics.getHistogram("Paint").getMaxValue());
+		assertEquals(5000, metrics.getHistogram("Selection").getMaxValue());
+	}
+}
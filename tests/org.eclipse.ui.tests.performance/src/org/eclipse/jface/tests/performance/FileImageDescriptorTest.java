@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2017 IBM Corporation and others.
+ * Copyright (c) 2005, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,11 +19,15 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.jface.internal.ImageDataCache;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.tests.performance.BasicPerformanceTest;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.FrameworkUtil;
@@ -50,9 +54,25 @@ public class FileImageDescriptorTest extends BasicPerformanceTest {
 	 * Test the time for doing a refresh.
 	 */
 	public void testRefresh() throws Throwable {
+		createImages(path -> ImageDescriptor.createFromFile(null, path)::createImage);
+	}
 
+	/**
+	 * Test the time for doing a refresh with the image data served from an
+	 * in-memory cache of decoded images.
+	 */
+	public void testRefreshCached() throws Throwable {
+		ImageDataCache cache = new ImageDataCache(null, 16 * 1024 * 1024, 0);
+		createImages(path -> () -> new Image(Display.getCurrent(),
+				cache.createProvider(zoom -> zoom == 100 ? path : null)));
+	}
+
+	/**
+	 * @param imageFactory returns the factory creating the images of the given
+	 *                     file
+	 */
+	private void createImages(Function<String, Supplier<Image>> imageFactory) throws Throwable {
 		exercise(() -> {
-			Class<?> missing = null;
 			ArrayList<Image> images = new ArrayList<>();
 
 			Bundle bundle = FrameworkUtil.getBundle(getClass());
@@ -60,7 +80,7 @@ public class FileImageDescriptorTest extends BasicPerformanceTest {
 
 
 			while (bundleEntries.hasMoreElements()) {
-				ImageDescriptor descriptor;
+				Supplier<Image> factory;
 				String localImagePath = bundleEntries.nextElement();
 
 				if (localImagePath.indexOf('.') < 0)
@@ -71,14 +91,14 @@ public class FileImageDescriptorTest extends BasicPerformanceTest {
 				for (URL file : files) {
 					startMeasuring();
 					try {
-						descriptor = ImageDescriptor.createFromFile(missing, FileLocator.toFileURL(file).getFile());
+						factory = imageFactory.apply(FileLocator.toFileURL(file).getFile());
 					} catch (IOException e) {
 						fail(e.getLocalizedMessage(), e);
 						continue;
 					}
 
 					for (int j = 0; j < 10; j++) {
-						Image image = descriptor.createImage();
+						Image image = factory.get();
 						images.add(image);
 					}
 
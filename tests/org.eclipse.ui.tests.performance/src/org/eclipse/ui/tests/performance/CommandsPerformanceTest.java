@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,9 +19,16 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.Category;
 import org.eclipse.core.commands.Command;
 import org.eclipse.core.commands.CommandManager;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.commands.IExecutionListener;
+import org.eclipse.core.commands.NotHandledException;
 import org.eclipse.core.commands.ParameterizedCommand;
+import org.eclipse.core.commands.common.CommandException;
 import org.eclipse.core.commands.common.NotDefinedException;
 import org.eclipse.core.commands.contexts.Context;
 import org.eclipse.core.commands.contexts.ContextManager;
@@ -455,6 +462,73 @@ public final class CommandsPerformanceTest extends BasicPerformanceTest {
 		assertPerformance();
 	}
 
+	/**
+	 * <p>
+	 * Tests how long it takes to dispatch commands the way a macro or script
+	 * does: look up the command by its identifier, parameterize it and execute
+	 * it with an execution listener attached. It measures how long it takes to
+	 * dispatch one hundred thousand commands, spread over a thousand handled
+	 * commands.
+	 * </p>
+	 *
+	 * @throws CommandException
+	 *             If one of the commands can't be executed.
+	 */
+	public final void testCommandDispatch() throws CommandException {
+		// Constants
+		final int commandCount = 1000;
+		final int executions = 100000;
+
+		// Define and handle the commands.
+		final Category category = commandManager.getCategory(null);
+		final String[] commandIds = new String[commandCount];
+		final AbstractHandler handler = new AbstractHandler() {
+			@Override
+			public Object execute(ExecutionEvent event) {
+				return null;
+			}
+		};
+		for (int i = 0; i < commandCount; i++) {
+			commandIds[i] = "command" + i;
+			final Command command = commandManager.getCommand(commandIds[i]);
+			command.define(commandIds[i], commandIds[i], category);
+			command.setHandler(handler);
+		}
+		final int[] executed = new int[1];
+		commandManager.addExecutionListener(new IExecutionListener() {
+			@Override
+			public void preExecute(String commandId, ExecutionEvent event) {
+				// only count the executions
+			}
+
+			@Override
+			public void postExecuteSuccess(String commandId, Object returnValue) {
+				executed[0]++;
+			}
+
+			@Override
+			public void postExecuteFailure(String commandId, ExecutionException exception) {
+				// only count the executions
+			}
+
+			@Override
+			public void notHandled(String commandId, NotHandledException exception) {
+				// only count the executions
+			}
+		});
+
+		// Time how long it takes to dispatch the commands.
+		startMeasuring();
+		for (int i = 0; i < executions; i++) {
+			final Command command = commandManager.getCommand(commandIds[i % commandCount]);
+			ParameterizedCommand.generateCommand(command, null).executeWithChecks(null, null);
+		}
+		stopMeasuring();
+		commitMeasurements();
+		assertPerformance();
+		assertEquals(executions, executed[0]);
+	}
+
 	/**
 	 * <p>
 	 * Tests how long it takes to do a full computation (i.e., a cache miss) on
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.concurrency;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.core.runtime.jobs.ILock;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.internal.AsyncExecTracer;
+import org.eclipse.ui.internal.AsyncExecTracer.CallSiteStatistics;
+import org.eclipse.ui.internal.UISynchronizer;
+import org.eclipse.ui.tests.harness.util.DisplayHelper;
+import org.eclipse.ui.tests.harness.util.UITestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link AsyncExecTracer} records the runnables posted to the
+ * {@link UISynchronizer} under the call site posting them.
+ */
+public class AsyncExecTracerTest {
+
+	private Display display;
+
+	private UISynchronizer synchronizer;
+
+	private AsyncExecTracer tracer;
+
+	@Before
+	public void setUp() {
+		display = Display.getDefault();
+		synchronizer = (UISynchronizer) display.getSynchronizer();
+		UITestCase.processEvents();
+		tracer = new AsyncExecTracer();
+		synchronizer.setTracer(tracer);
+	}
+
+	@After
+	public void tearDown() {
+		synchronizer.setTracer(null);
+	}
+
+	private void post(Runnable runnable) {
+		display.asyncExec(runnable);
+	}
+
+	private void postCoalesced(Object key, Runnable runnable) {
+		UISynchronizer.coalescedAsyncExec(display, key, runnable);
+	}
+
+	private void send(Runnable runnable) {
+		display.syncExec(runnable);
+	}
+
+	private void sendInBackground(boolean ownLock) throws InterruptedException {
+		Thread thread = new Thread(() -> {
+			ILock lock = Job.getJobManager().newLock();
+			if (ownLock) {
+				lock.acquire();
+			}
+			try {
+				send(() -> {
+				});
+			} finally {
+				if (ownLock) {
+					lock.release();
+				}
+			}
+		});
+		thread.start();
+		assertTrue("the syncExec did not run", DisplayHelper.waitForCondition(display, 10000, () -> !thread.isAlive()));
+		thread.join();
+	}
+
+	private CallSiteStatistics getStatistics(String method) {
+		String prefix = AsyncExecTracerTest.class.getName() + '.' + method + ':';
+		for (CallSiteStatistics statistics : tracer.getStatistics()) {
+			if (statistics.getCallSite().startsWith(prefix)) {
+				return statistics;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void testPostsAreRecordedPerCallSite() throws Exception {
+		post(() -> {
+		});
+		post(() -> {
+		});
+		Object key = new Object();
+		postCoalesced(key, () -> {
+		});
+		postCoalesced(key, () -> {
+		});
+		sendInBackground(false);
+		UITestCase.processEvents();
+
+		CallSiteStatistics posted = getStatistics("post");
+		assertNotNull(posted);
+		assertEquals(2, posted.getAsyncCount());
+		assertEquals(0, posted.getSyncCount());
+		assertTrue(posted.getMaxQueueDepth() >= 2);
+
+		CallSiteStatistics coalesced = getStatistics("postCoalesced");
+		assertNotNull(coalesced);
+		assertEquals(1, coalesced.getAsyncCount());
+		assertEquals(1, coalesced.getCoalescedCount());
+
+		CallSiteStatistics sent = getStatistics("send");
+		assertNotNull(sent);
+		assertEquals(0, sent.getAsyncCount());
+		assertEquals(1, sent.getSyncCount());
+	}
+
+	@Test
+	public void testSyncExecOfLockOwnerIsRecordedOnce() throws Exception {
+		// the runnable is run by the UI thread through an internal asyncExec
+		sendInBackground(true);
+		UITestCase.processEvents();
+
+		CallSiteStatistics sent = getStatistics("send");
+		assertNotNull(sent);
+		assertEquals(0, sent.getAsyncCount());
+		assertEquals(1, sent.getSyncCount());
+	}
+}
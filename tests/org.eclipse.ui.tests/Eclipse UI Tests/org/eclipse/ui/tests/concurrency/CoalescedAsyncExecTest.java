@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.concurrency;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.internal.UISynchronizer;
+import org.eclipse.ui.tests.harness.util.UITestCase;
+import org.junit.Test;
+
+/**
+ * Tests that runnables posted with the same key through
+ * {@link UISynchronizer#coalescedAsyncExec(Display, Object, Runnable)} run once,
+ * and that runnables posted after it started run again.
+ */
+public class CoalescedAsyncExecTest {
+
+	@Test
+	public void testCoalescing() throws Exception {
+		Display display = Display.getDefault();
+		UITestCase.processEvents();
+		List<String> executed = new ArrayList<>();
+		Object key = new Object();
+		UISynchronizer.coalescedAsyncExec(display, key, () -> executed.add("first"));
+		UISynchronizer.coalescedAsyncExec(display, "other", () -> executed.add("other"));
+		Thread thread = new Thread(
+				() -> UISynchronizer.coalescedAsyncExec(display, key, () -> executed.add("second")));
+		thread.start();
+		thread.join();
+		UITestCase.processEvents();
+		assertEquals(Arrays.asList("second", "other"), executed);
+
+		executed.clear();
+		UISynchronizer.coalescedAsyncExec(display, key, () -> {
+			executed.add("third");
+			UISynchronizer.coalescedAsyncExec(display, key, () -> executed.add("fourth"));
+		});
+		UITestCase.processEvents();
+		assertEquals(Arrays.asList("third", "fourth"), executed);
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2020 IBM Corporation and others.
+ * Copyright (c) 2004, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -33,6 +33,8 @@ import org.junit.runners.Suite;
 	TestBug98621.class,
 	TransferRuleTest.class,
 	Bug_262032.class,
+	CoalescedAsyncExecTest.class,
+	AsyncExecTracerTest.class,
 	TestBug269121.class,
 	TestGitHubBug227.class
 })
@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.decorators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.IDecoratorManager;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.internal.WorkbenchPlugin;
+import org.eclipse.ui.internal.decorators.DecoratorManager;
+import org.eclipse.ui.tests.decorators.DecorationSchedulerTestDecorator.Element;
+import org.eclipse.ui.tests.harness.util.DisplayHelper;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests how the decoration jobs of the DecorationScheduler share the elements
+ * waiting for decoration and call the decorators.
+ */
+public class DecorationSchedulerTest {
+
+	private static final String DECORATOR_ID = "org.eclipse.ui.tests.decorators.schedulerDecorator";
+
+	private static final String THREAD_SAFE_DECORATOR_ID = "org.eclipse.ui.tests.decorators.threadSafeSchedulerDecorator";
+
+	private static final long TIMEOUT_DECORATOR = 10000;
+
+	/**
+	 * More than the number of waiting elements from which on they are decorated
+	 * by more than one job.
+	 */
+	private static final int MANY_ELEMENTS = 300;
+
+	private String enabledId;
+
+	@After
+	public void tearDown() throws CoreException {
+		DecorationSchedulerTestDecorator.unblockDecoration();
+		if (enabledId != null) {
+			PlatformUI.getWorkbench().getDecoratorManager().setEnabled(enabledId, false);
+		}
+	}
+
+	private static DecoratorManager getDecoratorManager() {
+		return WorkbenchPlugin.getDefault().getDecoratorManager();
+	}
+
+	private void enable(String decoratorId) throws CoreException {
+		IDecoratorManager manager = PlatformUI.getWorkbench().getDecoratorManager();
+		manager.setEnabled(decoratorId, true);
+		enabledId = decoratorId;
+	}
+
+	private DecorationSchedulerTestDecorator getDecorator() {
+		return (DecorationSchedulerTestDecorator) getDecoratorManager().getLightweightLabelDecorator(enabledId);
+	}
+
+	private static List<Element> queue(String prefix, int count) {
+		List<Element> elements = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Element element = new Element(prefix + i);
+			elements.add(element);
+			getDecoratorManager().prepareDecoration(element, null);
+		}
+		return elements;
+	}
+
+	/**
+	 * Waits until the first element is being decorated and returns the decorator.
+	 */
+	private DecorationSchedulerTestDecorator waitForDecorator() throws InterruptedException {
+		assertTrue("the decorator was not called", DisplayHelper.waitForCondition(Display.getCurrent(),
+				TIMEOUT_DECORATOR, () -> getDecorator() != null));
+		DecorationSchedulerTestDecorator decorator = getDecorator();
+		assertTrue("the decorator was not called", decorator.hasRun(TIMEOUT_DECORATOR));
+		return decorator;
+	}
+
+	/**
+	 * Waits until the given number of elements was decorated and returns them in
+	 * the order they were decorated in.
+	 */
+	private List<Object> waitForDecorated(DecorationSchedulerTestDecorator decorator, int count) {
+		DisplayHelper.waitForCondition(Display.getCurrent(), TIMEOUT_DECORATOR,
+				() -> decorator.getDecorated().size() >= count);
+		List<Object> decorated = decorator.getDecorated();
+		assertEquals("an element was decorated twice or not at all", count, new HashSet<>(decorated).size());
+		assertEquals(count, decorated.size());
+		return decorated;
+	}
+
+	@Test
+	public void testDecoratorIsNotCalledConcurrently() throws Exception {
+		enable(DECORATOR_ID);
+		queue("element", MANY_ELEMENTS);
+
+		DecorationSchedulerTestDecorator decorator = waitForDecorator();
+		waitForDecorated(decorator, MANY_ELEMENTS);
+		assertEquals("the decorator was called concurrently", 1, decorator.getMaxRunning());
+		assertEquals("the decorator was called by more than one decoration job", 1, decorator.getJobCount());
+	}
+
+	@Test
+	public void testListGrowingWhileDecoratingIsShared() throws Exception {
+		// the decoration jobs only help each other if there are enough processors
+		assumeTrue(Runtime.getRuntime().availableProcessors() >= 4);
+		enable(THREAD_SAFE_DECORATOR_ID);
+
+		// when the decorator is called, it will not finish until unblocked
+		DecorationSchedulerTestDecorator.blockDecoration();
+		queue("first", 1);
+		DecorationSchedulerTestDecorator decorator = waitForDecorator();
+
+		// -- at this point the first decoration job is blocked in the decorator,
+		// -- the list grows long while it is running
+		queue("element", MANY_ELEMENTS);
+		DecorationSchedulerTestDecorator.unblockDecoration();
+
+		waitForDecorated(decorator, MANY_ELEMENTS + 1);
+		assertTrue("the elements were decorated by one job only", decorator.getThreadCount() > 1);
+	}
+
+	@Test
+	public void testElementRequestedAgainIsDecoratedFirst() throws Exception {
+		enable(DECORATOR_ID);
+
+		DecorationSchedulerTestDecorator.blockDecoration();
+		queue("first", 1);
+		DecorationSchedulerTestDecorator decorator = waitForDecorator();
+
+		// -- at this point the decoration job is blocked in the decorator and few
+		// -- enough elements wait for only this job to decorate them
+		List<Element> elements = queue("element", 50);
+		Element requestedAgain = elements.get(40);
+		getDecoratorManager().prepareDecoration(requestedAgain, null);
+		DecorationSchedulerTestDecorator.unblockDecoration();
+
+		List<Object> decorated = waitForDecorated(decorator, elements.size() + 1);
+		assertEquals(requestedAgain, decorated.get(1));
+		assertEquals(elements.get(0), decorated.get(2));
+	}
+}
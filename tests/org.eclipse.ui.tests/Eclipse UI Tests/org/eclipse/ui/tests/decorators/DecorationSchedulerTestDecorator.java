@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.decorators;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.viewers.IDecoration;
+import org.eclipse.jface.viewers.ILabelProviderListener;
+import org.eclipse.jface.viewers.ILightweightLabelDecorator;
+
+/**
+ * A decorator recording how it is called by the decoration jobs. It can be
+ * blocked to let elements queue up while it decorates.
+ */
+public class DecorationSchedulerTestDecorator implements ILightweightLabelDecorator {
+
+	public static final String SUFFIX = "_SCHEDULED";
+
+	/**
+	 * The elements decorated by this decorator.
+	 */
+	public static final class Element {
+		private final String name;
+
+		public Element(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+
+	/**
+	 * The same decorator declared to be thread safe.
+	 */
+	public static class ThreadSafe extends DecorationSchedulerTestDecorator {
+	}
+
+	private static volatile CountDownLatch gate = new CountDownLatch(0);
+
+	private final Semaphore semaphoreDecoratorRan = new Semaphore(0);
+
+	private final AtomicInteger running = new AtomicInteger();
+
+	private final AtomicInteger maxRunning = new AtomicInteger();
+
+	private final List<Object> decorated = Collections.synchronizedList(new ArrayList<>());
+
+	private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+	private final Set<Job> jobs = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Let the decorators wait in {@link #decorate(Object, IDecoration)} until
+	 * {@link #unblockDecoration()} is called.
+	 */
+	public static void blockDecoration() {
+		gate = new CountDownLatch(1);
+	}
+
+	public static void unblockDecoration() {
+		gate.countDown();
+	}
+
+	public boolean hasRun(long timeout) throws InterruptedException {
+		return semaphoreDecoratorRan.tryAcquire(timeout, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Returns the elements in the order they were decorated in.
+	 */
+	public List<Object> getDecorated() {
+		synchronized (decorated) {
+			return new ArrayList<>(decorated);
+		}
+	}
+
+	/**
+	 * Returns the highest number of calls which ran at once.
+	 */
+	public int getMaxRunning() {
+		return maxRunning.get();
+	}
+
+	/**
+	 * Returns the number of threads this decorator was called in.
+	 */
+	public int getThreadCount() {
+		return threads.size();
+	}
+
+	/**
+	 * Returns the number of decoration jobs this decorator was called by.
+	 */
+	public int getJobCount() {
+		return jobs.size();
+	}
+
+	@Override
+	public void decorate(Object element, IDecoration decoration) {
+		if (!(element instanceof Element)) {
+			return;
+		}
+		int now = running.incrementAndGet();
+		try {
+			maxRunning.accumulateAndGet(now, Math::max);
+			threads.add(Thread.currentThread());
+			Job job = Job.getJobManager().currentJob();
+			if (job != null) {
+				jobs.add(job);
+			}
+			decorated.add(element);
+			semaphoreDecoratorRan.release(); // signal that the decoration has run
+			gate.await(10, TimeUnit.SECONDS); // if in blocking state, wait until unblocked
+			// take long enough for other decoration jobs to overlap
+			Thread.sleep(1);
+			decoration.addSuffix(SUFFIX);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			running.decrementAndGet();
+		}
+	}
+
+	@Override
+	public void addListener(ILabelProviderListener listener) {
+	}
+
+	@Override
+	public void dispose() {
+	}
+
+	@Override
+	public boolean isLabelProperty(Object element, String property) {
+		return false;
+	}
+
+	@Override
+	public void removeListener(ILabelProviderListener listener) {
+	}
+}
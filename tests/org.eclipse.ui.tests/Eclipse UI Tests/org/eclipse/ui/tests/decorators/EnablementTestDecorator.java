@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.decorators;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.mapping.ResourceMapping;
+import org.eclipse.core.runtime.IAdaptable;
+import org.eclipse.core.runtime.PlatformObject;
+import org.eclipse.ui.IActionFilter;
+import org.eclipse.ui.IContributorResourceAdapter;
+import org.eclipse.ui.ide.IContributorResourceAdapter2;
+
+/**
+ * Decorator for {@link Element}s whose enablement only tests the object class.
+ */
+public class EnablementTestDecorator extends TestAdaptableDecoratorContributor {
+
+	public static final String SUFFIX = "Class.1";
+
+	public static final String ID = "org.eclipse.ui.tests.decorators.classEnablementDecorator";
+
+	public EnablementTestDecorator() {
+		setExpectedElementType(Element.class);
+		setSuffix(SUFFIX);
+	}
+
+	/**
+	 * Decorator for {@link Element}s whose enablement also tests the state of the
+	 * element.
+	 */
+	public static class ObjectState extends TestAdaptableDecoratorContributor {
+
+		public static final String SUFFIX = "State.1";
+
+		public static final String ID = "org.eclipse.ui.tests.decorators.stateEnablementDecorator";
+
+		public ObjectState() {
+			setExpectedElementType(Element.class);
+			setSuffix(SUFFIX);
+		}
+	}
+
+	/**
+	 * Element which tells whether it is to be decorated by {@link ObjectState},
+	 * and which may adapt to a resource.
+	 */
+	public static class Element extends PlatformObject implements IActionFilter {
+
+		static final String DECORATE = "decorate";
+
+		private final boolean decorate;
+
+		private final IResource resource;
+
+		private final AtomicInteger testCount = new AtomicInteger();
+
+		public Element(boolean decorate, IResource resource) {
+			this.decorate = decorate;
+			this.resource = resource;
+		}
+
+		@Override
+		public boolean testAttribute(Object target, String name, String value) {
+			testCount.incrementAndGet();
+			return DECORATE.equals(name) && Boolean.toString(decorate).equals(value);
+		}
+
+		/**
+		 * @return how often the state of the element was tested
+		 */
+		public int getTestCount() {
+			return testCount.get();
+		}
+
+		@Override
+		public <T> T getAdapter(Class<T> adapter) {
+			if (adapter == IContributorResourceAdapter.class && resource != null) {
+				return adapter.cast(new IContributorResourceAdapter2() {
+					@Override
+					public IResource getAdaptedResource(IAdaptable adaptable) {
+						return resource;
+					}
+
+					@Override
+					public ResourceMapping getAdaptedResourceMapping(IAdaptable adaptable) {
+						return resource.getAdapter(ResourceMapping.class);
+					}
+				});
+			}
+			return super.getAdapter(adapter);
+		}
+	}
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.decorators;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.internal.ActionExpression;
+import org.eclipse.ui.internal.WorkbenchPlugin;
+import org.eclipse.ui.internal.decorators.LightweightDecoratorManager;
+import org.eclipse.ui.tests.decorators.EnablementTestDecorator.Element;
+import org.eclipse.ui.tests.decorators.EnablementTestDecorator.ObjectState;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests that the lightweight decorators which can apply to an element are
+ * looked up once per element class, while enablement expressions testing more
+ * than the class are still evaluated for each element.
+ */
+public class LightweightDecoratorCacheTest {
+
+	private static final String[] DECORATOR_IDS = { EnablementTestDecorator.ID, ObjectState.ID,
+			TestResourceDecoratorContributor.ID, TestResourceMappingDecoratorContributor.ID };
+
+	private IProject project;
+
+	@After
+	public void doTearDown() throws CoreException {
+		for (String id : DECORATOR_IDS) {
+			PlatformUI.getWorkbench().getDecoratorManager().setEnabled(id, false);
+		}
+		if (project != null) {
+			project.delete(true, null);
+		}
+	}
+
+	private static LightweightDecoratorManager getLightweightManager() {
+		return WorkbenchPlugin.getDefault().getDecoratorManager().getLightweightManager();
+	}
+
+	private static void setEnabled(String decoratorId, boolean enabled) throws CoreException {
+		PlatformUI.getWorkbench().getDecoratorManager().setEnabled(decoratorId, enabled);
+	}
+
+	private static String getDecorationTextFor(Object element) {
+		return getLightweightManager().getDecorationResult(element).decorateWithText("Default label");
+	}
+
+	private static ActionExpression getEnablement(String decoratorId) {
+		for (IConfigurationElement element : Platform.getExtensionRegistry()
+				.getConfigurationElementsFor(PlatformUI.PLUGIN_ID, "decorators")) {
+			if (decoratorId.equals(element.getAttribute("id"))) {
+				return new ActionExpression(element.getChildren("enablement")[0]);
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void testObjectClassOnlyExpressions() {
+		ActionExpression classEnablement = getEnablement(EnablementTestDecorator.ID);
+		assertNotNull(classEnablement);
+		assertTrue(classEnablement.dependsOnObjectClassOnly());
+		ActionExpression stateEnablement = getEnablement(ObjectState.ID);
+		assertNotNull(stateEnablement);
+		assertFalse(stateEnablement.dependsOnObjectClassOnly());
+	}
+
+	@Test
+	public void testObjectClassEnablementIsCached() throws CoreException {
+		setEnabled(EnablementTestDecorator.ID, true);
+		Element first = new Element(false, null);
+		Element second = new Element(false, null);
+
+		assertFalse(getLightweightManager().hasCachedDecoratorsFor(first));
+		assertTrue(getDecorationTextFor(first).contains(EnablementTestDecorator.SUFFIX));
+		// the second element of the class is decorated from the cache
+		assertTrue(getLightweightManager().hasCachedDecoratorsFor(second));
+		assertTrue(getDecorationTextFor(second).contains(EnablementTestDecorator.SUFFIX));
+		assertFalse(getDecorationTextFor(new Object()).contains(EnablementTestDecorator.SUFFIX));
+	}
+
+	@Test
+	public void testObjectStateEnablementIsEvaluatedPerElement() throws CoreException {
+		setEnabled(ObjectState.ID, true);
+		Element decorated = new Element(true, null);
+		Element notDecorated = new Element(false, null);
+
+		assertTrue(getDecorationTextFor(decorated).contains(ObjectState.SUFFIX));
+		assertTrue(getLightweightManager().hasCachedDecoratorsFor(notDecorated));
+		assertFalse(getDecorationTextFor(notDecorated).contains(ObjectState.SUFFIX));
+		assertTrue(notDecorated.getTestCount() > 0);
+
+		int testCount = decorated.getTestCount();
+		assertTrue(getDecorationTextFor(decorated).contains(ObjectState.SUFFIX));
+		assertTrue("the state was not tested again", decorated.getTestCount() > testCount);
+	}
+
+	@Test
+	public void testEnablementChangeClearsCache() throws CoreException {
+		setEnabled(EnablementTestDecorator.ID, true);
+		Element element = new Element(true, null);
+		getDecorationTextFor(element);
+		assertTrue(getLightweightManager().hasCachedDecoratorsFor(element));
+
+		setEnabled(ObjectState.ID, true);
+		assertFalse(getLightweightManager().hasCachedDecoratorsFor(element));
+		assertTrue(getDecorationTextFor(element).contains(ObjectState.SUFFIX));
+
+		setEnabled(ObjectState.ID, false);
+		assertFalse(getLightweightManager().hasCachedDecoratorsFor(element));
+		String text = getDecorationTextFor(element);
+		assertFalse(text.contains(ObjectState.SUFFIX));
+		assertTrue(text.contains(EnablementTestDecorator.SUFFIX));
+	}
+
+	@Test
+	public void testAdaptedClassesArePartOfKey() throws CoreException {
+		setEnabled(TestResourceDecoratorContributor.ID, true);
+		setEnabled(TestResourceMappingDecoratorContributor.ID, true);
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject("LightweightDecoratorCacheTest");
+		project.create(null);
+		project.open(null);
+		Element plain = new Element(false, null);
+		Element adapting = new Element(false, project);
+
+		String plainText = getDecorationTextFor(plain);
+		assertFalse(plainText.contains(TestResourceDecoratorContributor.SUFFIX));
+		assertFalse(plainText.contains(TestResourceMappingDecoratorContributor.SUFFIX));
+
+		// same element class, but it adapts to a resource and a resource mapping
+		assertFalse(getLightweightManager().hasCachedDecoratorsFor(adapting));
+		String adaptingText = getDecorationTextFor(adapting);
+		assertTrue(adaptingText.contains(TestResourceDecoratorContributor.SUFFIX));
+		assertTrue(adaptingText.contains(TestResourceMappingDecoratorContributor.SUFFIX));
+	}
+}
@@ -27,6 +27,7 @@ import org.junit.runners.Suite;
 	ResourceItemLabelTest.class,
 	ResourceInitialSelectionTest.class,
 	ResourceSelectionFilteringDialogTest.class,
+	ResourceNameIndexTest.class,
 })
 public class FilteredResourcesSelectionDialogTestSuite {
 }
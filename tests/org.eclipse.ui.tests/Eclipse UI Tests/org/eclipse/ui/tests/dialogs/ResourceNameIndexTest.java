@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.dialogs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.ui.internal.ide.dialogs.ResourceNameIndex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ResourceNameIndex}.
+ */
+public class ResourceNameIndexTest {
+
+	private IProject project;
+
+	private ResourceNameIndex index;
+
+	/**
+	 * A monitor counting how often it is asked for cancellation, which happens
+	 * once per resource while the index is built.
+	 */
+	private static class CountingMonitor extends NullProgressMonitor {
+		final AtomicInteger checks = new AtomicInteger();
+
+		@Override
+		public boolean isCanceled() {
+			checks.incrementAndGet();
+			return super.isCanceled();
+		}
+	}
+
+	@Before
+	public void setUp() throws CoreException {
+		project = ResourcesPlugin.getWorkspace().getRoot()
+				.getProject(getClass().getSimpleName() + System.currentTimeMillis());
+		project.create(null);
+		project.open(null);
+		createFile(project.getFile("a.txt"));
+		// start from an index which has not been built yet
+		ResourceNameIndex.shutdown();
+		index = ResourceNameIndex.getInstance();
+	}
+
+	@After
+	public void tearDown() throws CoreException {
+		ResourceNameIndex.shutdown();
+		project.delete(true, null);
+	}
+
+	private static void createFile(IFile file) throws CoreException {
+		file.create(new ByteArrayInputStream(new byte[0]), true, null);
+	}
+
+	private Set<IResource> getVisibleResources(NullProgressMonitor monitor) throws CoreException {
+		Collection<ResourceNameIndex.Entry> entries = index.getEntries(monitor);
+		assertNotNull(entries);
+		return entries.stream().filter(entry -> !entry.isHidden()).map(ResourceNameIndex.Entry::resource)
+				.collect(Collectors.toSet());
+	}
+
+	@Test
+	public void testResourceChangesAreApplied() throws CoreException {
+		IFile a = project.getFile("a.txt");
+		IFile b = project.getFile("b.txt");
+		assertTrue(getVisibleResources(new NullProgressMonitor()).contains(a));
+
+		createFile(b);
+		a.delete(true, null);
+
+		CountingMonitor monitor = new CountingMonitor();
+		Set<IResource> resources = getVisibleResources(monitor);
+		assertEquals("the index was built again", 0, monitor.checks.get());
+		assertTrue(resources.contains(b));
+		assertFalse(resources.contains(a));
+	}
+
+	@Test
+	public void testChangesWhileBuildingAreApplied() throws Exception {
+		IFile a = project.getFile("a.txt");
+		IFile b = project.getFile("b.txt");
+		CountingMonitor monitor = new CountingMonitor() {
+			@Override
+			public boolean isCanceled() {
+				if (checks.get() == 0) {
+					// change the workspace while it is being walked, the delta is
+					// notified in the changing thread
+					Thread thread = new Thread(() -> {
+						try {
+							createFile(b);
+							a.delete(true, null);
+						} catch (CoreException e) {
+							throw new IllegalStateException(e);
+						}
+					});
+					thread.start();
+					try {
+						thread.join();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return super.isCanceled();
+			}
+		};
+		getVisibleResources(monitor);
+		assertTrue(b.exists());
+
+		CountingMonitor secondMonitor = new CountingMonitor();
+		Set<IResource> resources = getVisibleResources(secondMonitor);
+		assertEquals("the index was not kept", 0, secondMonitor.checks.get());
+		assertTrue(resources.contains(b));
+		assertFalse(resources.contains(a));
+	}
+
+	@Test
+	public void testHiddenAndTeamPrivateResources() throws CoreException {
+		IFolder hidden = project.getFolder("hidden");
+		hidden.create(true, true, null);
+		IFile hiddenChild = hidden.getFile("child.txt");
+		createFile(hiddenChild);
+		IFolder teamPrivate = project.getFolder("team");
+		teamPrivate.create(true, true, null);
+		IFile teamPrivateChild = teamPrivate.getFile("child.txt");
+		createFile(teamPrivateChild);
+
+		Set<IResource> resources = getVisibleResources(new NullProgressMonitor());
+		assertTrue(resources.contains(hiddenChild));
+		assertTrue(resources.contains(teamPrivateChild));
+
+		// changing these flags does not result in a resource delta
+		hidden.setHidden(true);
+		teamPrivate.setTeamPrivateMember(true);
+		resources = getVisibleResources(new NullProgressMonitor());
+		assertFalse(resources.contains(hidden));
+		assertFalse(resources.contains(hiddenChild));
+		assertFalse(resources.contains(teamPrivate));
+		assertFalse(resources.contains(teamPrivateChild));
+
+		IFile addedChild = hidden.getFile("added.txt");
+		createFile(addedChild);
+		assertFalse(getVisibleResources(new NullProgressMonitor()).contains(addedChild));
+
+		hidden.setHidden(false);
+		teamPrivate.setTeamPrivateMember(false);
+		resources = getVisibleResources(new NullProgressMonitor());
+		assertTrue(resources.contains(hiddenChild));
+		assertTrue(resources.contains(addedChild));
+		assertTrue(resources.contains(teamPrivateChild));
+	}
+}
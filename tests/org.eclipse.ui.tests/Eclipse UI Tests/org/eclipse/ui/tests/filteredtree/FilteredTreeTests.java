@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2017 IBM Corporation and others.
+ * Copyright (c) 2006, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -20,6 +20,7 @@ import org.eclipse.jface.dialogs.Dialog;
 import org.eclipse.jface.tests.viewers.TestElement;
 import org.eclipse.jface.tests.viewers.TestModelContentProvider;
 import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
@@ -133,6 +134,82 @@ public class FilteredTreeTests extends UITestCase {
 		dialog.close();
 	}
 
+	@Test
+	public void testNarrowDownAndWidenPattern() {
+		Dialog dialog = createFilteredTreeDialog();
+
+		typePattern("0-1");
+		// 0-1 and 0-10 to 0-19
+		assertNumberOfTopLevelItems(11);
+
+		typePattern("0-1-");
+		assertNumberOfTopLevelItems(1);
+
+		typePattern("0-1");
+		assertNumberOfTopLevelItems(11);
+
+		dialog.close();
+	}
+
+	@Test
+	public void testNarrowDownPatternEndingWithBackslash() {
+		Dialog dialog = createFilteredTreeDialog();
+
+		fRootElement.getChildAt(5).setLabel("a\\b");
+
+		// the backslash escapes the trailing wildcard, matching "a*" literally
+		typePattern("*a\\");
+		assertNumberOfTopLevelItems(0);
+
+		// while here it is escaped itself, matching "a\" followed by anything
+		typePattern("*a\\\\");
+		assertNumberOfTopLevelItems(1);
+
+		dialog.close();
+	}
+
+	@Test
+	public void testNarrowDownPatternAfterLabelChange() {
+		Dialog dialog = createFilteredTreeDialog();
+
+		typePattern("re");
+		assertNumberOfTopLevelItems(0);
+
+		fRootElement.getChildAt(5).setLabel("renamed");
+
+		typePattern("ren");
+		assertNumberOfTopLevelItems(1);
+
+		dialog.close();
+	}
+
+	@Test
+	public void testNarrowDownPatternWithOwnLeafMatch() {
+		// the element is only matched once its keyword is complete
+		Dialog dialog = createFilteredTreeDialog(new PatternFilter() {
+			private String pattern;
+
+			@Override
+			public void setPattern(String patternString) {
+				super.setPattern(patternString);
+				pattern = patternString;
+			}
+
+			@Override
+			protected boolean isLeafMatch(Viewer viewer, Object element) {
+				return element == fRootElement.getChildAt(5) && "keyword".equals(pattern);
+			}
+		});
+
+		typePattern("keyw");
+		assertNumberOfTopLevelItems(0);
+
+		typePattern("keyword");
+		assertNumberOfTopLevelItems(1);
+
+		dialog.close();
+	}
+
 	private void runFilteredTreeTest(final int treeStyle){
 		Dialog dialog = createFilteredTreeDialog(treeStyle);
 
@@ -147,12 +224,20 @@ public class FilteredTreeTests extends UITestCase {
 	}
 
 	private Dialog createFilteredTreeDialog(final int treeStyle) {
+		return createFilteredTreeDialog(treeStyle, new PatternFilter());
+	}
+
+	private Dialog createFilteredTreeDialog(PatternFilter filter) {
+		return createFilteredTreeDialog(SWT.SINGLE | SWT.H_SCROLL | SWT.V_SCROLL | SWT.BORDER, filter);
+	}
+
+	private Dialog createFilteredTreeDialog(final int treeStyle, PatternFilter filter) {
 		fRootElement = TestElement.createModel(DEPTH, NUM_ITEMS);
 
 		Dialog dialog = new FilteredTreeDialog((Shell)null, treeStyle){
 			@Override
 			protected FilteredTree doCreateFilteredTree(Composite comp, int style) {
-				return createFilteredTree(comp, treeStyle);
+				return createFilteredTree(comp, treeStyle, filter);
 			}
 		};
 
@@ -160,10 +245,10 @@ public class FilteredTreeTests extends UITestCase {
 		return dialog;
 	}
 
-	private FilteredTree createFilteredTree(Composite parent, int style){
+	private FilteredTree createFilteredTree(Composite parent, int style, PatternFilter filter){
 		Composite c = new Composite(parent, SWT.NONE);
 		c.setLayout(new GridLayout());
-		FilteredTree fTree = new FilteredTree(c, style, new PatternFilter());
+		FilteredTree fTree = new FilteredTree(c, style, filter);
 
 		GridData gd = new GridData(SWT.FILL, SWT.FILL, true, true);
 		gd.widthHint = 400;
@@ -199,6 +284,12 @@ public class FilteredTreeTests extends UITestCase {
 		fTreeViewer.getViewer().refresh();
 	}
 
+	private void typePattern(String pattern) {
+		fTreeViewer.getFilterControl().setText(pattern);
+		// let the refresh job apply the pattern, like it does when typing
+		waitForJobs(300, 3000);
+	}
+
 	private void setInput() {
 		fTreeViewer.getViewer().setInput(fRootElement);
 	}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.ui.tests.markers;
+
+import static org.junit.Assert.assertEquals;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.ui.internal.views.markers.MarkerAttributeTable;
+import org.eclipse.ui.internal.views.markers.MockMarkerEntry;
+import org.eclipse.ui.tests.harness.util.FileUtil;
+import org.eclipse.ui.tests.harness.util.UITestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests that marker entries use the attributes read into a
+ * {@link MarkerAttributeTable} only for their own row.
+ */
+@RunWith(JUnit4.class)
+public class MarkerAttributeTableTest extends UITestCase {
+
+	private IProject project;
+
+	private IFile file;
+
+	public MarkerAttributeTableTest() {
+		super(MarkerAttributeTableTest.class.getSimpleName());
+	}
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		project = FileUtil.createProject("MarkerAttributeTableTest");
+		file = FileUtil.createFile("file.txt", project);
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		FileUtil.deleteProject(project);
+		super.doTearDown();
+	}
+
+	private MockMarkerEntry createEntry(int severity) throws CoreException {
+		IMarker marker = file.createMarker(IMarker.PROBLEM);
+		marker.setAttribute(IMarker.SEVERITY, severity);
+		return new MockMarkerEntry(marker);
+	}
+
+	private static int getSeverity(MockMarkerEntry entry) {
+		return entry.getAttributeValue(IMarker.SEVERITY, -1);
+	}
+
+	@Test
+	public void testAttributesAreReadWhenBuilt() throws CoreException {
+		MockMarkerEntry entry = createEntry(IMarker.SEVERITY_ERROR);
+		MarkerAttributeTable.build(new MockMarkerEntry[] { entry });
+		entry.getMarker().setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_INFO);
+		assertEquals(IMarker.SEVERITY_ERROR, getSeverity(entry));
+	}
+
+	@Test
+	public void testRowOfOtherEntryIsNotUsed() throws CoreException {
+		MockMarkerEntry error = createEntry(IMarker.SEVERITY_ERROR);
+		MockMarkerEntry warning = createEntry(IMarker.SEVERITY_WARNING);
+		MockMarkerEntry[] entries = { error, warning };
+		MarkerAttributeTable.build(entries);
+		error.getMarker().setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_INFO);
+
+		// the rows do not hold the entries anymore
+		entries[0] = warning;
+		entries[1] = error;
+		assertEquals(IMarker.SEVERITY_INFO, getSeverity(error));
+		assertEquals(IMarker.SEVERITY_WARNING, getSeverity(warning));
+	}
+
+	@Test
+	public void testEntryOfDeletedMarkerReadsMarker() throws CoreException {
+		MockMarkerEntry entry = createEntry(IMarker.SEVERITY_ERROR);
+		entry.getMarker().delete();
+		MarkerAttributeTable.build(new MockMarkerEntry[] { entry });
+		assertEquals(-1, getSeverity(entry));
+	}
+
+	@Test
+	public void testMissingEntriesAreBuilt() throws CoreException {
+		MockMarkerEntry inTable = createEntry(IMarker.SEVERITY_ERROR);
+		MockMarkerEntry other = createEntry(IMarker.SEVERITY_ERROR);
+		MarkerAttributeTable.build(new MockMarkerEntry[] { inTable, other });
+		inTable.getMarker().setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_INFO);
+		MockMarkerEntry added = createEntry(IMarker.SEVERITY_WARNING);
+
+		MarkerAttributeTable.buildMissing(new MockMarkerEntry[] { inTable, other, added });
+		added.getMarker().setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_INFO);
+		// both tables are kept
+		assertEquals(IMarker.SEVERITY_ERROR, getSeverity(inTable));
+		assertEquals(IMarker.SEVERITY_WARNING, getSeverity(added));
+	}
+
+	@Test
+	public void testMostlyUnusedTableIsDropped() throws CoreException {
+		MockMarkerEntry kept = createEntry(IMarker.SEVERITY_ERROR);
+		MarkerAttributeTable.build(new MockMarkerEntry[] { kept, createEntry(IMarker.SEVERITY_ERROR),
+				createEntry(IMarker.SEVERITY_ERROR), createEntry(IMarker.SEVERITY_ERROR) });
+		kept.getMarker().setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_INFO);
+
+		// the other entries were removed, the entry gets a new table
+		MarkerAttributeTable.buildMissing(new MockMarkerEntry[] { kept });
+		assertEquals(IMarker.SEVERITY_INFO, getSeverity(kept));
+	}
+}
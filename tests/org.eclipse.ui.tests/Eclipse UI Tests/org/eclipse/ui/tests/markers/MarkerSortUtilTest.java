@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2017 IBM Corporation and others.
+ * Copyright (c) 2008, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,9 +14,13 @@
 
 package org.eclipse.ui.tests.markers;
 
+import static org.junit.Assert.assertArrayEquals;
+
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.ui.internal.views.markers.MarkerSortUtil;
 import org.eclipse.ui.internal.views.markers.MockMarkerEntry;
 import org.eclipse.ui.tests.harness.util.UITestCase;
@@ -53,6 +57,36 @@ public class MarkerSortUtilTest extends UITestCase {
 	public void testCompleteSort() {
 		sortToLimit(ARRAYSIZE,ARRAYSIZE);
 	}
+
+	@Test
+	public void testComparatorIsCalledOnCallingThread() {
+		MockMarkerEntry[] entries = generateArray(ARRAYSIZE);
+		Thread caller = Thread.currentThread();
+		AtomicBoolean otherThread = new AtomicBoolean();
+		Comparator<MarkerItem> comparator = (o1, o2) -> {
+			if (Thread.currentThread() != caller) {
+				otherThread.set(true);
+			}
+			return ((MockMarkerEntry) o1).name.compareTo(((MockMarkerEntry) o2).name);
+		};
+		// contributed comparators need not be thread-safe
+		MarkerSortUtil.sortStartingKElement(entries, comparator, 0, entries.length - 1, entries.length,
+				new NullProgressMonitor());
+		assertFalse("comparator called from another thread", otherThread.get());
+	}
+
+	@Test
+	public void testParallelSort() {
+		MockMarkerEntry[] entries = generateArray(ARRAYSIZE);
+		MockMarkerEntry[] expected = entries.clone();
+		Comparator<MarkerItem> comparator = (o1, o2) -> ((MockMarkerEntry) o1).name
+				.compareTo(((MockMarkerEntry) o2).name);
+		MarkerSortUtil.sortStartingKElement(entries, comparator, 0, entries.length - 1, entries.length, true,
+				new NullProgressMonitor());
+		Arrays.sort(expected, comparator);
+		assertArrayEquals(expected, entries);
+	}
+
 	private void sortToLimit(int arraySize,int limit) {
 		MockMarkerEntry[] fArray1=generateArray(arraySize);
 		MockMarkerEntry[] fArray2=fArray1.clone();
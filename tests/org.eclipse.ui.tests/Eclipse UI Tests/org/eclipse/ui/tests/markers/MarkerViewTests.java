@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,11 +14,25 @@
 
 package org.eclipse.ui.tests.markers;
 
+import java.util.Objects;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Adapters;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.widgets.TreeItem;
 import org.eclipse.ui.IPageLayout;
 import org.eclipse.ui.IWorkbenchPage;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PartInitException;
 import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.internal.views.markers.ExtendedMarkersView;
+import org.eclipse.ui.tests.harness.util.DisplayHelper;
+import org.eclipse.ui.tests.harness.util.FileUtil;
 import org.eclipse.ui.tests.harness.util.UITestCase;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -55,4 +69,72 @@ public class MarkerViewTests extends UITestCase {
 		}
 
 	}
+
+	@Test
+	public void testMarkerChangesAreShown() throws Exception {
+		IWorkbenchPage page = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
+		ExtendedMarkersView view = (ExtendedMarkersView) page.showView(IPageLayout.ID_PROBLEM_VIEW);
+		IProject project = FileUtil.createProject("MarkerViewTests");
+		try {
+			IFile file = FileUtil.createFile("file.txt", project);
+			IMarker marker = file.createMarker(IMarker.PROBLEM);
+			marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
+			marker.setAttribute(IMarker.MESSAGE, "first");
+			assertTrue(waitForLabel(view, marker, "first"));
+
+			// added
+			IMarker other = file.createMarker(IMarker.PROBLEM);
+			other.setAttribute(IMarker.MESSAGE, "other");
+			assertTrue(waitForLabel(view, other, "other"));
+			assertEquals("first", getLabel(view, marker));
+
+			// changed
+			marker.setAttribute(IMarker.MESSAGE, "changed");
+			assertTrue(waitForLabel(view, marker, "changed"));
+			assertEquals("other", getLabel(view, other));
+
+			// removed
+			marker.delete();
+			assertTrue(waitForLabel(view, marker, null));
+			assertEquals("other", getLabel(view, other));
+		} finally {
+			FileUtil.deleteProject(project);
+		}
+	}
+
+	/**
+	 * Waits until the description of the marker is shown as expected, or the
+	 * marker is not shown if it is <code>null</code>.
+	 */
+	private boolean waitForLabel(ExtendedMarkersView view, IMarker marker, String expected) throws CoreException {
+		// the view updates quickly after a build
+		ResourcesPlugin.getWorkspace().build(IncrementalProjectBuilder.INCREMENTAL_BUILD, null);
+		return DisplayHelper.waitForCondition(view.getSite().getShell().getDisplay(), 60000,
+				() -> Objects.equals(expected, getLabel(view, marker)));
+	}
+
+	/**
+	 * @return the description shown for the marker, or <code>null</code> if it
+	 *         is not shown
+	 */
+	private static String getLabel(ExtendedMarkersView view, IMarker marker) {
+		TreeViewer viewer = (TreeViewer) view.getSite().getSelectionProvider();
+		viewer.expandAll();
+		return findLabel(viewer.getTree().getItems(), marker);
+	}
+
+	private static String findLabel(TreeItem[] items, IMarker marker) {
+		for (TreeItem item : items) {
+			Object data = item.getData();
+			if (data != null && marker.equals(Adapters.adapt(data, IMarker.class))) {
+				// the first column is the description
+				return item.getText(0);
+			}
+			String label = findLabel(item.getItems(), marker);
+			if (label != null) {
+				return label;
+			}
+		}
+		return null;
+	}
 }
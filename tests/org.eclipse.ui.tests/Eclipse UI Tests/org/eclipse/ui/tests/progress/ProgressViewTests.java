@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2009, 2019 IBM Corporation and others.
+ * Copyright (c) 2009, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -197,6 +197,27 @@ public class ProgressViewTests extends ProgressTestCase {
 		}
 	}
 
+	@Test
+	public void testRescheduledJobIsRemoved() throws Exception {
+		openProgressView();
+		DummyJob job = new DummyJob("Rescheduled Job", Status.OK_STATUS);
+		job.shouldFinish = false;
+		job.schedule();
+		processEventsUntil(() -> countJobs(job) == 1, TimeUnit.SECONDS.toMillis(5));
+		assertEquals(1, countJobs(job));
+
+		// end the shown run and run the job once more without processing events,
+		// so the viewer gets the removal of both runs and the addition of the
+		// second one in a single update
+		job.shouldFinish = true;
+		job.join();
+		job.schedule();
+		job.join();
+
+		processEventsUntil(() -> countJobs(job) == 0, TimeUnit.SECONDS.toMillis(5));
+		assertEquals("the first run is still shown", 0, countJobs(job));
+	}
+
 	private int countJobs(Job job) {
 		int count = 0;
 		ProgressInfoItem[] progressInfoItems = progressView.getViewer().getProgressInfoItems();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2019 IBM Corporation and others.
+ * Copyright (c) 2007, 2024 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,6 +19,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.core.expressions.EvaluationResult;
@@ -31,6 +32,8 @@ import org.eclipse.core.expressions.WithExpression;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtensionRegistry;
 import org.eclipse.core.runtime.Platform;
+import org.eclipse.e4.core.services.events.IEventBroker;
+import org.eclipse.e4.ui.workbench.UIEvents;
 import org.eclipse.jface.text.TextSelection;
 import org.eclipse.jface.util.IPropertyChangeListener;
 import org.eclipse.jface.util.PropertyChangeEvent;
@@ -65,6 +68,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 import org.junit.runners.MethodSorters;
+import org.osgi.service.event.EventHandler;
 
 /**
  * @since 3.3
@@ -452,6 +456,44 @@ public class EvaluationServiceTest extends UITestCase {
 		assertEquals(3, listener.count);
 	}
 
+	@Test
+	public void testEnablementUpdatesAreCoalesced() throws Exception {
+		IWorkbenchWindow window = openTestWindow();
+		IEvaluationService service = window.getService(IEvaluationService.class);
+		IEventBroker eventBroker = window.getService(IEventBroker.class);
+		ISourceProviderService sps = window.getService(ISourceProviderService.class);
+		ActiveUserSourceProvider userProvider = (ActiveUserSourceProvider) sps.getSourceProvider("username");
+
+		MyEval listener = new MyEval();
+		IEvaluationReference ref = service.addEvaluationListener(new UserExpression("Paul"), listener,
+				IEvaluationService.RESULT);
+		// the results the evaluation listener had when the updates were requested
+		List<Integer> updates = new ArrayList<>();
+		EventHandler handler = event -> updates.add(Integer.valueOf(listener.count));
+		try {
+			processEvents();
+			eventBroker.subscribe(UIEvents.REQUEST_ENABLEMENT_UPDATE_TOPIC, handler);
+
+			userProvider.setUsername("John");
+			userProvider.setUsername("Paul");
+			userProvider.setUsername("Ringo");
+			assertEquals(3, listener.count);
+			assertTrue("enablement update requested synchronously", updates.isEmpty());
+
+			processEvents();
+			assertEquals(List.of(Integer.valueOf(3)), updates);
+
+			// a change after the update was sent requests another one
+			userProvider.setUsername("Paul");
+			processEvents();
+			assertEquals(List.of(Integer.valueOf(3), Integer.valueOf(4)), updates);
+		} finally {
+			eventBroker.unsubscribe(handler);
+			service.removeEvaluationListener(ref);
+			userProvider.setUsername("guest");
+		}
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	public void testSourceProviderPriority() throws Exception {
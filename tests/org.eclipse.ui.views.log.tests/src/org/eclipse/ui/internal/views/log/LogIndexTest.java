@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.views.log;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.core.runtime.IStatus;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link LogIndex}.
+ */
+public class LogIndexTest {
+
+	static final String SESSION_1 = "!SESSION 2024-01-01 10:00:00.000 -----------------------------------------------\n"
+			+ "eclipse.buildId=1\n";
+	static final String SESSION_2 = "!SESSION 2024-01-02 10:00:00.000 -----------------------------------------------\n"
+			+ "eclipse.buildId=2\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File file;
+
+	static String entry(String pluginId, int severity, String message) {
+		return "\n!ENTRY " + pluginId + " " + severity + " 0 2024-01-01 10:00:01.000\n!MESSAGE " + message + "\n";
+	}
+
+	static void write(File file, String text) throws IOException {
+		Files.writeString(file.toPath(), text, StandardCharsets.UTF_8);
+	}
+
+	static void append(File file, String text) throws IOException {
+		Files.writeString(file.toPath(), text, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		file = folder.newFile(".log");
+	}
+
+	private static String read(LogIndex index, int... records) throws IOException {
+		try (InputStream stream = index.openRecords(records)) {
+			return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	@Test
+	public void testSessionsAndEntries() throws IOException {
+		String first = entry("org.example.a", IStatus.ERROR, "first");
+		String second = entry("org.example.b", IStatus.WARNING, "second");
+		write(file, SESSION_1 + first + second);
+		LogIndex index = new LogIndex(file);
+
+		assertTrue(index.update());
+		assertEquals(3, index.size());
+		assertEquals(LogIndex.SESSION, index.getKind(0));
+		assertEquals(SESSION_1.substring(0, SESSION_1.indexOf('\n')), index.getSessionLine(0));
+		assertNull(index.getPluginId(0));
+		assertEquals(LogIndex.ENTRY, index.getKind(1));
+		assertEquals("org.example.a", index.getPluginId(1));
+		assertEquals(IStatus.ERROR, index.getSeverity(1));
+		assertEquals(IStatus.WARNING, index.getSeverity(2));
+		assertEquals(second.substring(1), read(index, 2));
+		assertEquals(first.substring(1) + "\n" + second.substring(1), read(index, 1, 2));
+
+		assertFalse("nothing was appended", index.update());
+	}
+
+	@Test
+	public void testPartialLastLine() throws IOException {
+		String first = entry("org.example.a", IStatus.ERROR, "first");
+		write(file, SESSION_1 + first + "\n!ENTRY org.example.b 2 0 2024-01-01");
+		LogIndex index = new LogIndex(file);
+
+		index.update();
+		// the header which is still being written is not indexed yet
+		assertEquals(2, index.size());
+
+		append(file, " 10:00:02.000\n!MESSAGE second\n");
+		assertTrue(index.update());
+		assertEquals(3, index.size());
+		assertEquals("org.example.b", index.getPluginId(2));
+		assertEquals(IStatus.WARNING, index.getSeverity(2));
+		assertEquals("!ENTRY org.example.b 2 0 2024-01-01 10:00:02.000\n!MESSAGE second\n", read(index, 2));
+	}
+
+	@Test
+	public void testAppendedEntries() throws IOException {
+		write(file, SESSION_1 + entry("org.example.a", IStatus.ERROR, "first"));
+		LogIndex index = new LogIndex(file);
+		index.update();
+		long offset = index.getOffset(1);
+
+		append(file, entry("org.example.b", IStatus.INFO, "second"));
+		assertTrue(index.update());
+		assertEquals(3, index.size());
+		assertEquals(offset, index.getOffset(1));
+		assertEquals("org.example.b", index.getPluginId(2));
+	}
+
+	@Test
+	public void testTruncatedFile() throws IOException {
+		write(file, SESSION_1 + entry("org.example.a", IStatus.ERROR, "first")
+				+ entry("org.example.b", IStatus.ERROR, "second"));
+		LogIndex index = new LogIndex(file);
+		index.update();
+		assertEquals(3, index.size());
+
+		write(file, SESSION_1);
+		assertTrue(index.update());
+		assertEquals(1, index.size());
+		assertEquals(LogIndex.SESSION, index.getKind(0));
+		assertEquals(SESSION_1.length(), index.getLength());
+	}
+
+	@Test
+	public void testRotatedLog() throws IOException {
+		write(file, SESSION_1 + entry("org.example.a", IStatus.ERROR, "first"));
+		LogIndex index = new LogIndex(file);
+		index.update();
+		long modified = file.lastModified();
+
+		// the new log is already longer than the old one and may have the same time stamp
+		String entry = entry("org.example.b", IStatus.WARNING, "second");
+		write(file, SESSION_2 + entry + entry("org.example.c", IStatus.WARNING, "third"));
+		file.setLastModified(modified);
+		assertTrue(index.update());
+		assertEquals(3, index.size());
+		assertEquals(SESSION_2.substring(0, SESSION_2.indexOf('\n')), index.getSessionLine(0));
+		assertEquals("org.example.b", index.getPluginId(1));
+		assertEquals(SESSION_2.length() + 1, index.getOffset(1));
+		assertEquals(entry.substring(1) + "\n", read(index, 1));
+	}
+
+	@Test
+	public void testTail() throws IOException {
+		String first = entry("org.example.a", IStatus.ERROR, "first");
+		String second = entry("org.example.b", IStatus.ERROR, "second");
+		write(file, SESSION_1 + first + second);
+		long secondOffset = SESSION_1.length() + first.length() + 1;
+		// the tail starts with the line of the second entry
+		long tailLength = file.length() - secondOffset + 1;
+
+		LogIndex shorterTail = new LogIndex(file);
+		assertTrue(shorterTail.update(tailLength - 1));
+		assertEquals(0, shorterTail.size());
+
+		LogIndex index = new LogIndex(file);
+		assertTrue(index.update(tailLength));
+		assertEquals(1, index.size());
+		assertEquals(secondOffset, index.getOffset(0));
+		assertEquals("org.example.b", index.getPluginId(0));
+		assertEquals(second.substring(1), read(index, 0));
+
+		append(file, entry("org.example.c", IStatus.ERROR, "third"));
+		assertTrue(index.update(tailLength));
+		assertEquals(2, index.size());
+		assertEquals("org.example.c", index.getPluginId(1));
+
+		// a longer tail is scanned again
+		assertTrue(index.update());
+		assertEquals(4, index.size());
+		assertEquals(LogIndex.SESSION, index.getKind(0));
+		assertEquals("org.example.a", index.getPluginId(1));
+	}
+
+	@Test
+	public void testFirstRecord() throws IOException {
+		write(file, SESSION_1 + entry("org.example.a", IStatus.ERROR, "first")
+				+ entry("org.example.b", IStatus.ERROR, "second"));
+		LogIndex index = new LogIndex(file);
+		index.update();
+
+		assertEquals(0, index.getFirstRecord(0));
+		assertEquals(1, index.getFirstRecord(1));
+		assertEquals(1, index.getFirstRecord(index.getOffset(1)));
+		assertEquals(2, index.getFirstRecord(index.getOffset(1) + 1));
+		assertEquals(3, index.getFirstRecord(index.getLength()));
+	}
+}
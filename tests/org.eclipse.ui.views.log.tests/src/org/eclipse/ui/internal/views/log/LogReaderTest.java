@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.views.log;
+
+import static org.eclipse.ui.internal.views.log.LogIndexTest.SESSION_1;
+import static org.eclipse.ui.internal.views.log.LogIndexTest.SESSION_2;
+import static org.eclipse.ui.internal.views.log.LogIndexTest.append;
+import static org.eclipse.ui.internal.views.log.LogIndexTest.entry;
+import static org.eclipse.ui.internal.views.log.LogIndexTest.write;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.ui.IMemento;
+import org.eclipse.ui.XMLMemento;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link LogReader} reading through a {@link LogIndex} which is kept
+ * while the log changes.
+ */
+public class LogReaderTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File file;
+
+	private LogIndex index;
+
+	private IMemento memento;
+
+	@Before
+	public void setUp() throws IOException {
+		file = folder.newFile(".log");
+		index = new LogIndex(file);
+		memento = XMLMemento.createWriteRoot("logView");
+		memento.putString(LogView.P_LOG_OK, "true");
+		memento.putString(LogView.P_LOG_INFO, "true");
+		memento.putString(LogView.P_LOG_WARNING, "true");
+		memento.putString(LogView.P_LOG_ERROR, "true");
+		memento.putString(LogView.P_USE_LIMIT, "false");
+		memento.putString(LogView.P_SHOW_ALL_SESSIONS, "false");
+	}
+
+	private List<String> readMessages() {
+		List<LogEntry> entries = new ArrayList<>();
+		LogReader.parseLogFile(index, 1, entries, memento);
+		return entries.stream().map(LogEntry::getMessage).collect(Collectors.toList());
+	}
+
+	@Test
+	public void testPartialLastLine() throws IOException {
+		write(file, SESSION_1 + entry("org.example.a", IStatus.ERROR, "first") + "\n!ENTRY org.example.b 4 0");
+		assertEquals(List.of("first"), readMessages());
+
+		// a complete header is shown with what was written of its message so far
+		append(file, " 2024-01-01 10:00:02.000\n!MESSAGE sec");
+		assertEquals(List.of("first", "sec"), readMessages());
+
+		append(file, "ond\n");
+		assertEquals(List.of("first", "second"), readMessages());
+	}
+
+	@Test
+	public void testTruncatedFile() throws IOException {
+		write(file, SESSION_1 + entry("org.example.a", IStatus.ERROR, "first")
+				+ entry("org.example.b", IStatus.ERROR, "second"));
+		assertEquals(List.of("first", "second"), readMessages());
+
+		write(file, SESSION_1 + entry("org.example.c", IStatus.ERROR, "third"));
+		assertEquals(List.of("third"), readMessages());
+	}
+
+	@Test
+	public void testRotatedLog() throws IOException {
+		write(file, SESSION_1 + entry("org.example.a", IStatus.ERROR, "first"));
+		assertEquals(List.of("first"), readMessages());
+		long modified = file.lastModified();
+
+		write(file, SESSION_2 + entry("org.example.b", IStatus.ERROR, "second")
+				+ entry("org.example.c", IStatus.ERROR, "third"));
+		file.setLastModified(modified);
+		assertEquals(List.of("second", "third"), readMessages());
+	}
+
+	@Test
+	public void testFilters() throws IOException {
+		write(file, SESSION_1 + entry("org.example.a", IStatus.ERROR, "old") + SESSION_2
+				+ entry("org.example.b", IStatus.ERROR, "first") + entry("org.example.c", IStatus.INFO, "second")
+				+ entry("org.example.d", IStatus.WARNING, "third"));
+		assertEquals(List.of("first", "second", "third"), readMessages());
+
+		memento.putString(LogView.P_LOG_INFO, "false");
+		assertEquals(List.of("first", "third"), readMessages());
+
+		memento.putString(LogView.P_USE_LIMIT, "true");
+		memento.putInteger(LogView.P_LOG_LIMIT, 1);
+		assertEquals(List.of("third"), readMessages());
+
+		memento.putString(LogView.P_SHOW_ALL_SESSIONS, "true");
+		memento.putInteger(LogView.P_LOG_LIMIT, 10);
+		assertEquals(List.of("old", "first", "third"), readMessages());
+	}
+}
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.views.log;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.PartInitException;
+import org.eclipse.ui.PlatformUI;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the entries logged while the {@link LogView} is visible are
+ * pushed to it in batches, also if the view is closed while a batch is
+ * pending.
+ */
+public class LogViewBatchTest {
+
+	private static final String VIEW_ID = "org.eclipse.pde.runtime.LogView";
+
+	private IWorkbenchPage page;
+
+	private LogView view;
+
+	private final LogSession session = new LogSession();
+
+	/** The results of the batch jobs which finished since the test started. */
+	private final List<IStatus> batchResults = new ArrayList<>();
+
+	private final JobChangeAdapter batchListener = new JobChangeAdapter() {
+		@Override
+		public void done(IJobChangeEvent event) {
+			if (isBatchJob(event.getJob())) {
+				synchronized (batchResults) {
+					batchResults.add(event.getResult());
+				}
+			}
+		}
+	};
+
+	@Before
+	public void setUp() throws PartInitException, InterruptedException {
+		page = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
+		view = (LogView) page.showView(VIEW_ID);
+		// the log file is read when the view opens, which replaces the entries shown
+		Display display = Display.getCurrent();
+		long end = System.currentTimeMillis() + 10000;
+		while (Messages.LogView_readLog_loading.equals(view.getContentDescription())
+				&& System.currentTimeMillis() < end) {
+			if (!display.readAndDispatch()) {
+				Thread.sleep(10);
+			}
+		}
+		Job.getJobManager().addJobChangeListener(batchListener);
+	}
+
+	@After
+	public void tearDown() {
+		Job.getJobManager().removeJobChangeListener(batchListener);
+		if (page.findView(VIEW_ID) != null) {
+			page.hideView(view);
+		}
+	}
+
+	private static boolean isBatchJob(Job job) {
+		return Messages.LogView_AddingBatchedEvents.equals(job.getName());
+	}
+
+	private LogEntry createEntry(String message) {
+		return new LogEntry(new Status(IStatus.ERROR, Activator.PLUGIN_ID, getClass().getSimpleName() + message),
+				session);
+	}
+
+	/**
+	 * Waits until the given number of batch jobs finished since the test
+	 * started and returns their results.
+	 */
+	private List<IStatus> waitForBatches(int count) throws InterruptedException {
+		Display display = Display.getCurrent();
+		long end = System.currentTimeMillis() + 10000;
+		while (getBatchResults().size() < count && System.currentTimeMillis() < end) {
+			if (!display.readAndDispatch()) {
+				Thread.sleep(10);
+			}
+		}
+		while (display.readAndDispatch()) {
+			// run the refresh of the viewer
+		}
+		return getBatchResults();
+	}
+
+	private List<IStatus> getBatchResults() {
+		synchronized (batchResults) {
+			return new ArrayList<>(batchResults);
+		}
+	}
+
+	private List<String> getShownMessages() {
+		List<String> messages = new ArrayList<>();
+		collectMessages(view.getElements(), messages);
+		return messages;
+	}
+
+	private void collectMessages(AbstractEntry[] entries, List<String> messages) {
+		for (AbstractEntry entry : entries) {
+			if (entry instanceof LogEntry logEntry && logEntry.getMessage().startsWith(getClass().getSimpleName())) {
+				messages.add(logEntry.getMessage().substring(getClass().getSimpleName().length()));
+			}
+			collectMessages(entry.getChildren(entry), messages);
+		}
+	}
+
+	@Test
+	public void testEntriesLoggedInABurstArePushedOnce() throws InterruptedException {
+		view.batchEntry(createEntry("first"));
+		view.batchEntry(createEntry("second"));
+		view.batchEntry(createEntry("third"));
+
+		assertEquals(List.of(Status.OK_STATUS), waitForBatches(1));
+		List<String> messages = getShownMessages();
+		assertTrue(messages.toString(), messages.containsAll(List.of("first", "second", "third")));
+
+		view.batchEntry(createEntry("fourth"));
+		assertEquals(List.of(Status.OK_STATUS, Status.OK_STATUS), waitForBatches(2));
+		assertTrue(getShownMessages().contains("fourth"));
+	}
+
+	@Test
+	public void testViewClosedWhileBatchIsPending() throws InterruptedException {
+		view.batchEntry(createEntry("pending"));
+		page.hideView(view);
+
+		// the pending batch was canceled with the view
+		assertEquals(List.of(Status.CANCEL_STATUS), waitForBatches(1));
+		Thread.sleep(200);
+		assertEquals("the batch ran after the view was closed", 1, waitForBatches(1).size());
+		assertFalse(getShownMessages().contains("pending"));
+	}
+}
@@ -0,0 +1,28 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.internal.views.log;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+/**
+ * Test suite for {@code org.eclipse.ui.views.log} plug-in.
+ */
+@RunWith(Suite.class)
+@Suite.SuiteClasses({
+	LogIndexTest.class,
+	LogReaderTest.class,
+	LogViewBatchTest.class})
+public class LogViewTestSuite {
+}